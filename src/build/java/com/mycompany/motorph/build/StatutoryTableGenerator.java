@@ -0,0 +1,202 @@
+package com.mycompany.motorph.build;
+
+import com.mycompany.motorph.SssRangeParser;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Build step that turns the statutory spreadsheets into Java source, so the
+ * application reads no workbook at runtime. Run by Maven in the
+ * generate-sources phase (see pom.xml) with the project classpath:
+ *
+ * {@code java -cp <classpath> StatutoryTableGenerator.java <SSS workbook> <holiday CSV> <output directory>}
+ *
+ * The SSS workbook is read exactly as {@code SssTable.load} reads it: the
+ * first sheet, header row skipped, compensation range in column A and the
+ * contribution in column D. Ranges are parsed with {@link SssRangeParser},
+ * the parser {@code SssTable.load} uses, which the build compiles into the
+ * output directory first so it is on this program's classpath. The holiday
+ * CSV has a header and rows of {@code yyyy-MM-dd,REGULAR|SPECIAL,name}.
+ * Invalid rows fail the build.
+ * The output file is only rewritten when its content changes.
+ */
+public class StatutoryTableGenerator {
+    static final String PACKAGE = "com.mycompany.motorph";
+    static final String CLASS_NAME = "StatutoryTables";
+
+    record SssRow(String range, double start, double end, double contribution) {
+    }
+
+    record Holiday(LocalDate date, boolean regular, String name) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: StatutoryTableGenerator <SSS workbook> <holiday CSV> <output directory>");
+            System.exit(2);
+        }
+        Path sssFile = Path.of(args[0]);
+        Path holidayFile = Path.of(args[1]);
+        Path output = Path.of(args[2]).resolve(PACKAGE.replace('.', '/')).resolve(CLASS_NAME + ".java");
+
+        String source = render(readSss(sssFile), readHolidays(holidayFile),
+            sssFile.getFileName().toString(), holidayFile.getFileName().toString());
+        if (Files.exists(output) && Files.readString(output, StandardCharsets.UTF_8).equals(source)) {
+            System.out.println(output + " is up to date");
+            return;
+        }
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, source, StandardCharsets.UTF_8);
+        System.out.println("Generated " + output);
+    }
+
+    static List<SssRow> readSss(Path file) throws IOException {
+        List<SssRow> rows = new ArrayList<>();
+        try (InputStream in = Files.newInputStream(file);
+             Workbook workbook = new XSSFWorkbook(in)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            for (int rowIndex = 1; rowIndex <= sheet.getLastRowNum(); rowIndex++) {
+                Row row = sheet.getRow(rowIndex);
+                if (row == null) {
+                    continue;
+                }
+                String range = cellText(row.getCell(0));
+                double contribution = cellNumber(row.getCell(3));
+                if (range.isEmpty()) {
+                    throw new IllegalArgumentException(file + " row " + (rowIndex + 1) + ": empty compensation range");
+                }
+                if (contribution < 0) {
+                    throw new IllegalArgumentException(file + " row " + (rowIndex + 1) + ": negative contribution");
+                }
+                double[] bounds;
+                try {
+                    bounds = SssRangeParser.parse(range);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(file + " row " + (rowIndex + 1) + ": " + e.getMessage(), e);
+                }
+                rows.add(new SssRow(range, bounds[0], bounds[1], contribution));
+            }
+        }
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException(file + ": no SSS rows");
+        }
+        return rows;
+    }
+
+    private static String cellText(Cell cell) {
+        if (cell == null) {
+            return "";
+        }
+        return switch (cell.getCellType()) {
+            case STRING -> cell.getStringCellValue().trim();
+            case NUMERIC -> String.valueOf(cell.getNumericCellValue());
+            case BOOLEAN -> String.valueOf(cell.getBooleanCellValue());
+            case FORMULA -> cell.getCellFormula();
+            default -> "";
+        };
+    }
+
+    private static double cellNumber(Cell cell) {
+        if (cell == null) {
+            return 0.0;
+        }
+        return switch (cell.getCellType()) {
+            case NUMERIC -> cell.getNumericCellValue();
+            case STRING -> {
+                String value = cell.getStringCellValue().trim();
+                if (value.isEmpty() || value.equals("-")) {
+                    yield 0.0;
+                }
+                yield Double.parseDouble(value);
+            }
+            default -> 0.0;
+        };
+    }
+
+    static List<Holiday> readHolidays(Path file) throws IOException {
+        List<Holiday> holidays = new ArrayList<>();
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        for (int i = 1; i < lines.size(); i++) { // Skip the header
+            String line = lines.get(i).trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            String[] fields = line.split(",", 3);
+            if (fields.length != 3) {
+                throw new IllegalArgumentException(file + " line " + (i + 1) + ": expected date,type,name");
+            }
+            LocalDate date;
+            try {
+                date = LocalDate.parse(fields[0].trim());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException(file + " line " + (i + 1) + ": invalid date " + fields[0]);
+            }
+            String type = fields[1].trim();
+            if (!type.equals("REGULAR") && !type.equals("SPECIAL")) {
+                throw new IllegalArgumentException(file + " line " + (i + 1) + ": type must be REGULAR or SPECIAL");
+            }
+            holidays.add(new Holiday(date, type.equals("REGULAR"), fields[2].trim()));
+        }
+        return holidays;
+    }
+
+    static String render(List<SssRow> sss, List<Holiday> holidays, String sssSource, String holidaySource) {
+        StringBuilder out = new StringBuilder(8192);
+        out.append("package ").append(PACKAGE).append(";\n\n");
+        out.append("/**\n");
+        out.append(" * Statutory tables generated at build time from ").append(sssSource).append(" and ")
+            .append(holidaySource).append(".\n");
+        out.append(" * Do not edit: change the source files and rebuild.\n");
+        out.append(" */\n");
+        out.append("final class ").append(CLASS_NAME).append(" {\n");
+
+        out.append("    // SSS compensation ranges and monthly contributions, in spreadsheet order\n");
+        appendDoubles(out, "SSS_RANGE_START", sss, SssRow::start, true);
+        appendDoubles(out, "SSS_RANGE_END", sss, SssRow::end, false);
+        appendDoubles(out, "SSS_CONTRIBUTION", sss, SssRow::contribution, false);
+
+        out.append("\n    // Holidays as epoch days\n");
+        appendDays(out, "REGULAR_HOLIDAYS", holidays, true);
+        appendDays(out, "SPECIAL_NON_WORKING_DAYS", holidays, false);
+
+        out.append("\n    private ").append(CLASS_NAME).append("() {\n    }\n}\n");
+        return out.toString();
+    }
+
+    private static void appendDoubles(StringBuilder out, String name, List<SssRow> rows,
+                                      java.util.function.ToDoubleFunction<SssRow> value, boolean withRange) {
+        out.append("    static final double[] ").append(name).append(" = {\n");
+        for (SssRow row : rows) {
+            out.append("        ").append(value.applyAsDouble(row)).append(',');
+            if (withRange) {
+                out.append(" // ").append(row.range());
+            }
+            out.append('\n');
+        }
+        out.append("    };\n");
+    }
+
+    private static void appendDays(StringBuilder out, String name, List<Holiday> holidays, boolean regular) {
+        out.append("    static final int[] ").append(name).append(" = {\n");
+        for (Holiday holiday : holidays) {
+            if (holiday.regular() == regular) {
+                out.append("        ").append(holiday.date().toEpochDay()).append(", // ").append(holiday.date())
+                    .append(' ').append(holiday.name()).append('\n');
+            }
+        }
+        out.append("    };\n");
+    }
+}
@@ -0,0 +1,121 @@
+package com.mycompany.motorph;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Appends amounts to a {@link StringBuilder} without a shared
+ * {@link DecimalFormat} and without allocating for ordinary values, so any
+ * thread can format. Output matches {@code new DecimalFormat("#.##")} and
+ * {@code String.format("%.2f")} exactly: values within rounding noise of a
+ * half cent, very large values, non-finite values and locales with non-ASCII
+ * digits or separators fall back to those formatters.
+ */
+final class AmountText {
+    // Above this, value * 100 is too coarse to tell a half cent from rounding noise
+    private static final double FAST_LIMIT = 1e9;
+    private static final double TIE_WINDOW = 1e-4;
+    private static final boolean ASCII_SYMBOLS = asciiSymbols();
+
+    private AmountText() {
+    }
+
+    private static boolean asciiSymbols() {
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT));
+        return symbols.getDecimalSeparator() == '.' && symbols.getMinusSign() == '-' && symbols.getZeroDigit() == '0';
+    }
+
+    /**
+     * Appends the value as {@code new DecimalFormat("#.##")} formats it.
+     */
+    static void appendAmount(StringBuilder out, double value) {
+        long cents = fastCents(value);
+        if (cents < 0) {
+            out.append(new DecimalFormat("#.##").format(value));
+            return;
+        }
+        appendSign(out, value);
+        out.append(cents / 100);
+        int fraction = (int) (cents % 100);
+        if (fraction != 0) {
+            out.append('.').append((char) ('0' + fraction / 10));
+            if (fraction % 10 != 0) {
+                out.append((char) ('0' + fraction % 10));
+            }
+        }
+    }
+
+    /**
+     * Appends the value as {@code String.format("%.2f", value)} formats it.
+     */
+    static void appendFixed2(StringBuilder out, double value) {
+        long cents = fastCents(value);
+        if (cents < 0) {
+            out.append(String.format("%.2f", value));
+            return;
+        }
+        appendSign(out, value);
+        int fraction = (int) (cents % 100);
+        out.append(cents / 100).append('.').append((char) ('0' + fraction / 10)).append((char) ('0' + fraction % 10));
+    }
+
+    /**
+     * @return {@code DecimalFormat("#.##").format(value)} as a string
+     */
+    static String amount(double value) {
+        StringBuilder out = new StringBuilder(16);
+        appendAmount(out, value);
+        return out.toString();
+    }
+
+    /**
+     * Rounds to whole cents, half to even, as {@code DecimalFormat} rounds.
+     */
+    static double roundToCents(double value) {
+        long cents = fastCents(value);
+        if (cents < 0) {
+            return Double.isFinite(value) ? new BigDecimal(value).setScale(2, RoundingMode.HALF_EVEN).doubleValue() : value;
+        }
+        double rounded = cents / 100.0;
+        return value < 0 || (value == 0 && 1 / value < 0) ? -rounded : rounded;
+    }
+
+    /**
+     * Appends the value left-aligned in a field, as {@code %-<width>s} does.
+     */
+    static void appendPadded(StringBuilder out, String value, int width) {
+        int start = out.length();
+        out.append(value);
+        for (int i = out.length() - start; i < width; i++) {
+            out.append(' ');
+        }
+    }
+
+    /**
+     * @return |value| in whole cents when the fast path gives the exact
+     *         formatter result, otherwise -1
+     */
+    private static long fastCents(double value) {
+        double magnitude = Math.abs(value);
+        if (!ASCII_SYMBOLS || !(magnitude < FAST_LIMIT)) {
+            return -1; // Also NaN
+        }
+        double scaled = magnitude * 100;
+        double whole = Math.floor(scaled);
+        double fraction = scaled - whole;
+        if (Math.abs(fraction - 0.5) < TIE_WINDOW) {
+            return -1; // Rounding mode matters; let the formatter decide
+        }
+        return (long) whole + (fraction > 0.5 ? 1 : 0);
+    }
+
+    // Both formatters keep the sign of negative values that round to zero
+    private static void appendSign(StringBuilder out, double value) {
+        if (value < 0 || (value == 0 && 1 / value < 0)) {
+            out.append('-');
+        }
+    }
+}
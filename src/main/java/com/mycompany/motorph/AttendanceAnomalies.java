@@ -0,0 +1,424 @@
+package com.mycompany.motorph;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Detects suspicious attendance while it is parsed, in the same pass:
+ * missing punches, repeated or overlapping punches for one employee and
+ * day, time-outs before time-ins on day shifts, IDs missing from the
+ * employee data, and shifts longer than {@link #MAX_PLAUSIBLE_SHIFT_HOURS}.
+ * Split shifts, several rows of one day that do not overlap, are not
+ * anomalies; {@link Grosswage} merges them into one day.
+ *
+ * Each employee has a bitmap of the days seen so far. A row whose day is
+ * already set and is not the employee's latest day repeats an earlier day,
+ * e.g. a correction appended at the end of an export, and is reported.
+ * Rows of the latest day are compared by punch interval instead, so a split
+ * shift is not reported and a repeated or overlapping punch is. Memory holds
+ * the bitmaps, the latest day's intervals and a count per unknown ID, not
+ * the rows. A detector is not thread-safe; parallel ingestion gives each
+ * file its own {@link #newPart()}, which also remembers where each of its
+ * days starts, and merges the parts in file order.
+ */
+public class AttendanceAnomalies {
+    static final double MAX_PLAUSIBLE_SHIFT_HOURS = 16.0;
+
+    public enum Kind {
+        MISSING_PUNCH,
+        DUPLICATE_DAY,
+        TIME_OUT_BEFORE_TIME_IN,
+        UNKNOWN_EMPLOYEE,
+        LONG_SHIFT
+    }
+
+    public static final class Anomaly {
+        private final Kind kind;
+        private final String source;
+        private final int row;
+        private final String employeeId;
+        private final LocalDate date;
+        private final String detail;
+
+        Anomaly(Kind kind, String source, int row, String employeeId, LocalDate date, String detail) {
+            this.kind = kind;
+            this.source = source;
+            this.row = row;
+            this.employeeId = employeeId;
+            this.date = date;
+            this.detail = detail;
+        }
+
+        // Getters
+        public Kind getKind() { return kind; }
+        public String getSource() { return source; }
+        public int getRow() { return row; }
+        public String getEmployeeId() { return employeeId; }
+        public LocalDate getDate() { return date; }
+        public String getDetail() { return detail; }
+
+        @Override
+        public String toString() {
+            return kind + " " + source + " row " + row + ": employee " + employeeId
+                + (date == null ? "" : " on " + date) + (detail == null ? "" : " (" + detail + ")");
+        }
+    }
+
+    private record Location(String source, int row) {
+        @Override
+        public String toString() {
+            return source + " row " + row;
+        }
+    }
+
+    /**
+     * The epoch days seen for one employee, as bitmaps on either side of the
+     * first day seen.
+     */
+    private static final class DaySet {
+        private final long base;
+        private final BitSet fromBase = new BitSet(); // Bit i is day base + i
+        private final BitSet beforeBase = new BitSet(); // Bit i is day base - 1 - i
+
+        DaySet(long base) {
+            this.base = base;
+        }
+
+        boolean contains(long epochDay) {
+            return epochDay >= base ? fromBase.get((int) (epochDay - base)) : beforeBase.get((int) (base - 1 - epochDay));
+        }
+
+        void add(long epochDay) {
+            if (epochDay >= base) {
+                fromBase.set((int) (epochDay - base));
+            } else {
+                beforeBase.set((int) (base - 1 - epochDay));
+            }
+        }
+
+        void addAll(DaySet other) {
+            for (int i = other.fromBase.nextSetBit(0); i >= 0; i = other.fromBase.nextSetBit(i + 1)) {
+                add(other.base + i);
+            }
+            for (int i = other.beforeBase.nextSetBit(0); i >= 0; i = other.beforeBase.nextSetBit(i + 1)) {
+                add(other.base - 1 - i);
+            }
+        }
+    }
+
+    /**
+     * What the detector keeps for one employee: the days seen, the first and
+     * the latest run of rows on one day, and in a part the first row of each
+     * of its days, for {@link #merge}.
+     */
+    private static final class EmployeeDays {
+        private final DaySet seen;
+        private final Day first;
+        private Day last;
+        private long[] startDays = new long[0];
+        private Location[] starts = new Location[0];
+        private int startCount;
+
+        EmployeeDays(Day first) {
+            this.seen = new DaySet(first.epochDay);
+            this.first = first;
+            this.last = first;
+        }
+
+        void addStart(long epochDay, Location row) {
+            if (startCount == starts.length) {
+                startDays = Arrays.copyOf(startDays, Math.max(8, startCount * 2));
+                starts = Arrays.copyOf(starts, Math.max(8, startCount * 2));
+            }
+            startDays[startCount] = epochDay;
+            starts[startCount++] = row;
+        }
+    }
+
+    /**
+     * The packed punch intervals of one employee-day and the rows they came from.
+     */
+    private static final class Day {
+        private final long epochDay;
+        private long[] intervals = new long[2];
+        private Location[] rows = new Location[2];
+        private int size;
+
+        Day(long epochDay) {
+            this.epochDay = epochDay;
+        }
+
+        void add(long interval, Location row) {
+            if (size == intervals.length) {
+                intervals = Arrays.copyOf(intervals, size * 2);
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            intervals[size] = interval;
+            rows[size++] = row;
+        }
+
+        /**
+         * @return The row of the first of the first {@code limit} intervals
+         *         that repeats or overlaps the given one, or null
+         */
+        Location overlapping(long interval, int limit) {
+            int start = PunchIntervals.start(interval);
+            int end = PunchIntervals.end(interval);
+            for (int i = 0; i < limit; i++) {
+                if (intervals[i] == interval
+                        || (start < PunchIntervals.end(intervals[i]) && PunchIntervals.start(intervals[i]) < end)) {
+                    return rows[i];
+                }
+            }
+            return null;
+        }
+    }
+
+    // Night-shift flag by employee ID, or null when the employees are not known
+    private final Map<String, Boolean> nightShiftById;
+
+    private final List<Anomaly> anomalies = new ArrayList<>();
+    private final Map<Kind, Integer> counts = new EnumMap<>(Kind.class);
+    private final boolean part; // Created by newPart(), so it records where its days start
+    private final Map<String, EmployeeDays> days = new HashMap<>();
+    private final Map<String, Anomaly> unknownEmployees = new LinkedHashMap<>(); // First row per unknown ID
+    private final Map<String, Integer> unknownRows = new HashMap<>();
+
+    /**
+     * @param employees Employees the attendance must belong to, or null to skip the unknown-ID check
+     */
+    public AttendanceAnomalies(List<Employee> employees) {
+        this.part = false;
+        if (employees == null) {
+            this.nightShiftById = null;
+        } else {
+            this.nightShiftById = new HashMap<>(employees.size() * 2);
+            for (Employee employee : employees) {
+                nightShiftById.put(employee.getEmployeeNumber(), employee.isNightShift());
+            }
+        }
+    }
+
+    private AttendanceAnomalies(Map<String, Boolean> nightShiftById) {
+        this.nightShiftById = nightShiftById;
+        this.part = true;
+    }
+
+    /**
+     * @return An empty detector with the same employees, for one file of a parallel load
+     */
+    public AttendanceAnomalies newPart() {
+        return new AttendanceAnomalies(nightShiftById);
+    }
+
+    /**
+     * Records a row skipped because its date is valid but a punch is missing or unreadable.
+     */
+    void missingPunch(String source, int row, String employeeId, LocalDate date, boolean timeInMissing,
+                      boolean timeOutMissing) {
+        String missing = timeInMissing && timeOutMissing ? "no log in or log out"
+            : timeInMissing ? "no log in" : "no log out";
+        add(new Anomaly(Kind.MISSING_PUNCH, source, row, employeeId, date, missing));
+        checkEmployee(source, row, employeeId, date);
+    }
+
+    /**
+     * Checks one parsed record.
+     */
+    void record(String source, int row, AttendanceRecord record) {
+        String employeeId = record.getId();
+        LocalDate date = record.getDate();
+        LocalTime timeIn = record.getTimeIn();
+        LocalTime timeOut = record.getTimeOut();
+
+        long interval = PunchIntervals.pack(timeIn, timeOut);
+        long epochDay = date.toEpochDay();
+        Location location = new Location(source, row);
+        EmployeeDays employeeDays = days.get(employeeId);
+        if (employeeDays == null) {
+            employeeDays = new EmployeeDays(new Day(epochDay));
+            days.put(employeeId, employeeDays);
+            employeeDays.seen.add(epochDay);
+            if (part) {
+                employeeDays.addStart(epochDay, location);
+            }
+        } else if (employeeDays.last.epochDay == epochDay) {
+            // Another row of the same run: a split shift unless the punches repeat or overlap
+            Location previous = employeeDays.last.overlapping(interval, employeeDays.last.size);
+            if (previous != null) {
+                add(new Anomaly(Kind.DUPLICATE_DAY, source, row, employeeId, date, "overlaps " + previous));
+            }
+        } else {
+            if (employeeDays.seen.contains(epochDay)) {
+                add(new Anomaly(Kind.DUPLICATE_DAY, source, row, employeeId, date, "day already recorded earlier"));
+            } else {
+                employeeDays.seen.add(epochDay);
+                if (part) {
+                    employeeDays.addStart(epochDay, location);
+                }
+            }
+            employeeDays.last = new Day(epochDay);
+        }
+        employeeDays.last.add(interval, location);
+
+        boolean nightShift = nightShiftById != null && Boolean.TRUE.equals(nightShiftById.get(employeeId));
+        if (timeOut.isBefore(timeIn) && !nightShift) {
+            add(new Anomaly(Kind.TIME_OUT_BEFORE_TIME_IN, source, row, employeeId, date,
+                timeIn + " to " + timeOut + " counted as overnight"));
+        }
+
+        double hours = record.calculateHoursWorked();
+        if (hours > MAX_PLAUSIBLE_SHIFT_HOURS) {
+            add(new Anomaly(Kind.LONG_SHIFT, source, row, employeeId, date, String.format("%.2f hours", hours)));
+        }
+
+        checkEmployee(source, row, employeeId, date);
+    }
+
+    private void checkEmployee(String source, int row, String employeeId, LocalDate date) {
+        if (nightShiftById == null || nightShiftById.containsKey(employeeId)) {
+            return;
+        }
+        // Reported once per ID, with the number of rows
+        unknownRows.merge(employeeId, 1, Integer::sum);
+        unknownEmployees.putIfAbsent(employeeId,
+            new Anomaly(Kind.UNKNOWN_EMPLOYEE, source, row, employeeId, date, null));
+    }
+
+    private void add(Anomaly anomaly) {
+        anomalies.add(anomaly);
+        counts.merge(anomaly.getKind(), 1, Integer::sum);
+    }
+
+    /**
+     * Appends a part parsed after everything already merged. A part's first
+     * day that continues the day everything merged so far ended on is
+     * checked by punch interval; any other day of the part that was already
+     * recorded is reported at the part's first row of that day.
+     */
+    public void merge(AttendanceAnomalies part) {
+        if (!part.part) {
+            throw new IllegalArgumentException("Only a detector from newPart() can be merged");
+        }
+        for (Anomaly anomaly : part.anomalies) {
+            add(anomaly);
+        }
+        for (Map.Entry<String, EmployeeDays> entry : part.days.entrySet()) {
+            String employeeId = entry.getKey();
+            EmployeeDays theirs = entry.getValue();
+            EmployeeDays mine = days.get(employeeId);
+            if (mine == null) {
+                theirs.startDays = new long[0]; // Only needed while the part is merged
+                theirs.starts = new Location[0];
+                theirs.startCount = 0;
+                days.put(employeeId, theirs);
+                continue;
+            }
+            Day first = theirs.first;
+            boolean continuesLast = mine.last.epochDay == first.epochDay;
+            for (int i = continuesLast ? 1 : 0; i < theirs.startCount; i++) {
+                if (mine.seen.contains(theirs.startDays[i])) {
+                    Location start = theirs.starts[i];
+                    add(new Anomaly(Kind.DUPLICATE_DAY, start.source(), start.row(), employeeId,
+                        LocalDate.ofEpochDay(theirs.startDays[i]), "day already recorded earlier"));
+                }
+            }
+            if (continuesLast) {
+                int existing = mine.last.size;
+                for (int i = 0; i < first.size; i++) {
+                    Location previous = mine.last.overlapping(first.intervals[i], existing);
+                    if (previous != null) {
+                        add(new Anomaly(Kind.DUPLICATE_DAY, first.rows[i].source(), first.rows[i].row(), employeeId,
+                            LocalDate.ofEpochDay(first.epochDay), "overlaps " + previous));
+                    }
+                    mine.last.add(first.intervals[i], first.rows[i]);
+                }
+            }
+            mine.seen.addAll(theirs.seen);
+            if (theirs.last != first || !continuesLast) {
+                mine.last = theirs.last;
+            }
+        }
+        for (Map.Entry<String, Anomaly> entry : part.unknownEmployees.entrySet()) {
+            unknownEmployees.putIfAbsent(entry.getKey(), entry.getValue());
+            unknownRows.merge(entry.getKey(), part.unknownRows.get(entry.getKey()), Integer::sum);
+        }
+    }
+
+    /**
+     * @return Every anomaly, unknown IDs last with their row counts
+     */
+    public List<Anomaly> getAnomalies() {
+        List<Anomaly> all = new ArrayList<>(anomalies);
+        for (Anomaly first : unknownEmployees.values()) {
+            all.add(new Anomaly(Kind.UNKNOWN_EMPLOYEE, first.getSource(), first.getRow(), first.getEmployeeId(),
+                first.getDate(), unknownRows.get(first.getEmployeeId()) + " rows"));
+        }
+        return Collections.unmodifiableList(all);
+    }
+
+    public int getCount(Kind kind) {
+        return kind == Kind.UNKNOWN_EMPLOYEE ? unknownEmployees.size() : counts.getOrDefault(kind, 0);
+    }
+
+    public boolean isEmpty() {
+        return anomalies.isEmpty() && unknownEmployees.isEmpty();
+    }
+
+    /**
+     * Prints the count per kind and the first {@code limit} anomalies.
+     */
+    public void printReport(int limit) {
+        System.out.println("\nAttendance Anomalies:");
+        System.out.println("------------------------------------------");
+        for (Kind kind : Kind.values()) {
+            System.out.printf("%-25s: %d%n", kind, getCount(kind));
+        }
+        System.out.println("------------------------------------------");
+        List<Anomaly> all = getAnomalies();
+        for (int i = 0; i < all.size() && i < limit; i++) {
+            System.out.println(all.get(i));
+        }
+        if (all.size() > limit) {
+            System.out.println("... " + (all.size() - limit) + " more");
+        }
+    }
+
+    /**
+     * Writes every anomaly as CSV: kind,source,row,employee_id,date,detail.
+     */
+    public void writeTo(Path file) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("kind,source,row,employee_id,date,detail");
+            out.newLine();
+            for (Anomaly anomaly : getAnomalies()) {
+                out.write(anomaly.getKind().name());
+                out.write(',');
+                out.write(Csv.quote(anomaly.getSource()));
+                out.write(',');
+                out.write(String.valueOf(anomaly.getRow()));
+                out.write(',');
+                out.write(Csv.quote(anomaly.getEmployeeId()));
+                out.write(',');
+                out.write(anomaly.getDate() == null ? "" : anomaly.getDate().toString());
+                out.write(',');
+                out.write(Csv.quote(anomaly.getDetail()));
+                out.newLine();
+            }
+        }
+    }
+}
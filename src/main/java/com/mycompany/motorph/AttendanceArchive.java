@@ -0,0 +1,351 @@
+package com.mycompany.motorph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Cold tier of the attendance history: one compressed segment file per
+ * month, e.g. {@code attendance-2024-03.seg}, decoded only when a period of
+ * that month is requested. At most {@code maxDecodedSegments} months are
+ * kept decoded, least recently used first out.
+ *
+ * A segment holds the month's records grouped by employee, each group in
+ * load order. Every value is a variable-length integer: the day of month
+ * and the time-in as zigzag deltas from the employee's previous record,
+ * the time-out as a zigzag delta from the time-in, and the name as an index
+ * into the segment's name table. Consecutive records of an employee
+ * therefore take a few bytes each before the whole stream is deflated.
+ */
+public final class AttendanceArchive {
+    private static final int SEGMENT_MAGIC = 0x4D504841; // "MPHA"
+    private static final int SEGMENT_VERSION = 1;
+    private static final String PREFIX = "attendance-";
+    private static final String SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int maxDecodedSegments;
+    private final Set<YearMonth> months;
+    private final LinkedHashMap<YearMonth, Segment> decoded; // Access order, eldest evicted first
+    private long segmentLoads;
+    private long cacheHits;
+    private long evictions;
+
+    private AttendanceArchive(Path directory, int maxDecodedSegments, Set<YearMonth> months) {
+        this.directory = directory;
+        this.maxDecodedSegments = maxDecodedSegments;
+        this.months = months;
+        this.decoded = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<YearMonth, Segment> eldest) {
+                if (size() > AttendanceArchive.this.maxDecodedSegments) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Opens the archive in a directory, creating the directory if needed.
+     * Only the file names are read; segments are decoded on first use.
+     * @param maxDecodedSegments Months kept decoded in memory at once
+     * @throws IOException If the directory cannot be created or listed
+     */
+    public static AttendanceArchive open(Path directory, int maxDecodedSegments) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("Archive directory cannot be null");
+        }
+        if (maxDecodedSegments < 1) {
+            throw new IllegalArgumentException("At least one decoded segment must be allowed");
+        }
+        Files.createDirectories(directory);
+        Set<YearMonth> months = new TreeSet<>();
+        try (Stream<Path> listing = Files.list(directory)) {
+            listing.forEach(file -> {
+                YearMonth month = monthOf(file.getFileName().toString());
+                if (month != null) {
+                    months.add(month);
+                }
+            });
+        }
+        return new AttendanceArchive(directory, maxDecodedSegments, months);
+    }
+
+    private static YearMonth monthOf(String fileName) {
+        if (!fileName.startsWith(PREFIX) || !fileName.endsWith(SUFFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(fileName.substring(PREFIX.length(), fileName.length() - SUFFIX.length()));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private Path segmentFile(YearMonth month) {
+        return directory.resolve(PREFIX + month + SUFFIX);
+    }
+
+    /**
+     * Moves the records dated before {@code hotFrom} into their month
+     * segments. The loaded rows are authoritative: each cold month present
+     * in {@code records} is rewritten from exactly that month's rows,
+     * repeated rows included, as the hot tier would keep them. Segments of
+     * months absent from {@code records} are left as they are.
+     * @return The records from {@code hotFrom} on, in their original order
+     * @throws IOException If a segment cannot be written
+     */
+    public synchronized List<AttendanceRecord> archive(List<AttendanceRecord> records, YearMonth hotFrom)
+            throws IOException {
+        if (records == null || hotFrom == null) {
+            throw new IllegalArgumentException("Records and hot window start cannot be null");
+        }
+        ArrayList<AttendanceRecord> hot = new ArrayList<>();
+        Map<YearMonth, List<AttendanceRecord>> cold = new TreeMap<>();
+        for (AttendanceRecord record : records) {
+            YearMonth month = record.getDate() == null ? null : YearMonth.from(record.getDate());
+            if (month == null || !month.isBefore(hotFrom)) {
+                hot.add(record);
+            } else {
+                cold.computeIfAbsent(month, m -> new ArrayList<>()).add(record);
+            }
+        }
+
+        for (Map.Entry<YearMonth, List<AttendanceRecord>> entry : cold.entrySet()) {
+            YearMonth month = entry.getKey();
+            writeSegment(segmentFile(month), month, entry.getValue());
+            months.add(month);
+            decoded.remove(month);
+        }
+        return hot;
+    }
+
+    /**
+     * @return true if the month has a segment
+     */
+    public synchronized boolean contains(YearMonth month) {
+        return months.contains(month);
+    }
+
+    /**
+     * @return One employee's archived records of a month, in load order; empty if none
+     * @throws IllegalStateException If the month's segment cannot be read
+     */
+    public List<AttendanceRecord> attendanceFor(String employeeId, YearMonth month) {
+        Segment segment = segment(month);
+        if (segment == null) {
+            return Collections.emptyList();
+        }
+        List<AttendanceRecord> records = segment.byEmployee.get(employeeId);
+        return records == null ? Collections.emptyList() : records;
+    }
+
+    /**
+     * @return Every archived record of a month, grouped by employee; empty if none
+     * @throws IllegalStateException If the month's segment cannot be read
+     */
+    public List<AttendanceRecord> recordsOf(YearMonth month) {
+        Segment segment = segment(month);
+        if (segment == null) {
+            return Collections.emptyList();
+        }
+        List<AttendanceRecord> records = new ArrayList<>(segment.size);
+        for (List<AttendanceRecord> employeeRecords : segment.byEmployee.values()) {
+            records.addAll(employeeRecords);
+        }
+        return records;
+    }
+
+    private synchronized Segment segment(YearMonth month) {
+        if (!months.contains(month)) {
+            return null;
+        }
+        Segment segment = decoded.get(month);
+        if (segment != null) {
+            cacheHits++;
+            return segment;
+        }
+        try {
+            segment = readSegment(segmentFile(month));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read attendance segment for " + month + ": " + e.getMessage(), e);
+        }
+        segmentLoads++;
+        decoded.put(month, segment);
+        return segment;
+    }
+
+    /**
+     * One decoded month.
+     */
+    private static final class Segment {
+        private final Map<String, List<AttendanceRecord>> byEmployee;
+        private final int size;
+
+        Segment(Map<String, List<AttendanceRecord>> byEmployee, int size) {
+            this.byEmployee = byEmployee;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Writes a month's records to a segment, replacing it atomically.
+     */
+    static void writeSegment(Path file, YearMonth month, List<AttendanceRecord> records) throws IOException {
+        Map<String, List<AttendanceRecord>> byEmployee = new LinkedHashMap<>();
+        Map<String, Integer> nameIds = new LinkedHashMap<>();
+        for (AttendanceRecord record : records) {
+            if (!YearMonth.from(record.getDate()).equals(month)) {
+                throw new IllegalArgumentException("Record dated " + record.getDate() + " is not in " + month);
+            }
+            byEmployee.computeIfAbsent(record.getId(), id -> new ArrayList<>()).add(record);
+            nameIds.putIfAbsent(record.getName() == null ? "" : record.getName(), nameIds.size());
+        }
+
+        Path partial = file.resolveSibling(file.getFileName() + ".tmp");
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (OutputStream fileOut = Files.newOutputStream(partial);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                 new DeflaterOutputStream(fileOut, deflater), 1 << 16))) {
+            out.writeInt(SEGMENT_MAGIC);
+            out.writeByte(SEGMENT_VERSION);
+            out.writeShort(month.getYear());
+            out.writeByte(month.getMonthValue());
+            writeVarInt(out, nameIds.size());
+            for (String name : nameIds.keySet()) {
+                out.writeUTF(name);
+            }
+            writeVarInt(out, byEmployee.size());
+            for (Map.Entry<String, List<AttendanceRecord>> entry : byEmployee.entrySet()) {
+                out.writeUTF(entry.getKey());
+                writeVarInt(out, entry.getValue().size());
+                int previousDay = 0;
+                int previousIn = 0;
+                for (AttendanceRecord record : entry.getValue()) {
+                    int day = record.getDate().getDayOfMonth();
+                    int timeIn = timeCode(record.getTimeIn());
+                    int timeOut = timeCode(record.getTimeOut());
+                    writeVarInt(out, zigzag(day - previousDay));
+                    writeVarInt(out, nameIds.get(record.getName() == null ? "" : record.getName()));
+                    writeVarInt(out, zigzag(timeIn - previousIn));
+                    writeVarInt(out, zigzag(timeOut - timeIn));
+                    previousDay = day;
+                    previousIn = timeIn;
+                }
+            }
+        } finally {
+            deflater.end();
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static Segment readSegment(Path file) throws IOException {
+        try (InputStream fileIn = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(
+                 new InflaterInputStream(fileIn), 1 << 16))) {
+            if (in.readInt() != SEGMENT_MAGIC || in.readByte() != SEGMENT_VERSION) {
+                throw new IOException(file + " is not an attendance segment");
+            }
+            int year = in.readShort();
+            int month = in.readByte();
+            String[] names = new String[readVarInt(in)];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = in.readUTF();
+            }
+            int employees = readVarInt(in);
+            Map<String, List<AttendanceRecord>> byEmployee = new HashMap<>(employees * 2);
+            int size = 0;
+            for (int e = 0; e < employees; e++) {
+                String employeeId = in.readUTF();
+                int count = readVarInt(in);
+                List<AttendanceRecord> records = new ArrayList<>(count);
+                int day = 0;
+                int timeIn = 0;
+                for (int r = 0; r < count; r++) {
+                    day += unzigzag(readVarInt(in));
+                    String name = names[readVarInt(in)];
+                    timeIn += unzigzag(readVarInt(in));
+                    int timeOut = timeIn + unzigzag(readVarInt(in));
+                    records.add(new AttendanceRecord(name, employeeId, LocalDate.of(year, month, day),
+                        time(timeIn), time(timeOut)));
+                }
+                byEmployee.put(employeeId, Collections.unmodifiableList(records));
+                size += count;
+            }
+            return new Segment(byEmployee, size);
+        } catch (EOFException e) {
+            throw new IOException(file + " is truncated", e);
+        }
+    }
+
+    // Second of day + 1, or 0 for a missing time
+    private static int timeCode(LocalTime time) {
+        return time == null ? 0 : time.toSecondOfDay() + 1;
+    }
+
+    private static LocalTime time(int code) {
+        return code == 0 ? null : LocalTime.ofSecondOfDay(code - 1);
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+
+    // Getters
+    public Path getDirectory() { return directory; }
+    public synchronized List<YearMonth> getMonths() { return new ArrayList<>(months); }
+    public synchronized long getSegmentLoads() { return segmentLoads; }
+    public synchronized long getCacheHits() { return cacheHits; }
+    public synchronized long getEvictions() { return evictions; }
+}
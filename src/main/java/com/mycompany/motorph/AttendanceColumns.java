@@ -0,0 +1,226 @@
+package com.mycompany.motorph;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Struct-of-arrays copy of one pay period's attendance, grouped by employee.
+ *
+ * Records of employee {@code e} occupy positions {@code start[e]} to
+ * {@code start[e + 1] - 1}, in the order they appear in the source list.
+ * Times are seconds of day; per-record rate columns let kernels run over all records
+ * without looking anything up.
+ *
+ * Employee-days with several records, e.g. split shifts, are listed
+ * separately so {@link #mergeDays} can price each as one day, as
+ * {@link Grosswage} does.
+ */
+public final class AttendanceColumns {
+    private final PayPeriod period;
+    private final String[] employeeIds;
+    private final double[] hourlyRate;
+    private final int[] start;
+    private final int[] epochDay;
+    private final int[] timeIn;
+    private final int[] timeOut;
+    private final double[] recordRate;
+    private final double[] recordOvertimeRate;
+    private final double[] holidayMultiplier;
+    private final int[] sharedDayStart; // Records of shared day k are sharedDayRecords[sharedDayStart[k] .. [k + 1])
+    private final int[] sharedDayRecords;
+
+    private AttendanceColumns(PayPeriod period, String[] employeeIds, double[] hourlyRate, int[] start,
+                              int[] epochDay, int[] timeIn, int[] timeOut, double[] recordRate,
+                              double[] recordOvertimeRate, double[] holidayMultiplier, int[] sharedDayStart,
+                              int[] sharedDayRecords) {
+        this.period = period;
+        this.employeeIds = employeeIds;
+        this.hourlyRate = hourlyRate;
+        this.start = start;
+        this.epochDay = epochDay;
+        this.timeIn = timeIn;
+        this.timeOut = timeOut;
+        this.recordRate = recordRate;
+        this.recordOvertimeRate = recordOvertimeRate;
+        this.holidayMultiplier = holidayMultiplier;
+        this.sharedDayStart = sharedDayStart;
+        this.sharedDayRecords = sharedDayRecords;
+    }
+
+    /**
+     * Builds the columns for the employees' records in a period.
+     * @param employees Employees to include, in output order
+     * @param records Attendance to read; records of other employees or periods are ignored
+     * @param period The pay period
+     * @return The columnar attendance
+     */
+    public static AttendanceColumns build(List<Employee> employees, List<AttendanceRecord> records, PayPeriod period) {
+        return build(employees, records, period, HolidayChecker.calendar());
+    }
+
+    /**
+     * Builds the columns using the given holiday calendar.
+     */
+    public static AttendanceColumns build(List<Employee> employees, List<AttendanceRecord> records, PayPeriod period,
+                                          HolidayCalendar holidays) {
+        int employeeCount = employees.size();
+        String[] employeeIds = new String[employeeCount];
+        double[] hourlyRate = new double[employeeCount];
+        double[] overtimeRate = new double[employeeCount];
+        Map<String, Integer> indexById = new HashMap<>(employeeCount * 2);
+        for (int e = 0; e < employeeCount; e++) {
+            Employee employee = employees.get(e);
+            employeeIds[e] = employee.getEmployeeNumber();
+            hourlyRate[e] = employee.getHourlyRate();
+            overtimeRate[e] = employee.isNightShift()
+                ? Grosswage.NIGHT_SHIFT_OVERTIME_MULTIPLIER
+                : Grosswage.OVERTIME_MULTIPLIER;
+            indexById.putIfAbsent(employeeIds[e], e);
+        }
+
+        // First pass: owner of each in-period record and per-employee counts
+        int[] owner = new int[records.size()];
+        int[] start = new int[employeeCount + 1];
+        for (int i = 0; i < records.size(); i++) {
+            AttendanceRecord record = records.get(i);
+            Integer e = period.contains(record.getDate()) ? indexById.get(record.getId()) : null;
+            owner[i] = e == null ? -1 : e;
+            if (e != null) {
+                start[e + 1]++;
+            }
+        }
+        for (int e = 0; e < employeeCount; e++) {
+            start[e + 1] += start[e];
+        }
+
+        // Second pass: stable counting sort into the columns
+        int size = start[employeeCount];
+        int[] epochDay = new int[size];
+        int[] timeIn = new int[size];
+        int[] timeOut = new int[size];
+        double[] recordRate = new double[size];
+        double[] recordOvertimeRate = new double[size];
+        double[] holidayMultiplier = new double[size];
+        int[] next = start.clone();
+        for (int i = 0; i < records.size(); i++) {
+            int e = owner[i];
+            if (e < 0) {
+                continue;
+            }
+            AttendanceRecord record = records.get(i);
+            LocalDate date = record.getDate();
+            int position = next[e]++;
+            epochDay[position] = (int) date.toEpochDay();
+            timeIn[position] = secondOfDay(record.getTimeIn());
+            timeOut[position] = secondOfDay(record.getTimeOut());
+            recordRate[position] = hourlyRate[e];
+            recordOvertimeRate[position] = overtimeRate[e];
+            holidayMultiplier[position] = holidays.getHolidayPayMultiplier(date);
+        }
+
+        // Third pass: the days of each employee that have several records
+        int firstDay = (int) period.getStartDate().toEpochDay();
+        int[] dayHead = new int[size]; // First record of the same employee-day
+        int[] dayRecords = new int[size]; // Records per employee-day, kept at its first record
+        int[] headOfDay = new int[16];
+        int[] dayOwner = new int[16]; // Employee + 1 that headOfDay belongs to
+        int sharedDays = 0;
+        int sharedRecords = 0;
+        for (int e = 0; e < employeeCount; e++) {
+            for (int i = start[e]; i < start[e + 1]; i++) {
+                int day = epochDay[i] - firstDay;
+                if (dayOwner[day] != e + 1) {
+                    dayOwner[day] = e + 1;
+                    headOfDay[day] = i;
+                }
+                int head = headOfDay[day];
+                dayHead[i] = head;
+                if (++dayRecords[head] == 2) {
+                    sharedDays++;
+                    sharedRecords += 2;
+                } else if (dayRecords[head] > 2) {
+                    sharedRecords++;
+                }
+            }
+        }
+        int[] sharedDayStart = new int[sharedDays + 1];
+        int[] sharedDayRecords = new int[sharedRecords];
+        int[] slot = new int[size]; // Next position of a shared day's records, kept at its first record
+        int k = 0;
+        int filled = 0;
+        for (int i = 0; i < size; i++) {
+            if (dayHead[i] == i && dayRecords[i] > 1) {
+                sharedDayStart[k++] = filled;
+                slot[i] = filled;
+                filled += dayRecords[i];
+            }
+        }
+        sharedDayStart[sharedDays] = filled;
+        for (int i = 0; i < size; i++) {
+            if (dayRecords[dayHead[i]] > 1) {
+                sharedDayRecords[slot[dayHead[i]]++] = i;
+            }
+        }
+
+        return new AttendanceColumns(period, employeeIds, hourlyRate, start, epochDay, timeIn, timeOut,
+            recordRate, recordOvertimeRate, holidayMultiplier, sharedDayStart, sharedDayRecords);
+    }
+
+    /**
+     * Replaces the per-record worked seconds of every employee-day with
+     * several records by the day's merged punch intervals: the day's first
+     * record gets the merged total and its other records zero, so splitting
+     * and pricing the records splits and prices each day once.
+     * @param seconds Worked seconds per record, e.g. from {@link PayKernel#workedSeconds}
+     */
+    public void mergeDays(int[] seconds) {
+        long[] intervals = new long[16];
+        for (int k = 0; k + 1 < sharedDayStart.length; k++) {
+            int from = sharedDayStart[k];
+            int length = sharedDayStart[k + 1] - from;
+            if (length > intervals.length) {
+                intervals = new long[length];
+            }
+            for (int j = 0; j < length; j++) {
+                int record = sharedDayRecords[from + j];
+                intervals[j] = PunchIntervals.pack(timeIn[record], timeOut[record]);
+                seconds[record] = 0;
+            }
+            seconds[sharedDayRecords[from]] = PunchIntervals.mergedSeconds(intervals, length);
+        }
+    }
+
+    private static int secondOfDay(LocalTime time) {
+        return time == null ? 0 : time.toSecondOfDay();
+    }
+
+    public int size() {
+        return start[employeeIds.length];
+    }
+
+    public int employeeCount() {
+        return employeeIds.length;
+    }
+
+    /**
+     * @return Number of employee-days with several records
+     */
+    public int sharedDayCount() {
+        return sharedDayStart.length - 1;
+    }
+
+    // Getters; arrays are shared, not copied, and must be treated as read-only
+    public PayPeriod getPeriod() { return period; }
+    public String[] getEmployeeIds() { return employeeIds; }
+    public double[] getHourlyRate() { return hourlyRate; }
+    public int[] getStart() { return start; }
+    public int[] getEpochDay() { return epochDay; }
+    public int[] getTimeIn() { return timeIn; }
+    public int[] getTimeOut() { return timeOut; }
+    public double[] getRecordRate() { return recordRate; }
+    public double[] getRecordOvertimeRate() { return recordOvertimeRate; }
+    public double[] getHolidayMultiplier() { return holidayMultiplier; }
+}
@@ -0,0 +1,318 @@
+package com.mycompany.motorph;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Secondary index of attendance by date: for each epoch day, the positions
+ * of that day's records in the indexed list, stored as one offsets array
+ * and one positions array. Looking up a day or a range of days touches only
+ * those days' records, not the whole history.
+ *
+ * Built once per {@link PayrollContext} alongside its per-employee view.
+ * When the context's older months are archived, the index covers the
+ * dates from the first month kept in memory and rejects earlier ones;
+ * {@link PayrollContext#getDateIndex(LocalDate, LocalDate)} indexes a
+ * range that reaches into the archive.
+ */
+public final class AttendanceDateIndex {
+    private final List<AttendanceRecord> records;
+    private final LocalDate coveredFrom; // Earliest date answered for
+    private final long firstDay;
+    private final int[] start;     // start[d]..start[d + 1] are the positions of day firstDay + d
+    private final int[] positions; // Record positions, grouped by day, in list order within a day
+
+    /**
+     * @param records Records to index; the list must not change afterwards
+     */
+    public AttendanceDateIndex(List<AttendanceRecord> records) {
+        this(records, LocalDate.MIN);
+    }
+
+    /**
+     * @param coveredFrom Earliest date the records are complete for; queries
+     *        reaching before it are rejected rather than answered partially
+     */
+    AttendanceDateIndex(List<AttendanceRecord> records, LocalDate coveredFrom) {
+        this.records = records;
+        this.coveredFrom = coveredFrom;
+
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (AttendanceRecord record : records) {
+            if (record.getDate() != null) {
+                long day = record.getDate().toEpochDay();
+                min = Math.min(min, day);
+                max = Math.max(max, day);
+            }
+        }
+        if (min > max) {
+            this.firstDay = 0;
+            this.start = new int[1];
+            this.positions = new int[0];
+            return;
+        }
+
+        // Counting sort of record positions by day
+        int days = Math.toIntExact(max - min + 1);
+        int[] offsets = new int[days + 1];
+        for (AttendanceRecord record : records) {
+            if (record.getDate() != null) {
+                offsets[(int) (record.getDate().toEpochDay() - min) + 1]++;
+            }
+        }
+        for (int d = 0; d < days; d++) {
+            offsets[d + 1] += offsets[d];
+        }
+        int[] sorted = new int[offsets[days]];
+        int[] next = offsets.clone();
+        for (int i = 0; i < records.size(); i++) {
+            LocalDate date = records.get(i).getDate();
+            if (date != null) {
+                sorted[next[(int) (date.toEpochDay() - min)]++] = i;
+            }
+        }
+
+        this.firstDay = min;
+        this.start = offsets;
+        this.positions = sorted;
+    }
+
+    /**
+     * @return The records dated on the day, in list order
+     */
+    public List<AttendanceRecord> on(LocalDate date) {
+        return between(date, date);
+    }
+
+    /**
+     * @return The records dated from {@code from} to {@code to}, inclusive, by date
+     */
+    public List<AttendanceRecord> between(LocalDate from, LocalDate to) {
+        List<AttendanceRecord> result = new ArrayList<>();
+        int[] range = dayRange(from, to);
+        for (int p = start[range[0]]; p < start[range[1]]; p++) {
+            result.add(records.get(positions[p]));
+        }
+        return result;
+    }
+
+    /**
+     * @return Number of records dated on the day
+     */
+    public int countOn(LocalDate date) {
+        int[] range = dayRange(date, date);
+        return start[range[1]] - start[range[0]];
+    }
+
+    /**
+     * @return A query over all indexed dates; narrow it with {@link Query#on} or {@link Query#between}
+     */
+    public Query query() {
+        return new Query();
+    }
+
+    /**
+     * Converts a date range to day slots, clamped to the indexed days.
+     * @return {from slot, to slot + 1}
+     * @throws IllegalArgumentException If the range starts before the covered dates
+     */
+    private int[] dayRange(LocalDate from, LocalDate to) {
+        if (from.isBefore(coveredFrom)) {
+            throw new IllegalArgumentException("Attendance before " + coveredFrom
+                + " is archived and not in this index");
+        }
+        int days = start.length - 1;
+        long first = Math.max(from.toEpochDay() - firstDay, 0);
+        long last = Math.min(to.toEpochDay() - firstDay, days - 1L);
+        if (first > last) {
+            return new int[]{0, 0};
+        }
+        return new int[]{(int) first, (int) last + 1};
+    }
+
+    public int size() {
+        return positions.length;
+    }
+
+    public LocalDate getCoveredFrom() {
+        return coveredFrom;
+    }
+
+    /**
+     * Narrows the records of one employee-day: clears {@code keep[i]} for
+     * each {@code records[i]} that does not match.
+     */
+    private interface EmployeeDayFilter {
+        void apply(AttendanceRecord[] records, boolean[] keep);
+    }
+
+    /**
+     * A date filter combined with per-day, per-employee-day and per-record
+     * predicates. Day predicates such as {@link #onHolidays} are tested once
+     * per day, employee-day predicates such as {@link #late} on the records
+     * of each employee on matching days, and record predicates last.
+     */
+    public final class Query {
+        private LocalDate from = coveredFrom;
+        private LocalDate to = LocalDate.MAX;
+        private Predicate<LocalDate> dayFilter = date -> true;
+        private final List<EmployeeDayFilter> employeeDayFilters = new ArrayList<>();
+        private Predicate<AttendanceRecord> recordFilter = record -> true;
+
+        private Query() {
+        }
+
+        public Query on(LocalDate date) {
+            return between(date, date);
+        }
+
+        public Query between(LocalDate from, LocalDate to) {
+            if (from == null || to == null) {
+                throw new IllegalArgumentException("Dates cannot be null");
+            }
+            this.from = from;
+            this.to = to;
+            return this;
+        }
+
+        /**
+         * Keeps days that are regular holidays or special non-working days.
+         */
+        public Query onHolidays(HolidayCalendar holidays) {
+            return onDays(holidays::isHoliday);
+        }
+
+        public Query onDays(Predicate<LocalDate> filter) {
+            dayFilter = dayFilter.and(filter);
+            return this;
+        }
+
+        /**
+         * Keeps the first clock-in of each employee-day when it is after the
+         * employee's shift start plus the grace period, as {@link LatePenalty}
+         * counts it; returns from lunch and later split shifts are not late.
+         * Records of employees not in the context are dropped.
+         */
+        public Query late(PayrollContext context) {
+            employeeDayFilters.add((records, keep) -> {
+                Employee employee = context.getEmployee(records[0].getId());
+                int first = -1;
+                for (int i = 0; i < records.length; i++) {
+                    LocalTime timeIn = records[i].getTimeIn();
+                    if (timeIn != null && (first < 0 || timeIn.isBefore(records[first].getTimeIn()))) {
+                        first = i;
+                    }
+                }
+                boolean late = employee != null && first >= 0 && records[first].getTimeIn()
+                    .isAfter(employee.getShiftStartTime().plusMinutes(LatePenalty.GRACE_PERIOD_MINUTES));
+                for (int i = 0; i < records.length; i++) {
+                    keep[i] &= late && i == first;
+                }
+            });
+            return this;
+        }
+
+        /**
+         * Keeps the records of employee-days whose merged punches exceed the
+         * regular day, as {@link Grosswage} splits them.
+         */
+        public Query overtime() {
+            employeeDayFilters.add((records, keep) -> {
+                long[] intervals = new long[records.length];
+                int punches = 0;
+                for (AttendanceRecord record : records) {
+                    if (record.getTimeIn() != null && record.getTimeOut() != null) {
+                        intervals[punches++] = PunchIntervals.pack(record.getTimeIn(), record.getTimeOut());
+                    }
+                }
+                boolean overtime = PunchIntervals.hours(PunchIntervals.mergedSeconds(intervals, punches))
+                    > Grosswage.REGULAR_HOURS_PER_DAY;
+                for (int i = 0; i < records.length; i++) {
+                    keep[i] &= overtime;
+                }
+            });
+            return this;
+        }
+
+        public Query employee(String employeeId) {
+            return where(record -> record.getId().equals(employeeId));
+        }
+
+        public Query where(Predicate<AttendanceRecord> filter) {
+            recordFilter = recordFilter.and(filter);
+            return this;
+        }
+
+        /**
+         * @return The matching records, by date and then list order
+         */
+        public List<AttendanceRecord> list() {
+            List<AttendanceRecord> result = new ArrayList<>();
+            int[] range = dayRange(from, to);
+            for (int d = range[0]; d < range[1]; d++) {
+                if (start[d] == start[d + 1] || !dayFilter.test(LocalDate.ofEpochDay(firstDay + d))) {
+                    continue;
+                }
+                boolean[] keep = employeeDayFilters.isEmpty() ? null : keepByEmployeeDay(start[d], start[d + 1]);
+                for (int p = start[d]; p < start[d + 1]; p++) {
+                    AttendanceRecord record = records.get(positions[p]);
+                    if ((keep == null || keep[p - start[d]]) && recordFilter.test(record)) {
+                        result.add(record);
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Applies the employee-day filters to one day's positions {@code from} to {@code to - 1}.
+         * @return Whether each position is kept
+         */
+        private boolean[] keepByEmployeeDay(int from, int to) {
+            Map<String, List<Integer>> byEmployee = new HashMap<>();
+            for (int p = from; p < to; p++) {
+                byEmployee.computeIfAbsent(records.get(positions[p]).getId(), id -> new ArrayList<>()).add(p - from);
+            }
+            boolean[] keep = new boolean[to - from];
+            for (List<Integer> offsets : byEmployee.values()) {
+                AttendanceRecord[] day = new AttendanceRecord[offsets.size()];
+                boolean[] dayKeep = new boolean[day.length];
+                for (int i = 0; i < day.length; i++) {
+                    day[i] = records.get(positions[from + offsets.get(i)]);
+                    dayKeep[i] = true;
+                }
+                for (EmployeeDayFilter filter : employeeDayFilters) {
+                    filter.apply(day, dayKeep);
+                }
+                for (int i = 0; i < day.length; i++) {
+                    keep[offsets.get(i)] = dayKeep[i];
+                }
+            }
+            return keep;
+        }
+
+        /**
+         * @return IDs of the employees with a matching record, in first-match order
+         */
+        public Set<String> employeeIds() {
+            Set<String> ids = new LinkedHashSet<>();
+            for (AttendanceRecord record : list()) {
+                ids.add(record.getId());
+            }
+            return Collections.unmodifiableSet(ids);
+        }
+
+        public int count() {
+            return list().size();
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.mycompany.motorph;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Loads attendance from many workbooks at once, e.g. one file per site per
+ * month. Every sheet of every file is parsed, files are parsed in parallel
+ * across the available cores, and the results are merged in file order so
+ * the outcome does not depend on scheduling. A row that repeats one from an
+ * earlier file (same employee, date, time-in and time-out) is dropped and
+ * counted; repeats within one file are kept, as when that file is loaded on
+ * its own.
+ */
+public class AttendanceIngest {
+    private final ArrayList<AttendanceRecord> records;
+    private final List<FileReport> fileReports;
+    private final RejectSink rejects;
+    private final long elapsedMillis;
+
+    private AttendanceIngest(ArrayList<AttendanceRecord> records, List<FileReport> fileReports,
+                             RejectSink rejects, long elapsedMillis) {
+        this.records = records;
+        this.fileReports = fileReports;
+        this.rejects = rejects;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Timing and row counts for one ingested file.
+     */
+    public static class FileReport {
+        private final Path file;
+        private final int sheets;
+        private final int rows;
+        private final int rejected;
+        private final int duplicates;
+        private final long parseMillis;
+
+        FileReport(Path file, int sheets, int rows, int rejected, int duplicates, long parseMillis) {
+            this.file = file;
+            this.sheets = sheets;
+            this.rows = rows;
+            this.rejected = rejected;
+            this.duplicates = duplicates;
+            this.parseMillis = parseMillis;
+        }
+
+        public Path getFile() { return file; }
+        public int getSheets() { return sheets; }
+        public int getRows() { return rows; }
+        public int getRejected() { return rejected; }
+        public int getDuplicates() { return duplicates; }
+        public long getParseMillis() { return parseMillis; }
+    }
+
+    /**
+     * @return true if the path names a directory or contains glob characters
+     */
+    public static boolean isMultiFile(String path) {
+        return path.indexOf('*') >= 0 || path.indexOf('?') >= 0 || path.indexOf('{') >= 0
+            || path.indexOf('[') >= 0 || Files.isDirectory(Path.of(path));
+    }
+
+    /**
+     * Expands a directory (all .xlsx files in it) or a glob such as
+     * {@code attendance/2024-*.xlsx} into a sorted list of files.
+     * @param pathOrGlob Directory or glob pattern
+     * @return The matching files in name order
+     * @throws IOException If the directory cannot be listed
+     */
+    public static List<Path> resolve(String pathOrGlob) throws IOException {
+        Path directory;
+        PathMatcher matcher;
+        if (Files.isDirectory(Path.of(pathOrGlob))) {
+            directory = Path.of(pathOrGlob);
+            matcher = FileSystems.getDefault().getPathMatcher("glob:*.xlsx");
+        } else {
+            // Wildcards apply to file names within the parent directory
+            Path pattern = Path.of(pathOrGlob);
+            directory = pattern.getParent() == null ? Path.of(".") : pattern.getParent();
+            matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern.getFileName());
+        }
+
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> listing = Files.list(directory)) {
+            listing.filter(Files::isRegularFile)
+                .filter(file -> matcher.matches(file.getFileName()))
+                .filter(file -> !file.getFileName().toString().startsWith("~$")) // Excel lock files
+                .sorted()
+                .forEach(files::add);
+        }
+        if (files.isEmpty()) {
+            throw new IOException("No attendance files match " + pathOrGlob);
+        }
+        return files;
+    }
+
+    /**
+     * Parses the files on a pool sized to the available cores and merges them.
+     * @param files Files to load, in merge order
+     * @return The merged ingestion result
+     * @throws IOException If any file cannot be read
+     */
+    public static AttendanceIngest run(List<Path> files) throws IOException {
+        return run(files, id -> true);
+    }
+
+    /**
+     * Parses the files, keeping only the rows of employees accepted by the filter.
+     */
+    public static AttendanceIngest run(List<Path> files, Predicate<String> employeeFilter) throws IOException {
+        return run(files, employeeFilter, null);
+    }
+
+    /**
+     * Parses the files, checking rows for anomalies as they are parsed. Each
+     * file gets its own part of the detector, merged in file order.
+     * @param anomalies Detector receiving every file's anomalies, or null
+     */
+    public static AttendanceIngest run(List<Path> files, Predicate<String> employeeFilter,
+                                       AttendanceAnomalies anomalies) throws IOException {
+        return run(files, employeeFilter, date -> true, anomalies);
+    }
+
+    /**
+     * As above, keeping only the rows whose date is accepted by the date filter.
+     */
+    public static AttendanceIngest run(List<Path> files, Predicate<String> employeeFilter,
+                                       Predicate<LocalDate> dateFilter, AttendanceAnomalies anomalies)
+            throws IOException {
+        long start = System.nanoTime();
+        int threads = Math.max(1, Math.min(files.size(), Runtime.getRuntime().availableProcessors()));
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<ParsedFile>> parsed = new ArrayList<>();
+            for (Path file : files) {
+                AttendanceAnomalies part = anomalies == null ? null : anomalies.newPart();
+                parsed.add(pool.submit(() -> parseFile(file, employeeFilter, dateFilter, part)));
+            }
+
+            // Merge in submission order so duplicates resolve the same way on every run
+            ArrayList<AttendanceRecord> merged = new ArrayList<>();
+            List<FileReport> reports = new ArrayList<>();
+            RejectSink rejects = new RejectSink("Attendance");
+            RowSet earlierFiles = new RowSet();
+            for (Future<ParsedFile> future : parsed) {
+                ParsedFile file = future.get();
+                int duplicates = 0;
+                int firstKept = merged.size();
+                for (AttendanceRecord record : file.records) {
+                    if (earlierFiles.contains(record)) {
+                        duplicates++;
+                    } else {
+                        merged.add(record);
+                    }
+                }
+                for (int i = firstKept; i < merged.size(); i++) {
+                    earlierFiles.add(merged.get(i));
+                }
+                rejects.addAll(file.rejects);
+                if (anomalies != null) {
+                    anomalies.merge(file.anomalies);
+                }
+                reports.add(new FileReport(file.path, file.sheets, file.records.size(), file.rejects.size(),
+                    duplicates, file.parseMillis));
+            }
+
+            return new AttendanceIngest(merged, reports, rejects, (System.nanoTime() - start) / 1_000_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Attendance ingestion interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("Failed to parse attendance: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static ParsedFile parseFile(Path file, Predicate<String> employeeFilter,
+                                        Predicate<LocalDate> dateFilter, AttendanceAnomalies anomalies)
+            throws IOException {
+        long start = System.nanoTime();
+        PayrollEvents.WorkbookLoad event = new PayrollEvents.WorkbookLoad();
+        event.begin();
+        ArrayList<AttendanceRecord> records = new ArrayList<>();
+        RejectSink rejects = new RejectSink(file.getFileName().toString());
+        int sheets = 0;
+
+        // A workbook is not thread-safe, so each file's sheets are parsed by the task that opened it
+        try (InputStream in = Files.newInputStream(file);
+             Workbook workbook = new XSSFWorkbook(in)) {
+            for (Sheet sheet : workbook) {
+                AttendanceRecord.parseSheet(sheet, file.getFileName() + "!" + sheet.getSheetName(), records::add,
+                    rejects, employeeFilter, dateFilter, anomalies);
+                sheets++;
+            }
+        } catch (IOException e) {
+            throw new IOException(file + ": " + e.getMessage(), e);
+        }
+
+        event.finish(file, "Attendance", sheets, records.size(), rejects.size());
+        return new ParsedFile(file, records, rejects, anomalies, sheets, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Set of rows keyed by (employee, date, time-in, time-out), packed into
+     * two longs: the ID's hash with the epoch day, and the punch seconds. The
+     * rows are kept so IDs with colliding hashes are still told apart.
+     */
+    private static final class RowSet {
+        private int[] table = new int[1024]; // Row index + 1, 0 when empty
+        private long[] dayKeys = new long[512];
+        private long[] punchKeys = new long[512];
+        private AttendanceRecord[] rows = new AttendanceRecord[512];
+        private int size;
+
+        boolean contains(AttendanceRecord record) {
+            return table[slotOf(record, dayKey(record), punchKey(record))] != 0;
+        }
+
+        void add(AttendanceRecord record) {
+            long dayKey = dayKey(record);
+            long punchKey = punchKey(record);
+            int slot = slotOf(record, dayKey, punchKey);
+            if (table[slot] != 0) {
+                return;
+            }
+            if (size == rows.length) {
+                dayKeys = Arrays.copyOf(dayKeys, size * 2);
+                punchKeys = Arrays.copyOf(punchKeys, size * 2);
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            dayKeys[size] = dayKey;
+            punchKeys[size] = punchKey;
+            rows[size] = record;
+            size++;
+            if (size * 2 > table.length) {
+                rehash(table.length * 2);
+            } else {
+                table[slot] = size;
+            }
+        }
+
+        // The slot holding the row, or the empty slot where it would go
+        private int slotOf(AttendanceRecord record, long dayKey, long punchKey) {
+            int mask = table.length - 1;
+            int slot = hash(dayKey, punchKey) & mask;
+            while (table[slot] != 0) {
+                int row = table[slot] - 1;
+                if (dayKeys[row] == dayKey && punchKeys[row] == punchKey && rows[row].getId().equals(record.getId())) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void rehash(int capacity) {
+            table = new int[capacity];
+            int mask = capacity - 1;
+            for (int row = 0; row < size; row++) {
+                int slot = hash(dayKeys[row], punchKeys[row]) & mask;
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = row + 1;
+            }
+        }
+
+        private static long dayKey(AttendanceRecord record) {
+            return (long) record.getId().hashCode() << 32 | (record.getDate().toEpochDay() & 0xFFFFFFFFL);
+        }
+
+        private static long punchKey(AttendanceRecord record) {
+            return (long) record.getTimeIn().toSecondOfDay() << 32 | record.getTimeOut().toSecondOfDay();
+        }
+
+        private static int hash(long dayKey, long punchKey) {
+            long h = dayKey * 0x9E3779B97F4A7C15L ^ punchKey * 0xC2B2AE3D27D4EB4FL;
+            return (int) (h ^ h >>> 32);
+        }
+    }
+
+    private static class ParsedFile {
+        private final Path path;
+        private final ArrayList<AttendanceRecord> records;
+        private final RejectSink rejects;
+        private final AttendanceAnomalies anomalies;
+        private final int sheets;
+        private final long parseMillis;
+
+        ParsedFile(Path path, ArrayList<AttendanceRecord> records, RejectSink rejects, AttendanceAnomalies anomalies,
+                   int sheets, long parseMillis) {
+            this.path = path;
+            this.records = records;
+            this.rejects = rejects;
+            this.anomalies = anomalies;
+            this.sheets = sheets;
+            this.parseMillis = parseMillis;
+        }
+    }
+
+    /**
+     * Prints the per-file timings and duplicate counts.
+     */
+    public void printReport() {
+        String format = "%-40s %6s %8s %8s %10s %8s%n";
+        System.out.printf(format, "File", "Sheets", "Rows", "Rejects", "Duplicates", "Millis");
+        for (FileReport report : fileReports) {
+            System.out.printf(format, report.getFile().getFileName(), report.getSheets(), report.getRows(),
+                report.getRejected(), report.getDuplicates(), report.getParseMillis());
+        }
+        System.out.println("Ingested " + fileReports.size() + " files in " + elapsedMillis + " ms ("
+            + getDuplicateCount() + " duplicate rows dropped).");
+    }
+
+    public int getDuplicateCount() {
+        int duplicates = 0;
+        for (FileReport report : fileReports) {
+            duplicates += report.getDuplicates();
+        }
+        return duplicates;
+    }
+
+    // Getters
+    public ArrayList<AttendanceRecord> getRecords() { return records; }
+    public List<FileReport> getFileReports() { return fileReports; }
+    public RejectSink getRejects() { return rejects; }
+    public long getElapsedMillis() { return elapsedMillis; }
+}
@@ -5,12 +5,17 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.text.DecimalFormat;
 import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 /**
  *
  * @author angeliquerivera
@@ -24,9 +29,13 @@ public class AttendanceRecord {
     private LocalTime timeIn;
     private LocalTime timeOut;
     private static final String XLSX_FILE_PATH = "src/main/resources/AttendanceRecord.xlsx";
+    private static final String REJECT_FILE_PATH = "attendance-rejects.csv";
+    private static final String ANOMALY_FILE_PATH = "attendance-anomalies.csv";
+    private static final int ANOMALY_REPORT_LIMIT = 20;
     private static final DecimalFormat decimalFormat = new DecimalFormat("#.##");
 
     public static ArrayList<AttendanceRecord> attendanceRecords = new ArrayList<>();
+    private static AttendanceArchive archive; // Months before the hot window, or null
     private static final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss"); // Updated to match Excel time format
     private static final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd"); // Updated to match Excel date format
 
@@ -54,109 +63,305 @@ public class AttendanceRecord {
     // Default constructor
     public AttendanceRecord() {}
 
-    // Loads attendance from an Excel file
+    // Loads attendance from an Excel file, or from every workbook matched by a directory or glob
     public static void loadAttendanceFromExcel(String filePath) {
+        loadAttendanceFromExcel(filePath, date -> true);
+    }
+
+    // As above, skipping rows whose date the filter rejects, e.g. months already in the archive,
+    // before their times are parsed or checked for anomalies
+    public static void loadAttendanceFromExcel(String filePath, Predicate<LocalDate> dateFilter) {
+        RejectSink rejects = new RejectSink("Attendance");
+        AttendanceAnomalies anomalies = new AttendanceAnomalies(EmployeeModelFromFile.employees());
         try {
-            attendanceRecords = loadAttendance(filePath);
+            attendanceRecords = loadAttendanceFrom(filePath, rejects, id -> true, dateFilter, anomalies);
             System.out.println("Loaded " + attendanceRecords.size() + " attendance records.");
         } catch (IOException e) {
             System.err.println("Error loading attendance records: " + e.getMessage());
         }
+
+        if (!anomalies.isEmpty()) {
+            anomalies.printReport(ANOMALY_REPORT_LIMIT);
+            try {
+                anomalies.writeTo(Path.of(ANOMALY_FILE_PATH));
+            } catch (IOException e) {
+                System.err.println("Error writing attendance anomalies: " + e.getMessage());
+            }
+        }
+
+        rejects.logSummary();
+        if (!rejects.isEmpty()) {
+            try {
+                rejects.writeTo(Path.of(REJECT_FILE_PATH));
+            } catch (IOException e) {
+                System.err.println("Error writing attendance rejects: " + e.getMessage());
+            }
+        }
+    }
+
+    // Moves the loaded months before the hot window into the archive, keeping only the window in memory.
+    // The window is the latest loaded month and the hotMonths - 1 months before it. Months already in
+    // the archive stay readable from it even if writing the new ones fails.
+    public static void archiveColdMonths(AttendanceArchive coldStore, int hotMonths) throws IOException {
+        if (coldStore == null) {
+            throw new IllegalArgumentException("Archive cannot be null");
+        }
+        if (hotMonths < 1) {
+            throw new IllegalArgumentException("The hot window must cover at least one month");
+        }
+        archive = coldStore;
+        YearMonth latest = null;
+        for (AttendanceRecord record : attendanceRecords) {
+            if (record.getDate() != null) {
+                YearMonth month = YearMonth.from(record.getDate());
+                if (latest == null || month.isAfter(latest)) {
+                    latest = month;
+                }
+            }
+        }
+        if (latest != null) {
+            attendanceRecords = new ArrayList<>(coldStore.archive(attendanceRecords, latest.minusMonths(hotMonths - 1)));
+        }
+    }
+
+    // Loads attendance from a single workbook, a directory or a glob without touching the shared list
+    public static ArrayList<AttendanceRecord> loadAttendanceFrom(String pathOrGlob, RejectSink rejects)
+            throws IOException {
+        return loadAttendanceFrom(pathOrGlob, rejects, id -> true);
+    }
+
+    // As above, keeping only the rows of employees accepted by the filter
+    public static ArrayList<AttendanceRecord> loadAttendanceFrom(String pathOrGlob, RejectSink rejects,
+                                                                 Predicate<String> employeeFilter) throws IOException {
+        return loadAttendanceFrom(pathOrGlob, rejects, employeeFilter, null);
+    }
+
+    // As above, also checking every row for anomalies while it is parsed; anomalies may be null
+    public static ArrayList<AttendanceRecord> loadAttendanceFrom(String pathOrGlob, RejectSink rejects,
+                                                                 Predicate<String> employeeFilter,
+                                                                 AttendanceAnomalies anomalies) throws IOException {
+        return loadAttendanceFrom(pathOrGlob, rejects, employeeFilter, date -> true, anomalies);
+    }
+
+    // As above, keeping only the rows whose date is accepted by the date filter
+    public static ArrayList<AttendanceRecord> loadAttendanceFrom(String pathOrGlob, RejectSink rejects,
+                                                                 Predicate<String> employeeFilter,
+                                                                 Predicate<LocalDate> dateFilter,
+                                                                 AttendanceAnomalies anomalies) throws IOException {
+        if (AttendanceIngest.isMultiFile(pathOrGlob)) {
+            AttendanceIngest ingest = AttendanceIngest.run(AttendanceIngest.resolve(pathOrGlob), employeeFilter,
+                dateFilter, anomalies);
+            ingest.printReport();
+            rejects.addAll(ingest.getRejects());
+            return ingest.getRecords();
+        }
+        return loadAttendance(pathOrGlob, rejects, employeeFilter, dateFilter, anomalies);
     }
 
-    // Loads attendance from an Excel file and returns a list of AttendanceRecord objects
+    // Loads attendance from every sheet of an Excel file and returns a list of AttendanceRecord objects
     public static ArrayList<AttendanceRecord> loadAttendance(String filePath) throws IOException {
+        return loadAttendance(filePath, new RejectSink("Attendance"));
+    }
+
+    // Loads attendance from every sheet of an Excel file, reporting invalid values to the reject sink
+    public static ArrayList<AttendanceRecord> loadAttendance(String filePath, RejectSink rejects) throws IOException {
+        return loadAttendance(filePath, rejects, id -> true);
+    }
+
+    // Loads the rows of employees accepted by the filter from every sheet of an Excel file
+    public static ArrayList<AttendanceRecord> loadAttendance(String filePath, RejectSink rejects,
+                                                             Predicate<String> employeeFilter) throws IOException {
+        return loadAttendance(filePath, rejects, employeeFilter, null);
+    }
+
+    // As above, also checking every row for anomalies while it is parsed; anomalies may be null
+    public static ArrayList<AttendanceRecord> loadAttendance(String filePath, RejectSink rejects,
+                                                             Predicate<String> employeeFilter,
+                                                             AttendanceAnomalies anomalies) throws IOException {
+        return loadAttendance(filePath, rejects, employeeFilter, date -> true, anomalies);
+    }
+
+    // As above, keeping only the rows whose date is accepted by the date filter
+    public static ArrayList<AttendanceRecord> loadAttendance(String filePath, RejectSink rejects,
+                                                             Predicate<String> employeeFilter,
+                                                             Predicate<LocalDate> dateFilter,
+                                                             AttendanceAnomalies anomalies) throws IOException {
         ArrayList<AttendanceRecord> attendanceRecords = new ArrayList<>();
+        PayrollEvents.WorkbookLoad event = new PayrollEvents.WorkbookLoad();
+        event.begin();
+        int rejectsBefore = rejects.size();
+        int sheets = 0;
 
         try (FileInputStream fis = new FileInputStream(filePath);
              Workbook workbook = new XSSFWorkbook(fis)) {
 
-            Sheet sheet = workbook.getSheetAt(0); // Assuming data is in the first sheet
-
-            // Skip the header row
-            for (int rowIndex = 1; rowIndex <= sheet.getLastRowNum(); rowIndex++) {
-                Row row = sheet.getRow(rowIndex);
-                if (row != null) {
-                    // Normalize the employee ID by removing the ".0" suffix
-                    String id = getCellValueAsString(row.getCell(0)).replace(".0", "");
-                    String name = getCellValueAsString(row.getCell(1));
-                    String surname = getCellValueAsString(row.getCell(2)).trim();
-
-                    LocalDate date = parseDate(row.getCell(3));
-                    LocalTime timeIn = parseTime(row.getCell(4));
-                    LocalTime timeOut = parseTime(row.getCell(5));
-
-                    // Skip records with missing or invalid time values
-                    if (timeIn == null || timeOut == null) {
-                        System.out.println("Skipping record with missing time values: " + id);
-                        continue;
-                    }
-
-                    // Create a new AttendanceRecord and add it to the list
-                    attendanceRecords.add(new AttendanceRecord(name + " " + surname, id, date, timeIn, timeOut));
-                }
+            String fileName = Path.of(filePath).getFileName().toString();
+            for (Sheet sheet : workbook) {
+                parseSheet(sheet, fileName + "!" + sheet.getSheetName(), attendanceRecords::add, rejects,
+                           employeeFilter, dateFilter, anomalies);
+                sheets++;
             }
         }
 
+        event.finish(Path.of(filePath), "Attendance", sheets, attendanceRecords.size(),
+                     rejects.size() - rejectsBefore);
         return attendanceRecords;
     }
 
+    // Parses the rows of employees accepted by the filter, skipping rows whose date the date filter rejects
+    // before their times are parsed. Rows are checked for anomalies as they are parsed when a detector is given.
+    static void parseSheet(Sheet sheet, String source, Consumer<AttendanceRecord> attendanceRecords,
+                           RejectSink rejects, Predicate<String> employeeFilter, Predicate<LocalDate> dateFilter,
+                           AttendanceAnomalies anomalies) {
+        SheetRow cells = new SheetRow();
+        // Skip the header row
+        for (int rowIndex = 1; rowIndex <= sheet.getLastRowNum(); rowIndex++) {
+            Row row = sheet.getRow(rowIndex);
+            if (row != null) {
+                cells.row = row;
+                parseRow(cells, source, rowIndex + 1, attendanceRecords, rejects, employeeFilter, dateFilter,
+                         anomalies);
+            }
+        }
+    }
+
+    /**
+     * The cells of one attendance row, read either from a loaded {@link Row}
+     * or from a streamed sheet, so both are parsed by {@link #parseRow}.
+     */
+    interface RowCells {
+        // The cell's type, or null if the row has no such cell
+        CellType type(int column);
+
+        // The cell's value as getCellValueAsString gives it
+        String text(int column);
+
+        // The value of a NUMERIC cell
+        double number(int column);
+
+        // The value of a NUMERIC cell read as an Excel date
+        LocalDateTime dateTime(int column);
+    }
+
+    private static final class SheetRow implements RowCells {
+        private Row row;
+
+        @Override
+        public CellType type(int column) {
+            Cell cell = row.getCell(column);
+            return cell == null ? null : cell.getCellType();
+        }
+
+        @Override
+        public String text(int column) {
+            return getCellValueAsString(row.getCell(column));
+        }
+
+        @Override
+        public double number(int column) {
+            return row.getCell(column).getNumericCellValue();
+        }
+
+        @Override
+        public LocalDateTime dateTime(int column) {
+            return row.getCell(column).getLocalDateTimeCellValue();
+        }
+    }
+
+    // Parses one row (rowNumber as shown in Excel) and hands the record to the consumer if it is complete
+    static void parseRow(RowCells cells, String source, int rowNumber, Consumer<AttendanceRecord> attendanceRecords,
+                         RejectSink rejects, Predicate<String> employeeFilter, Predicate<LocalDate> dateFilter,
+                         AttendanceAnomalies anomalies) {
+        // Normalize the employee ID by removing the ".0" suffix
+        String id = cells.text(0).replace(".0", "");
+        if (!employeeFilter.test(id)) {
+            return;
+        }
+        String name = cells.text(1);
+        String surname = cells.text(2).trim();
+
+        LocalDate date = parseDate(cells, 3, source, rowNumber, rejects);
+        if (date != null && !dateFilter.test(date)) {
+            return;
+        }
+        LocalTime timeIn = parseTime(cells, 4, "Log In", source, rowNumber, rejects);
+        LocalTime timeOut = parseTime(cells, 5, "Log Out", source, rowNumber, rejects);
+
+        // Skip records with a missing or invalid date or time; the reason is already in the sink
+        if (date == null || timeIn == null || timeOut == null) {
+            if (anomalies != null && date != null) {
+                anomalies.missingPunch(source, rowNumber, id, date, timeIn == null, timeOut == null);
+            }
+            return;
+        }
+
+        // Create a new AttendanceRecord and add it to the list
+        AttendanceRecord record = new AttendanceRecord(name + " " + surname, id, date, timeIn, timeOut);
+        attendanceRecords.accept(record);
+        if (anomalies != null) {
+            anomalies.record(source, rowNumber, record);
+        }
+    }
+
     // Parses a date from a cell
-    private static LocalDate parseDate(Cell cell) {
-        if (cell == null) {
-            System.err.println("Date cell is null.");
+    private static LocalDate parseDate(RowCells cells, int column, String source, int rowNumber, RejectSink rejects) {
+        CellType type = cells.type(column);
+        if (type == null) {
+            rejects.reject(source, rowNumber, "Date", null, RejectSink.Reason.MISSING_VALUE, null);
             return null;
         }
+        String cellValue = cells.text(column);
         try {
-            String cellValue = getCellValueAsString(cell);
-
-            if (cell.getCellType() == CellType.NUMERIC) {
+            if (type == CellType.NUMERIC) {
                 // Convert Excel numeric date to LocalDate
-                return cell.getLocalDateTimeCellValue().toLocalDate();
-            } else if (cell.getCellType() == CellType.STRING) {
+                return cells.dateTime(column).toLocalDate();
+            } else if (type == CellType.STRING) {
                 String dateString = cellValue.trim();
                 // Extract only the date part (first 10 characters) from "yyyy-MM-dd HH:mm:ss"
                 String dateOnly = dateString.substring(0, 10);
                 return LocalDate.parse(dateOnly, dateFormatter);
             } else {
-                System.err.println("Unsupported cell type for date: " + cell.getCellType());
+                rejects.reject(source, rowNumber, "Date", cellValue, RejectSink.Reason.UNSUPPORTED_CELL_TYPE,
+                    type.name());
                 return null;
             }
         } catch (Exception e) {
-            System.err.println("Error parsing date: " + e.getMessage());
+            rejects.reject(source, rowNumber, "Date", cellValue, RejectSink.Reason.INVALID_DATE, e.getMessage());
             return null;
         }
     }
 
     // Parses a time from a cell
-    private static LocalTime parseTime(Cell cell) {
-        if (cell == null) {
-            System.err.println("Time cell is null.");
+    private static LocalTime parseTime(RowCells cells, int column, String columnName, String source, int rowNumber,
+                                       RejectSink rejects) {
+        CellType type = cells.type(column);
+        if (type == null) {
+            rejects.reject(source, rowNumber, columnName, null, RejectSink.Reason.MISSING_VALUE, null);
             return null;
         }
+        String cellValue = cells.text(column);
         try {
-            String cellValue = getCellValueAsString(cell);
-
-            if (cell.getCellType() == CellType.NUMERIC) {
+            if (type == CellType.NUMERIC) {
                 // Convert Excel numeric time to LocalTime
-                double numericValue = cell.getNumericCellValue();
+                double numericValue = cells.number(column);
                 int hours = (int) (numericValue * 24);
                 int minutes = (int) ((numericValue * 24 * 60) % 60);
                 int seconds = (int) ((numericValue * 24 * 60 * 60) % 60);
                 return LocalTime.of(hours, minutes, seconds);
-            } else if (cell.getCellType() == CellType.STRING) {
+            } else if (type == CellType.STRING) {
                 String timeString = cellValue.trim();
                 if (timeString.isEmpty()) {
-                    System.err.println("Time string is empty.");
+                    rejects.reject(source, rowNumber, columnName, cellValue, RejectSink.Reason.MISSING_VALUE, null);
                     return null;
                 }
                 return LocalTime.parse(timeString, timeFormatter);
             } else {
-                System.err.println("Unsupported cell type for time: " + cell.getCellType());
+                rejects.reject(source, rowNumber, columnName, cellValue, RejectSink.Reason.UNSUPPORTED_CELL_TYPE,
+                    type.name());
                 return null;
             }
         } catch (Exception e) {
-            System.err.println("Error parsing time: " + e.getMessage());
+            rejects.reject(source, rowNumber, columnName, cellValue, RejectSink.Reason.INVALID_TIME, e.getMessage());
             return null;
         }
     }
@@ -181,12 +386,10 @@ public class AttendanceRecord {
             System.err.println("TimeIn or TimeOut is null for record: " + id);
             return 0.0;
         }
-        Duration duration;
-        if (timeOut.isBefore(timeIn)) {
+        Duration duration = Duration.between(timeIn, timeOut);
+        if (duration.isNegative()) {
             // If timeOut is before timeIn, assume the employee worked past midnight
-            duration = Duration.between(timeIn, timeOut.plusHours(24));
-        } else {
-            duration = Duration.between(timeIn, timeOut);
+            duration = duration.plusDays(1);
         }
         return duration.toHours() + (duration.toMinutes() % 60) / 60.0;
     }
@@ -240,4 +443,8 @@ public class AttendanceRecord {
     public static ArrayList<AttendanceRecord> getAttendanceRecords() {
         return attendanceRecords;
     }
+
+    public static AttendanceArchive getArchive() {
+        return archive;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,237 @@
+package com.mycompany.motorph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * External sort of attendance by employee ID, date, time-in and time-out.
+ *
+ * Records are buffered until the buffer reaches the memory ceiling, then
+ * sorted and spilled to a run file. {@link #sorted()} merges the runs with
+ * a heap holding one record per run; more than {@link #MAX_MERGE_FAN_IN}
+ * runs are first merged in groups, so open files and merge buffers stay
+ * bounded too. Heap use depends on the ceiling, not on the input size.
+ */
+public class AttendanceSorter implements Closeable {
+    static final int RECORD_BYTES_ESTIMATE = 200; // Heap per buffered record, including its strings
+    static final int MAX_MERGE_FAN_IN = 64;
+    private static final int IO_BUFFER_BYTES = 8192;
+
+    static final Comparator<AttendanceRecord> ORDER = Comparator.comparing(AttendanceRecord::getId)
+        .thenComparing(AttendanceRecord::getDate)
+        .thenComparing(AttendanceRecord::getTimeIn)
+        .thenComparing(AttendanceRecord::getTimeOut);
+
+    private final Path directory;
+    private final int bufferCapacity;
+    private final List<AttendanceRecord> buffer = new ArrayList<>();
+    private final List<Path> runs = new ArrayList<>();
+    private long recordCount;
+    private int runsWritten;
+    private boolean finished;
+
+    /**
+     * @param workDirectory Directory for the run files; a private subdirectory is created in it
+     * @param memoryBytes Heap the buffered records may use
+     * @throws IOException If the spill directory cannot be created
+     */
+    public AttendanceSorter(Path workDirectory, long memoryBytes) throws IOException {
+        if (workDirectory == null) {
+            throw new IllegalArgumentException("Work directory cannot be null");
+        }
+        if (memoryBytes < RECORD_BYTES_ESTIMATE) {
+            throw new IllegalArgumentException("Memory ceiling must be at least " + RECORD_BYTES_ESTIMATE + " bytes");
+        }
+        this.bufferCapacity = (int) Math.min(Integer.MAX_VALUE - 8, memoryBytes / RECORD_BYTES_ESTIMATE);
+        Files.createDirectories(workDirectory);
+        this.directory = Files.createTempDirectory(workDirectory, "attendance-sort");
+    }
+
+    /**
+     * Adds a record, spilling a sorted run when the buffer is full.
+     * @throws IOException If a run cannot be written
+     */
+    public void add(AttendanceRecord record) throws IOException {
+        if (finished) {
+            throw new IllegalStateException("Sorter already finished");
+        }
+        buffer.add(record);
+        recordCount++;
+        if (buffer.size() >= bufferCapacity) {
+            spill();
+        }
+    }
+
+    private void spill() throws IOException {
+        buffer.sort(ORDER);
+        Path run = directory.resolve("run-" + runsWritten++ + ".bin");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(run), IO_BUFFER_BYTES))) {
+            for (AttendanceRecord record : buffer) {
+                write(out, record);
+            }
+        }
+        buffer.clear();
+        runs.add(run);
+    }
+
+    /**
+     * Ends input and returns the records in sorted order. When everything
+     * fit in the buffer no run is written and the buffer is sorted in place.
+     * @throws IOException If runs cannot be written or merged
+     */
+    public Cursor sorted() throws IOException {
+        if (finished) {
+            throw new IllegalStateException("Sorter already finished");
+        }
+        finished = true;
+        if (runs.isEmpty()) {
+            buffer.sort(ORDER);
+            return new Cursor(buffer);
+        }
+        if (!buffer.isEmpty()) {
+            spill();
+        }
+        // Merge in groups until one pass can take every run
+        while (runs.size() > MAX_MERGE_FAN_IN) {
+            List<Path> group = new ArrayList<>(runs.subList(0, MAX_MERGE_FAN_IN));
+            runs.subList(0, MAX_MERGE_FAN_IN).clear();
+            Path merged = directory.resolve("run-" + runsWritten++ + ".bin");
+            try (Cursor cursor = Cursor.merging(group);
+                 DataOutputStream out = new DataOutputStream(
+                     new BufferedOutputStream(Files.newOutputStream(merged), IO_BUFFER_BYTES))) {
+                AttendanceRecord record;
+                while ((record = cursor.next()) != null) {
+                    write(out, record);
+                }
+            }
+            for (Path run : group) {
+                Files.delete(run);
+            }
+            runs.add(merged);
+        }
+        return Cursor.merging(runs);
+    }
+
+    private static void write(DataOutputStream out, AttendanceRecord record) throws IOException {
+        out.writeUTF(record.getId());
+        out.writeUTF(record.getName() == null ? "" : record.getName());
+        out.writeLong(record.getDate().toEpochDay());
+        out.writeInt(record.getTimeIn().toSecondOfDay());
+        out.writeInt(record.getTimeOut().toSecondOfDay());
+    }
+
+    private static AttendanceRecord read(DataInputStream in) throws IOException {
+        String id;
+        try {
+            id = in.readUTF();
+        } catch (EOFException e) {
+            return null;
+        }
+        String name = in.readUTF();
+        LocalDate date = LocalDate.ofEpochDay(in.readLong());
+        LocalTime timeIn = LocalTime.ofSecondOfDay(in.readInt());
+        LocalTime timeOut = LocalTime.ofSecondOfDay(in.readInt());
+        return new AttendanceRecord(name, id, date, timeIn, timeOut);
+    }
+
+    /**
+     * Removes the run files.
+     */
+    @Override
+    public void close() throws IOException {
+        buffer.clear();
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    // Getters
+    public long getRecordCount() { return recordCount; }
+    public int getRunsWritten() { return runsWritten; }
+    public int getBufferCapacity() { return bufferCapacity; }
+
+    private record Head(AttendanceRecord record, DataInputStream run) {
+    }
+
+    /**
+     * Sorted records, from memory or merged from run files.
+     */
+    public static final class Cursor implements Closeable {
+        private final List<AttendanceRecord> inMemory;
+        private int position;
+        private final List<DataInputStream> inputs = new ArrayList<>();
+        private final PriorityQueue<Head> heads = new PriorityQueue<>(
+            (a, b) -> ORDER.compare(a.record(), b.record()));
+
+        private Cursor(List<AttendanceRecord> inMemory) {
+            this.inMemory = inMemory;
+        }
+
+        private static Cursor merging(List<Path> runs) throws IOException {
+            Cursor cursor = new Cursor(null);
+            cursor.open(runs);
+            return cursor;
+        }
+
+        private void open(List<Path> runs) throws IOException {
+            try {
+                for (Path run : runs) {
+                    DataInputStream in = new DataInputStream(
+                        new BufferedInputStream(Files.newInputStream(run), IO_BUFFER_BYTES));
+                    inputs.add(in);
+                    AttendanceRecord first = read(in);
+                    if (first != null) {
+                        heads.add(new Head(first, in));
+                    }
+                }
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+        }
+
+        /**
+         * @return The next record, or null when all have been read
+         */
+        public AttendanceRecord next() throws IOException {
+            if (inMemory != null) {
+                return position < inMemory.size() ? inMemory.get(position++) : null;
+            }
+            Head head = heads.poll();
+            if (head == null) {
+                return null;
+            }
+            AttendanceRecord following = read(head.run());
+            if (following != null) {
+                heads.add(new Head(following, head.run()));
+            }
+            return head.record();
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (DataInputStream in : inputs) {
+                in.close();
+            }
+            inputs.clear();
+            heads.clear();
+        }
+    }
+}
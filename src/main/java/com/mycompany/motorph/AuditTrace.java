@@ -0,0 +1,295 @@
+package com.mycompany.motorph;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the intermediate steps of one employee's pay for one period: how
+ * each day was split into regular, overtime and holiday premium, which late
+ * minutes were counted, which SSS row matched, every deduction and the tax
+ * bracket. {@link #explain()} renders them for a payslip dispute.
+ *
+ * Traces are only kept for the employees and periods passed to
+ * {@link #select}. Everything else gets {@link #DISABLED}, whose calculations
+ * pay for one final-field check per step: callers test {@link #isEnabled()}
+ * before building any argument, and nothing is looked up or allocated unless
+ * a selection exists. {@link AuditTraceBenchmark} measures the difference.
+ */
+public final class AuditTrace {
+    public static final AuditTrace DISABLED = new AuditTrace(null, null);
+
+    // Selected periods by employee ID, empty for every period; null when nothing is selected
+    private static volatile Map<String, Set<PayPeriod>> selection;
+    private static final Map<String, AuditTrace> latest = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+    private final String employeeId;
+    private final PayPeriod period;
+
+    private final List<String> days = new ArrayList<>();
+    private final List<String> lates = new ArrayList<>();
+    private final Map<String, Double> deductions = new LinkedHashMap<>();
+    private double hourlyRate;
+    private double gross;
+    private String sss;
+    private String tax;
+    private double taxDue;
+
+    private AuditTrace(String employeeId, PayPeriod period) {
+        this.enabled = employeeId != null;
+        this.employeeId = employeeId;
+        this.period = period;
+    }
+
+    /**
+     * Traces every period of an employee from now on.
+     */
+    public static synchronized void select(String employeeId) {
+        if (employeeId == null || employeeId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Employee ID cannot be null or empty");
+        }
+        selectedPeriods(employeeId).clear();
+    }
+
+    /**
+     * Traces one period of an employee from now on.
+     */
+    public static synchronized void select(String employeeId, PayPeriod period) {
+        if (employeeId == null || employeeId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Employee ID cannot be null or empty");
+        }
+        if (period == null) {
+            throw new IllegalArgumentException("Period cannot be null");
+        }
+        Set<PayPeriod> periods = selection == null ? null : selection.get(employeeId);
+        if (periods != null && periods.isEmpty()) {
+            return; // Already traced for every period
+        }
+        selectedPeriods(employeeId).add(period);
+    }
+
+    private static Set<PayPeriod> selectedPeriods(String employeeId) {
+        Map<String, Set<PayPeriod>> updated = selection == null ? new ConcurrentHashMap<>() : selection;
+        Set<PayPeriod> periods = updated.computeIfAbsent(employeeId, id -> ConcurrentHashMap.newKeySet());
+        selection = updated;
+        return periods;
+    }
+
+    /**
+     * Stops tracing and drops the recorded traces.
+     */
+    public static synchronized void clearSelection() {
+        selection = null;
+        latest.clear();
+    }
+
+    /**
+     * @return A new trace if the employee or period is selected, otherwise {@link #DISABLED}
+     */
+    static AuditTrace forCalculation(String employeeId, int year, int month, boolean firstHalf) {
+        Map<String, Set<PayPeriod>> selected = selection;
+        if (selected == null) {
+            return DISABLED;
+        }
+        Set<PayPeriod> periods = selected.get(employeeId);
+        if (periods == null) {
+            return DISABLED;
+        }
+        PayPeriod period = PayPeriod.of(year, month, firstHalf);
+        if (!periods.isEmpty() && !periods.contains(period)) {
+            return DISABLED;
+        }
+        AuditTrace trace = new AuditTrace(employeeId, period);
+        latest.put(key(employeeId, period), trace);
+        return trace;
+    }
+
+    /**
+     * @return The most recent trace of a selected employee and period, or null if none was recorded
+     */
+    public static AuditTrace latest(String employeeId, PayPeriod period) {
+        return latest.get(key(employeeId, period));
+    }
+
+    private static String key(String employeeId, PayPeriod period) {
+        return employeeId + "@" + period;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts the gross wage steps, discarding those of an earlier calculation.
+     */
+    synchronized void startGross(double hourlyRate) {
+        this.hourlyRate = hourlyRate;
+        this.gross = 0;
+        days.clear();
+    }
+
+    /**
+     * One day's split and pay.
+     * @param punches The day's time-in/time-out pairs, e.g. "08:00-12:00, 13:00-17:00"
+     * @param hours The day's hours, with overlapping punches counted once
+     * @param multiplier Holiday pay multiplier, 1 on ordinary days
+     */
+    synchronized void day(LocalDate date, String punches, double hours, double regularHours, double overtimeHours,
+                          double overtimeRate, double multiplier, double regularPay, double overtimePay,
+                          double holidayPay) {
+        gross += regularPay + overtimePay;
+        StringBuilder line = new StringBuilder(120);
+        line.append(date).append("  ").append(punches).append("  ");
+        AmountText.appendFixed2(line, hours);
+        line.append(" h = ");
+        AmountText.appendFixed2(line, regularHours);
+        line.append(" regular");
+        if (multiplier != 1.0) {
+            line.append(" x").append(multiplier).append(" holiday");
+        }
+        line.append(" (PHP ");
+        AmountText.appendFixed2(line, regularPay);
+        line.append(')');
+        if (overtimeHours > 0) {
+            line.append(" + ");
+            AmountText.appendFixed2(line, overtimeHours);
+            line.append(" overtime x").append(overtimeRate).append(" (PHP ");
+            AmountText.appendFixed2(line, overtimePay);
+            line.append(')');
+        }
+        if (holidayPay > 0) {
+            line.append("; holiday premium PHP ");
+            AmountText.appendFixed2(line, holidayPay);
+        }
+        days.add(line.toString());
+    }
+
+    /**
+     * Starts the late steps, discarding those of an earlier calculation.
+     */
+    synchronized void startLate() {
+        lates.clear();
+    }
+
+    /**
+     * One record clocked in after the grace period.
+     */
+    synchronized void late(LocalDate date, LocalTime threshold, LocalTime timeIn, long minutesLate,
+                           double deduction) {
+        StringBuilder line = new StringBuilder(80);
+        line.append(date).append("  in ").append(timeIn).append(", after ").append(threshold).append(": ")
+            .append(minutesLate).append(" min (PHP ");
+        AmountText.appendFixed2(line, deduction);
+        line.append(')');
+        lates.add(line.toString());
+    }
+
+    /**
+     * The SSS table row matched by the gross wage.
+     * @param row Row number from 1, or 0 when no row matched and the maximum applied
+     */
+    synchronized void sssBracket(double gross, int row, double rangeStart, double rangeEnd, double contribution) {
+        StringBuilder line = new StringBuilder(100);
+        line.append("gross PHP ");
+        AmountText.appendFixed2(line, gross);
+        if (row > 0) {
+            line.append(" in row ").append(row).append(" (");
+            AmountText.appendFixed2(line, rangeStart);
+            line.append(" - ");
+            AmountText.appendFixed2(line, rangeEnd);
+            line.append(')');
+        } else {
+            line.append(" matched no row, maximum applies");
+        }
+        line.append(": monthly contribution PHP ");
+        AmountText.appendFixed2(line, contribution);
+        sss = line.toString();
+    }
+
+    synchronized void deduction(String rule, double amount) {
+        deductions.put(rule, amount);
+    }
+
+    /**
+     * The withholding tax bracket.
+     * @param bracket Bracket number, 0 when the income is untaxed
+     */
+    synchronized void taxBracket(double taxableIncome, int bracket, double threshold, double base, double rate,
+                                 double taxDue) {
+        StringBuilder line = new StringBuilder(100);
+        line.append("taxable PHP ");
+        AmountText.appendFixed2(line, taxableIncome);
+        if (bracket == 0) {
+            line.append(" is at or below PHP ");
+            AmountText.appendFixed2(line, threshold);
+            line.append(", untaxed");
+        } else {
+            line.append(" in bracket ").append(bracket).append(": PHP ");
+            AmountText.appendFixed2(line, base);
+            line.append(" + ").append(rate * 100).append("% over PHP ");
+            AmountText.appendFixed2(line, threshold);
+        }
+        line.append(" = PHP ");
+        AmountText.appendFixed2(line, taxDue);
+        tax = line.toString();
+        this.taxDue = taxDue;
+    }
+
+    /**
+     * @return The recorded steps as readable text
+     */
+    public synchronized String explain() {
+        if (!enabled) {
+            return "Tracing is disabled.";
+        }
+        StringBuilder out = new StringBuilder(1024);
+        out.append("Audit trace for ").append(employeeId).append(", ").append(period).append('\n');
+        out.append("Hourly rate PHP ");
+        AmountText.appendFixed2(out, hourlyRate);
+        out.append("\n\nDays (").append(days.size()).append("):\n");
+        for (String day : days) {
+            out.append("  ").append(day).append('\n');
+        }
+        out.append("  Gross: PHP ");
+        AmountText.appendFixed2(out, gross);
+        out.append("\n\nLate (").append(lates.size()).append(" days):\n");
+        for (String late : lates) {
+            out.append("  ").append(late).append('\n');
+        }
+        out.append("\nSSS: ").append(sss == null ? "not computed" : sss).append('\n');
+        out.append("\nDeductions:\n");
+        double total = 0;
+        for (Map.Entry<String, Double> deduction : deductions.entrySet()) {
+            out.append("  ");
+            AmountText.appendPadded(out, deduction.getKey(), 12);
+            out.append(" PHP ");
+            AmountText.appendFixed2(out, deduction.getValue());
+            out.append('\n');
+            total += deduction.getValue();
+        }
+        out.append("  ");
+        AmountText.appendPadded(out, "Total", 12);
+        out.append(" PHP ");
+        AmountText.appendFixed2(out, total);
+        out.append("\n\nTax: ").append(tax == null ? "not computed" : tax).append('\n');
+        if (tax != null) {
+            out.append("\nNet: PHP ");
+            AmountText.appendFixed2(out, gross - total - taxDue);
+            out.append('\n');
+        }
+        return out.toString();
+    }
+
+    // Getters
+    public String getEmployeeId() { return employeeId; }
+    public PayPeriod getPeriod() { return period; }
+    public synchronized List<String> getDays() { return Collections.unmodifiableList(new ArrayList<>(days)); }
+    public synchronized List<String> getLates() { return Collections.unmodifiableList(new ArrayList<>(lates)); }
+}
@@ -0,0 +1,74 @@
+package com.mycompany.motorph;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Micro-benchmark of payslip computation with {@link AuditTrace} off, with
+ * a selection that matches no computed employee, and with every employee
+ * traced, on the synthetic attendance of {@link PayKernelBenchmark}.
+ *
+ * Run with: {@code java -cp target/classes com.mycompany.motorph.AuditTraceBenchmark [employees] [iterations]}
+ */
+public class AuditTraceBenchmark {
+
+    public static void main(String[] args) {
+        int employeeCount = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        List<Employee> employees = new ArrayList<>();
+        List<AttendanceRecord> records = new ArrayList<>();
+        PayKernelBenchmark.generate(employeeCount, employees, records);
+        PayrollContext context = new PayrollContext("benchmark", employees, records, SssTable.standard(),
+            HolidayChecker.calendar());
+        System.out.printf("%d employees, %d attendance records, %d iterations%n",
+            employeeCount, records.size(), iterations);
+
+        AuditTrace.clearSelection();
+        double offNanos = BenchmarkTimer.time(iterations, () -> computeAll(context, employees));
+        long offBytes = allocated(() -> computeAll(context, employees));
+
+        AuditTrace.select("not-an-employee");
+        double otherNanos = BenchmarkTimer.time(iterations, () -> computeAll(context, employees));
+        long otherBytes = allocated(() -> computeAll(context, employees));
+
+        for (Employee employee : employees) {
+            AuditTrace.select(employee.getEmployeeNumber());
+        }
+        double tracedNanos = BenchmarkTimer.time(iterations, () -> computeAll(context, employees));
+        long tracedBytes = allocated(() -> computeAll(context, employees));
+        AuditTrace.clearSelection();
+
+        report("Tracing off", offNanos, offNanos, offBytes, employeeCount);
+        report("Other employee selected", otherNanos, offNanos, otherBytes, employeeCount);
+        report("Every employee traced", tracedNanos, offNanos, tracedBytes, employeeCount);
+    }
+
+    private static double computeAll(PayrollContext context, List<Employee> employees) {
+        double sink = 0;
+        for (Employee employee : employees) {
+            sink += PayrollBatch.compute(context, employee, PayKernelBenchmark.PERIOD).getNet();
+        }
+        return sink;
+    }
+
+    /**
+     * @return Bytes allocated by the current thread during one run, or -1 if the JVM cannot tell
+     */
+    private static long allocated(BenchmarkTimer.Work work) {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads)
+                || !threads.isThreadAllocatedMemorySupported()) {
+            return -1;
+        }
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        work.run();
+        return threads.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    private static void report(String label, double nanos, double baselineNanos, long bytes, int employees) {
+        System.out.printf("%-28s: %8.2f ms/run %9.0f ns/employee %8d bytes/employee %6.2fx%n",
+            label, nanos / 1e6, nanos / employees, bytes < 0 ? -1 : bytes / employees, nanos / baselineNanos);
+    }
+}
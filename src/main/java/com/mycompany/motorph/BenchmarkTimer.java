@@ -0,0 +1,34 @@
+package com.mycompany.motorph;
+
+/**
+ * Warm-up and timing loop shared by the micro-benchmarks.
+ */
+final class BenchmarkTimer {
+
+    private BenchmarkTimer() {
+    }
+
+    interface Work {
+        double run();
+    }
+
+    /**
+     * Runs the work a few times to warm up, then times the given number of runs.
+     * @return Average nanoseconds per run
+     */
+    static double time(int iterations, Work work) {
+        double sink = 0;
+        for (int i = 0; i < Math.max(5, iterations / 5); i++) {
+            sink += work.run(); // Warm-up
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += work.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) {
+            System.out.print(""); // Keep the result observable
+        }
+        return (double) elapsed / iterations;
+    }
+}
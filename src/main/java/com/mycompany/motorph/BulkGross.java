@@ -0,0 +1,93 @@
+package com.mycompany.motorph;
+
+/**
+ * Gross wage for every employee in an {@link AttendanceColumns} at once,
+ * using a {@link PayKernel} for the per-record arithmetic and summing each
+ * employee's records in source order. Produces the same figures as running
+ * {@link Grosswage} per employee, without a scan of all attendance per employee.
+ */
+public class BulkGross {
+    private final AttendanceColumns columns;
+    private final double[] hoursWorked;
+    private final double[] regularHours;
+    private final double[] overtimeHours;
+    private final double[] regularPay;
+    private final double[] overtimePay;
+    private final double[] holidayPay;
+    private final double[] gross;
+
+    private BulkGross(AttendanceColumns columns) {
+        int employees = columns.employeeCount();
+        this.columns = columns;
+        this.hoursWorked = new double[employees];
+        this.regularHours = new double[employees];
+        this.overtimeHours = new double[employees];
+        this.regularPay = new double[employees];
+        this.overtimePay = new double[employees];
+        this.holidayPay = new double[employees];
+        this.gross = new double[employees];
+    }
+
+    /**
+     * @param columns The period's attendance
+     * @return Per-employee gross figures, computed with {@link PayKernel#select()}
+     */
+    public static BulkGross compute(AttendanceColumns columns) {
+        return compute(columns, PayKernel.select());
+    }
+
+    public static BulkGross compute(AttendanceColumns columns, PayKernel kernel) {
+        int n = columns.size();
+        int[] seconds = new int[n];
+        double[] recordRegularHours = new double[n];
+        double[] recordOvertimeHours = new double[n];
+        double[] recordRegularPay = new double[n];
+        double[] recordOvertimePay = new double[n];
+        double[] recordHolidayPay = new double[n];
+
+        kernel.workedSeconds(columns.getTimeIn(), columns.getTimeOut(), seconds, n);
+        columns.mergeDays(seconds);
+        kernel.splitHours(seconds, recordRegularHours, recordOvertimeHours, n);
+        kernel.applyRates(recordRegularHours, recordOvertimeHours, columns.getRecordRate(),
+            columns.getRecordOvertimeRate(), columns.getHolidayMultiplier(),
+            recordRegularPay, recordOvertimePay, recordHolidayPay, n);
+
+        BulkGross result = new BulkGross(columns);
+        int[] start = columns.getStart();
+        for (int e = 0; e < columns.employeeCount(); e++) {
+            for (int i = start[e]; i < start[e + 1]; i++) {
+                result.hoursWorked[e] += recordRegularHours[i] + recordOvertimeHours[i];
+                result.regularHours[e] += recordRegularHours[i];
+                result.overtimeHours[e] += recordOvertimeHours[i];
+                result.regularPay[e] += recordRegularPay[i];
+                result.overtimePay[e] += recordOvertimePay[i];
+                result.holidayPay[e] += recordHolidayPay[i];
+            }
+            result.gross[e] = result.regularPay[e] + result.overtimePay[e];
+        }
+        return result;
+    }
+
+    /**
+     * @return Position of the employee in the result arrays, or -1
+     */
+    public int indexOf(String employeeId) {
+        String[] ids = columns.getEmployeeIds();
+        for (int e = 0; e < ids.length; e++) {
+            if (ids[e].equals(employeeId)) {
+                return e;
+            }
+        }
+        return -1;
+    }
+
+    // Getters; arrays are indexed like AttendanceColumns.getEmployeeIds()
+    public AttendanceColumns getColumns() { return columns; }
+    public double[] getHoursWorked() { return hoursWorked; }
+    public double[] getRegularHours() { return regularHours; }
+    public double[] getOvertimeHours() { return overtimeHours; }
+    public double[] getRegularPay() { return regularPay; }
+    public double[] getOvertimePay() { return overtimePay; }
+    public double[] getHolidayPay() { return holidayPay; }
+    public double[] getGross() { return gross; }
+}
@@ -4,7 +4,6 @@
  */
 package com.mycompany.motorph;
 
-import java.text.DecimalFormat;
 /**
  *
  * @author angeliquerivera
@@ -12,9 +11,6 @@ import java.text.DecimalFormat;
 
 public abstract class Calculation {
 
-    // Decimal formatter for consistent number formatting
-    protected static final DecimalFormat decimalFormat = new DecimalFormat("#.##");
-
     /**
      * Abstract method to perform the calculation.
      * @return The result of the calculation as a double.
@@ -22,11 +18,11 @@ public abstract class Calculation {
     protected abstract double calculate();
 
     /**
-     * Formats a numeric value using the decimal formatter.
+     * Formats a numeric value with up to two decimals, as the "#.##" pattern does.
      * @param value The value to format.
      * @return The formatted value as a String.
      */
     protected String format(double value) {
-        return decimalFormat.format(value);
+        return AmountText.amount(value);
     }
 }
\ No newline at end of file
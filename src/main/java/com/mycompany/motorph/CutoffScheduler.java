@@ -0,0 +1,267 @@
+package com.mycompany.motorph;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pre-computes pay periods in the background ahead of the payroll cutoffs on
+ * the 15th and at month end, so results are ready when a period closes.
+ *
+ * From {@code leadDays} before a cutoff until {@code leadDays} after it, each
+ * {@link #tick()} fingerprints every employee's attendance in the period and
+ * queues a recompute only for employees whose fingerprint changed. Background
+ * work runs on minimum-priority threads and pauses while on-demand queries are
+ * running; {@link #resultFor} computes on the caller's thread when no fresh
+ * result is cached, so a query never waits behind the background queue.
+ *
+ * The clock is injectable so the cutoff calendar can be driven in tests.
+ */
+public class CutoffScheduler {
+    private final Supplier<PayrollContext> contextSupplier;
+    private final Clock clock;
+    private final int leadDays;
+
+    private final Map<String, Entry> results = new ConcurrentHashMap<>();
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    private final ExecutorService workers;
+    private ScheduledExecutorService ticker;
+
+    // On-demand queries in progress; background work waits while non-zero
+    private final AtomicInteger activeQueries = new AtomicInteger();
+    private final Object idle = new Object();
+
+    private final AtomicInteger precomputed = new AtomicInteger();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    private record Entry(long fingerprint, PeriodResult result) {
+    }
+
+    /**
+     * @param contextSupplier Supplies the current data on each tick, e.g. {@code PayrollContext::defaultContext}
+     * @param clock Clock deciding which cutoff is near
+     * @param leadDays Days before (and after) a cutoff during which the period is kept up to date
+     * @param backgroundThreads Number of low-priority worker threads
+     */
+    public CutoffScheduler(Supplier<PayrollContext> contextSupplier, Clock clock, int leadDays, int backgroundThreads) {
+        if (contextSupplier == null || clock == null) {
+            throw new IllegalArgumentException("Context supplier and clock cannot be null");
+        }
+        if (leadDays < 0) {
+            throw new IllegalArgumentException("Lead days cannot be negative");
+        }
+        if (backgroundThreads < 1) {
+            throw new IllegalArgumentException("At least one background thread is required");
+        }
+        this.contextSupplier = contextSupplier;
+        this.clock = clock;
+        this.leadDays = leadDays;
+        this.workers = Executors.newFixedThreadPool(backgroundThreads, lowPriorityThreads("cutoff-precompute"));
+    }
+
+    /**
+     * Starts ticking at a fixed interval on a background thread.
+     * @param intervalSeconds Seconds between ticks
+     */
+    public synchronized void start(long intervalSeconds) {
+        if (ticker != null) {
+            throw new IllegalStateException("Scheduler already started");
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(lowPriorityThreads("cutoff-ticker"));
+        ticker.scheduleWithFixedDelay(() -> {
+            try {
+                tick();
+            } catch (RuntimeException e) {
+                // Keep ticking; a failed tick must not cancel the schedule
+                System.err.println("Cutoff pre-computation failed: " + e.getMessage());
+            }
+        }, 0, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops the ticker and background workers; queued work is discarded.
+     */
+    public synchronized void shutdown() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+        workers.shutdownNow();
+    }
+
+    /**
+     * @return The periods kept up to date at the clock's current date
+     */
+    public List<PayPeriod> activePeriods() {
+        LocalDate today = LocalDate.now(clock);
+        PayPeriod current = PayPeriod.containing(today);
+        PayPeriod previous = current.previous();
+        List<PayPeriod> periods = new ArrayList<>(2);
+        if (!today.plusDays(leadDays).isBefore(current.getEndDate())) {
+            periods.add(current);
+        }
+        if (!today.isAfter(previous.getEndDate().plusDays(leadDays))) {
+            periods.add(previous);
+        }
+        return periods;
+    }
+
+    /**
+     * Queues a recompute for every employee whose attendance in an active
+     * period changed since it was last computed.
+     * @return The number of employees queued
+     */
+    public int tick() {
+        PayrollContext context = contextSupplier.get();
+        int submitted = 0;
+        for (PayPeriod period : activePeriods()) {
+            for (Employee employee : context.getEmployees()) {
+                String key = key(employee.getEmployeeNumber(), period);
+                long fingerprint = fingerprint(context, employee, period);
+                Entry entry = results.get(key);
+                if ((entry == null || entry.fingerprint() != fingerprint) && queued.add(key)) {
+                    workers.execute(() -> precompute(context, employee, period, key));
+                    submitted++;
+                }
+            }
+        }
+        return submitted;
+    }
+
+    /**
+     * Returns an employee's result for a period, from the pre-computed cache
+     * when it is still current, otherwise computed on the calling thread.
+     * @throws IllegalArgumentException If the employee is unknown or the period cannot be computed
+     */
+    public PeriodResult resultFor(String employeeId, PayPeriod period) {
+        activeQueries.incrementAndGet();
+        try {
+            PayrollContext context = contextSupplier.get();
+            Employee employee = context.getEmployee(employeeId);
+            if (employee == null) {
+                throw new IllegalArgumentException("Employee ID " + employeeId + " not found");
+            }
+            String key = key(employeeId, period);
+            long fingerprint = fingerprint(context, employee, period);
+            Entry entry = results.get(key);
+            if (entry != null && entry.fingerprint() == fingerprint && entry.result() != null) {
+                hits.incrementAndGet();
+                return entry.result();
+            }
+
+            misses.incrementAndGet();
+            PeriodResult result = PayrollBatch.compute(context, employee, period);
+            results.put(key, new Entry(fingerprint, result));
+            return result;
+        } finally {
+            if (activeQueries.decrementAndGet() == 0) {
+                synchronized (idle) {
+                    idle.notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Whether a current result for the employee and period is cached
+     */
+    public boolean isReady(String employeeId, PayPeriod period) {
+        PayrollContext context = contextSupplier.get();
+        Employee employee = context.getEmployee(employeeId);
+        Entry entry = results.get(key(employeeId, period));
+        return employee != null && entry != null && entry.result() != null
+            && entry.fingerprint() == fingerprint(context, employee, period);
+    }
+
+    /**
+     * @return Number of employees still queued for background computation
+     */
+    public int getPending() {
+        return queued.size();
+    }
+
+    private void precompute(PayrollContext context, Employee employee, PayPeriod period, String key) {
+        try {
+            awaitNoQueries();
+            long fingerprint = fingerprint(context, employee, period);
+            Entry entry = results.get(key);
+            if (entry != null && entry.fingerprint() == fingerprint) {
+                return; // Already computed by an on-demand query
+            }
+            results.put(key, new Entry(fingerprint, PayrollBatch.compute(context, employee, period)));
+            precomputed.incrementAndGet();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            // Not computable yet (e.g. unsupported year); retried when its attendance changes
+            results.put(key, new Entry(fingerprint(context, employee, period), null));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            queued.remove(key);
+        }
+    }
+
+    private void awaitNoQueries() throws InterruptedException {
+        synchronized (idle) {
+            while (activeQueries.get() > 0) {
+                idle.wait();
+            }
+        }
+    }
+
+    /**
+     * Hash of everything a period result depends on: the employee's rate and
+     * shift, their in-period punches, and the context's statutory tables.
+     */
+    private static long fingerprint(PayrollContext context, Employee employee, PayPeriod period) {
+        long hash = 1125899906842597L;
+        hash = 31 * hash + Double.doubleToLongBits(employee.getHourlyRate());
+        hash = 31 * hash + employee.getShiftStartTime().toSecondOfDay();
+        hash = 31 * hash + (employee.isNightShift() ? 1 : 0);
+        hash = 31 * hash + context.getSssTable().hashCode();
+        hash = 31 * hash + context.getHolidays().hashCode();
+        for (AttendanceRecord record : context.attendanceFor(employee.getEmployeeNumber(), period.getYear(), period.getMonth())) {
+            if (period.contains(record.getDate())) {
+                hash = 31 * hash + record.getDate().toEpochDay();
+                hash = 31 * hash + secondOfDay(record.getTimeIn());
+                hash = 31 * hash + secondOfDay(record.getTimeOut());
+            }
+        }
+        return hash;
+    }
+
+    private static int secondOfDay(LocalTime time) {
+        return time == null ? -1 : time.toSecondOfDay();
+    }
+
+    private static String key(String employeeId, PayPeriod period) {
+        return employeeId + '@' + period.key();
+    }
+
+    private static ThreadFactory lowPriorityThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        };
+    }
+
+    // Getters
+    public int getPrecomputed() { return precomputed.get(); }
+    public int getHits() { return hits.get(); }
+    public int getMisses() { return misses.get(); }
+    public int getLeadDays() { return leadDays; }
+}
@@ -0,0 +1,180 @@
+package com.mycompany.motorph;
+
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar input and output of a {@link DeductionPipeline}: one array
+ * element per employee for a single pay period. Each rule reads the input
+ * columns and fills its own amount column in one loop, so adding a rule
+ * costs one pass over the batch rather than an object per employee.
+ */
+public final class DeductionBatch {
+    private final PayrollContext context;
+    private final PayPeriod period;
+    private final String[] employeeIds;
+    private final double[] gross;
+    private final double[] hourlyRate;
+    private final LocalTime[] shiftStartTime;
+
+    private final Map<String, double[]> amountsByRule = new LinkedHashMap<>();
+    private final double[] preTaxDeductions;
+    private final double[] totalDeductions;
+    private double[] otherDeductions;
+    private AuditTrace[] traces; // Null unless an employee is traced
+
+    /**
+     * @param context Data the rules may read, e.g. attendance and the SSS table
+     * @param period The pay period being deducted
+     * @param employeeIds Employee numbers
+     * @param gross Gross pay for the period
+     * @param hourlyRate Hourly rates
+     * @param shiftStartTime Scheduled shift starts
+     */
+    public DeductionBatch(PayrollContext context, PayPeriod period, String[] employeeIds, double[] gross,
+                          double[] hourlyRate, LocalTime[] shiftStartTime) {
+        if (context == null || period == null) {
+            throw new IllegalArgumentException("Payroll context and period cannot be null");
+        }
+        if (employeeIds == null || gross == null || hourlyRate == null || shiftStartTime == null) {
+            throw new IllegalArgumentException("Batch columns cannot be null");
+        }
+        int size = employeeIds.length;
+        if (gross.length != size || hourlyRate.length != size || shiftStartTime.length != size) {
+            throw new IllegalArgumentException("Batch columns must have the same length");
+        }
+        this.context = context;
+        this.period = period;
+        this.employeeIds = employeeIds;
+        this.gross = gross;
+        this.hourlyRate = hourlyRate;
+        this.shiftStartTime = shiftStartTime;
+        this.preTaxDeductions = new double[size];
+        this.totalDeductions = new double[size];
+    }
+
+    /**
+     * Builds a batch for a list of employees.
+     * @param gross Gross pay, in the order of {@code employees}
+     */
+    public static DeductionBatch of(PayrollContext context, PayPeriod period, List<Employee> employees, double[] gross) {
+        int size = employees.size();
+        String[] employeeIds = new String[size];
+        double[] hourlyRate = new double[size];
+        LocalTime[] shiftStartTime = new LocalTime[size];
+        for (int i = 0; i < size; i++) {
+            Employee employee = employees.get(i);
+            employeeIds[i] = employee.getEmployeeNumber();
+            hourlyRate[i] = employee.getHourlyRate();
+            shiftStartTime[i] = employee.getShiftStartTime();
+        }
+        return new DeductionBatch(context, period, employeeIds, gross, hourlyRate, shiftStartTime);
+    }
+
+    /**
+     * Stores a rule's amounts and adds them to the running totals.
+     */
+    void record(DeductionRule rule, double[] amounts) {
+        record(rule.name(), rule.isPreTax(), rule.isStatutory(), amounts);
+    }
+
+    /**
+     * Stores amounts computed outside the pipeline, e.g. statutory deductions
+     * at what-if rates, so later rules see them in the running totals.
+     */
+    void record(String name, boolean preTax, boolean statutory, double[] amounts) {
+        if (amounts.length != size()) {
+            throw new IllegalArgumentException("Expected " + size() + " amounts for " + name);
+        }
+        if (amountsByRule.putIfAbsent(name, amounts) != null) {
+            throw new IllegalStateException("Duplicate deduction rule: " + name);
+        }
+        for (int i = 0; i < amounts.length; i++) {
+            totalDeductions[i] += amounts[i];
+        }
+        if (traces != null) {
+            for (int i = 0; i < amounts.length; i++) {
+                if (traceFor(i).isEnabled()) {
+                    traceFor(i).deduction(name, amounts[i]);
+                }
+            }
+        }
+        if (preTax) {
+            for (int i = 0; i < amounts.length; i++) {
+                preTaxDeductions[i] += amounts[i];
+            }
+        }
+        if (!statutory) {
+            if (otherDeductions == null) {
+                otherDeductions = new double[amounts.length];
+            }
+            for (int i = 0; i < amounts.length; i++) {
+                otherDeductions[i] += amounts[i];
+            }
+        }
+    }
+
+    /**
+     * Records the steps of one employee's deductions in a trace.
+     */
+    void setTrace(int index, AuditTrace trace) {
+        if (traces == null) {
+            traces = new AuditTrace[size()];
+        }
+        traces[index] = trace;
+    }
+
+    /**
+     * @return The trace of one employee, {@link AuditTrace#DISABLED} unless one was set
+     */
+    AuditTrace traceFor(int index) {
+        if (traces == null || traces[index] == null) {
+            return AuditTrace.DISABLED;
+        }
+        return traces[index];
+    }
+
+    /**
+     * @return A rule's amounts, or null if no rule of that name has run
+     */
+    public double[] amountsOf(String ruleName) {
+        return amountsByRule.get(ruleName);
+    }
+
+    /**
+     * @return Amount of a rule for one employee; zero if the rule has not run
+     */
+    public double amountOf(String ruleName, int index) {
+        double[] amounts = amountsByRule.get(ruleName);
+        return amounts == null ? 0 : amounts[index];
+    }
+
+    /**
+     * @return Gross pay less the pre-tax deductions recorded so far
+     */
+    public double getTaxableBase(int index) {
+        return gross[index] - preTaxDeductions[index];
+    }
+
+    /**
+     * @return Total of the non-statutory rules for one employee
+     */
+    public double getOtherDeductions(int index) {
+        return otherDeductions == null ? 0 : otherDeductions[index];
+    }
+
+    // Getters
+    public int size() { return employeeIds.length; }
+    public PayrollContext getContext() { return context; }
+    public PayPeriod getPeriod() { return period; }
+    public String[] getEmployeeIds() { return employeeIds; }
+    public double[] getGross() { return gross; }
+    public double[] getHourlyRate() { return hourlyRate; }
+    public LocalTime[] getShiftStartTime() { return shiftStartTime; }
+    public double[] getPreTaxDeductions() { return preTaxDeductions; }
+    public double[] getTotalDeductions() { return totalDeductions; }
+    public Map<String, double[]> getAmountsByRule() { return Collections.unmodifiableMap(amountsByRule); }
+}
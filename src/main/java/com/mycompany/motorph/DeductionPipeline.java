@@ -0,0 +1,119 @@
+package com.mycompany.motorph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * An ordered chain of {@link DeductionRule}s. Pre-tax rules run first, then
+ * rules by {@link DeductionRule#order()} and name.
+ */
+public final class DeductionPipeline {
+    private static final Comparator<DeductionRule> RULE_ORDER = Comparator
+        .comparing((DeductionRule rule) -> !rule.isPreTax())
+        .thenComparingInt(DeductionRule::order)
+        .thenComparing(DeductionRule::name);
+
+    private final List<DeductionRule> rules;
+
+    public DeductionPipeline(List<DeductionRule> rules) {
+        if (rules == null) {
+            throw new IllegalArgumentException("Rules cannot be null");
+        }
+        List<DeductionRule> sorted = new ArrayList<>(rules);
+        sorted.sort(RULE_ORDER);
+        Set<String> names = new HashSet<>();
+        for (DeductionRule rule : sorted) {
+            if (!names.add(rule.name())) {
+                throw new IllegalArgumentException("Duplicate deduction rule: " + rule.name());
+            }
+        }
+        this.rules = Collections.unmodifiableList(sorted);
+    }
+
+    private static final class StandardHolder {
+        static final DeductionPipeline PIPELINE = load(DeductionPipeline.class.getClassLoader());
+    }
+
+    /**
+     * @return The pipeline of every rule registered with ServiceLoader on the application class path
+     */
+    public static DeductionPipeline standard() {
+        return StandardHolder.PIPELINE;
+    }
+
+    /**
+     * Discovers the rules registered in a class loader. The statutory rules
+     * are always included, even if their service registration is missing.
+     */
+    public static DeductionPipeline load(ClassLoader classLoader) {
+        List<DeductionRule> rules = new ArrayList<>();
+        for (DeductionRule rule : ServiceLoader.load(DeductionRule.class, classLoader)) {
+            rules.add(rule);
+        }
+        for (DeductionRule builtIn : List.of(new SssDeductionRule(), new PhilhealthDeductionRule(),
+                                             new PagibigDeductionRule(), new LateDeductionRule())) {
+            if (rules.stream().noneMatch(rule -> rule.getClass() == builtIn.getClass())) {
+                rules.add(builtIn);
+            }
+        }
+        return new DeductionPipeline(rules);
+    }
+
+    /**
+     * Runs every rule over the batch, in pipeline order.
+     * @return The same batch, with each rule's amounts recorded
+     */
+    public DeductionBatch apply(DeductionBatch batch) {
+        PayrollEvents.DeductionChain event = null;
+        if (PayrollEvents.DEDUCTION_CHAIN.isEnabled()) {
+            event = new PayrollEvents.DeductionChain();
+            event.begin();
+        }
+        boolean timeRules = event != null;
+        DeductionRule slowest = null;
+        long slowestNanos = 0;
+        for (DeductionRule rule : rules) {
+            long start = timeRules ? System.nanoTime() : 0;
+            double[] amounts = new double[batch.size()];
+            rule.apply(batch, amounts);
+            batch.record(rule, amounts);
+            if (timeRules) {
+                long nanos = System.nanoTime() - start;
+                if (slowest == null || nanos > slowestNanos) {
+                    slowest = rule;
+                    slowestNanos = nanos;
+                }
+            }
+        }
+        if (event != null) {
+            event.end();
+        }
+        if (event != null && event.shouldCommit()) {
+            event.period = batch.getPeriod().toString();
+            event.employees = batch.size();
+            event.firstEmployeeId = batch.size() == 0 ? null : batch.getEmployeeIds()[0];
+            event.rules = rules.size();
+            event.slowestRule = slowest == null ? null : slowest.name();
+            event.slowestRuleNanos = slowestNanos;
+            event.commit();
+        }
+        return batch;
+    }
+
+    /**
+     * @return A pipeline of the rules matching the filter, in the same order
+     */
+    public DeductionPipeline filter(Predicate<DeductionRule> filter) {
+        return new DeductionPipeline(rules.stream().filter(filter).toList());
+    }
+
+    public List<DeductionRule> getRules() {
+        return rules;
+    }
+}
@@ -0,0 +1,50 @@
+package com.mycompany.motorph;
+
+/**
+ * A payroll deduction evaluated over a whole {@link DeductionBatch} of
+ * employees at once. Implementations are discovered with
+ * {@link java.util.ServiceLoader}: list the class in
+ * {@code META-INF/services/com.mycompany.motorph.DeductionRule} and it is
+ * chained into {@link DeductionPipeline#standard()}.
+ *
+ * Implementations need a public no-argument constructor and must be
+ * stateless, since one instance serves every batch.
+ */
+public interface DeductionRule {
+
+    /**
+     * @return Name the rule's amounts are reported under; unique within a pipeline
+     */
+    String name();
+
+    /**
+     * Writes the bi-monthly deduction of each employee in the batch.
+     * @param batch The employees and their gross pay
+     * @param amounts Output, one amount per employee, initially zero
+     */
+    void apply(DeductionBatch batch, double[] amounts);
+
+    /**
+     * @return Position in the pipeline; lower runs first
+     */
+    default int order() {
+        return 1000;
+    }
+
+    /**
+     * Pre-tax deductions reduce taxable income; others (e.g. loan
+     * repayments) are taken from pay after tax. Pre-tax rules always run
+     * before other rules.
+     */
+    default boolean isPreTax() {
+        return false;
+    }
+
+    /**
+     * @return Whether this is one of the government-mandated deductions
+     * shown on their own payslip lines
+     */
+    default boolean isStatutory() {
+        return false;
+    }
+}
@@ -1,6 +1,5 @@
 package com.mycompany.motorph;
 
-import java.text.DecimalFormat;
 import java.time.LocalTime;
 import java.time.format.DateTimeParseException;
 
@@ -30,15 +29,32 @@ public class Employee {
     private final LocalTime shiftStartTime;
     private final boolean nightShift;
 
-    private static final DecimalFormat decimalFormat = new DecimalFormat("#.##");
     private static final LocalTime DEFAULT_SHIFT_START = LocalTime.of(8, 0);
 
+    /**
+     * Creates an employee from row values not read by a loader. Invalid
+     * values are logged as they are found and fall back to their defaults;
+     * the sink receiving them lives only as long as this call.
+     * @param data The row values
+     */
     public Employee(String[] data) {
+        this(data, new RejectSink("Employee"), "Employee", 0);
+    }
+
+    /**
+     * Creates an employee, reporting unparseable values to a reject sink
+     * instead of the console. Such values fall back to their defaults.
+     * @param data The row values
+     * @param rejects Sink receiving invalid values
+     * @param source File or sheet the row came from
+     * @param rowNumber 1-based spreadsheet row number
+     */
+    Employee(String[] data, RejectSink rejects, String source, int rowNumber) {
         if (data == null || data.length < 19) {
             throw new IllegalArgumentException("Insufficient data to create Employee object");
         }
 
-        this.employeeNumber = parseEmployeeNumber(data[0]);
+        this.employeeNumber = parseEmployeeNumber(data[0], rejects, source, rowNumber);
         this.lastName = getValue(data, 1);
         this.firstName = getValue(data, 2);
         this.birthday = getValue(data, 3);
@@ -56,16 +72,16 @@ public class Employee {
         this.phoneAllowance = getValue(data, 15);
         this.clothingAllowance = getValue(data, 16);
         this.grossSemiMonthlyRate = getValue(data, 17);
-        this.hourlyRate = parseDoubleValue(data[18]);
-        this.shiftStartTime = parseShiftStartTime(getValue(data, 19));
+        this.hourlyRate = parseDoubleValue(data[18], "Hourly Rate", rejects, source, rowNumber);
+        this.shiftStartTime = parseShiftStartTime(getValue(data, 19), rejects, source, rowNumber);
         this.nightShift = parseNightShift(getValue(data, 20));
     }
 
-    private String parseEmployeeNumber(String empNum) {
+    private String parseEmployeeNumber(String empNum, RejectSink rejects, String source, int rowNumber) {
         try {
             return String.valueOf((int) Double.parseDouble(empNum));
         } catch (NumberFormatException e) {
-            System.err.println("Invalid employee number format: " + empNum);
+            rejects.reject(source, rowNumber, "Employee #", empNum, RejectSink.Reason.INVALID_EMPLOYEE_NUMBER, null);
             return empNum;
         }
     }
@@ -74,20 +90,21 @@ public class Employee {
         return (index < data.length) ? data[index].trim() : "";
     }
 
-    private double parseDoubleValue(String value) {
+    private double parseDoubleValue(String value, String column, RejectSink rejects, String source, int rowNumber) {
         try {
             return Double.parseDouble(value.replaceAll("[^0-9.]", ""));
         } catch (NumberFormatException e) {
-            System.err.println("Invalid number format: " + value);
+            rejects.reject(source, rowNumber, column, value, RejectSink.Reason.INVALID_NUMBER, null);
             return 0.0;
         }
     }
 
-    private LocalTime parseShiftStartTime(String timeString) {
+    private LocalTime parseShiftStartTime(String timeString, RejectSink rejects, String source, int rowNumber) {
         try {
             return timeString.isEmpty() ? DEFAULT_SHIFT_START : LocalTime.parse(timeString);
         } catch (DateTimeParseException e) {
-            System.err.println("Invalid time format: " + timeString);
+            rejects.reject(source, rowNumber, "Shift Start", timeString, RejectSink.Reason.INVALID_SHIFT_TIME,
+                e.getMessage());
             return DEFAULT_SHIFT_START;
         }
     }
@@ -130,53 +147,35 @@ public class Employee {
      * @return Formatted employee information
      */
     public String toString(boolean detailed) {
+        StringBuilder text = new StringBuilder(detailed ? 512 : 64);
         if (detailed) {
-            return String.format("""
-                Employee ID: %s
-                Name: %s, %s
-                Birthday: %s
-                Address: %s
-                Phone: %s
-                SSS: %s
-                PhilHealth: %s
-                TIN: %s
-                Pag-IBIG: %s
-                Position: %s
-                Status: %s
-                Supervisor: %s
-                Basic Salary: %s
-                Hourly Rate: %.2f
-                Allowances:
-                  Rice: %s
-                  Phone: %s
-                  Clothing: %s
-                Gross Semi-Monthly: %s
-                Shift: %s %s
-                """,
-                employeeNumber,
-                lastName, firstName,
-                birthday,
-                address,
-                phoneNumber,
-                sssNumber,
-                philhealthNumber,
-                tinNumber,
-                pagIbigNumber,
-                position,
-                status,
-                immediateSupervisor,
-                basicSalary,
-                hourlyRate,
-                riceSubsidy,
-                phoneAllowance,
-                clothingAllowance,
-                grossSemiMonthlyRate,
-                shiftStartTime,
-                nightShift ? "(Night Shift)" : ""
-            );
+            text.append("Employee ID: ").append(employeeNumber).append('\n')
+                .append("Name: ").append(lastName).append(", ").append(firstName).append('\n')
+                .append("Birthday: ").append(birthday).append('\n')
+                .append("Address: ").append(address).append('\n')
+                .append("Phone: ").append(phoneNumber).append('\n')
+                .append("SSS: ").append(sssNumber).append('\n')
+                .append("PhilHealth: ").append(philhealthNumber).append('\n')
+                .append("TIN: ").append(tinNumber).append('\n')
+                .append("Pag-IBIG: ").append(pagIbigNumber).append('\n')
+                .append("Position: ").append(position).append('\n')
+                .append("Status: ").append(status).append('\n')
+                .append("Supervisor: ").append(immediateSupervisor).append('\n')
+                .append("Basic Salary: ").append(basicSalary).append('\n')
+                .append("Hourly Rate: ");
+            AmountText.appendFixed2(text, hourlyRate);
+            text.append('\n')
+                .append("Allowances:\n")
+                .append("  Rice: ").append(riceSubsidy).append('\n')
+                .append("  Phone: ").append(phoneAllowance).append('\n')
+                .append("  Clothing: ").append(clothingAllowance).append('\n')
+                .append("Gross Semi-Monthly: ").append(grossSemiMonthlyRate).append('\n')
+                .append("Shift: ").append(shiftStartTime).append(' ').append(nightShift ? "(Night Shift)" : "")
+                .append('\n');
         } else {
-            return String.format("%s %s (ID: %s, Position: %s)", 
-                firstName, lastName, employeeNumber, position);
+            text.append(firstName).append(' ').append(lastName).append(" (ID: ").append(employeeNumber)
+                .append(", Position: ").append(position).append(')');
         }
+        return text.toString();
     }
 }
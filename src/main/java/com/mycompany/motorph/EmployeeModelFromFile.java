@@ -5,27 +5,66 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date; 
 import java.text.SimpleDateFormat;
 import java.util.List;
+import java.util.function.Predicate;
 
 public class EmployeeModelFromFile {
     private static String filePath = "src/main/resources/EmployeeData.xlsx";
-    private static final List<Employee> employees = loadEmployees();
+    private static final String REJECT_FILE_PATH = "employee-rejects.csv";
+    private static List<Employee> employees; // Loaded from filePath on first use
 
     /**
-     * Loads employee data from the Excel file
+     * Returns the employees from the configured file, loading them on first use
+     * or after the file path changed.
+     */
+    static synchronized List<Employee> employees() {
+        if (employees == null) {
+            RejectSink rejects = new RejectSink("Employee");
+            employees = loadEmployees(filePath, rejects);
+            if (!rejects.isEmpty()) {
+                try {
+                    rejects.writeTo(Path.of(REJECT_FILE_PATH));
+                } catch (IOException e) {
+                    System.err.println("Error writing employee rejects: " + e.getMessage());
+                }
+            }
+        }
+        return employees;
+    }
+
+    /**
+     * Loads employee data from an Excel file
+     * @param filePath Path to the employee workbook
+     * @param rejects Sink receiving invalid values
+     * @return List of Employee objects
+     */
+    public static List<Employee> loadEmployees(String filePath, RejectSink rejects) {
+        return loadEmployees(filePath, rejects, id -> true);
+    }
+
+    /**
+     * Loads the employees accepted by a filter on the employee number
+     * @param filePath Path to the employee workbook
+     * @param rejects Sink receiving invalid values
+     * @param employeeFilter Accepts the employee numbers to load; other rows are skipped
      * @return List of Employee objects
      */
-    private static List<Employee> loadEmployees() {
+    public static List<Employee> loadEmployees(String filePath, RejectSink rejects, Predicate<String> employeeFilter) {
         List<Employee> employeeList = new ArrayList<>();
+        PayrollEvents.WorkbookLoad event = new PayrollEvents.WorkbookLoad();
+        event.begin();
+        int rejectsBefore = rejects.size();
 
         try (FileInputStream fis = new FileInputStream(filePath);
              Workbook workbook = new XSSFWorkbook(fis)) {
 
             Sheet sheet = workbook.getSheetAt(0);
+            String source = Path.of(filePath).getFileName() + "!" + sheet.getSheetName();
             for (Row row : sheet) {
                 if (row.getRowNum() == 0) continue; // Skip header row
 
@@ -47,14 +86,16 @@ public class EmployeeModelFromFile {
                     }
                 }
 
-                if (rowData.size() >= 19) {
-                    employeeList.add(new Employee(rowData.toArray(new String[0])));
+                if (rowData.size() >= 19 && employeeFilter.test(rowData.get(0))) {
+                    employeeList.add(new Employee(rowData.toArray(new String[0]), rejects, source, row.getRowNum() + 1));
                 }
             }
+            event.finish(Path.of(filePath), "Employees", 1, employeeList.size(), rejects.size() - rejectsBefore);
         } catch (IOException e) {
             System.err.println("Error loading employee data: " + e.getMessage());
         }
 
+        rejects.logSummary();
         return employeeList;
     }
 
@@ -63,7 +104,7 @@ public class EmployeeModelFromFile {
      * @return List of Employee objects
      */
     public static List<Employee> getEmployeeModelList() {
-        return Collections.unmodifiableList(employees);
+        return Collections.unmodifiableList(employees());
     }
 
     /**
@@ -72,17 +113,18 @@ public class EmployeeModelFromFile {
      * @return Employee object if found, null otherwise
      */
     public static Employee getEmployeeById(String employeeId) {
-        return employees.stream()
+        return employees().stream()
                 .filter(e -> e.getEmployeeNumber().equals(employeeId))
                 .findFirst()
                 .orElse(null);
     }
 
     /**
-     * Updates the file path for the employee data
+     * Updates the file path for the employee data; the employees are reloaded on next use
      * @param newFilePath New path to the employee data file
      */
-    public static void setFilePath(String newFilePath) {
+    public static synchronized void setFilePath(String newFilePath) {
         filePath = newFilePath;
+        employees = null;
     }
 }
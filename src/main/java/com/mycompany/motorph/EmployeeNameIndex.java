@@ -0,0 +1,451 @@
+package com.mycompany.motorph;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Finds employees by name or employee number for interactive lookup.
+ *
+ * First names, last names and employee numbers are normalised (lower case,
+ * accents removed) and split into words. The distinct words are kept sorted,
+ * so the words starting with a prefix are one binary search away, and each
+ * word lists the employees it belongs to. For typo tolerance every name word
+ * is also indexed by its trigrams: a mistyped query word is compared only
+ * with the words sharing enough trigrams to be within the allowed edit
+ * distance. Employee numbers are only matched exactly or by prefix.
+ *
+ * Every query word must match a word of the employee. Exact matches rank
+ * above prefix matches, which rank above typo matches; ties are broken by
+ * last name, first name and employee number. Queries reuse their scratch
+ * arrays and only touch the employees and words that match, so a search
+ * costs about the same at any headcount.
+ */
+public final class EmployeeNameIndex {
+    private static final int EXACT_SCORE = 100;
+    private static final int PREFIX_SCORE = 60;
+    private static final int TYPO_SCORE = 40;
+    private static final int TYPO_PENALTY = 15; // Per edit
+    private static final char PAD = '\u0000';
+
+    private static final Comparator<Employee> NAME_ORDER = Comparator
+        .comparing((Employee employee) -> employee.getLastName(), String.CASE_INSENSITIVE_ORDER)
+        .thenComparing(Employee::getFirstName, String.CASE_INSENSITIVE_ORDER)
+        .thenComparing(Employee::getEmployeeNumber);
+
+    private final Employee[] employees; // In name order, so a lower index wins a tie
+    private final String[] words; // Sorted, distinct
+    private final int[][] postings; // Employees having each word, ascending
+    private final Map<String, int[]> wordsByTrigram;
+    private final AtomicReference<Scratch> idleScratch = new AtomicReference<>();
+
+    /**
+     * A ranked search result.
+     */
+    public static final class Match {
+        private final Employee employee;
+        private final int score;
+
+        Match(Employee employee, int score) {
+            this.employee = employee;
+            this.score = score;
+        }
+
+        // Getters
+        public Employee getEmployee() { return employee; }
+        public int getScore() { return score; }
+    }
+
+    public EmployeeNameIndex(List<Employee> employees) {
+        if (employees == null) {
+            throw new IllegalArgumentException("Employees cannot be null");
+        }
+        this.employees = employees.toArray(new Employee[0]);
+        Arrays.sort(this.employees, NAME_ORDER);
+
+        Map<String, IntList> employeesByWord = new HashMap<>();
+        for (int e = 0; e < this.employees.length; e++) {
+            Employee employee = this.employees[e];
+            for (String field : new String[]{employee.getLastName(), employee.getFirstName(),
+                                             employee.getEmployeeNumber()}) {
+                for (String word : words(field)) {
+                    employeesByWord.computeIfAbsent(word, w -> new IntList()).addOnce(e);
+                }
+            }
+        }
+
+        this.words = employeesByWord.keySet().toArray(new String[0]);
+        Arrays.sort(words);
+        this.postings = new int[words.length][];
+        Map<String, IntList> trigrams = new HashMap<>();
+        for (int w = 0; w < words.length; w++) {
+            postings[w] = employeesByWord.get(words[w]).toArray();
+            if (!Character.isLetter(words[w].charAt(0))) {
+                continue; // Employee numbers are matched exactly or by prefix
+            }
+            for (String trigram : trigrams(words[w])) {
+                trigrams.computeIfAbsent(trigram, t -> new IntList()).addOnce(w);
+            }
+        }
+        this.wordsByTrigram = new HashMap<>(trigrams.size() * 2);
+        trigrams.forEach((trigram, list) -> wordsByTrigram.put(trigram, list.toArray()));
+    }
+
+    /**
+     * @param query Words of a name or employee number, in any order, possibly mistyped or partial
+     * @param limit Most matches to return
+     * @return The best matches, best first
+     */
+    public List<Match> search(String query, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        List<String> queryWords = words(query);
+        if (queryWords.isEmpty()) {
+            return List.of();
+        }
+
+        Scratch scratch = idleScratch.getAndSet(null);
+        if (scratch == null) {
+            scratch = new Scratch(employees.length, words.length); // First query, or one running concurrently
+        }
+        try {
+            scratch.startQuery();
+            for (int q = 0; q < queryWords.size(); q++) {
+                String queryWord = queryWords.get(q);
+                scratch.startWord(q);
+
+                // Words starting with the query word, including the word itself
+                for (int w = lowerBound(queryWord); w < words.length && words[w].startsWith(queryWord); w++) {
+                    int score = words[w].length() == queryWord.length()
+                        ? EXACT_SCORE
+                        : PREFIX_SCORE - Math.min(PREFIX_SCORE / 2, words[w].length() - queryWord.length());
+                    scratch.credit(postings[w], score);
+                }
+
+                // Words within the allowed edit distance
+                int maxEdits = maxEdits(queryWord);
+                if (maxEdits > 0) {
+                    int candidates = typoCandidates(queryWord, maxEdits, scratch);
+                    for (int i = 0; i < candidates; i++) {
+                        int w = scratch.candidates[i];
+                        int edits = editDistance(queryWord, words[w], maxEdits);
+                        if (edits > 0 && edits <= maxEdits) {
+                            scratch.credit(postings[w], TYPO_SCORE - TYPO_PENALTY * (edits - 1));
+                        }
+                    }
+                }
+                scratch.endWord();
+            }
+            return top(scratch, limit);
+        } finally {
+            idleScratch.set(scratch);
+        }
+    }
+
+    /**
+     * Selects the best of the employees credited for the last query word,
+     * which are those that matched every word, with a bounded heap of
+     * (score, index) keys.
+     */
+    private List<Match> top(Scratch scratch, int limit) {
+        long[] heap = new long[Math.min(limit, scratch.touchedCount)];
+        int size = 0;
+        for (int i = 0; i < scratch.touchedCount; i++) {
+            int e = scratch.touched[i];
+            long key = rankKey(scratch.total[e], e); // Smaller is better
+            if (size < heap.length) {
+                heap[size] = key;
+                siftUp(heap, size++);
+            } else if (key < heap[0]) {
+                heap[0] = key;
+                siftDown(heap, size);
+            }
+        }
+        Arrays.sort(heap, 0, size);
+        List<Match> matches = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int e = (int) heap[i];
+            matches.add(new Match(employees[e], scratch.total[e]));
+        }
+        return matches;
+    }
+
+    private static long rankKey(int score, int employee) {
+        return ((long) (Integer.MAX_VALUE - score) << 32) | employee;
+    }
+
+    // Max-heap: the worst kept key sits at the root
+    private static void siftUp(long[] heap, int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (heap[parent] >= heap[i]) {
+                return;
+            }
+            long swap = heap[parent];
+            heap[parent] = heap[i];
+            heap[i] = swap;
+            i = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int i = 0;
+        while (true) {
+            int largest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && heap[left] > heap[largest]) {
+                largest = left;
+            }
+            if (right < size && heap[right] > heap[largest]) {
+                largest = right;
+            }
+            if (largest == i) {
+                return;
+            }
+            long swap = heap[largest];
+            heap[largest] = heap[i];
+            heap[i] = swap;
+            i = largest;
+        }
+    }
+
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = words.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (words[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Collects the words sharing enough trigrams with the query word. One
+     * edit changes at most three trigrams, so a word within {@code maxEdits}
+     * shares at least {@code trigrams - 3 * maxEdits} of them.
+     * @return Number of candidates, stored in the scratch
+     */
+    private int typoCandidates(String queryWord, int maxEdits, Scratch scratch) {
+        List<String> queryTrigrams = trigrams(queryWord);
+        int required = queryTrigrams.size() - 3 * maxEdits;
+        int count = 0;
+        scratch.wordGeneration++;
+        for (String trigram : queryTrigrams) {
+            int[] wordIds = wordsByTrigram.get(trigram);
+            if (wordIds == null) {
+                continue;
+            }
+            for (int w : wordIds) {
+                if (Math.abs(words[w].length() - queryWord.length()) > maxEdits) {
+                    continue;
+                }
+                if (scratch.sharedGeneration[w] != scratch.wordGeneration) {
+                    scratch.sharedGeneration[w] = scratch.wordGeneration;
+                    scratch.shared[w] = 0;
+                }
+                if (++scratch.shared[w] == required) {
+                    if (count == scratch.candidates.length) {
+                        scratch.candidates = Arrays.copyOf(scratch.candidates, count * 2);
+                    }
+                    scratch.candidates[count++] = w;
+                }
+            }
+        }
+        return count;
+    }
+
+    // Short words would match too many others with a typo
+    private static int maxEdits(String word) {
+        if (word.length() <= 2) {
+            return 0;
+        }
+        return word.length() <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Levenshtein distance, or {@code maxEdits + 1} once it must exceed {@code maxEdits}.
+     */
+    static int editDistance(String a, String b, int maxEdits) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], maxEdits + 1);
+    }
+
+    /**
+     * @return The trigrams of a word padded with two leading and one trailing pad character
+     */
+    private static List<String> trigrams(String word) {
+        String padded = "" + PAD + PAD + word + PAD;
+        List<String> trigrams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    /**
+     * @return The normalised words of a name: lower case, without accents, split at anything but letters and digits
+     */
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>(4);
+        if (text == null) {
+            return words;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                text = Normalizer.normalize(text, Normalizer.Form.NFD); // Splits accents off their letters
+                break;
+            }
+        }
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int type = Character.getType(c);
+            if (type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK
+                    || type == Character.ENCLOSING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+            } else if (word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (word.length() > 0) {
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    public int size() {
+        return employees.length;
+    }
+
+    /**
+     * Growable int array for building postings.
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        // Values arrive in ascending order, so a repeat is always the last one
+        void addOnce(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * Per-query state, reused between queries. An employee takes the best
+     * score of the index words matching each query word and drops out on the
+     * first query word it does not match. Entries are valid only for the
+     * current generation, so nothing has to be cleared between queries.
+     */
+    private static final class Scratch {
+        private final int[] total;
+        private final int[] matchedWords;
+        private final int[] best;
+        private final int[] employeeGeneration;
+        private int generation;
+        private int[] touched = new int[16];
+        private int touchedCount;
+        private int word;
+
+        private final int[] shared;
+        private final int[] sharedGeneration;
+        private int wordGeneration;
+        private int[] candidates = new int[16];
+
+        Scratch(int employeeCount, int wordCount) {
+            total = new int[employeeCount];
+            matchedWords = new int[employeeCount];
+            best = new int[employeeCount];
+            employeeGeneration = new int[employeeCount];
+            shared = new int[wordCount];
+            sharedGeneration = new int[wordCount];
+        }
+
+        void startQuery() {
+            generation++;
+        }
+
+        void startWord(int word) {
+            this.word = word;
+            touchedCount = 0;
+        }
+
+        void credit(int[] employeesOfWord, int score) {
+            for (int e : employeesOfWord) {
+                if (employeeGeneration[e] != generation) {
+                    if (word != 0) {
+                        continue; // Missed the first query word
+                    }
+                    employeeGeneration[e] = generation;
+                    total[e] = 0;
+                    matchedWords[e] = 0;
+                    best[e] = 0;
+                }
+                if (best[e] == 0) {
+                    if (matchedWords[e] != word) {
+                        continue; // Missed an earlier query word
+                    }
+                    matchedWords[e]++;
+                    if (touchedCount == touched.length) {
+                        touched = Arrays.copyOf(touched, touchedCount * 2);
+                    }
+                    touched[touchedCount++] = e;
+                    best[e] = score;
+                } else if (score > best[e]) {
+                    best[e] = score;
+                }
+            }
+        }
+
+        void endWord() {
+            for (int i = 0; i < touchedCount; i++) {
+                int e = touched[i];
+                total[e] += best[e];
+                best[e] = 0;
+            }
+        }
+    }
+}
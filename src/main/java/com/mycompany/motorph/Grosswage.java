@@ -1,10 +1,15 @@
 package com.mycompany.motorph;
 
 import java.time.LocalTime;
-import java.util.List;
 import java.time.LocalDate;
+import java.util.List;
 
 public class Grosswage extends Calculation {
+    static final double REGULAR_HOURS_PER_DAY = 8.0;
+    static final double OVERTIME_MULTIPLIER = 1.25;
+    static final double NIGHT_SHIFT_OVERTIME_MULTIPLIER = 1.10;
+
+    private final PayrollContext context;
     private final String employeeID;
     private final String employeeName;
     private double gross;
@@ -15,6 +20,7 @@ public class Grosswage extends Calculation {
     private final boolean isFirstHalf;
     private final LocalTime shiftStartTime;
     private final boolean nightShift;
+    private final AuditTrace trace;
 
     // Detailed breakdown fields
     private double regularHours;
@@ -25,6 +31,18 @@ public class Grosswage extends Calculation {
 
     public Grosswage(String empId, String firstName, String lastName, int year, 
                    int month, boolean isFirstHalf, LocalTime shiftStartTime, boolean nightShift) {
+        this(PayrollContext.defaultContext(), empId, firstName, lastName, year, month,
+             isFirstHalf, shiftStartTime, nightShift);
+    }
+
+    /**
+     * Computes gross pay from the employees, attendance and holidays of the given context.
+     */
+    public Grosswage(PayrollContext context, String empId, String firstName, String lastName, int year,
+                   int month, boolean isFirstHalf, LocalTime shiftStartTime, boolean nightShift) {
+        if (context == null) {
+            throw new IllegalArgumentException("Payroll context cannot be null");
+        }
         if (empId == null || empId.trim().isEmpty()) {
             throw new IllegalArgumentException("Employee ID cannot be null or empty");
         }
@@ -41,6 +59,7 @@ public class Grosswage extends Calculation {
             throw new IllegalArgumentException("Shift start time cannot be null");
         }
 
+        this.context = context;
         this.employeeID = empId;
         this.employeeName = firstName + " " + lastName;
         this.year = year;
@@ -48,12 +67,17 @@ public class Grosswage extends Calculation {
         this.isFirstHalf = isFirstHalf;
         this.shiftStartTime = shiftStartTime;
         this.nightShift = nightShift;
+        this.trace = AuditTrace.forCalculation(empId, year, month, isFirstHalf);
     }
 
     @Override
     public double calculate() {
-        List<Employee> employees = EmployeeModelFromFile.getEmployeeModelList();
-        Employee employee = findEmployeeById(employeeID, employees);
+        PayrollEvents.GrossComputation event = null;
+        if (PayrollEvents.GROSS_COMPUTATION.isEnabled()) {
+            event = new PayrollEvents.GrossComputation();
+            event.begin();
+        }
+        Employee employee = context.getEmployee(employeeID);
         
         if (employee == null) {
             throw new IllegalStateException("Employee ID " + employeeID + " not found");
@@ -64,30 +88,78 @@ public class Grosswage extends Calculation {
             throw new IllegalStateException("Invalid hourly rate for employee");
         }
 
-        hoursWorked = AttendanceRecord.calculateTotalHours(year, month, employeeID, isFirstHalf);
+        List<AttendanceRecord> monthRecords = context.attendanceFor(employeeID, year, month);
+        calculatePayWithHolidayRates(monthRecords);
+        hoursWorked = regularHours + overtimeHours;
         if (hoursWorked < 0) {
             throw new IllegalStateException("Invalid hours worked calculation");
         }
-
-        calculatePayWithHolidayRates();
         gross = regularPay + overtimePay;
         
         // Validate calculations
         validateHolidayPay();
-        
+
+        if (event != null) {
+            event.end();
+        }
+        if (event != null && event.shouldCommit()) {
+            event.employeeId = employeeID;
+            event.period = PayPeriod.of(year, month, isFirstHalf).toString();
+            event.recordsScanned = monthRecords.size();
+            event.hoursWorked = hoursWorked;
+            event.gross = gross;
+            event.commit();
+        }
         return gross;
     }
 
-    private void calculatePayWithHolidayRates() {
+    /**
+     * Groups the half's records by day of month with a counting sort and
+     * prices each day once, on the merged hours of all its punches.
+     */
+    private void calculatePayWithHolidayRates(List<AttendanceRecord> monthRecords) {
         resetCounters();
-        
-        for (AttendanceRecord record : AttendanceRecord.getAttendanceRecords()) {
-            if (isRecordForThisPayPeriod(record)) {
-                processDailyHours(record);
+        if (trace.isEnabled()) {
+            trace.startGross(hourlyRate);
+        }
+
+        int[] dayStart = new int[33]; // Records of day d are byDay[dayStart[d] .. dayStart[d + 1])
+        for (AttendanceRecord record : monthRecords) {
+            if (isInPeriod(record)) {
+                dayStart[record.getDate().getDayOfMonth() + 1]++;
+            }
+        }
+        for (int day = 1; day < 32; day++) {
+            dayStart[day + 1] += dayStart[day];
+        }
+        AttendanceRecord[] byDay = new AttendanceRecord[dayStart[32]];
+        int[] next = dayStart.clone();
+        for (AttendanceRecord record : monthRecords) {
+            if (isInPeriod(record)) {
+                byDay[next[record.getDate().getDayOfMonth()]++] = record;
+            }
+        }
+
+        long[] intervals = new long[byDay.length];
+        for (int day = 1; day <= 31; day++) {
+            int punches = 0;
+            for (int i = dayStart[day]; i < dayStart[day + 1]; i++) {
+                AttendanceRecord record = byDay[i];
+                if (record.getTimeIn() != null && record.getTimeOut() != null) {
+                    intervals[punches++] = PunchIntervals.pack(record.getTimeIn(), record.getTimeOut());
+                }
+            }
+            if (punches > 0) {
+                double dailyHours = PunchIntervals.hours(PunchIntervals.mergedSeconds(intervals, punches));
+                processDailyHours(byDay, dayStart[day], dayStart[day + 1], dailyHours);
             }
         }
     }
 
+    private boolean isInPeriod(AttendanceRecord record) {
+        return (record.getDate().getDayOfMonth() <= 15) == isFirstHalf;
+    }
+
     private void resetCounters() {
         regularHours = 0;
         overtimeHours = 0;
@@ -96,62 +168,79 @@ public class Grosswage extends Calculation {
         holidayPay = 0;
     }
 
-    private boolean isRecordForThisPayPeriod(AttendanceRecord record) {
-        return record.getId().equals(employeeID) &&
-               record.getDate().getYear() == year &&
-               record.getDate().getMonthValue() == month &&
-               (record.getDate().getDayOfMonth() <= 15) == isFirstHalf;
+    /**
+     * Prices one day from the records {@code from} to {@code to - 1}, all of the same date.
+     */
+    private void processDailyHours(AttendanceRecord[] records, int from, int to, double dailyHours) {
+        LocalDate date = records[from].getDate();
+        DayPay day = dayPay(date, dailyHours, hourlyRate, nightShift, context.getHolidays());
+        regularHours += day.regularHours();
+        overtimeHours += day.overtimeHours();
+        regularPay += day.regularPay();
+        overtimePay += day.overtimePay();
+        holidayPay += day.holidayPay();
+        if (trace.isEnabled()) {
+            HolidayCalendar holidays = context.getHolidays();
+            StringBuilder punches = new StringBuilder();
+            for (int i = from; i < to; i++) {
+                if (i > from) {
+                    punches.append(", ");
+                }
+                punches.append(records[i].getTimeIn()).append('-').append(records[i].getTimeOut());
+            }
+            trace.day(date, punches.toString(), dailyHours, day.regularHours(), day.overtimeHours(),
+                nightShift ? NIGHT_SHIFT_OVERTIME_MULTIPLIER : OVERTIME_MULTIPLIER,
+                holidays.isHoliday(date) ? holidays.getHolidayPayMultiplier(date) : 1.0,
+                day.regularPay(), day.overtimePay(), day.holidayPay());
+        }
     }
 
-    private void processDailyHours(AttendanceRecord record) {
-        LocalDate recordDate = record.getDate();
-        double dailyHours = record.calculateHoursWorked();
-        double dayRegular = Math.min(dailyHours, 8.0);
-        double dayOvertime = Math.max(0, dailyHours - 8.0);
-
-        if (HolidayChecker.isHoliday(recordDate)) {
-            applyHolidayRates(recordDate, dayRegular, dayOvertime);
-        } else {
-            applyRegularRates(dayRegular, dayOvertime);
-        }
+    /**
+     * Pay of one day. Days are priced independently, so a period's gross is
+     * the sum of its days' pay.
+     */
+    record DayPay(double regularHours, double overtimeHours, double regularPay, double overtimePay,
+                  double holidayPay) {
     }
 
-    private void applyHolidayRates(LocalDate date, double regularHrs, double overtimeHrs) {
-        double multiplier = HolidayChecker.getHolidayPayMultiplier(date);
-        double holidayPremiumRate = multiplier - 1.0;
-        
-        // Base pay (includes regular 100% pay)
-        regularPay += regularHrs * hourlyRate * multiplier;
-        
-        // Holiday premium (additional pay only)
-        holidayPay += regularHrs * hourlyRate * holidayPremiumRate;
-        
-        if (overtimeHrs > 0) {
-            // Standard overtime rate first
-            double overtimeRate = nightShift ? 1.10 : 1.25;
-            double baseOvertime = overtimeHrs * hourlyRate * overtimeRate;
-            
-            // Holiday premium for overtime
-            double overtimePremium = overtimeHrs * hourlyRate * holidayPremiumRate;
-            
-            overtimePay += baseOvertime;
-            holidayPay += overtimePremium;
-        }
-
-        regularHours += regularHrs;
-        overtimeHours += overtimeHrs;
+    /**
+     * Prices one record as a whole day of work.
+     */
+    static DayPay dayPay(AttendanceRecord record, double hourlyRate, boolean nightShift, HolidayCalendar holidays) {
+        return dayPay(record.getDate(), record.calculateHoursWorked(), hourlyRate, nightShift, holidays);
     }
 
-    private void applyRegularRates(double regularHrs, double overtimeHrs) {
-        regularPay += regularHrs * hourlyRate;
-        
-        if (overtimeHrs > 0) {
-            double overtimeMultiplier = nightShift ? 1.10 : 1.25;
-            overtimePay += overtimeHrs * hourlyRate * overtimeMultiplier;
+    /**
+     * Splits a day's hours at {@link #REGULAR_HOURS_PER_DAY} and prices
+     * them at regular, overtime and holiday rates.
+     */
+    static DayPay dayPay(LocalDate recordDate, double dailyHours, double hourlyRate, boolean nightShift,
+                         HolidayCalendar holidays) {
+        double dayRegular = Math.min(dailyHours, REGULAR_HOURS_PER_DAY);
+        double dayOvertime = Math.max(0, dailyHours - REGULAR_HOURS_PER_DAY);
+        double overtimeRate = nightShift ? NIGHT_SHIFT_OVERTIME_MULTIPLIER : OVERTIME_MULTIPLIER;
+
+        if (holidays.isHoliday(recordDate)) {
+            double multiplier = holidays.getHolidayPayMultiplier(recordDate);
+            double holidayPremiumRate = multiplier - 1.0;
+
+            // Base pay (includes regular 100% pay)
+            double regular = dayRegular * hourlyRate * multiplier;
+
+            // Holiday premium (additional pay only)
+            double premium = dayRegular * hourlyRate * holidayPremiumRate;
+
+            double overtime = 0;
+            if (dayOvertime > 0) {
+                // Standard overtime rate first, then the holiday premium for overtime
+                overtime = dayOvertime * hourlyRate * overtimeRate;
+                premium += dayOvertime * hourlyRate * holidayPremiumRate;
+            }
+            return new DayPay(dayRegular, dayOvertime, regular, overtime, premium);
         }
-        
-        regularHours += regularHrs;
-        overtimeHours += overtimeHrs;
+
+        double overtime = dayOvertime > 0 ? dayOvertime * hourlyRate * overtimeRate : 0;
+        return new DayPay(dayRegular, dayOvertime, dayRegular * hourlyRate, overtime, 0);
     }
 
     private void validateHolidayPay() {
@@ -167,6 +256,7 @@ public class Grosswage extends Calculation {
     }
 
     // Getters
+    public PayrollContext getContext() { return context; }
     public double getRegularHours() { return regularHours; }
     public double getOvertimeHours() { return overtimeHours; }
     public double getRegularPay() { return regularPay; }
@@ -181,14 +271,8 @@ public class Grosswage extends Calculation {
     public boolean isFirstHalf() { return isFirstHalf; }
     public LocalTime getShiftStartTime() { return shiftStartTime; }
     public boolean isNightShift() { return nightShift; }
+    public AuditTrace getTrace() { return trace; }
 
-    private Employee findEmployeeById(String employeeId, List<Employee> employees) {
-        return employees.stream()
-            .filter(e -> e != null && e.getEmployeeNumber().equals(employeeId))
-            .findFirst()
-            .orElse(null);
-    }
-    
     public void printCalculationDetails() {
         System.out.println("\nCalculation Details:");
         System.out.printf("Hourly Rate: PHP %.2f%n", hourlyRate);
@@ -0,0 +1,67 @@
+package com.mycompany.motorph;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Immutable set of regular holidays and special non-working days.
+ * Calendars are compared by content, so identical calendars used by several
+ * tenants can be shared via {@link SharedTables}.
+ */
+public final class HolidayCalendar {
+    private final Set<LocalDate> regularHolidays;
+    private final Set<LocalDate> specialNonWorkingDays;
+
+    public HolidayCalendar(Set<LocalDate> regularHolidays, Set<LocalDate> specialNonWorkingDays) {
+        if (regularHolidays == null || specialNonWorkingDays == null) {
+            throw new IllegalArgumentException("Holiday sets cannot be null");
+        }
+        this.regularHolidays = Collections.unmodifiableSet(new HashSet<>(regularHolidays));
+        this.specialNonWorkingDays = Collections.unmodifiableSet(new HashSet<>(specialNonWorkingDays));
+    }
+
+    public boolean isRegularHoliday(LocalDate date) {
+        return regularHolidays.contains(date);
+    }
+
+    public boolean isSpecialNonWorkingDay(LocalDate date) {
+        return specialNonWorkingDays.contains(date);
+    }
+
+    public boolean isHoliday(LocalDate date) {
+        return isRegularHoliday(date) || isSpecialNonWorkingDay(date);
+    }
+
+    /**
+     * @return 2.0 for regular holidays, 1.3 for special days, 1.0 otherwise
+     */
+    public double getHolidayPayMultiplier(LocalDate date) {
+        if (isRegularHoliday(date)) return HolidayChecker.REGULAR_HOLIDAY_MULTIPLIER;
+        if (isSpecialNonWorkingDay(date)) return HolidayChecker.SPECIAL_DAY_MULTIPLIER;
+        return 1.0;
+    }
+
+    public Set<LocalDate> getRegularHolidays() {
+        return regularHolidays;
+    }
+
+    public Set<LocalDate> getSpecialNonWorkingDays() {
+        return specialNonWorkingDays;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof HolidayCalendar)) return false;
+        HolidayCalendar other = (HolidayCalendar) o;
+        return regularHolidays.equals(other.regularHolidays)
+            && specialNonWorkingDays.equals(other.specialNonWorkingDays);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * regularHolidays.hashCode() + specialNonWorkingDays.hashCode();
+    }
+}
@@ -0,0 +1,47 @@
+package com.mycompany.motorph;
+
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Built-in rule: deduction for minutes clocked in after the grace period,
+ * as computed by {@link LatePenalty}, from the attendance of the batch's
+ * payroll context.
+ */
+public class LateDeductionRule implements DeductionRule {
+    public static final String NAME = "Late";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public int order() {
+        return 400;
+    }
+
+    @Override
+    public boolean isPreTax() {
+        return true;
+    }
+
+    @Override
+    public boolean isStatutory() {
+        return true;
+    }
+
+    @Override
+    public void apply(DeductionBatch batch, double[] amounts) {
+        PayrollContext context = batch.getContext();
+        PayPeriod period = batch.getPeriod();
+        String[] employeeIds = batch.getEmployeeIds();
+        double[] hourlyRate = batch.getHourlyRate();
+        LocalTime[] shiftStartTime = batch.getShiftStartTime();
+        for (int i = 0; i < amounts.length; i++) {
+            List<AttendanceRecord> records = context.attendanceFor(employeeIds[i], period.getYear(), period.getMonth());
+            amounts[i] = LatePenalty.deductionFor(records, period.getStartDate(), period.getEndDate(),
+                                                  hourlyRate[i], shiftStartTime[i], batch.traceFor(i));
+        }
+    }
+}
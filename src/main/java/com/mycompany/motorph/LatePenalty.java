@@ -8,6 +8,7 @@ import java.util.List;
 import java.time.DateTimeException;
 
 public class LatePenalty extends Calculation {
+    private final PayrollContext context;
     private final String targetEmployeeID;
     private final int targetMonth;
     private final int targetYear;
@@ -15,7 +16,7 @@ public class LatePenalty extends Calculation {
     private final double hourlyRate;
     private final LocalTime shiftStartTime;
     
-    private static final int GRACE_PERIOD_MINUTES = 15;
+    static final int GRACE_PERIOD_MINUTES = 15;
     private static final LocalTime SHIFT_8AM = LocalTime.of(8, 0);
     private static final LocalTime SHIFT_9AM = LocalTime.of(9, 0);
     private static final LocalTime SHIFT_10AM = LocalTime.of(10, 0);
@@ -26,6 +27,18 @@ public class LatePenalty extends Calculation {
 
     public LatePenalty(String targetEmployeeID, int targetMonth, int targetYear, 
                       PayrollCycle payrollCycle, double hourlyRate, LocalTime shiftStartTime) {
+        this(PayrollContext.defaultContext(), targetEmployeeID, targetMonth, targetYear,
+             payrollCycle, hourlyRate, shiftStartTime);
+    }
+
+    /**
+     * Computes the late deduction from the attendance of the given context.
+     */
+    public LatePenalty(PayrollContext context, String targetEmployeeID, int targetMonth, int targetYear,
+                      PayrollCycle payrollCycle, double hourlyRate, LocalTime shiftStartTime) {
+        if (context == null) {
+            throw new IllegalArgumentException("Payroll context cannot be null");
+        }
         if (targetEmployeeID == null || targetEmployeeID.trim().isEmpty()) {
             throw new IllegalArgumentException("Employee ID cannot be null or empty");
         }
@@ -41,16 +54,9 @@ public class LatePenalty extends Calculation {
         if (hourlyRate <= 0) {
             throw new IllegalArgumentException("Hourly rate must be positive");
         }
-        if (shiftStartTime == null) {
-            throw new IllegalArgumentException("Shift start time cannot be null");
-        }
-        // Validate shift start time
-        if (!shiftStartTime.equals(SHIFT_8AM) && 
-            !shiftStartTime.equals(SHIFT_9AM) && 
-            !shiftStartTime.equals(SHIFT_10AM)) {
-            throw new IllegalArgumentException("Shift must be exactly 8:00, 9:00, or 10:00 AM");
-        }
+        validateShiftStart(shiftStartTime);
 
+        this.context = context;
         this.targetEmployeeID = targetEmployeeID;
         this.targetMonth = targetMonth;
         this.targetYear = targetYear;
@@ -70,32 +76,98 @@ public class LatePenalty extends Calculation {
                 ? yearMonth.atDay(15) 
                 : yearMonth.atEndOfMonth();
 
-            double totalLateDeduction = 0;
-            List<AttendanceRecord> attendanceRecords = AttendanceRecord.getAttendanceRecords();
+            return deductionFor(context.attendanceFor(targetEmployeeID, targetYear, targetMonth),
+                                cycleStart, cycleEnd, hourlyRate, shiftStartTime);
+        } catch (DateTimeException e) {
+            throw new IllegalStateException("Failed to calculate late penalty: " + e.getMessage(), e);
+        }
+    }
 
-            for (AttendanceRecord record : attendanceRecords) {
-                if (record != null && record.getId().equals(targetEmployeeID)) {
-                    LocalDate recordDate = record.getDate();
-                    if (recordDate != null && 
-                        !recordDate.isBefore(cycleStart) && 
-                        !recordDate.isAfter(cycleEnd)) {
-                        
-                        LocalTime timeIn = record.getTimeIn();
-                        if (timeIn != null) {
-                            LocalTime lateThreshold = shiftStartTime.plusMinutes(GRACE_PERIOD_MINUTES);
-                            if (timeIn.isAfter(lateThreshold)) {
-                                long minutesLate = java.time.Duration.between(lateThreshold, timeIn).toMinutes();
-                                double deduction = (hourlyRate / 60.0) * minutesLate;
-                                totalLateDeduction += Math.max(0, deduction);
-                            }
-                        }
-                    }
+    /**
+     * @throws IllegalArgumentException Unless the shift starts at exactly 8:00, 9:00 or 10:00 AM
+     */
+    static void validateShiftStart(LocalTime shiftStartTime) {
+        if (shiftStartTime == null) {
+            throw new IllegalArgumentException("Shift start time cannot be null");
+        }
+        if (!shiftStartTime.equals(SHIFT_8AM) && 
+            !shiftStartTime.equals(SHIFT_9AM) && 
+            !shiftStartTime.equals(SHIFT_10AM)) {
+            throw new IllegalArgumentException("Shift must be exactly 8:00, 9:00, or 10:00 AM");
+        }
+    }
+
+    /**
+     * Sums the late deductions of the days within a cycle. A day with several
+     * records, e.g. a lunch-out punch, is late only by its first time-in.
+     * @param records One employee's attendance; records outside the cycle are ignored
+     */
+    static double deductionFor(List<AttendanceRecord> records, LocalDate cycleStart, LocalDate cycleEnd,
+                               double hourlyRate, LocalTime shiftStartTime) {
+        return deductionFor(records, cycleStart, cycleEnd, hourlyRate, shiftStartTime, AuditTrace.DISABLED);
+    }
+
+    /**
+     * As {@link #deductionFor(List, LocalDate, LocalDate, double, LocalTime)},
+     * recording each late day in the trace.
+     */
+    static double deductionFor(List<AttendanceRecord> records, LocalDate cycleStart, LocalDate cycleEnd,
+                               double hourlyRate, LocalTime shiftStartTime, AuditTrace trace) {
+        if (trace.isEnabled()) {
+            trace.startLate();
+        }
+        // Earliest record of each day, by days since the cycle start
+        int days = (int) (cycleEnd.toEpochDay() - cycleStart.toEpochDay()) + 1;
+        if (days <= 0) {
+            return 0;
+        }
+        AttendanceRecord[] firstIn = new AttendanceRecord[days];
+        for (AttendanceRecord record : records) {
+            LocalDate recordDate = record.getDate();
+            if (recordDate != null && record.getTimeIn() != null &&
+                !recordDate.isBefore(cycleStart) && 
+                !recordDate.isAfter(cycleEnd)) {
+                int day = (int) (recordDate.toEpochDay() - cycleStart.toEpochDay());
+                if (firstIn[day] == null || record.getTimeIn().isBefore(firstIn[day].getTimeIn())) {
+                    firstIn[day] = record;
                 }
             }
-            return totalLateDeduction;
-        } catch (DateTimeException e) {
-            throw new IllegalStateException("Failed to calculate late penalty: " + e.getMessage(), e);
         }
+
+        double totalLateDeduction = 0;
+        for (AttendanceRecord record : firstIn) {
+            if (record == null) {
+                continue;
+            }
+            double deduction = deductionFor(record, hourlyRate, shiftStartTime);
+            totalLateDeduction += deduction;
+            if (deduction > 0 && trace.isEnabled()) {
+                LocalTime lateThreshold = shiftStartTime.plusMinutes(GRACE_PERIOD_MINUTES);
+                trace.late(record.getDate(), lateThreshold, record.getTimeIn(),
+                    java.time.Duration.between(lateThreshold, record.getTimeIn()).toMinutes(), deduction);
+            }
+        }
+        return totalLateDeduction;
+    }
+
+    /**
+     * @return The late deduction of one record, zero when clocked in within the grace period
+     */
+    static double deductionFor(AttendanceRecord record, double hourlyRate, LocalTime shiftStartTime) {
+        return deductionFor(record.getTimeIn(), hourlyRate, shiftStartTime);
+    }
+
+    /**
+     * @return The late deduction of a day whose earliest clock-in is {@code timeIn}
+     */
+    static double deductionFor(LocalTime timeIn, double hourlyRate, LocalTime shiftStartTime) {
+        LocalTime lateThreshold = shiftStartTime.plusMinutes(GRACE_PERIOD_MINUTES);
+        if (timeIn != null && timeIn.isAfter(lateThreshold)) {
+            long minutesLate = java.time.Duration.between(lateThreshold, timeIn).toMinutes();
+            double deduction = (hourlyRate / 60.0) * minutesLate;
+            return Math.max(0, deduction);
+        }
+        return 0;
     }
 
     // Getters
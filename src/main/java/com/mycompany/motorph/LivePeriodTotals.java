@@ -0,0 +1,245 @@
+package com.mycompany.motorph;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Running hours, pay and late deductions per employee and pay period,
+ * updated one attendance record at a time as punches arrive.
+ *
+ * The batch calculation prices a day, not a record: the day's punches are
+ * merged with {@link PunchIntervals} before the regular/overtime split, and
+ * the late deduction comes from the day's earliest clock-in. So each
+ * employee-day keeps its packed intervals and earliest clock-in, and a
+ * completed IN/OUT pair reprices its whole day with {@link Grosswage#dayPay}
+ * and {@link LatePenalty#deductionFor(LocalTime, double, LocalTime)}; the
+ * period totals drop the day's previous contribution and add the new one.
+ * The running totals therefore equal a full recompute over the same records,
+ * up to floating-point rounding. Queries read immutable snapshots and never
+ * recompute; updates are serialized.
+ */
+public class LivePeriodTotals {
+    private static final Grosswage.DayPay NO_PAY = new Grosswage.DayPay(0, 0, 0, 0, 0);
+
+    private final Supplier<PayrollContext> contextSupplier;
+    private final Map<String, Totals> totals = new ConcurrentHashMap<>();
+    private final Map<String, PunchEvent> openPunches = new HashMap<>(); // Clock-in awaiting its clock-out
+    private final Map<String, Day> days = new HashMap<>(); // By employee and date, guarded by this
+
+    /**
+     * The punches of one employee-day and what they currently contribute to
+     * the period totals.
+     */
+    private static final class Day {
+        private long[] intervals = new long[2];
+        private int punches;
+        private LocalTime firstIn;
+        private double hours;
+        private Grosswage.DayPay pay = NO_PAY;
+        private double late;
+    }
+
+    /**
+     * One employee's totals for one period.
+     */
+    public static final class Totals {
+        private final String employeeId;
+        private final PayPeriod period;
+        private final int records;
+        private final double hoursWorked;
+        private final double regularHours;
+        private final double overtimeHours;
+        private final double regularPay;
+        private final double overtimePay;
+        private final double holidayPay;
+        private final double lateDeduction;
+
+        Totals(String employeeId, PayPeriod period, int records, double hoursWorked, double regularHours,
+               double overtimeHours, double regularPay, double overtimePay, double holidayPay, double lateDeduction) {
+            this.employeeId = employeeId;
+            this.period = period;
+            this.records = records;
+            this.hoursWorked = hoursWorked;
+            this.regularHours = regularHours;
+            this.overtimeHours = overtimeHours;
+            this.regularPay = regularPay;
+            this.overtimePay = overtimePay;
+            this.holidayPay = holidayPay;
+            this.lateDeduction = lateDeduction;
+        }
+
+        static Totals empty(String employeeId, PayPeriod period) {
+            return new Totals(employeeId, period, 0, 0, 0, 0, 0, 0, 0, 0);
+        }
+
+        /**
+         * @return These totals with one more record, its day repriced from
+         *         {@code before} to the day's current pay and late deduction
+         */
+        Totals reprice(double hoursBefore, Grosswage.DayPay before, double lateBefore, Day day) {
+            Grosswage.DayPay after = day.pay;
+            return new Totals(employeeId, period, records + 1, hoursWorked - hoursBefore + day.hours,
+                regularHours - before.regularHours() + after.regularHours(),
+                overtimeHours - before.overtimeHours() + after.overtimeHours(),
+                regularPay - before.regularPay() + after.regularPay(),
+                overtimePay - before.overtimePay() + after.overtimePay(),
+                holidayPay - before.holidayPay() + after.holidayPay(),
+                lateDeduction - lateBefore + day.late);
+        }
+
+        /**
+         * @return Gross pay so far, as {@link Grosswage#calculate()} would return it
+         */
+        public double getGross() {
+            return regularPay + overtimePay;
+        }
+
+        // Getters
+        public String getEmployeeId() { return employeeId; }
+        public PayPeriod getPeriod() { return period; }
+        public int getRecords() { return records; }
+        public double getHoursWorked() { return hoursWorked; }
+        public double getRegularHours() { return regularHours; }
+        public double getOvertimeHours() { return overtimeHours; }
+        public double getRegularPay() { return regularPay; }
+        public double getOvertimePay() { return overtimePay; }
+        public double getHolidayPay() { return holidayPay; }
+        public double getLateDeduction() { return lateDeduction; }
+    }
+
+    /**
+     * @param contextSupplier Supplies the employees' rates, shifts and the holiday calendar
+     */
+    public LivePeriodTotals(Supplier<PayrollContext> contextSupplier) {
+        if (contextSupplier == null) {
+            throw new IllegalArgumentException("Context supplier cannot be null");
+        }
+        this.contextSupplier = contextSupplier;
+    }
+
+    /**
+     * Adds the records of a period already in the context, so live punches
+     * extend the loaded attendance rather than start from zero. Call it once
+     * per period, before that period's punches arrive.
+     * @return The number of records added
+     */
+    public synchronized int seed(PayPeriod period) {
+        PayrollContext context = contextSupplier.get();
+        int added = 0;
+        for (Employee employee : context.getEmployees()) {
+            for (AttendanceRecord record : context.attendanceFor(employee.getEmployeeNumber(),
+                    period.getYear(), period.getMonth())) {
+                if (period.equals(PayPeriod.containing(record.getDate()))) {
+                    add(context, employee, record);
+                    added++;
+                }
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Applies one punch. A clock-in is held until its clock-out arrives; the
+     * pair then becomes an attendance record dated on the clock-in day.
+     * @return The completed record, or null for a clock-in
+     * @throws IllegalArgumentException For an unknown employee, a second
+     *         clock-in without a clock-out, or a clock-out without a clock-in
+     */
+    public synchronized AttendanceRecord apply(PunchEvent punch) {
+        PayrollContext context = contextSupplier.get();
+        Employee employee = context.getEmployee(punch.getEmployeeId());
+        if (employee == null) {
+            throw new IllegalArgumentException("Unknown employee " + punch.getEmployeeId());
+        }
+
+        if (punch.getType() == PunchEvent.Type.IN) {
+            PunchEvent open = openPunches.putIfAbsent(punch.getEmployeeId(), punch);
+            if (open != null) {
+                throw new IllegalArgumentException("Employee " + punch.getEmployeeId()
+                    + " is already clocked in since " + open.getDate() + " " + open.getTime());
+            }
+            return null;
+        }
+
+        PunchEvent in = openPunches.remove(punch.getEmployeeId());
+        if (in == null) {
+            throw new IllegalArgumentException("Employee " + punch.getEmployeeId() + " clocked out without clocking in");
+        }
+        AttendanceRecord record = new AttendanceRecord(employee.getFirstName() + " " + employee.getLastName(),
+            employee.getEmployeeNumber(), in.getDate(), in.getTime(), punch.getTime());
+        add(context, employee, record);
+        return record;
+    }
+
+    /**
+     * Adds the record to its employee-day and reprices that day.
+     */
+    private void add(PayrollContext context, Employee employee, AttendanceRecord record) {
+        LocalDate date = record.getDate();
+        Day day = days.computeIfAbsent(employee.getEmployeeNumber() + "@" + date, k -> new Day());
+        double hoursBefore = day.hours;
+        Grosswage.DayPay payBefore = day.pay;
+        double lateBefore = day.late;
+
+        LocalTime timeIn = record.getTimeIn();
+        if (timeIn != null && record.getTimeOut() != null) {
+            if (day.punches == day.intervals.length) {
+                day.intervals = Arrays.copyOf(day.intervals, day.punches * 2);
+            }
+            day.intervals[day.punches++] = PunchIntervals.pack(timeIn, record.getTimeOut());
+            day.hours = PunchIntervals.hours(PunchIntervals.mergedSeconds(day.intervals, day.punches));
+            day.pay = Grosswage.dayPay(date, day.hours, employee.getHourlyRate(), employee.isNightShift(),
+                context.getHolidays());
+        }
+        if (timeIn != null && (day.firstIn == null || timeIn.isBefore(day.firstIn))) {
+            day.firstIn = timeIn;
+            day.late = LatePenalty.deductionFor(timeIn, employee.getHourlyRate(), employee.getShiftStartTime());
+        }
+
+        PayPeriod period = PayPeriod.containing(date);
+        totals.compute(key(employee.getEmployeeNumber(), period), (k, current) ->
+            (current == null ? Totals.empty(employee.getEmployeeNumber(), period) : current)
+                .reprice(hoursBefore, payBefore, lateBefore, day));
+    }
+
+    /**
+     * @return The employee's totals for the period, zero when nothing was recorded
+     */
+    public Totals get(String employeeId, PayPeriod period) {
+        Totals current = totals.get(key(employeeId, period));
+        return current == null ? Totals.empty(employeeId, period) : current;
+    }
+
+    /**
+     * @return Totals of every employee with records in the period, by employee ID
+     */
+    public List<Totals> forPeriod(PayPeriod period) {
+        List<Totals> result = new ArrayList<>();
+        for (Totals current : totals.values()) {
+            if (current.getPeriod().equals(period)) {
+                result.add(current);
+            }
+        }
+        result.sort(Comparator.comparing(Totals::getEmployeeId));
+        return result;
+    }
+
+    /**
+     * @return The clock-in still waiting for its clock-out, or null
+     */
+    public synchronized PunchEvent openPunch(String employeeId) {
+        return openPunches.get(employeeId);
+    }
+
+    private static String key(String employeeId, PayPeriod period) {
+        return employeeId + "#" + period.key();
+    }
+}
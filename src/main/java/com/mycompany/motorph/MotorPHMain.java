@@ -4,28 +4,108 @@
  */
 package com.mycompany.motorph;
 
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
-import java.text.DecimalFormat;
+import java.util.Set;
 
 public class MotorPHMain {
     private static final Scanner scanner = new Scanner(System.in);
-    private static final DecimalFormat decimalFormat = new DecimalFormat("#.##");
+    private static final YearToDateLedger ytdLedger = new YearToDateLedger();
+    private static final PayslipRenderer payslipRenderer = new PayslipRenderer(System.out.charset());
+    private static final Path LEDGER_DIRECTORY = Path.of("payroll-ledger");
+    private static final int CUTOFF_LEAD_DAYS = 2;
+    private static final int RECONCILE_DISPLAY_LIMIT = 50;
+    private static final int SEARCH_RESULT_LIMIT = 10;
+    private static final Path ARCHIVE_DIRECTORY = Path.of("attendance-archive");
+    private static final int HOT_MONTHS = 3; // Months of attendance kept in memory
+    private static final int DECODED_SEGMENT_LIMIT = 12; // Archived months kept decoded at once
+    private static final long CUTOFF_TICK_SECONDS = 300;
+    private static final CutoffScheduler cutoffScheduler = new CutoffScheduler(
+        PayrollContext::defaultContext, Clock.systemDefaultZone(), CUTOFF_LEAD_DAYS, 1);
+    private static final int PUNCH_STREAM_PORT = 5150;
+    private static final int PUNCH_QUEUE_CAPACITY = 10_000;
+    private static final LivePeriodTotals liveTotals = new LivePeriodTotals(PayrollContext::defaultContext);
+    private static final PunchStreamServer punchServer = new PunchStreamServer(liveTotals, PUNCH_QUEUE_CAPACITY);
+    private static PayrollCostCube costCube; // Rebuilt after each batch run
 
     public static void main(String[] args) {
         // Attempt to log in before proceeding to the main menu
         if (login()) {
             System.out.println("Current Working Directory: " + System.getProperty("user.dir"));
 
+            // Months already archived are skipped while the workbook is parsed, so their
+            // rows are neither kept nor compared with the segments
+            AttendanceArchive coldStore = null;
+            Set<YearMonth> archivedMonths = new HashSet<>();
+            try {
+                coldStore = AttendanceArchive.open(ARCHIVE_DIRECTORY, DECODED_SEGMENT_LIMIT);
+                archivedMonths.addAll(coldStore.getMonths());
+            } catch (IOException e) {
+                System.err.println("Attendance archive unavailable, keeping all months in memory: " + e.getMessage());
+            }
+
             // Load attendance records from the Excel file
             try {
-                AttendanceRecord.loadAttendanceFromExcel("src/main/resources/AttendanceRecord.xlsx");
+                AttendanceRecord.loadAttendanceFromExcel("src/main/resources/AttendanceRecord.xlsx",
+                    date -> !archivedMonths.contains(YearMonth.from(date)));
                 System.out.println("Attendance records loaded successfully.");
             } catch (Exception e) {
                 System.err.println("Error loading attendance records: " + e.getMessage());
                 return; // Exit if attendance records cannot be loaded
             }
 
+            // Keep recent months in memory and move newly loaded older ones to compressed monthly segments
+            if (coldStore != null) {
+                try {
+                    AttendanceRecord.archiveColdMonths(coldStore, HOT_MONTHS);
+                    System.out.println(AttendanceRecord.getAttendanceRecords().size()
+                        + " recent attendance records in memory, " + coldStore.getMonths().size()
+                        + " months archived in " + ARCHIVE_DIRECTORY + ".");
+                } catch (IOException e) {
+                    System.err.println("Error archiving attendance, keeping the loaded months in memory: "
+                        + e.getMessage());
+                }
+            }
+
+            // Rebuild year-to-date totals from previously committed batch results
+            try (PayrollLedger ledger = PayrollLedger.open(LEDGER_DIRECTORY)) {
+                ledger.forEach(ytdLedger::closePeriod);
+            } catch (IOException e) {
+                System.err.println("Error reading payroll ledger: " + e.getMessage());
+            }
+
+            // Index employee names and the reporting tree so lookups answer immediately
+            PayrollContext.defaultContext().getNameIndex();
+            SupervisorHierarchy hierarchy = PayrollContext.defaultContext().getHierarchy();
+            if (!hierarchy.getOrphans().isEmpty() || !hierarchy.getCycles().isEmpty()) {
+                System.out.println("Reporting tree: " + hierarchy.getOrphans().size()
+                    + " unresolved supervisors, " + hierarchy.getCycles().size() + " cycles (see option 14).");
+            }
+
+            // Pre-compute upcoming cutoffs in the background
+            cutoffScheduler.start(CUTOFF_TICK_SECONDS);
+
+            // Accept live timeclock punches on top of the current period's attendance
+            liveTotals.seed(PayPeriod.containing(LocalDate.now()));
+            try {
+                punchServer.start(PUNCH_STREAM_PORT);
+                System.out.println("Accepting timeclock punches on port " + punchServer.getPort() + ".");
+            } catch (IOException e) {
+                System.err.println("Live punch streaming unavailable: " + e.getMessage());
+            }
+
             // Display the main menu
             menu();
         } else {
@@ -54,6 +134,18 @@ public class MotorPHMain {
                     1: Show Employee Details
                     2: Calculate Gross Wage
                     3: Calculate Net Wage
+                    4: Year-to-Date Summary
+                    5: Run Payroll Batch
+                    6: View Stored Payslip
+                    7: What-if Rate Scenario
+                    8: Export / Reconcile Payroll Runs
+                    9: Attendance by Date
+                    10: Absence Report
+                    11: Live Period Totals
+                    12: Explain Payslip
+                    13: Search Employees by Name
+                    14: Team Payroll Cost
+                    15: Payroll Cost Analysis
                     0: EXIT
                     -------------------------
                     CHOOSE: """);
@@ -65,6 +157,18 @@ public class MotorPHMain {
                 case "1" -> handleEmployeeDetails();
                 case "2" -> calculateGrossWage();
                 case "3" -> calculateNetWage();
+                case "4" -> showYearToDateSummary();
+                case "5" -> runPayrollBatch();
+                case "6" -> showStoredPayslip();
+                case "7" -> runRateScenario();
+                case "8" -> handlePayrollRuns();
+                case "9" -> showAttendanceByDate();
+                case "10" -> showAbsenceReport();
+                case "11" -> showLivePeriodTotals();
+                case "12" -> explainPayslip();
+                case "13" -> searchEmployees();
+                case "14" -> showTeamPayrollCost();
+                case "15" -> showPayrollCostAnalysis();
                 case "0" -> {
                     System.out.println("Exiting application. Goodbye!");
                     System.exit(0);
@@ -127,6 +231,30 @@ public class MotorPHMain {
         System.out.println("-------------------------");
     }
 
+    private static void searchEmployees() {
+        System.out.print("\nEnter name, part of a name or employee number: ");
+        scanner.nextLine(); // Rest of the menu choice line
+        String query = scanner.nextLine();
+
+        long start = System.nanoTime();
+        List<EmployeeNameIndex.Match> matches = PayrollContext.defaultContext().getNameIndex()
+            .search(query, SEARCH_RESULT_LIMIT);
+        long micros = (System.nanoTime() - start) / 1000;
+
+        if (matches.isEmpty()) {
+            System.out.println("No employees match \"" + query.trim() + "\".");
+            return;
+        }
+        System.out.println("------------------------------------------");
+        for (EmployeeNameIndex.Match match : matches) {
+            Employee employee = match.getEmployee();
+            System.out.printf("%-8s %-30s %s%n", employee.getEmployeeNumber(),
+                employee.getLastName() + ", " + employee.getFirstName(), employee.getPosition());
+        }
+        System.out.println("------------------------------------------");
+        System.out.println(matches.size() + " best matches in " + micros + " microseconds.");
+    }
+
     private static Employee findEmployeeById(String empId) {
         List<Employee> employees = EmployeeModelFromFile.getEmployeeModelList();
         for (Employee employee : employees) {
@@ -179,21 +307,7 @@ public class MotorPHMain {
 
     private static void displayGrossWageDetails(String period, int month, int year, Grosswage grosswage) {
         double gross = grosswage.calculate();
-        double regularHours = grosswage.getRegularHours();
-        double overtimeHours = grosswage.getOvertimeHours();
-        double regularPay = grosswage.getRegularPay();
-        double overtimePay = grosswage.getOvertimePay();
-        double holidayPay = grosswage.getHolidayPay();
-
-        System.out.println("\n" + period + " of Month " + month + "/" + year + ":");
-        System.out.println("------------------------------------------");
-        System.out.printf("%-25s: %s hrs%n", "Regular Hours", decimalFormat.format(regularHours));
-        System.out.printf("%-25s: %s hrs%n", "Overtime Hours", decimalFormat.format(overtimeHours));
-        System.out.printf("%-25s: PHP %s%n", "Regular Pay", decimalFormat.format(regularPay));
-        System.out.printf("%-25s: PHP %s%n", "Overtime Pay", decimalFormat.format(overtimePay));
-        System.out.printf("%-25s: PHP %s%n", "Holiday Premium Pay", decimalFormat.format(holidayPay));
-        System.out.printf("%-25s: PHP %s%n", "Total Gross Wage", decimalFormat.format(gross));
-        System.out.println("------------------------------------------");
+        payslipRenderer.grossDetails(period, month, year, grosswage, gross).flushTo(System.out);
     }
 private static void calculateNetWage() {
     System.out.print("\nEnter Employee ID: ");
@@ -260,47 +374,401 @@ private static void calculateNetWage() {
 
     private static void displayPayrollResults(String period, int month, int year, String empId, 
                                            String employeeName, Grosswage grosswage, Netwage netwage) {
-        double gross = grosswage.calculate();
-        double regularHours = grosswage.getRegularHours();
-        double overtimeHours = grosswage.getOvertimeHours();
-        double regularPay = grosswage.getRegularPay();
-        double overtimePay = grosswage.getOvertimePay();
-        double holidayPay = grosswage.getHolidayPay();
-
-        // Get bi-monthly deductions
-        double sssDeduction = netwage.getSSSDeduction();
-        double philhealthDeduction = netwage.getPhilhealthDeduction();
-        double pagibigDeduction = netwage.getPagIbigDeduction();
-        double lateDeduction = netwage.getLateDeduction();
-        
-        double totalDeductions = netwage.getTotalDeductions();
-        double taxableIncome = netwage.getTaxableIncome();
-        double withholdingTax = netwage.getWithholdingTax();
-        double netWage = gross - totalDeductions - withholdingTax;
+        payslipRenderer.payslip(period, month, year, empId, employeeName, grosswage, netwage).flushTo(System.out);
+    }
 
-        System.out.println("\n" + period + " Payroll Details " + month + "/" + year + ":");
+    private static void showYearToDateSummary() {
+        System.out.print("\nEnter Employee ID: ");
+        String empId = scanner.next();
+        int year = getYear();
+
+        YearToDateTotals ytd = ytdLedger.getTotals(empId, year);
+        if (ytd == null) {
+            System.out.println("No closed periods for employee " + empId + " in " + year + ".");
+            return;
+        }
+
+        payslipRenderer.yearToDate(ytd).flushTo(System.out);
+    }
+
+    private static void runPayrollBatch() {
+        int year = getYear();
+        int month = getMonth();
+
+        try (PayrollLedger ledger = PayrollLedger.open(LEDGER_DIRECTORY)) {
+            for (boolean firstHalf : new boolean[]{true, false}) {
+                PayPeriod period = PayPeriod.of(year, month, firstHalf);
+                PayrollBatch batch = new PayrollBatch(ledger, ytdLedger);
+                batch.setScheduler(cutoffScheduler);
+                batch.run(period);
+
+                System.out.println("\nBatch " + period + ":");
+                System.out.println("------------------------------------------");
+                System.out.printf("%-20s: %d%n", "Computed", batch.getComputed());
+                System.out.printf("%-20s: %d%n", "Already Committed", batch.getResumed());
+                System.out.printf("%-20s: %d%n", "Failed", batch.getFailures().size());
+                for (String failure : batch.getFailures()) {
+                    System.out.println("  " + failure);
+                }
+                System.out.println("------------------------------------------");
+            }
+            costCube = buildCostCube(ledger);
+        } catch (IOException e) {
+            System.err.println("Error writing payroll ledger: " + e.getMessage());
+        }
+    }
+
+    private static PayrollCostCube buildCostCube(PayrollLedger ledger) throws IOException {
+        List<PeriodResult> results = new ArrayList<>(ledger.size());
+        ledger.forEach(results::add);
+        return PayrollCostCube.build(PayrollContext.defaultContext().getEmployees(), results);
+    }
+
+    private static void showPayrollCostAnalysis() {
+        if (costCube == null) {
+            try (PayrollLedger ledger = PayrollLedger.open(LEDGER_DIRECTORY)) {
+                costCube = buildCostCube(ledger);
+            } catch (IOException e) {
+                System.err.println("Error reading payroll ledger: " + e.getMessage());
+                return;
+            }
+        }
+
+        System.out.print("""
+                Group by:
+                1: Position
+                2: Status
+                3: Month
+                4: Half
+                Choose: """);
+        PayrollCostCube.Dimension by = switch (scanner.next()) {
+            case "1" -> PayrollCostCube.Dimension.POSITION;
+            case "2" -> PayrollCostCube.Dimension.STATUS;
+            case "3" -> PayrollCostCube.Dimension.MONTH;
+            case "4" -> PayrollCostCube.Dimension.HALF;
+            default -> null;
+        };
+        if (by == null) {
+            System.out.println("Invalid input! Please try again.");
+            return;
+        }
+        System.out.print("Month (YYYY-MM, or ALL): ");
+        String monthInput = scanner.next();
+        PayrollCostCube.Filter filter = PayrollCostCube.Filter.all();
+        if (!monthInput.equalsIgnoreCase("all")) {
+            try {
+                filter = filter.withMonth(YearMonth.parse(monthInput));
+            } catch (DateTimeParseException e) {
+                System.out.println("Invalid month.");
+                return;
+            }
+        }
+
+        System.out.println("\nPayroll Cost by " + by.name().toLowerCase() + ":");
         System.out.println("------------------------------------------");
-        System.out.printf("%-20s: %s%n", "Employee ID", empId);
-        System.out.printf("%-20s: %s%n", "Employee Name", employeeName);
+        System.out.printf("%-30s %7s %14s %12s %12s %14s%n", "", "Slips", "Gross", "Deductions", "Tax", "Net");
+        Map<String, PayrollCostCube.Totals> groups = costCube.drillDown(by, filter);
+        for (Map.Entry<String, PayrollCostCube.Totals> group : groups.entrySet()) {
+            printCostRow(group.getKey(), group.getValue());
+        }
         System.out.println("------------------------------------------");
-        System.out.printf("%-20s: %s hrs%n", "Regular Hours", decimalFormat.format(regularHours));
-        System.out.printf("%-20s: %s hrs%n", "Overtime Hours", decimalFormat.format(overtimeHours));
-        System.out.printf("%-20s: PHP %s%n", "Regular Pay", decimalFormat.format(regularPay));
-        System.out.printf("%-20s: PHP %s%n", "Overtime Pay", decimalFormat.format(overtimePay));
-        System.out.printf("%-20s: PHP %s%n", "Holiday Premium Pay", decimalFormat.format(holidayPay));
-        System.out.printf("%-20s: PHP %s%n", "Gross Wage", decimalFormat.format(gross));
-        
-        System.out.println("\nDeductions:");
-        System.out.printf("%-20s: PHP %s%n", "SSS", decimalFormat.format(sssDeduction));
-        System.out.printf("%-20s: PHP %s%n", "PhilHealth", decimalFormat.format(philhealthDeduction));
-        System.out.printf("%-20s: PHP %s%n", "Pag-IBIG", decimalFormat.format(pagibigDeduction));
-        System.out.printf("%-20s: PHP %s%n", "Late Penalties", decimalFormat.format(lateDeduction));
-        System.out.printf("%-20s: PHP %s%n", "Total Deductions", decimalFormat.format(totalDeductions));
-        System.out.printf("%-20s: PHP %s%n", "Taxable Income", decimalFormat.format(taxableIncome));
-        System.out.printf("%-20s: PHP %s%n", "Withholding Tax", decimalFormat.format(withholdingTax));
+        printCostRow("Total", costCube.slice(filter));
+    }
+
+    private static void printCostRow(String label, PayrollCostCube.Totals totals) {
+        System.out.printf("%-30s %7d %14.2f %12.2f %12.2f %14.2f%n", label, totals.getCount(), totals.getGross(),
+            totals.getDeductions(), totals.getTax(), totals.getNet());
+    }
+
+    private static void handlePayrollRuns() {
+        System.out.print("""
+                ----- DASHBOARD-----
+                1: Export Stored Period to CSV
+                2: Reconcile Two Runs
+                3: Write Stored Payslips to a File
+                -------------------------
+                Choose: """);
+
+        String runSub = scanner.next();
+        System.out.println("-------------------------");
+
+        switch (runSub) {
+            case "1" -> exportStoredPeriod();
+            case "2" -> reconcileRuns();
+            case "3" -> writeStoredPayslips();
+            default -> System.out.println("Invalid input! Please try again.");
+        }
+    }
+
+    private static void exportStoredPeriod() {
+        int year = getYear();
+        int month = getMonth();
+        System.out.print("Export file: ");
+        Path file = Path.of(scanner.next());
+
+        try (PayrollLedger ledger = PayrollLedger.open(LEDGER_DIRECTORY)) {
+            List<PeriodResult> results = new ArrayList<>(ledger.readPeriod(PayPeriod.of(year, month, true)));
+            results.addAll(ledger.readPeriod(PayPeriod.of(year, month, false)));
+            int written = PeriodResultCsv.export(file, results);
+            System.out.println("Exported " + written + " results to " + file);
+        } catch (IOException e) {
+            System.err.println("Error exporting payroll results: " + e.getMessage());
+        }
+    }
+
+    private static void writeStoredPayslips() {
+        int year = getYear();
+        int month = getMonth();
+        System.out.print("Payslip file: ");
+        Path file = Path.of(scanner.next());
+        List<PayPeriod> periods = List.of(PayPeriod.of(year, month, true), PayPeriod.of(year, month, false));
+
+        try (PayrollLedger ledger = PayrollLedger.open(LEDGER_DIRECTORY);
+             FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                 StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            int written = new PayslipRenderer(StandardCharsets.UTF_8)
+                .writeAll(PayrollReconciler.ResultSource.ledger(ledger, periods), channel);
+            System.out.println("Wrote " + written + " payslips to " + file);
+        } catch (IOException e) {
+            System.err.println("Error writing payslips: " + e.getMessage());
+        }
+    }
+
+    private static void reconcileRuns() {
+        int year = getYear();
+        int month = getMonth();
+        System.out.print("Baseline CSV (or 'ledger'): ");
+        String baselineName = scanner.next();
+        System.out.print("Candidate CSV (or 'ledger'): ");
+        String candidateName = scanner.next();
+        double tolerance = getDouble("Tolerance (PHP): ");
+        List<PayPeriod> periods = List.of(PayPeriod.of(year, month, true), PayPeriod.of(year, month, false));
+
+        try (PayrollLedger ledger = PayrollLedger.open(LEDGER_DIRECTORY)) {
+            PayrollReconciler.ResultSource baseline = baselineName.equalsIgnoreCase("ledger")
+                ? PayrollReconciler.ResultSource.ledger(ledger, periods)
+                : PayrollReconciler.ResultSource.csv(Path.of(baselineName)).within(periods);
+            PayrollReconciler.ResultSource candidate = candidateName.equalsIgnoreCase("ledger")
+                ? PayrollReconciler.ResultSource.ledger(ledger, periods)
+                : PayrollReconciler.ResultSource.csv(Path.of(candidateName)).within(periods);
+
+            List<PayrollReconciler.Difference> shown = new ArrayList<>();
+            PayrollReconciler.Summary summary = new PayrollReconciler(tolerance).reconcile(baseline, candidate,
+                difference -> {
+                    if (shown.size() < RECONCILE_DISPLAY_LIMIT) {
+                        shown.add(difference);
+                    }
+                });
+            PayrollReconciler.printReport(summary, shown);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error reconciling payroll runs: " + e.getMessage());
+        }
+    }
+
+    private static void showAttendanceByDate() {
+        LocalDate from = getDate("From date (yyyy-MM-dd): ");
+        LocalDate to = getDate("To date (yyyy-MM-dd): ");
+        System.out.print("""
+                Show:
+                1: Everyone who worked
+                2: Late arrivals
+                3: Overtime
+                4: Worked on a holiday
+                Choose: """);
+        String filter = scanner.next();
+
+        PayrollContext context = PayrollContext.defaultContext();
+        AttendanceDateIndex.Query query = context.getDateIndex(from, to).query().between(from, to);
+        switch (filter) {
+            case "1" -> { }
+            case "2" -> query.late(context);
+            case "3" -> query.overtime();
+            case "4" -> query.onHolidays(context.getHolidays());
+            default -> {
+                System.out.println("Invalid input! Please try again.");
+                return;
+            }
+        }
+
+        List<AttendanceRecord> records = query.list();
+        System.out.println("\nAttendance " + from + " to " + to + ":");
         System.out.println("------------------------------------------");
-        System.out.printf("%-20s: PHP %s%n", "NET WAGE", decimalFormat.format(netWage));
+        for (AttendanceRecord record : records) {
+            System.out.printf("%-12s %-8s %-25s %s - %s%n", record.getDate(), record.getId(), record.getName(),
+                record.getTimeIn(), record.getTimeOut());
+        }
+        System.out.println("------------------------------------------");
+        System.out.printf("%-20s: %d%n", "Records", records.size());
+    }
+
+    private static void showAbsenceReport() {
+        LocalDate from = getDate("From date (yyyy-MM-dd): ");
+        LocalDate to = getDate("To date (yyyy-MM-dd): ");
+        if (from.isAfter(to)) {
+            System.out.println("From date cannot be after to date.");
+            return;
+        }
+
+        PresenceBitmaps presence = PayrollContext.defaultContext().getPresence(from, to);
+        List<PresenceBitmaps.Attendance> report = presence.absenceReport(from, to);
+        List<String> perfect = presence.perfectAttendance(from, to);
+
+        System.out.println("\nAbsences " + from + " to " + to + " (" + presence.workingDayCount(from, to)
+            + " working days):");
         System.out.println("------------------------------------------");
+        for (PresenceBitmaps.Attendance attendance : report) {
+            if (attendance.getAbsences() > 0) {
+                System.out.printf("%-8s %4d absent  %6.1f%%%n", attendance.getEmployeeId(),
+                    attendance.getAbsences(), attendance.getRate() * 100);
+            }
+        }
+        System.out.println("------------------------------------------");
+        System.out.println("Perfect attendance: " + (perfect.isEmpty() ? "none" : String.join(", ", perfect)));
+    }
+
+    private static void showLivePeriodTotals() {
+        PayPeriod period = PayPeriod.containing(LocalDate.now());
+        List<LivePeriodTotals.Totals> totals = liveTotals.forPeriod(period);
+
+        System.out.println("\nLive Totals " + period + ":");
+        System.out.println("------------------------------------------");
+        System.out.printf("%-8s %8s %8s %12s %10s%n", "ID", "Hours", "OT", "Gross", "Late");
+        for (LivePeriodTotals.Totals employee : totals) {
+            System.out.printf("%-8s %8.2f %8.2f %12.2f %10.2f%s%n", employee.getEmployeeId(),
+                employee.getHoursWorked(), employee.getOvertimeHours(), employee.getGross(),
+                employee.getLateDeduction(), liveTotals.openPunch(employee.getEmployeeId()) == null ? "" : "  (in)");
+        }
+        System.out.println("------------------------------------------");
+        System.out.printf("%-20s: %d received, %d applied, %d rejected, %d queued%n", "Punches",
+            punchServer.getReceived(), punchServer.getApplied(), punchServer.getRejected(), punchServer.getQueued());
+    }
+
+    private static void explainPayslip() {
+        System.out.print("\nEnter Employee ID: ");
+        String empId = scanner.next();
+        Employee employee = findEmployeeById(empId);
+        if (employee == null) {
+            System.out.println("Employee not found.");
+            return;
+        }
+        int year = getYear();
+        int month = getMonth();
+
+        for (boolean firstHalf : new boolean[]{true, false}) {
+            PayPeriod period = PayPeriod.of(year, month, firstHalf);
+            AuditTrace.select(empId, period);
+            try {
+                PayrollBatch.compute(PayrollContext.defaultContext(), employee, period);
+                System.out.println();
+                System.out.print(AuditTrace.latest(empId, period).explain());
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                System.out.println("Cannot compute " + period + ": " + e.getMessage());
+            } finally {
+                AuditTrace.clearSelection();
+            }
+        }
+    }
+
+    private static void showTeamPayrollCost() {
+        int year = getYear();
+        int month = getMonth();
+        SupervisorHierarchy hierarchy = PayrollContext.defaultContext().getHierarchy();
+
+        try (PayrollLedger ledger = PayrollLedger.open(LEDGER_DIRECTORY)) {
+            for (boolean firstHalf : new boolean[]{true, false}) {
+                PayPeriod period = PayPeriod.of(year, month, firstHalf);
+                List<PeriodResult> results = ledger.readPeriod(period);
+                if (results.isEmpty()) {
+                    System.out.println("\nNo committed results for " + period + "; run the payroll batch first.");
+                    continue;
+                }
+
+                SupervisorHierarchy.Rollup rollup = hierarchy.rollup(results);
+                System.out.println("\nTeam Cost " + period + ":");
+                System.out.println("------------------------------------------");
+                System.out.printf("%-30s %5s %14s %12s %12s %14s%n", "Manager", "Team", "Gross", "Deductions",
+                    "Tax", "Net");
+                for (SupervisorHierarchy.TeamCost team : rollup.managers()) {
+                    Employee manager = team.getManager();
+                    System.out.printf("%-30s %5d %14.2f %12.2f %12.2f %14.2f%n",
+                        manager.getLastName() + ", " + manager.getFirstName(), team.getHeadcount(),
+                        team.getGross(), team.getDeductions(), team.getTax(), team.getNet());
+                }
+                System.out.println("------------------------------------------");
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading payroll ledger: " + e.getMessage());
+        }
+
+        hierarchy.getOrphans().forEach((empId, supervisor) ->
+            System.out.println("Unresolved supervisor of " + empId + ": " + supervisor));
+        for (List<String> cycle : hierarchy.getCycles()) {
+            System.out.println("Reporting cycle broken: " + String.join(" -> ", cycle));
+        }
+    }
+
+    private static void showStoredPayslip() {
+        System.out.print("\nEnter Employee ID: ");
+        String empId = scanner.next();
+        int year = getYear();
+        int month = getMonth();
+
+        try (PayrollLedger ledger = PayrollLedger.open(LEDGER_DIRECTORY)) {
+            for (boolean firstHalf : new boolean[]{true, false}) {
+                PeriodResult result = ledger.read(empId, PayPeriod.of(year, month, firstHalf));
+                if (result == null) {
+                    System.out.println("\nNo stored payslip for " + PayPeriod.of(year, month, firstHalf) + ".");
+                    continue;
+                }
+
+                payslipRenderer.storedPayslip(result).flushTo(System.out);
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading payroll ledger: " + e.getMessage());
+        }
+    }
+
+    private static void runRateScenario() {
+        int year = getYear();
+        int month = getMonth();
+        RateScenario baseline = RateScenario.baseline();
+        double overtime = getDouble("Overtime multiplier (current " + baseline.getOvertimeMultiplier() + "): ");
+        double holiday = getDouble("Regular holiday multiplier (current " + baseline.getRegularHolidayMultiplier() + "): ");
+        double philhealth = getDouble("PhilHealth rate (current " + baseline.getPhilhealthRate() + "): ");
+
+        RateScenario whatIf = baseline.named("What-if")
+            .withOvertimeMultipliers(overtime, baseline.getNightShiftOvertimeMultiplier())
+            .withHolidayMultipliers(holiday, baseline.getSpecialHolidayMultiplier())
+            .withPhilhealthRate(philhealth);
+
+        for (boolean firstHalf : new boolean[]{true, false}) {
+            PayPeriod period = PayPeriod.of(year, month, firstHalf);
+            ScenarioEngine engine = new ScenarioEngine(PayrollContext.defaultContext(), period);
+            System.out.println("\nScenario comparison " + period + ":");
+            System.out.println("------------------------------------------");
+            ScenarioEngine.printComparison(engine.evaluate(List.of(baseline, whatIf)));
+            System.out.println("------------------------------------------");
+        }
+    }
+
+    private static double getDouble(String prompt) {
+        System.out.print(prompt);
+        while (!scanner.hasNextDouble()) {
+            System.out.print("Invalid number. " + prompt);
+            scanner.next();
+        }
+        return scanner.nextDouble();
+    }
+
+    private static LocalDate getDate(String prompt) {
+        System.out.print(prompt);
+        while (true) {
+            try {
+                return LocalDate.parse(scanner.next());
+            } catch (DateTimeParseException e) {
+                System.out.print("Invalid date. " + prompt);
+            }
+        }
     }
 
     private static int getYear() {
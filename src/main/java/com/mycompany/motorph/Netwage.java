@@ -1,10 +1,11 @@
 package com.mycompany.motorph;
 
-import java.text.DecimalFormat;
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class Netwage extends Calculation {
-    private static final DecimalFormat decimalFormat = new DecimalFormat("#,##0.00");
     private final Grosswage grosswage;
     private final String employeeID;
     private final String employeeName;
@@ -15,10 +16,8 @@ public class Netwage extends Calculation {
     private final int targetYear;
     
     // Cached calculations
-    private Double sssDeduction;
-    private Double philhealthDeduction;
-    private Double pagibigDeduction;
-    private Double lateDeduction;
+    private DeductionBatch deductions;
+    private int row; // This employee's index in deductions
     private Double withholdingTax;
 
     public Netwage(String employeeID, String employeeName, double gross, double hours, 
@@ -55,61 +54,95 @@ public class Netwage extends Calculation {
         this.targetYear = targetYear;
     }
 
+    /**
+     * Uses row {@code row} of a batch the deduction pipeline has already run
+     * on, e.g. one {@link PayrollBatch} built for the whole period, instead
+     * of running the pipeline for this employee alone.
+     */
+    Netwage(String employeeID, String employeeName, double gross, double hours, boolean isFirstHalf,
+            Grosswage grosswage, int targetMonth, int targetYear, DeductionBatch deductions, int row) {
+        this(employeeID, employeeName, gross, hours, isFirstHalf, grosswage, targetMonth, targetYear);
+        if (deductions == null) {
+            throw new IllegalArgumentException("Deduction batch cannot be null");
+        }
+        if (row < 0 || row >= deductions.size() || !employeeID.equals(deductions.getEmployeeIds()[row])) {
+            throw new IllegalArgumentException("Deduction batch has no row for employee " + employeeID);
+        }
+        if (!deductions.getPeriod().equals(PayPeriod.of(targetYear, targetMonth, isFirstHalf))) {
+            throw new IllegalArgumentException("Deduction batch is for " + deductions.getPeriod());
+        }
+        this.deductions = deductions;
+        this.row = row;
+    }
+
     @Override
     public double calculate() {
         double totalDeductions = getTotalDeductions();
         double withholdingTax = getWithholdingTax();
         double netWage = gross - totalDeductions - withholdingTax;
-        return Double.parseDouble(decimalFormat.format(netWage));
+        return AmountText.roundToCents(netWage);
+    }
+
+    /**
+     * Runs the deduction pipeline once for this employee and period.
+     */
+    private DeductionBatch deductions() {
+        if (deductions == null) {
+            LatePenalty.validateShiftStart(grosswage.getShiftStartTime());
+            DeductionBatch batch = new DeductionBatch(
+                grosswage.getContext(),
+                PayPeriod.of(targetYear, targetMonth, isFirstHalf),
+                new String[]{employeeID},
+                new double[]{gross},
+                new double[]{grosswage.getHourlyRate()},
+                new LocalTime[]{grosswage.getShiftStartTime()}
+            );
+            if (grosswage.getTrace().isEnabled()) {
+                batch.setTrace(0, grosswage.getTrace());
+            }
+            deductions = DeductionPipeline.standard().apply(batch);
+        }
+        return deductions;
     }
 
     public double getSSSDeduction() {
-        if (sssDeduction == null) {
-            Calculation sss = new SSS(grosswage);
-            sssDeduction = sss.calculate() / 2; // Bi-monthly calculation
-        }
-        return sssDeduction;
+        return deductions().amountOf(SssDeductionRule.NAME, row);
     }
 
     public double getPhilhealthDeduction() {
-        if (philhealthDeduction == null) {
-            Calculation philhealth = new Philhealth(grosswage);
-            philhealthDeduction = philhealth.calculate() / 2; // Bi-monthly calculation
-        }
-        return philhealthDeduction;
+        return deductions().amountOf(PhilhealthDeductionRule.NAME, row);
     }
 
     public double getPagIbigDeduction() {
-        if (pagibigDeduction == null) {
-            Calculation pagibig = new Pagibig(grosswage);
-            pagibigDeduction = pagibig.calculate() / 2; // Bi-monthly calculation
-        }
-        return pagibigDeduction;
+        return deductions().amountOf(PagibigDeductionRule.NAME, row);
     }
 
     public double getLateDeduction() {
-        if (lateDeduction == null) {
-            lateDeduction = new LatePenalty(
-                employeeID, 
-                targetMonth, 
-                targetYear, 
-                isFirstHalf ? LatePenalty.PayrollCycle.FIRST_HALF : LatePenalty.PayrollCycle.SECOND_HALF,
-                grosswage.getHourlyRate(), 
-                grosswage.getShiftStartTime()
-            ).calculate();
-        }
-        return lateDeduction;
+        return deductions().amountOf(LateDeductionRule.NAME, row);
+    }
+
+    /**
+     * @return Total of the non-statutory deductions, such as loans and union dues
+     */
+    public double getOtherDeductions() {
+        return deductions().getOtherDeductions(row);
+    }
+
+    /**
+     * @return Amount of each deduction rule, by rule name
+     */
+    public Map<String, Double> getDeductionsByRule() {
+        Map<String, Double> amounts = new LinkedHashMap<>();
+        deductions().getAmountsByRule().forEach((name, values) -> amounts.put(name, values[row]));
+        return amounts;
     }
 
     public double getTotalDeductions() {
-        return getSSSDeduction() + 
-               getPhilhealthDeduction() + 
-               getPagIbigDeduction() + 
-               getLateDeduction();
+        return deductions().getTotalDeductions()[row];
     }
 
     public double getTaxableIncome() {
-        return gross - getTotalDeductions();
+        return deductions().getTaxableBase(row);
     }
 
     public double getWithholdingTax() {
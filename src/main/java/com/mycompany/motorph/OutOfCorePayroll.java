@@ -0,0 +1,232 @@
+package com.mycompany.motorph;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Computes payroll over attendance too large to hold in memory. Workbooks
+ * are parsed one at a time and every row in the requested periods goes to
+ * an {@link AttendanceSorter}, which spills sorted runs to disk. The merged
+ * runs are then read one employee at a time: each employee's records get a
+ * single-employee {@link PayrollContext} and are computed exactly as
+ * {@link PayrollBatch} would, then dropped before the next employee.
+ *
+ * Workbooks are read with {@link StreamingAttendanceReader}, one row at a
+ * time, so memory holds the sort buffer, a workbook's shared strings, one
+ * row being parsed and one employee's records, not the workbook's rows. Rows repeated across
+ * workbooks are kept once, as in {@link AttendanceIngest}.
+ *
+ * Usage: {@code OutOfCorePayroll <employee file> <attendance path> <year> <first month> <last month>
+ * <memory MB> <output file>}
+ */
+public class OutOfCorePayroll {
+    private static final long BYTES_PER_MEGABYTE = 1024L * 1024L;
+
+    private final List<Employee> employees;
+    private final SssTable sssTable;
+    private final HolidayCalendar holidays;
+    private final Path workDirectory;
+    private final long memoryBytes;
+
+    /**
+     * Outcome of a run.
+     */
+    public static final class Summary {
+        private long rows;
+        private long duplicates;
+        private int runs;
+        private int employees;
+        private int results;
+        private long unknownEmployeeRows;
+        private final List<String> failures = new ArrayList<>();
+
+        // Getters
+        public long getRows() { return rows; }
+        public long getDuplicates() { return duplicates; }
+        public int getRuns() { return runs; }
+        public int getEmployees() { return employees; }
+        public int getResults() { return results; }
+        public long getUnknownEmployeeRows() { return unknownEmployeeRows; }
+        public List<String> getFailures() { return failures; }
+    }
+
+    /**
+     * @param employees Employees to compute; their data is small and stays in memory
+     * @param workDirectory Directory for the sort's run files
+     * @param memoryBytes Heap the sort buffer may use
+     */
+    public OutOfCorePayroll(List<Employee> employees, SssTable sssTable, HolidayCalendar holidays,
+                            Path workDirectory, long memoryBytes) {
+        if (employees == null || sssTable == null || holidays == null) {
+            throw new IllegalArgumentException("Employees and statutory tables cannot be null");
+        }
+        if (workDirectory == null) {
+            throw new IllegalArgumentException("Work directory cannot be null");
+        }
+        this.employees = new ArrayList<>(employees);
+        this.employees.sort(Comparator.comparing(Employee::getEmployeeNumber)); // Same order as the sorted runs
+        this.sssTable = sssTable;
+        this.holidays = holidays;
+        this.workDirectory = workDirectory;
+        this.memoryBytes = memoryBytes;
+    }
+
+    /**
+     * Computes every employee for every period, by employee and then period.
+     * @param attendanceFiles Workbooks to read, in order
+     * @param periods Periods to compute; rows outside them are not sorted
+     * @param results Receives each result as it is computed
+     * @throws IOException If a workbook or run file cannot be read or written
+     */
+    public Summary run(List<Path> attendanceFiles, List<PayPeriod> periods, Consumer<PeriodResult> results)
+            throws IOException {
+        if (periods.isEmpty()) {
+            throw new IllegalArgumentException("At least one period is required");
+        }
+        List<PayPeriod> sortedPeriods = new ArrayList<>(periods);
+        sortedPeriods.sort(null);
+        LocalDate first = sortedPeriods.get(0).getStartDate();
+        LocalDate last = sortedPeriods.get(sortedPeriods.size() - 1).getEndDate();
+
+        Summary summary = new Summary();
+        try (AttendanceSorter sorter = new AttendanceSorter(workDirectory, memoryBytes)) {
+            RejectSink rejects = new RejectSink("Attendance");
+            for (Path file : attendanceFiles) {
+                spill(file, first, last, sorter, rejects);
+            }
+            rejects.logSummary();
+            summary.rows = sorter.getRecordCount();
+
+            try (AttendanceSorter.Cursor cursor = sorter.sorted()) {
+                summary.runs = sorter.getRunsWritten();
+                computeEmployees(cursor, sortedPeriods, results, summary);
+            }
+        }
+        return summary;
+    }
+
+    private static void spill(Path file, LocalDate first, LocalDate last, AttendanceSorter sorter, RejectSink rejects)
+            throws IOException {
+        PayrollEvents.WorkbookLoad event = new PayrollEvents.WorkbookLoad();
+        event.begin();
+        long rowsBefore = sorter.getRecordCount();
+        int rejectsBefore = rejects.size();
+        int sheets;
+        try {
+            sheets = StreamingAttendanceReader.read(file, record -> {
+                try {
+                    sorter.add(record);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, rejects, id -> true, date -> !date.isBefore(first) && !date.isAfter(last), null);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        event.finish(file, "Attendance", sheets, (int) (sorter.getRecordCount() - rowsBefore),
+            rejects.size() - rejectsBefore);
+    }
+
+    /**
+     * Walks the sorted employees and the sorted records together, so
+     * employees without attendance still get (zero) results, as in a batch.
+     */
+    private void computeEmployees(AttendanceSorter.Cursor cursor, List<PayPeriod> periods,
+                                  Consumer<PeriodResult> results, Summary summary) throws IOException {
+        AttendanceRecord next = cursor.next();
+        for (Employee employee : employees) {
+            String empId = employee.getEmployeeNumber();
+
+            // Records of IDs sorting before this employee belong to no known employee
+            while (next != null && next.getId().compareTo(empId) < 0) {
+                summary.unknownEmployeeRows++;
+                next = cursor.next();
+            }
+
+            List<AttendanceRecord> records = new ArrayList<>();
+            AttendanceRecord previous = null;
+            while (next != null && next.getId().equals(empId)) {
+                if (previous != null && AttendanceSorter.ORDER.compare(previous, next) == 0) {
+                    summary.duplicates++;
+                } else {
+                    records.add(next);
+                    previous = next;
+                }
+                next = cursor.next();
+            }
+
+            PayrollContext context = new PayrollContext("out-of-core", List.of(employee), records, sssTable, holidays);
+            for (PayPeriod period : periods) {
+                try {
+                    results.accept(PayrollBatch.compute(context, employee, period));
+                    summary.results++;
+                } catch (IllegalArgumentException | IllegalStateException e) {
+                    summary.failures.add(empId + " " + period + ": " + e.getMessage());
+                }
+            }
+            summary.employees++;
+        }
+        while (next != null) {
+            summary.unknownEmployeeRows++;
+            next = cursor.next();
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 7) {
+            System.err.println("Usage: OutOfCorePayroll <employee file> <attendance path> <year> <first month> "
+                + "<last month> <memory MB> <output file>");
+            System.exit(ShardWorker.EXIT_USAGE);
+        }
+        try {
+            int year = Integer.parseInt(args[2]);
+            int firstMonth = Integer.parseInt(args[3]);
+            int lastMonth = Integer.parseInt(args[4]);
+            long memoryBytes = Long.parseLong(args[5]) * BYTES_PER_MEGABYTE;
+            Path output = Path.of(args[6]);
+
+            List<PayPeriod> periods = new ArrayList<>();
+            for (int month = firstMonth; month <= lastMonth; month++) {
+                periods.add(PayPeriod.of(year, month, true));
+                periods.add(PayPeriod.of(year, month, false));
+            }
+            List<Path> files = AttendanceIngest.isMultiFile(args[1])
+                ? AttendanceIngest.resolve(args[1])
+                : List.of(Path.of(args[1]));
+            List<Employee> employees = EmployeeModelFromFile.loadEmployees(args[0], new RejectSink("Employees"));
+
+            OutOfCorePayroll payroll = new OutOfCorePayroll(employees, SssTable.standard(),
+                HolidayChecker.calendar(), output.toAbsolutePath().getParent(), memoryBytes);
+            Summary summary;
+            try (PeriodResultCsv csv = PeriodResultCsv.create(output)) {
+                summary = payroll.run(files, periods, result -> {
+                    try {
+                        csv.write(result);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+
+            System.out.println("Sorted " + summary.getRows() + " rows in " + summary.getRuns() + " runs; wrote "
+                + summary.getResults() + " results for " + summary.getEmployees() + " employees to " + output + ".");
+            if (summary.getDuplicates() > 0 || summary.getUnknownEmployeeRows() > 0) {
+                System.out.println(summary.getDuplicates() + " duplicate rows dropped, "
+                    + summary.getUnknownEmployeeRows() + " rows of unknown employees skipped.");
+            }
+            for (String failure : summary.getFailures()) {
+                System.err.println(failure);
+            }
+            System.exit(ShardWorker.EXIT_OK);
+        } catch (IOException | UncheckedIOException | IllegalArgumentException e) {
+            System.err.println("Out-of-core payroll failed: " + e.getMessage());
+            System.exit(ShardWorker.EXIT_FAILED);
+        }
+    }
+}
@@ -21,8 +21,16 @@ public class Pagibig extends Calculation {
      */
     @Override
     public double calculate() {
-        double gross = grosswage.calculate();
+        pagibigDeduction = contributionFor(grosswage.calculate());
+        return pagibigDeduction;
+    }
 
+    /**
+     * Computes the Pag-IBIG contribution for a gross wage.
+     * @param gross The gross wage
+     * @return The Pag-IBIG deduction amount
+     */
+    public static double contributionFor(double gross) {
         double pagibig;
         if (gross > 1000.00 && gross <= 1500.00) {
             pagibig = gross * 0.03;
@@ -34,8 +42,7 @@ public class Pagibig extends Calculation {
             pagibig = 100;
         }
 
-        pagibigDeduction = pagibig;
-        return pagibigDeduction;
+        return pagibig;
     }
 
     /**
@@ -0,0 +1,36 @@
+package com.mycompany.motorph;
+
+/**
+ * Built-in rule: half the monthly Pag-IBIG contribution.
+ */
+public class PagibigDeductionRule implements DeductionRule {
+    public static final String NAME = "Pag-IBIG";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public int order() {
+        return 300;
+    }
+
+    @Override
+    public boolean isPreTax() {
+        return true;
+    }
+
+    @Override
+    public boolean isStatutory() {
+        return true;
+    }
+
+    @Override
+    public void apply(DeductionBatch batch, double[] amounts) {
+        double[] gross = batch.getGross();
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] = Pagibig.contributionFor(gross[i]) / 2; // Bi-monthly calculation
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.mycompany.motorph;
+
+/**
+ * Bulk versions of the per-record arithmetic in
+ * {@link AttendanceRecord#calculateHoursWorked()} and
+ * {@link Grosswage}'s regular/overtime split and rate application,
+ * operating on primitive arrays. Each method fills output positions
+ * {@code 0} to {@code length - 1}.
+ */
+public interface PayKernel {
+
+    /**
+     * Worked seconds per record; a time-out before the time-in counts as past midnight.
+     */
+    void workedSeconds(int[] timeIn, int[] timeOut, int[] seconds, int length);
+
+    /**
+     * Converts worked seconds to hours the way {@code calculateHoursWorked} does
+     * (whole minutes only) and splits them at {@link Grosswage#REGULAR_HOURS_PER_DAY}.
+     */
+    void splitHours(int[] seconds, double[] regularHours, double[] overtimeHours, int length);
+
+    /**
+     * Applies the hourly rate, overtime rate and holiday multiplier per record.
+     * Holiday pay is the premium over the base rate on both regular and overtime hours.
+     */
+    void applyRates(double[] regularHours, double[] overtimeHours, double[] rate, double[] overtimeRate,
+                    double[] holidayMultiplier, double[] regularPay, double[] overtimePay, double[] holidayPay,
+                    int length);
+
+    /**
+     * @return A short name for reports, e.g. "vector (4 lanes)"
+     */
+    String name();
+
+    /**
+     * Picks the Vector API kernel when the {@code jdk.incubator.vector} module
+     * is present at runtime and {@code -Dmotorph.vector=false} is not set,
+     * otherwise the scalar kernel.
+     */
+    static PayKernel select() {
+        if (!Boolean.parseBoolean(System.getProperty("motorph.vector", "true"))) {
+            return new ScalarPayKernel();
+        }
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return new VectorPayKernel();
+            } catch (LinkageError e) {
+                // Module resolved but unusable on this platform; fall through
+            }
+        }
+        return new ScalarPayKernel();
+    }
+}
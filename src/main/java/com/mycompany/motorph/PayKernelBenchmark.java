@@ -0,0 +1,127 @@
+package com.mycompany.motorph;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Micro-benchmark of the bulk gross computation against the per-object loop
+ * used by {@link Grosswage}, on synthetic attendance for one pay period.
+ *
+ * Run with: {@code java --add-modules jdk.incubator.vector -cp target/classes
+ * com.mycompany.motorph.PayKernelBenchmark [employees] [iterations]}
+ */
+public class PayKernelBenchmark {
+    static final PayPeriod PERIOD = PayPeriod.of(2024, 6, true); // Includes the June 12 holiday
+
+    public static void main(String[] args) {
+        int employeeCount = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        List<Employee> employees = new ArrayList<>();
+        List<AttendanceRecord> records = new ArrayList<>();
+        generate(employeeCount, employees, records);
+        System.out.printf("%d employees, %d attendance records, %d iterations%n",
+            employeeCount, records.size(), iterations);
+
+        long buildStart = System.nanoTime();
+        AttendanceColumns columns = AttendanceColumns.build(employees, records, PERIOD);
+        System.out.printf("%-28s: %8.2f ms (one-off)%n", "Build columns", (System.nanoTime() - buildStart) / 1e6);
+
+        PayKernel scalar = new ScalarPayKernel();
+        PayKernel selected = PayKernel.select();
+
+        double objectNanos = BenchmarkTimer.time(iterations, () -> perObjectLoop(records, employees));
+        double scalarNanos = BenchmarkTimer.time(iterations, () -> BulkGross.compute(columns, scalar).getGross()[0]);
+        double selectedNanos = BenchmarkTimer.time(iterations,
+            () -> BulkGross.compute(columns, selected).getGross()[0]);
+
+        report("Per-object loop", objectNanos, objectNanos, records.size());
+        report("Bulk " + scalar.name(), scalarNanos, objectNanos, records.size());
+        report("Bulk " + selected.name(), selectedNanos, objectNanos, records.size());
+
+        // Kernel stages on preallocated arrays, without allocation or per-employee summing
+        int n = columns.size();
+        int[] seconds = new int[n];
+        double[] regularHours = new double[n];
+        double[] overtimeHours = new double[n];
+        double[] regularPay = new double[n];
+        double[] overtimePay = new double[n];
+        double[] holidayPay = new double[n];
+        for (PayKernel kernel : new PayKernel[]{scalar, selected}) {
+            double secondsNanos = BenchmarkTimer.time(iterations, () -> {
+                kernel.workedSeconds(columns.getTimeIn(), columns.getTimeOut(), seconds, n);
+                return seconds[0];
+            });
+            double splitNanos = BenchmarkTimer.time(iterations, () -> {
+                kernel.splitHours(seconds, regularHours, overtimeHours, n);
+                return regularHours[0];
+            });
+            double ratesNanos = BenchmarkTimer.time(iterations, () -> {
+                kernel.applyRates(regularHours, overtimeHours, columns.getRecordRate(),
+                    columns.getRecordOvertimeRate(), columns.getHolidayMultiplier(),
+                    regularPay, overtimePay, holidayPay, n);
+                return regularPay[0];
+            });
+            System.out.printf("%-28s: workedSeconds %.3f ms, splitHours %.3f ms, applyRates %.3f ms%n",
+                "Stages " + kernel.name(), secondsNanos / 1e6, splitNanos / 1e6, ratesNanos / 1e6);
+        }
+
+        double[] expected = BulkGross.compute(columns, scalar).getGross();
+        double[] actual = BulkGross.compute(columns, selected).getGross();
+        double maxDifference = 0;
+        for (int e = 0; e < expected.length; e++) {
+            maxDifference = Math.max(maxDifference, Math.abs(expected[e] - actual[e]));
+        }
+        System.out.printf("Max gross difference between kernels: %.6f%n", maxDifference);
+    }
+
+    /**
+     * The arithmetic of Grosswage.processDailyHours over AttendanceRecord objects.
+     */
+    private static double perObjectLoop(List<AttendanceRecord> records, List<Employee> employees) {
+        double total = 0;
+        int e = 0;
+        for (AttendanceRecord record : records) {
+            Employee employee = employees.get(e++ % employees.size());
+            double rate = employee.getHourlyRate();
+            double dailyHours = record.calculateHoursWorked();
+            double regular = Math.min(dailyHours, Grosswage.REGULAR_HOURS_PER_DAY);
+            double overtime = Math.max(0, dailyHours - Grosswage.REGULAR_HOURS_PER_DAY);
+            double multiplier = HolidayChecker.getHolidayPayMultiplier(record.getDate());
+            total += regular * rate * multiplier;
+            total += overtime * rate * Grosswage.OVERTIME_MULTIPLIER;
+            total += (regular + overtime) * rate * (multiplier - 1.0);
+        }
+        return total;
+    }
+
+    static void generate(int employeeCount, List<Employee> employees, List<AttendanceRecord> records) {
+        Random random = new Random(42);
+        for (int e = 0; e < employeeCount; e++) {
+            String[] data = new String[19];
+            java.util.Arrays.fill(data, "");
+            data[0] = String.valueOf(10_001 + e);
+            data[1] = "Last" + e;
+            data[2] = "First" + e;
+            data[18] = String.valueOf(300 + random.nextInt(300));
+            employees.add(new Employee(data));
+        }
+        // Day-major order, like an attendance export
+        for (LocalDate day = PERIOD.getStartDate(); !day.isAfter(PERIOD.getEndDate()); day = day.plusDays(1)) {
+            for (Employee employee : employees) {
+                LocalTime in = LocalTime.of(7, 30).plusMinutes(random.nextInt(90));
+                LocalTime out = in.plusMinutes(7 * 60 + random.nextInt(240)).plusSeconds(random.nextInt(60));
+                records.add(new AttendanceRecord(employee.getFirstName() + " " + employee.getLastName(),
+                    employee.getEmployeeNumber(), day, in, out));
+            }
+        }
+    }
+
+    private static void report(String label, double nanos, double baselineNanos, int records) {
+        System.out.printf("%-28s: %8.2f ms/run %7.2f ns/record %6.2fx%n",
+            label, nanos / 1e6, nanos / records, baselineNanos / nanos);
+    }
+}
@@ -0,0 +1,110 @@
+package com.mycompany.motorph;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Identifies one semi-monthly payroll period: the 1st-15th (first half)
+ * or the 16th-end of month (second half), matching the split used by
+ * {@link Grosswage} and {@link LatePenalty}.
+ */
+public final class PayPeriod implements Comparable<PayPeriod> {
+    public static final int PERIODS_PER_YEAR = 24;
+
+    private final int year;
+    private final int month;
+    private final boolean firstHalf;
+
+    public PayPeriod(int year, int month, boolean firstHalf) {
+        if (month < 1 || month > 12) {
+            throw new IllegalArgumentException("Month must be between 1-12");
+        }
+        this.year = year;
+        this.month = month;
+        this.firstHalf = firstHalf;
+    }
+
+    public static PayPeriod of(int year, int month, boolean firstHalf) {
+        return new PayPeriod(year, month, firstHalf);
+    }
+
+    /**
+     * @param date Any calendar date
+     * @return The period the date falls in
+     */
+    public static PayPeriod containing(LocalDate date) {
+        return new PayPeriod(date.getYear(), date.getMonthValue(), date.getDayOfMonth() <= 15);
+    }
+
+    /**
+     * Rebuilds a period from the value returned by {@link #key()}.
+     */
+    public static PayPeriod fromKey(int key) {
+        int index = Math.floorMod(key, PERIODS_PER_YEAR);
+        return new PayPeriod(Math.floorDiv(key, PERIODS_PER_YEAR), index / 2 + 1, index % 2 == 0);
+    }
+
+    /**
+     * @return 0 for the first half of January up to 23 for the second half of December
+     */
+    public int indexInYear() {
+        return (month - 1) * 2 + (firstHalf ? 0 : 1);
+    }
+
+    /**
+     * @return A dense, ordered integer key usable for indexing and persistence
+     */
+    public int key() {
+        return year * PERIODS_PER_YEAR + indexInYear();
+    }
+
+    public LocalDate getStartDate() {
+        return firstHalf ? LocalDate.of(year, month, 1) : LocalDate.of(year, month, 16);
+    }
+
+    public LocalDate getEndDate() {
+        return firstHalf ? LocalDate.of(year, month, 15) : YearMonth.of(year, month).atEndOfMonth();
+    }
+
+    public boolean contains(LocalDate date) {
+        return date.getYear() == year
+            && date.getMonthValue() == month
+            && (date.getDayOfMonth() <= 15) == firstHalf;
+    }
+
+    public PayPeriod next() {
+        return fromKey(key() + 1);
+    }
+
+    public PayPeriod previous() {
+        return fromKey(key() - 1);
+    }
+
+    // Getters
+    public int getYear() { return year; }
+    public int getMonth() { return month; }
+    public boolean isFirstHalf() { return firstHalf; }
+
+    @Override
+    public int compareTo(PayPeriod other) {
+        return Integer.compare(key(), other.key());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PayPeriod)) return false;
+        PayPeriod other = (PayPeriod) o;
+        return year == other.year && month == other.month && firstHalf == other.firstHalf;
+    }
+
+    @Override
+    public int hashCode() {
+        return key();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d-%02d %s", year, month, firstHalf ? "1st half" : "2nd half");
+    }
+}
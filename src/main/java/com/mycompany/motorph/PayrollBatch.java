@@ -0,0 +1,265 @@
+package com.mycompany.motorph;
+
+import java.io.IOException;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes a pay period for every employee and checkpoints each finalised
+ * result into a {@link PayrollLedger}. Employees already committed for the
+ * period are skipped, so a batch interrupted by a crash resumes from the
+ * last committed employee when it is run again.
+ */
+public class PayrollBatch {
+    static final int PROGRESS_INTERVAL = 250; // Employees per BatchProgress event
+
+    private final PayrollContext context;
+    private final PayrollLedger ledger;
+    private final YearToDateLedger ytdLedger;
+    private CutoffScheduler scheduler;
+
+    private int computed;
+    private int resumed;
+    private final List<String> failures = new ArrayList<>();
+
+    /**
+     * @param ledger Ledger receiving the finalised results
+     * @param ytdLedger Optional year-to-date rollup updated as results commit; may be null
+     */
+    public PayrollBatch(PayrollLedger ledger, YearToDateLedger ytdLedger) {
+        this(PayrollContext.defaultContext(), ledger, ytdLedger);
+    }
+
+    /**
+     * Runs batches over the employees and attendance of the given context.
+     */
+    public PayrollBatch(PayrollContext context, PayrollLedger ledger, YearToDateLedger ytdLedger) {
+        if (context == null) {
+            throw new IllegalArgumentException("Payroll context cannot be null");
+        }
+        if (ledger == null) {
+            throw new IllegalArgumentException("Ledger cannot be null");
+        }
+        this.context = context;
+        this.ledger = ledger;
+        this.ytdLedger = ytdLedger;
+    }
+
+    /**
+     * Takes results pre-computed by the scheduler where they are still current.
+     * The scheduler must serve the same context as this batch.
+     */
+    public void setScheduler(CutoffScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Runs the batch for one period. Without a scheduler, the gross pay of
+     * every employee not yet committed is computed first and the deduction
+     * pipeline runs once over all of them; results are then committed one
+     * employee at a time, so the first progress event also covers that work.
+     * @param period The period to compute
+     * @throws IOException If a result cannot be committed to the ledger
+     */
+    public void run(PayPeriod period) throws IOException {
+        List<Employee> employees = new ArrayList<>(context.getEmployees());
+        employees.sort(Comparator.comparing(Employee::getEmployeeNumber)); // Deterministic commit order
+
+        String periodText = period.toString();
+        PayrollEvents.BatchProgress progress = startProgress();
+        Map<String, PeriodResult> computedResults = null;
+        if (scheduler == null) {
+            List<Employee> pending = new ArrayList<>();
+            for (Employee employee : employees) {
+                if (!ledger.contains(employee.getEmployeeNumber(), period)) {
+                    pending.add(employee);
+                }
+            }
+            computedResults = computeAll(context, pending, period, failures);
+        }
+
+        int processed = 0;
+        try {
+            for (Employee employee : employees) {
+                if (processed > 0 && processed % PROGRESS_INTERVAL == 0) {
+                    commitProgress(progress, periodText, processed, employees.size());
+                    progress = startProgress();
+                }
+                processed++;
+
+                String empId = employee.getEmployeeNumber();
+                if (ledger.contains(empId, period)) {
+                    resumed++;
+                    continue;
+                }
+
+                PeriodResult result;
+                if (computedResults != null) {
+                    result = computedResults.get(empId);
+                    if (result == null) {
+                        continue; // Failure already recorded
+                    }
+                } else {
+                    try {
+                        result = scheduler.resultFor(empId, period);
+                    } catch (IllegalArgumentException | IllegalStateException e) {
+                        failures.add(empId + ": " + e.getMessage());
+                        continue;
+                    }
+                }
+
+                ledger.append(result);
+                if (ytdLedger != null) {
+                    ytdLedger.closePeriod(result);
+                }
+                computed++;
+            }
+        } finally {
+            ledger.sync(); // Make the last group of results durable
+        }
+        commitProgress(progress, periodText, processed, employees.size());
+    }
+
+    private static PayrollEvents.BatchProgress startProgress() {
+        PayrollEvents.BatchProgress progress = new PayrollEvents.BatchProgress();
+        progress.begin();
+        return progress;
+    }
+
+    private void commitProgress(PayrollEvents.BatchProgress progress, String period, int processed, int total) {
+        progress.end();
+        if (progress.shouldCommit()) {
+            progress.period = period;
+            progress.processed = processed;
+            progress.total = total;
+            progress.computed = computed;
+            progress.resumed = resumed;
+            progress.failed = failures.size();
+            progress.commit();
+        }
+    }
+
+    /**
+     * Computes one employee's finalised figures for a period.
+     */
+    static PeriodResult compute(Employee employee, PayPeriod period) {
+        return compute(PayrollContext.defaultContext(), employee, period);
+    }
+
+    static PeriodResult compute(PayrollContext context, Employee employee, PayPeriod period) {
+        Grosswage grosswage = grosswage(context, employee, period);
+        Netwage netwage = new Netwage(
+            employee.getEmployeeNumber(),
+            employee.getLastName() + ", " + employee.getFirstName(),
+            grosswage.calculate(),
+            grosswage.getHoursWorked(),
+            period.isFirstHalf(),
+            grosswage,
+            period.getMonth(),
+            period.getYear()
+        );
+        return PeriodResult.from(netwage);
+    }
+
+    /**
+     * Computes the employees' finalised figures for a period, running the
+     * deduction pipeline once over one {@link DeductionBatch} of all of them.
+     * @param failures Receives "ID: reason" for each employee that cannot be computed
+     * @return Results by employee number, without the failed employees
+     */
+    static Map<String, PeriodResult> computeAll(PayrollContext context, List<Employee> employees, PayPeriod period,
+                                                List<String> failures) {
+        int size = employees.size();
+        Employee[] batched = new Employee[size];
+        Grosswage[] grosswages = new Grosswage[size];
+        String[] employeeIds = new String[size];
+        double[] gross = new double[size];
+        double[] hourlyRate = new double[size];
+        LocalTime[] shiftStartTime = new LocalTime[size];
+        int rows = 0;
+        for (Employee employee : employees) {
+            try {
+                Grosswage grosswage = grosswage(context, employee, period);
+                double pay = grosswage.calculate();
+                LatePenalty.validateShiftStart(grosswage.getShiftStartTime());
+                batched[rows] = employee;
+                grosswages[rows] = grosswage;
+                employeeIds[rows] = employee.getEmployeeNumber();
+                gross[rows] = pay;
+                hourlyRate[rows] = grosswage.getHourlyRate();
+                shiftStartTime[rows] = grosswage.getShiftStartTime();
+                rows++;
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                failures.add(employee.getEmployeeNumber() + ": " + e.getMessage());
+            }
+        }
+
+        DeductionBatch batch = new DeductionBatch(context, period, Arrays.copyOf(employeeIds, rows),
+            Arrays.copyOf(gross, rows), Arrays.copyOf(hourlyRate, rows), Arrays.copyOf(shiftStartTime, rows));
+        for (int i = 0; i < rows; i++) {
+            if (grosswages[i].getTrace().isEnabled()) {
+                batch.setTrace(i, grosswages[i].getTrace());
+            }
+        }
+        Map<String, PeriodResult> results = new HashMap<>(rows * 2);
+        try {
+            batch = DeductionPipeline.standard().apply(batch);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            // A rule rejected some row; deduct one employee at a time to find which
+            for (int i = 0; i < rows; i++) {
+                try {
+                    results.put(employeeIds[i], compute(context, batched[i], period));
+                } catch (IllegalArgumentException | IllegalStateException employeeError) {
+                    failures.add(employeeIds[i] + ": " + employeeError.getMessage());
+                }
+            }
+            return results;
+        }
+
+        for (int i = 0; i < rows; i++) {
+            Employee employee = batched[i];
+            try {
+                Netwage netwage = new Netwage(
+                    employeeIds[i],
+                    employee.getLastName() + ", " + employee.getFirstName(),
+                    gross[i],
+                    grosswages[i].getHoursWorked(),
+                    period.isFirstHalf(),
+                    grosswages[i],
+                    period.getMonth(),
+                    period.getYear(),
+                    batch,
+                    i
+                );
+                results.put(employeeIds[i], PeriodResult.from(netwage));
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                failures.add(employeeIds[i] + ": " + e.getMessage());
+            }
+        }
+        return results;
+    }
+
+    private static Grosswage grosswage(PayrollContext context, Employee employee, PayPeriod period) {
+        return new Grosswage(
+            context,
+            employee.getEmployeeNumber(),
+            employee.getFirstName(),
+            employee.getLastName(),
+            period.getYear(),
+            period.getMonth(),
+            period.isFirstHalf(),
+            employee.getShiftStartTime(),
+            employee.isNightShift()
+        );
+    }
+
+    // Getters
+    public int getComputed() { return computed; }
+    public int getResumed() { return resumed; }
+    public List<String> getFailures() { return failures; }
+}
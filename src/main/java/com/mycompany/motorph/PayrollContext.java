@@ -0,0 +1,341 @@
+package com.mycompany.motorph;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * All data one company's payroll is computed from: its employees and
+ * attendance plus the statutory tables it uses. Contexts are immutable once
+ * built, so several tenants, each loaded with {@link #load}, can be computed
+ * concurrently in one JVM. The SSS table and holiday calendar are interned
+ * through {@link SharedTables}, so tenants with identical tables share one
+ * copy.
+ *
+ * Attendance is indexed by (employee, month), so a calculator reads only the
+ * records of the employee and month it needs, and by date for queries
+ * across employees. The same pass sets each employee's
+ * {@link PresenceBitmaps presence bits} for absence queries.
+ *
+ * With an {@link AttendanceArchive}, the attendance given is the hot window
+ * of recent months. Per-employee lookups of any other month are answered
+ * from the archive, decoding its segment on first use. The cached date
+ * index and presence bits cover the dates after the last archived month and
+ * reject earlier ones; the range overloads of {@link #getDateIndex} and
+ * {@link #getPresence} also read the archived months a range reaches.
+ */
+public final class PayrollContext {
+    private static final int ANOMALY_REPORT_LIMIT = 10;
+    private static DefaultSource defaultSource; // Guarded by PayrollContext.class
+
+    private final String tenantId;
+    private final List<Employee> employees;
+    private final Map<String, Employee> employeesById;
+    private final List<AttendanceRecord> attendance;
+    private final Map<String, List<AttendanceRecord>> attendanceByEmployeeMonth;
+    private final Set<Integer> hotMonths; // year * 12 + month - 1 of every month with attendance in memory
+    private final AttendanceArchive archive; // Cold months, or null
+    private final LocalDate coveredFrom; // Earliest date the in-memory attendance is complete for
+    private final SssTable sssTable;
+    private final HolidayCalendar holidays;
+    private final PresenceBitmaps presence;
+    private volatile AttendanceDateIndex dateIndex; // Built on first use
+    private volatile EmployeeNameIndex nameIndex; // Built on first use
+    private volatile SupervisorHierarchy hierarchy; // Built on first use
+
+    public PayrollContext(String tenantId, List<Employee> employees, List<AttendanceRecord> attendance,
+                          SssTable sssTable, HolidayCalendar holidays) {
+        this(tenantId, employees, attendance, sssTable, holidays, null);
+    }
+
+    /**
+     * @param attendance The hot window of attendance
+     * @param archive Attendance of older months, read when requested; may be null
+     */
+    public PayrollContext(String tenantId, List<Employee> employees, List<AttendanceRecord> attendance,
+                          SssTable sssTable, HolidayCalendar holidays, AttendanceArchive archive) {
+        if (tenantId == null || tenantId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Tenant ID cannot be null or empty");
+        }
+        if (employees == null || attendance == null) {
+            throw new IllegalArgumentException("Employees and attendance cannot be null");
+        }
+        if (sssTable == null || holidays == null) {
+            throw new IllegalArgumentException("Statutory tables cannot be null");
+        }
+        this.tenantId = tenantId;
+        this.employees = Collections.unmodifiableList(new ArrayList<>(employees));
+        this.attendance = Collections.unmodifiableList(new ArrayList<>(attendance));
+        this.sssTable = SharedTables.intern(sssTable);
+        this.holidays = SharedTables.intern(holidays);
+        this.archive = archive;
+
+        Set<Integer> months = new HashSet<>();
+        for (AttendanceRecord record : attendance) {
+            if (record != null && record.getDate() != null) {
+                months.add(record.getDate().getYear() * 12 + record.getDate().getMonthValue() - 1);
+            }
+        }
+        this.hotMonths = months;
+        this.coveredFrom = coveredFrom(archive, months);
+
+        this.employeesById = new HashMap<>(employees.size() * 2);
+        for (Employee employee : employees) {
+            employeesById.putIfAbsent(employee.getEmployeeNumber(), employee);
+        }
+
+        List<String> employeeIds = new ArrayList<>(employeesById.size());
+        for (Employee employee : this.employees) {
+            if (employeesById.get(employee.getEmployeeNumber()) == employee) {
+                employeeIds.add(employee.getEmployeeNumber());
+            }
+        }
+        this.presence = new PresenceBitmaps(employeeIds, this.holidays, coveredFrom);
+
+        Map<String, List<AttendanceRecord>> byEmployeeMonth = new HashMap<>();
+        for (AttendanceRecord record : attendance) {
+            if (record != null && record.getDate() != null) {
+                presence.mark(record.getId(), record.getDate());
+                byEmployeeMonth.computeIfAbsent(
+                    monthKey(record.getId(), record.getDate().getYear(), record.getDate().getMonthValue()),
+                    k -> new ArrayList<>()).add(record);
+            }
+        }
+        this.attendanceByEmployeeMonth = byEmployeeMonth;
+    }
+
+    // The day after the latest archived month not also in memory, or LocalDate.MIN without one
+    private static LocalDate coveredFrom(AttendanceArchive archive, Set<Integer> hotMonths) {
+        LocalDate from = LocalDate.MIN;
+        if (archive != null) {
+            for (YearMonth month : archive.getMonths()) {
+                LocalDate after = month.plusMonths(1).atDay(1);
+                if (!hotMonths.contains(month.getYear() * 12 + month.getMonthValue() - 1) && after.isAfter(from)) {
+                    from = after;
+                }
+            }
+        }
+        return from;
+    }
+
+    /**
+     * Loads a tenant's employees and attendance from its own files.
+     * @param tenantId Tenant identifier
+     * @param employeeFile Employee workbook
+     * @param attendancePath Attendance workbook, directory or glob
+     * @param sssFile SSS contribution workbook, or null for the standard table
+     * @return The tenant's context
+     * @throws IOException If a file cannot be read
+     */
+    public static PayrollContext load(String tenantId, String employeeFile, String attendancePath, String sssFile)
+            throws IOException {
+        return load(tenantId, employeeFile, attendancePath, sssFile, id -> true);
+    }
+
+    /**
+     * Loads only the employees, and their attendance, accepted by a filter
+     * on the employee number, e.g. one shard of a sharded run.
+     */
+    public static PayrollContext load(String tenantId, String employeeFile, String attendancePath, String sssFile,
+                                      Predicate<String> employeeFilter) throws IOException {
+        List<Employee> employees = EmployeeModelFromFile.loadEmployees(employeeFile,
+            new RejectSink(tenantId + " employees"), employeeFilter);
+        RejectSink attendanceRejects = new RejectSink(tenantId + " attendance");
+        AttendanceAnomalies anomalies = new AttendanceAnomalies(employees);
+        List<AttendanceRecord> attendance = AttendanceRecord.loadAttendanceFrom(attendancePath, attendanceRejects,
+            employeeFilter, anomalies);
+        attendanceRejects.logSummary();
+        if (!anomalies.isEmpty()) {
+            anomalies.printReport(ANOMALY_REPORT_LIMIT);
+        }
+        SssTable sssTable = sssFile == null ? SssTable.standard() : SssTable.load(sssFile);
+        return new PayrollContext(tenantId, employees, attendance, sssTable, HolidayChecker.calendar());
+    }
+
+    /**
+     * Context over the process-wide data in {@link EmployeeModelFromFile} and
+     * {@link AttendanceRecord}, used by the calculators' original constructors.
+     * Rebuilt when either data set has been reloaded.
+     */
+    public static synchronized PayrollContext defaultContext() {
+        List<Employee> employees = EmployeeModelFromFile.employees();
+        List<AttendanceRecord> attendance = AttendanceRecord.getAttendanceRecords();
+        AttendanceArchive archive = AttendanceRecord.getArchive();
+        DefaultSource source = defaultSource;
+        if (source == null
+                || source.employees() != employees
+                || source.attendance() != attendance
+                || source.attendanceSize() != attendance.size()
+                || source.archive() != archive) {
+            PayrollContext context = new PayrollContext("default", employees, attendance,
+                SssTable.standard(), HolidayChecker.calendar(), archive);
+            source = new DefaultSource(context, employees, attendance, attendance.size(), archive);
+            defaultSource = source;
+        }
+        return source.context();
+    }
+
+    // The default context and the identity of the shared data it was built from
+    private record DefaultSource(PayrollContext context, List<Employee> employees, List<AttendanceRecord> attendance,
+                                 int attendanceSize, AttendanceArchive archive) {
+    }
+
+    /**
+     * @return The employee with the given number, or null
+     */
+    public Employee getEmployee(String employeeId) {
+        return employeesById.get(employeeId);
+    }
+
+    /**
+     * @return The employee's records dated in the given month, in load order,
+     *         from the archive when the month is outside the hot window
+     */
+    public List<AttendanceRecord> attendanceFor(String employeeId, int year, int month) {
+        List<AttendanceRecord> records = attendanceByEmployeeMonth.get(monthKey(employeeId, year, month));
+        if (records == null && archive != null && !hotMonths.contains(year * 12 + month - 1)) {
+            return archive.attendanceFor(employeeId, YearMonth.of(year, month));
+        }
+        return records == null ? Collections.emptyList() : Collections.unmodifiableList(records);
+    }
+
+    /**
+     * @return Every employee's records dated in the given month, from the
+     *         archive when the month is outside the hot window
+     */
+    public List<AttendanceRecord> attendanceIn(int year, int month) {
+        if (archive != null && !hotMonths.contains(year * 12 + month - 1)) {
+            return archive.recordsOf(YearMonth.of(year, month));
+        }
+        List<AttendanceRecord> records = new ArrayList<>();
+        for (AttendanceRecord record : attendance) {
+            if (record != null && record.getDate() != null
+                    && record.getDate().getYear() == year && record.getDate().getMonthValue() == month) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * @return The in-memory attendance indexed by date, for queries across
+     *         employees; it rejects dates before the in-memory months
+     */
+    public AttendanceDateIndex getDateIndex() {
+        AttendanceDateIndex index = dateIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = dateIndex;
+                if (index == null) {
+                    index = new AttendanceDateIndex(attendance, coveredFrom);
+                    dateIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return An index covering {@code from} to {@code to}: the cached one
+     *         when the range is in memory, otherwise one built for this call
+     *         over the archived months the range reaches and the in-memory ones
+     */
+    public AttendanceDateIndex getDateIndex(LocalDate from, LocalDate to) {
+        if (!from.isBefore(coveredFrom)) {
+            return getDateIndex();
+        }
+        return new AttendanceDateIndex(attendanceBetween(from, to));
+    }
+
+    /**
+     * @return Presence bits covering {@code from} to {@code to}: the cached
+     *         ones when the range is in memory, otherwise bits built for this
+     *         call over the archived months the range reaches and the in-memory ones
+     */
+    public PresenceBitmaps getPresence(LocalDate from, LocalDate to) {
+        if (!from.isBefore(coveredFrom)) {
+            return presence;
+        }
+        PresenceBitmaps bits = new PresenceBitmaps(presence.getEmployeeIds(), holidays);
+        for (AttendanceRecord record : attendanceBetween(from, to)) {
+            bits.mark(record.getId(), record.getDate());
+        }
+        return bits;
+    }
+
+    // Archived months overlapping from..to, whole, then the in-memory records dated in the range
+    private List<AttendanceRecord> attendanceBetween(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Dates cannot be null");
+        }
+        List<AttendanceRecord> records = new ArrayList<>();
+        for (YearMonth month : archive.getMonths()) {
+            if (!hotMonths.contains(month.getYear() * 12 + month.getMonthValue() - 1)
+                    && !month.atEndOfMonth().isBefore(from) && !month.atDay(1).isAfter(to)) {
+                records.addAll(archive.recordsOf(month));
+            }
+        }
+        for (AttendanceRecord record : attendance) {
+            if (record != null && record.getDate() != null
+                    && !record.getDate().isBefore(from) && !record.getDate().isAfter(to)) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * @return The employees indexed by name, for interactive search
+     */
+    public EmployeeNameIndex getNameIndex() {
+        EmployeeNameIndex index = nameIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = nameIndex;
+                if (index == null) {
+                    index = new EmployeeNameIndex(employees);
+                    nameIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return The reporting tree resolved from the employees' supervisor names
+     */
+    public SupervisorHierarchy getHierarchy() {
+        SupervisorHierarchy tree = hierarchy;
+        if (tree == null) {
+            synchronized (this) {
+                tree = hierarchy;
+                if (tree == null) {
+                    tree = new SupervisorHierarchy(employees);
+                    hierarchy = tree;
+                }
+            }
+        }
+        return tree;
+    }
+
+    private static String monthKey(String employeeId, int year, int month) {
+        return employeeId + '@' + (year * 12 + month - 1);
+    }
+
+    // Getters
+    public String getTenantId() { return tenantId; }
+    public List<Employee> getEmployees() { return employees; }
+    public List<AttendanceRecord> getAttendance() { return attendance; }
+    public SssTable getSssTable() { return sssTable; }
+    public HolidayCalendar getHolidays() { return holidays; }
+    public PresenceBitmaps getPresence() { return presence; }
+    public AttendanceArchive getArchive() { return archive; }
+}
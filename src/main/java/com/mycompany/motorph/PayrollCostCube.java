@@ -0,0 +1,371 @@
+package com.mycompany.motorph;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Payroll cost pre-aggregated by position, employment status, month and
+ * half-month, built from the results of batch runs. Slices and drill-downs
+ * are answered from the aggregated cells alone, without attendance or
+ * recomputation.
+ *
+ * Each result's cell is packed into a long key. The keys are computed in
+ * parallel, then aggregated in parallel by hash partition: every partition
+ * scans the keys and accumulates only its own cells, in a primitive
+ * open-addressing table, so the partitions need no locking or merging.
+ */
+public final class PayrollCostCube {
+    static final String UNKNOWN = "Unknown";
+    private static final int MAX_STATUSES = 1 << 11;
+
+    /**
+     * The dimensions a cube can be sliced and drilled by.
+     */
+    public enum Dimension { POSITION, STATUS, MONTH, HALF }
+
+    private final String[] positions; // Dictionary, by ID
+    private final String[] statuses;
+    private final long[] keys; // Sorted cell keys
+    private final Totals[] cells;
+
+    private PayrollCostCube(String[] positions, String[] statuses, long[] keys, Totals[] cells) {
+        this.positions = positions;
+        this.statuses = statuses;
+        this.keys = keys;
+        this.cells = cells;
+    }
+
+    /**
+     * Aggregates results of any periods. Positions and statuses come from
+     * the employees; results of unknown employees count under "Unknown".
+     */
+    public static PayrollCostCube build(List<Employee> employees, Collection<PeriodResult> results) {
+        if (employees == null || results == null) {
+            throw new IllegalArgumentException("Employees and results cannot be null");
+        }
+        Map<String, Integer> positionIds = new HashMap<>();
+        Map<String, Integer> statusIds = new HashMap<>();
+        List<String> positions = new ArrayList<>();
+        List<String> statuses = new ArrayList<>();
+        int unknownPosition = encode(UNKNOWN, positionIds, positions);
+        int unknownStatus = encode(UNKNOWN, statusIds, statuses);
+        Map<String, Long> employeeBits = new HashMap<>(employees.size() * 2);
+        for (Employee employee : employees) {
+            int position = encode(label(employee.getPosition()), positionIds, positions);
+            int status = encode(label(employee.getStatus()), statusIds, statuses);
+            if (status >= MAX_STATUSES) {
+                throw new IllegalArgumentException("More than " + MAX_STATUSES + " employment statuses");
+            }
+            employeeBits.putIfAbsent(employee.getEmployeeNumber(), dimensionBits(position, status));
+        }
+        long unknownBits = dimensionBits(unknownPosition, unknownStatus);
+
+        PeriodResult[] rows = results.toArray(new PeriodResult[0]);
+        long[] rowKeys = new long[rows.length];
+        IntStream.range(0, rows.length).parallel().forEach(i -> {
+            PayPeriod period = rows[i].getPeriod();
+            int month = period.getYear() * 12 + period.getMonth() - 1;
+            rowKeys[i] = employeeBits.getOrDefault(rows[i].getEmployeeId(), unknownBits)
+                | (long) month << 1 | (period.isFirstHalf() ? 0 : 1);
+        });
+
+        int partitions = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()));
+        Partition[] parts = IntStream.range(0, partitions)
+            .parallel()
+            .mapToObj(p -> aggregate(rows, rowKeys, p, partitions))
+            .toArray(Partition[]::new);
+
+        // Partitions hold disjoint cells, so they are concatenated, then sorted by key
+        int cellCount = Arrays.stream(parts).mapToInt(part -> part.size).sum();
+        long[] order = new long[cellCount];
+        Totals[] unsorted = new Totals[cellCount];
+        int next = 0;
+        for (Partition part : parts) {
+            for (int c = 0; c < part.size; c++) {
+                unsorted[next] = part.cell(c);
+                order[next] = part.keys[c];
+                next++;
+            }
+        }
+        Integer[] byKey = new Integer[cellCount];
+        for (int c = 0; c < cellCount; c++) {
+            byKey[c] = c;
+        }
+        Arrays.sort(byKey, (a, b) -> Long.compare(order[a], order[b]));
+        long[] keys = new long[cellCount];
+        Totals[] cells = new Totals[cellCount];
+        for (int c = 0; c < cellCount; c++) {
+            keys[c] = order[byKey[c]];
+            cells[c] = unsorted[byKey[c]];
+        }
+        return new PayrollCostCube(positions.toArray(new String[0]), statuses.toArray(new String[0]), keys, cells);
+    }
+
+    private static String label(String value) {
+        return value == null || value.isBlank() ? UNKNOWN : value.trim();
+    }
+
+    private static int encode(String value, Map<String, Integer> ids, List<String> dictionary) {
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = dictionary.size();
+            ids.put(value, id);
+            dictionary.add(value);
+        }
+        return id;
+    }
+
+    // Key layout: position << 32 | status << 21 | (year * 12 + month - 1) << 1 | second half
+    private static long dimensionBits(int position, int status) {
+        return (long) position << 32 | (long) status << 21;
+    }
+
+    private static int positionOf(long key) {
+        return (int) (key >>> 32);
+    }
+
+    private static int statusOf(long key) {
+        return (int) (key >>> 21) & (MAX_STATUSES - 1);
+    }
+
+    private static int monthOf(long key) {
+        return (int) (key >>> 1) & ((1 << 20) - 1);
+    }
+
+    private static boolean isFirstHalf(long key) {
+        return (key & 1) == 0;
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static Partition aggregate(PeriodResult[] rows, long[] rowKeys, int partition, int partitions) {
+        Partition part = new Partition();
+        for (int i = 0; i < rows.length; i++) {
+            long hash = mix(rowKeys[i]);
+            if ((int) (hash & (partitions - 1)) == partition) {
+                part.add(rowKeys[i], hash, rows[i]);
+            }
+        }
+        return part;
+    }
+
+    /**
+     * Cells of one hash partition: an open-addressing table from key to
+     * cell, with the measures in parallel primitive arrays.
+     */
+    private static final class Partition {
+        private int[] table = new int[64]; // Cell index + 1, 0 when empty
+        private long[] keys = new long[32];
+        private int size;
+        private long[] count = new long[32];
+        private double[] hours = new double[32];
+        private double[] gross = new double[32];
+        private double[] deductions = new double[32];
+        private double[] tax = new double[32];
+        private double[] net = new double[32];
+
+        void add(long key, long hash, PeriodResult row) {
+            int c = cellFor(key, hash);
+            count[c]++;
+            hours[c] += row.getHoursWorked();
+            gross[c] += row.getGross();
+            deductions[c] += row.getTotalDeductions();
+            tax[c] += row.getWithholdingTax();
+            net[c] += row.getNet();
+        }
+
+        private int cellFor(long key, long hash) {
+            int mask = table.length - 1;
+            int slot = (int) (hash >>> 32) & mask; // Low bits chose the partition
+            while (table[slot] != 0) {
+                if (keys[table[slot] - 1] == key) {
+                    return table[slot] - 1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (size == keys.length) {
+                grow();
+            }
+            keys[size] = key;
+            if ((size + 1) * 2 > table.length) {
+                rehash(table.length * 2);
+            } else {
+                table[slot] = size + 1;
+            }
+            return size++;
+        }
+
+        private void grow() {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            count = Arrays.copyOf(count, capacity);
+            hours = Arrays.copyOf(hours, capacity);
+            gross = Arrays.copyOf(gross, capacity);
+            deductions = Arrays.copyOf(deductions, capacity);
+            tax = Arrays.copyOf(tax, capacity);
+            net = Arrays.copyOf(net, capacity);
+        }
+
+        // Reinserts cells 0..size, including the one being added
+        private void rehash(int capacity) {
+            table = new int[capacity];
+            int mask = capacity - 1;
+            for (int c = 0; c <= size; c++) {
+                int slot = (int) (mix(keys[c]) >>> 32) & mask;
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = c + 1;
+            }
+        }
+
+        Totals cell(int c) {
+            return new Totals(count[c], hours[c], gross[c], deductions[c], tax[c], net[c]);
+        }
+    }
+
+    /**
+     * Restricts a query to some dimension values; unset dimensions match everything.
+     */
+    public static final class Filter {
+        private static final Filter ALL = new Filter(null, null, null, null);
+
+        private final String position;
+        private final String status;
+        private final YearMonth month;
+        private final Boolean firstHalf;
+
+        private Filter(String position, String status, YearMonth month, Boolean firstHalf) {
+            this.position = position;
+            this.status = status;
+            this.month = month;
+            this.firstHalf = firstHalf;
+        }
+
+        public static Filter all() {
+            return ALL;
+        }
+
+        public Filter withPosition(String position) {
+            return new Filter(position, status, month, firstHalf);
+        }
+
+        public Filter withStatus(String status) {
+            return new Filter(position, status, month, firstHalf);
+        }
+
+        public Filter withMonth(YearMonth month) {
+            return new Filter(position, status, month, firstHalf);
+        }
+
+        public Filter withHalf(boolean firstHalf) {
+            return new Filter(position, status, month, firstHalf);
+        }
+    }
+
+    /**
+     * Summed measures of some cells.
+     */
+    public static final class Totals {
+        private long count;
+        private double hoursWorked;
+        private double gross;
+        private double deductions;
+        private double tax;
+        private double net;
+
+        Totals() {
+        }
+
+        Totals(long count, double hoursWorked, double gross, double deductions, double tax, double net) {
+            this.count = count;
+            this.hoursWorked = hoursWorked;
+            this.gross = gross;
+            this.deductions = deductions;
+            this.tax = tax;
+            this.net = net;
+        }
+
+        private void add(Totals other) {
+            count += other.count;
+            hoursWorked += other.hoursWorked;
+            gross += other.gross;
+            deductions += other.deductions;
+            tax += other.tax;
+            net += other.net;
+        }
+
+        // Getters
+        public long getCount() { return count; }
+        public double getHoursWorked() { return hoursWorked; }
+        public double getGross() { return gross; }
+        public double getDeductions() { return deductions; }
+        public double getTax() { return tax; }
+        public double getNet() { return net; }
+    }
+
+    /**
+     * @return Totals of the cells matching the filter
+     */
+    public Totals slice(Filter filter) {
+        Totals totals = new Totals();
+        for (int c = 0; c < keys.length; c++) {
+            if (matches(keys[c], filter)) {
+                totals.add(cells[c]);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * @return Totals of the cells matching the filter, by value of one dimension, in value order
+     */
+    public Map<String, Totals> drillDown(Dimension by, Filter filter) {
+        if (by == null) {
+            throw new IllegalArgumentException("Dimension cannot be null");
+        }
+        TreeMap<String, Totals> groups = new TreeMap<>();
+        for (int c = 0; c < keys.length; c++) {
+            if (matches(keys[c], filter)) {
+                groups.computeIfAbsent(valueOf(keys[c], by), value -> new Totals()).add(cells[c]);
+            }
+        }
+        return new LinkedHashMap<>(groups);
+    }
+
+    private boolean matches(long key, Filter filter) {
+        return (filter.position == null || positions[positionOf(key)].equals(filter.position))
+            && (filter.status == null || statuses[statusOf(key)].equals(filter.status))
+            && (filter.month == null || monthOf(key) == filter.month.getYear() * 12 + filter.month.getMonthValue() - 1)
+            && (filter.firstHalf == null || isFirstHalf(key) == filter.firstHalf);
+    }
+
+    private String valueOf(long key, Dimension dimension) {
+        return switch (dimension) {
+            case POSITION -> positions[positionOf(key)];
+            case STATUS -> statuses[statusOf(key)];
+            case MONTH -> YearMonth.of(monthOf(key) / 12, monthOf(key) % 12 + 1).toString();
+            case HALF -> isFirstHalf(key) ? "1st half" : "2nd half";
+        };
+    }
+
+    /**
+     * @return Number of non-empty cells
+     */
+    public int size() {
+        return keys.length;
+    }
+}
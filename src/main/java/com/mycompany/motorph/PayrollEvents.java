@@ -0,0 +1,167 @@
+package com.mycompany.motorph;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Java Flight Recorder events for ingestion and payroll computation, so a
+ * recording shows which file, employee or batch was being processed next to
+ * the GC and allocation events of the same moment.
+ *
+ * Each event is only committed when recording is on and its duration reaches
+ * the threshold, which defaults to the {@link Threshold} below and can be
+ * changed per recording, e.g. with src/main/resources/jfr/motorph.jfc or
+ * {@code -XX:StartFlightRecording:com.mycompany.motorph.GrossComputation#threshold=5ms}.
+ * Callers fill in the fields only after {@code shouldCommit()}, so events
+ * below the threshold cost a begin and an end timestamp. {@link GrossComputation}
+ * and {@link DeductionChain}, which can run once per employee, are only
+ * allocated while they are enabled.
+ */
+public final class PayrollEvents {
+    static final String PREFIX = "com.mycompany.motorph.";
+
+    // Checked before each gross computation and deduction chain, so no event is allocated while nothing records it
+    static final EventType GROSS_COMPUTATION = EventType.getEventType(GrossComputation.class);
+    static final EventType DEDUCTION_CHAIN = EventType.getEventType(DeductionChain.class);
+
+    private PayrollEvents() {
+    }
+
+    @Name(PREFIX + "WorkbookLoad")
+    @Label("Workbook Load")
+    @Category({"MotorPH", "Ingestion"})
+    @Description("Parsing of one spreadsheet")
+    @StackTrace(false)
+    @Threshold("10 ms")
+    public static final class WorkbookLoad extends Event {
+        @Label("File")
+        String file;
+
+        @Label("Contents")
+        @Description("Employees, Attendance or SSS")
+        String contents;
+
+        @Label("Sheets")
+        int sheets;
+
+        @Label("Rows")
+        @Description("Rows accepted")
+        int rows;
+
+        @Label("Rejects")
+        @Description("Values rejected while parsing")
+        int rejects;
+
+        @Label("File Size")
+        @DataAmount
+        long fileSize;
+
+        /**
+         * Ends the event and commits it if it passes the recording's settings.
+         */
+        void finish(Path path, String contents, int sheets, int rows, int rejects) {
+            end();
+            if (shouldCommit()) {
+                this.file = path.toString();
+                this.contents = contents;
+                this.sheets = sheets;
+                this.rows = rows;
+                this.rejects = rejects;
+                try {
+                    this.fileSize = Files.size(path);
+                } catch (IOException e) {
+                    this.fileSize = -1;
+                }
+                commit();
+            }
+        }
+    }
+
+    @Name(PREFIX + "GrossComputation")
+    @Label("Gross Computation")
+    @Category({"MotorPH", "Payroll"})
+    @Description("One employee's gross pay for one period")
+    @StackTrace(false)
+    @Threshold("1 ms")
+    public static final class GrossComputation extends Event {
+        @Label("Employee")
+        String employeeId;
+
+        @Label("Period")
+        String period;
+
+        @Label("Records Scanned")
+        @Description("Attendance records of the month read for the period")
+        int recordsScanned;
+
+        @Label("Hours Worked")
+        double hoursWorked;
+
+        @Label("Gross")
+        double gross;
+    }
+
+    @Name(PREFIX + "DeductionChain")
+    @Label("Deduction Chain")
+    @Category({"MotorPH", "Payroll"})
+    @Description("Evaluation of every deduction rule over a batch of employees")
+    @StackTrace(false)
+    @Threshold("1 ms")
+    public static final class DeductionChain extends Event {
+        @Label("Period")
+        String period;
+
+        @Label("Employees")
+        int employees;
+
+        @Label("First Employee")
+        String firstEmployeeId;
+
+        @Label("Rules")
+        int rules;
+
+        @Label("Slowest Rule")
+        String slowestRule;
+
+        @Label("Slowest Rule Nanos")
+        long slowestRuleNanos;
+    }
+
+    @Name(PREFIX + "BatchProgress")
+    @Label("Batch Progress")
+    @Category({"MotorPH", "Payroll"})
+    @Description("A run of consecutive employees in a payroll batch; the duration covers that run")
+    @StackTrace(false)
+    @Threshold("0 ms")
+    public static final class BatchProgress extends Event {
+        @Label("Period")
+        String period;
+
+        @Label("Processed")
+        @Description("Employees processed so far, including resumed and failed ones")
+        int processed;
+
+        @Label("Total")
+        int total;
+
+        @Label("Computed")
+        int computed;
+
+        @Label("Resumed")
+        int resumed;
+
+        @Label("Failed")
+        int failed;
+    }
+}
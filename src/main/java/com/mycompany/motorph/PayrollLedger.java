@@ -0,0 +1,370 @@
+package com.mycompany.motorph;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only on-disk ledger of finalised period results.
+ *
+ * Records live in {@code payroll.dat}, each framed as
+ * [magic][payload length][CRC32][payload]. A compact index of
+ * (employee, period) to record offset is kept in {@code payroll.idx}.
+ * The data file is authoritative: on open, records written after the last
+ * index entry are re-indexed and a torn trailing record left by a crash is
+ * truncated, so a batch can resume from the last committed employee.
+ *
+ * Appends are group-committed: the data file is forced every
+ * {@link #GROUP_COMMIT_RECORDS} records, on {@link #sync()} and on close,
+ * so a crash loses at most the records since the last force and the batch
+ * computes them again. Results are also indexed by period, in append order,
+ * so reading a period does not scan the whole history.
+ */
+public class PayrollLedger implements Closeable {
+    private static final String DATA_FILE = "payroll.dat";
+    private static final String INDEX_FILE = "payroll.idx";
+    private static final int RECORD_MAGIC = 0x4D504831; // "MPH1"
+    private static final int HEADER_BYTES = 12;
+    static final int GROUP_COMMIT_RECORDS = 256; // Records appended between forced writes
+
+    private final FileChannel data;
+    private final FileChannel index;
+    private final Map<String, Long> offsets = new HashMap<>();
+    private final Map<Integer, Offsets> periodOffsets = new HashMap<>(); // Period key to offsets in append order
+    private int unforced; // Records appended since the data file was last forced
+
+    private PayrollLedger(FileChannel data, FileChannel index) {
+        this.data = data;
+        this.index = index;
+    }
+
+    /**
+     * Opens (or creates) the ledger in a directory and recovers its index.
+     * @param directory Directory holding the ledger files
+     * @return The opened ledger
+     * @throws IOException If the files cannot be read or written
+     */
+    public static PayrollLedger open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel data = FileChannel.open(directory.resolve(DATA_FILE),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel index = FileChannel.open(directory.resolve(INDEX_FILE),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        PayrollLedger ledger = new PayrollLedger(data, index);
+        try {
+            ledger.recover();
+        } catch (IOException | RuntimeException e) {
+            ledger.close();
+            throw e;
+        }
+        return ledger;
+    }
+
+    /**
+     * Appends a finalised result. It is durable once the group is forced,
+     * at the latest on {@link #sync()} or close.
+     * @param result The result to store
+     * @throws IllegalStateException If the employee's period is already in the ledger
+     * @throws IOException If the record cannot be written
+     */
+    public synchronized void append(PeriodResult result) throws IOException {
+        String key = key(result.getEmployeeId(), result.getPeriod());
+        if (offsets.containsKey(key)) {
+            throw new IllegalStateException("Period " + result.getPeriod() + " already recorded for employee "
+                + result.getEmployeeId());
+        }
+
+        byte[] payload = encode(result);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        record.putInt(RECORD_MAGIC).putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+
+        long offset = data.size();
+        writeFully(data, record, offset);
+        writeIndexEntry(result.getEmployeeId(), result.getPeriod().key(), offset);
+        indexRecord(key, result.getPeriod().key(), offset);
+
+        if (++unforced >= GROUP_COMMIT_RECORDS) {
+            sync();
+        }
+    }
+
+    /**
+     * Forces every record appended so far to disk.
+     * @throws IOException If the data file cannot be forced
+     */
+    public synchronized void sync() throws IOException {
+        if (unforced > 0) {
+            data.force(false); // Records are committed once they are durable in the data file
+            unforced = 0;
+        }
+    }
+
+    public synchronized boolean contains(String employeeId, PayPeriod period) {
+        return offsets.containsKey(key(employeeId, period));
+    }
+
+    /**
+     * Reads a stored result by (employee, period) with a single positional read.
+     * @return The stored result, or null if it was never recorded
+     */
+    public synchronized PeriodResult read(String employeeId, PayPeriod period) throws IOException {
+        Long offset = offsets.get(key(employeeId, period));
+        return offset == null ? null : readAt(offset);
+    }
+
+    /**
+     * Reads every stored result for one period, in the order it was appended.
+     */
+    public synchronized List<PeriodResult> readPeriod(PayPeriod period) throws IOException {
+        Offsets recorded = periodOffsets.get(period.key());
+        if (recorded == null) {
+            return new ArrayList<>();
+        }
+        List<PeriodResult> results = new ArrayList<>(recorded.size);
+        for (int i = 0; i < recorded.size; i++) {
+            results.add(readAt(recorded.values[i]));
+        }
+        return results;
+    }
+
+    /**
+     * Streams every stored result in the order it was appended.
+     */
+    public synchronized void forEach(Consumer<PeriodResult> consumer) throws IOException {
+        long position = 0;
+        long end = data.size();
+        while (position < end) {
+            PeriodResult result = readAt(position);
+            consumer.accept(result);
+            position += HEADER_BYTES + readHeader(position).getInt(4);
+        }
+    }
+
+    public synchronized int size() {
+        return offsets.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            sync();
+            index.force(false);
+        } finally {
+            try {
+                data.close();
+            } finally {
+                index.close();
+            }
+        }
+    }
+
+    private void recover() throws IOException {
+        // Load the index entries that are fully written
+        long indexedEnd = 0;
+        long indexLength = 0;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(readAll(index)))) {
+            while (true) {
+                String employeeId;
+                int periodKey;
+                long offset;
+                try {
+                    employeeId = in.readUTF();
+                    periodKey = in.readInt();
+                    offset = in.readLong();
+                } catch (EOFException e) {
+                    break;
+                }
+                int payloadLength = validRecordLength(offset);
+                if (payloadLength < 0) {
+                    break; // Index points past committed data; rebuild from here
+                }
+                indexRecord(employeeId + "#" + periodKey, periodKey, offset);
+                indexedEnd = Math.max(indexedEnd, offset + HEADER_BYTES + payloadLength);
+                indexLength += 2 + utfLength(employeeId) + 4 + 8;
+            }
+        }
+        index.truncate(indexLength);
+
+        // Re-index committed records that never made it into the index
+        long position = indexedEnd;
+        while (true) {
+            int payloadLength = validRecordLength(position);
+            if (payloadLength < 0) {
+                break;
+            }
+            PeriodResult result = readAt(position);
+            String key = key(result.getEmployeeId(), result.getPeriod());
+            if (!offsets.containsKey(key)) {
+                writeIndexEntry(result.getEmployeeId(), result.getPeriod().key(), position);
+                indexRecord(key, result.getPeriod().key(), position);
+            }
+            position += HEADER_BYTES + payloadLength;
+        }
+
+        // Anything past the last valid record is a torn write
+        if (data.size() > position) {
+            data.truncate(position);
+            data.force(false);
+        }
+    }
+
+    private void indexRecord(String key, int periodKey, long offset) {
+        offsets.put(key, offset);
+        periodOffsets.computeIfAbsent(periodKey, k -> new Offsets()).add(offset);
+    }
+
+    // Growable list of record offsets
+    private static final class Offsets {
+        private long[] values = new long[16];
+        private int size;
+
+        void add(long offset) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = offset;
+        }
+    }
+
+    /**
+     * @return The payload length of a complete record with a matching checksum at offset, or -1
+     */
+    private int validRecordLength(long offset) throws IOException {
+        if (offset < 0 || offset + HEADER_BYTES > data.size()) {
+            return -1;
+        }
+        ByteBuffer header = readHeader(offset);
+        int payloadLength = header.getInt(4);
+        if (header.getInt(0) != RECORD_MAGIC || payloadLength < 0
+                || offset + HEADER_BYTES + payloadLength > data.size()) {
+            return -1;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(payloadLength);
+        readFully(data, payload, offset + HEADER_BYTES);
+        CRC32 crc = new CRC32();
+        crc.update(payload.array());
+        return (int) crc.getValue() == header.getInt(8) ? payloadLength : -1;
+    }
+
+    private ByteBuffer readHeader(long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(data, header, offset);
+        return header;
+    }
+
+    private PeriodResult readAt(long offset) throws IOException {
+        ByteBuffer header = readHeader(offset);
+        if (header.getInt(0) != RECORD_MAGIC) {
+            throw new IOException("Corrupt ledger record at offset " + offset);
+        }
+        ByteBuffer payload = ByteBuffer.allocate(header.getInt(4));
+        readFully(data, payload, offset + HEADER_BYTES);
+        return decode(payload.array());
+    }
+
+    private void writeIndexEntry(String employeeId, int periodKey, long offset) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(employeeId);
+            out.writeInt(periodKey);
+            out.writeLong(offset);
+        }
+        writeFully(index, ByteBuffer.wrap(bytes.toByteArray()), index.size());
+    }
+
+    static byte[] encode(PeriodResult result) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(192);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(result.getEmployeeId());
+            out.writeUTF(result.getEmployeeName());
+            out.writeInt(result.getPeriod().key());
+            out.writeDouble(result.getHoursWorked());
+            out.writeDouble(result.getRegularHours());
+            out.writeDouble(result.getOvertimeHours());
+            out.writeDouble(result.getRegularPay());
+            out.writeDouble(result.getOvertimePay());
+            out.writeDouble(result.getHolidayPay());
+            out.writeDouble(result.getGross());
+            out.writeDouble(result.getSss());
+            out.writeDouble(result.getPhilhealth());
+            out.writeDouble(result.getPagibig());
+            out.writeDouble(result.getLate());
+            out.writeDouble(result.getTaxableIncome());
+            out.writeDouble(result.getWithholdingTax());
+            out.writeDouble(result.getNet());
+            out.writeDouble(result.getOtherDeductions()); // Absent from records written before deduction rules
+        }
+        return bytes.toByteArray();
+    }
+
+    static PeriodResult decode(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            String employeeId = in.readUTF();
+            String employeeName = in.readUTF();
+            PayPeriod period = PayPeriod.fromKey(in.readInt());
+            double[] amounts = new double[14];
+            for (int i = 0; i < amounts.length; i++) {
+                amounts[i] = in.readDouble();
+            }
+            double otherDeductions = in.available() >= Double.BYTES ? in.readDouble() : 0;
+            return new PeriodResult(employeeId, employeeName, period,
+                amounts[0], amounts[1], amounts[2], amounts[3], amounts[4], amounts[5], amounts[6],
+                amounts[7], amounts[8], amounts[9], amounts[10], otherDeductions,
+                amounts[11], amounts[12], amounts[13]);
+        }
+    }
+
+    private static String key(String employeeId, PayPeriod period) {
+        return employeeId + "#" + period.key();
+    }
+
+    private static int utfLength(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            length += (c >= 0x0001 && c <= 0x007F) ? 1 : (c > 0x07FF ? 3 : 2);
+        }
+        return length;
+    }
+
+    private static byte[] readAll(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+        readFully(channel, buffer, 0);
+        return buffer.array();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException("Unexpected end of ledger file");
+            }
+        }
+        buffer.flip();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package com.mycompany.motorph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Compares two payroll runs, such as a stored run and a re-run after
+ * corrections, and reports employees added or removed and amounts that
+ * moved by more than a tolerance.
+ *
+ * Both runs are streamed once into hash partitions spilled to temporary
+ * files, keyed by employee and period. Partitions are then reconciled one
+ * at a time: the baseline partition is loaded into a hash map and the
+ * candidate partition streamed against it. Memory therefore holds one
+ * partition rather than a whole run.
+ */
+public class PayrollReconciler {
+    private static final int DEFAULT_PARTITIONS = 64;
+
+    /**
+     * A source of period results, e.g. a CSV export or some periods of the ledger.
+     */
+    @FunctionalInterface
+    public interface ResultSource {
+        void forEach(Consumer<PeriodResult> consumer) throws IOException;
+
+        static ResultSource csv(Path file) {
+            return consumer -> PeriodResultCsv.forEach(file, consumer);
+        }
+
+        /**
+         * @return The ledger's results of the given periods only, read period by period
+         */
+        static ResultSource ledger(PayrollLedger ledger, Collection<PayPeriod> periods) {
+            return consumer -> {
+                for (PayPeriod period : periods) {
+                    ledger.readPeriod(period).forEach(consumer);
+                }
+            };
+        }
+
+        /**
+         * @return This source without the results of other periods
+         */
+        default ResultSource within(Collection<PayPeriod> periods) {
+            return consumer -> forEach(result -> {
+                if (periods.contains(result.getPeriod())) {
+                    consumer.accept(result);
+                }
+            });
+        }
+    }
+
+    /**
+     * The amounts compared between runs.
+     */
+    public enum Field {
+        GROSS("Gross", PeriodResult::getGross),
+        SSS("SSS", PeriodResult::getSss),
+        PHILHEALTH("PhilHealth", PeriodResult::getPhilhealth),
+        PAGIBIG("Pag-IBIG", PeriodResult::getPagibig),
+        LATE("Late", PeriodResult::getLate),
+        OTHER_DEDUCTIONS("Other Deductions", PeriodResult::getOtherDeductions),
+        WITHHOLDING_TAX("Withholding Tax", PeriodResult::getWithholdingTax),
+        NET("Net", PeriodResult::getNet);
+
+        private final String label;
+        private final ToDoubleFunction<PeriodResult> value;
+
+        Field(String label, ToDoubleFunction<PeriodResult> value) {
+            this.label = label;
+            this.value = value;
+        }
+
+        public double of(PeriodResult result) {
+            return value.applyAsDouble(result);
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    public enum Kind {
+        ADDED, REMOVED, CHANGED
+    }
+
+    /**
+     * One reported difference. For ADDED and REMOVED the field is null and
+     * the amounts are the net pay of the side the employee appears on.
+     */
+    public static final class Difference {
+        private final Kind kind;
+        private final String employeeId;
+        private final PayPeriod period;
+        private final Field field;
+        private final double baseline;
+        private final double candidate;
+
+        Difference(Kind kind, String employeeId, PayPeriod period, Field field, double baseline, double candidate) {
+            this.kind = kind;
+            this.employeeId = employeeId;
+            this.period = period;
+            this.field = field;
+            this.baseline = baseline;
+            this.candidate = candidate;
+        }
+
+        public double getDelta() {
+            return candidate - baseline;
+        }
+
+        // Getters
+        public Kind getKind() { return kind; }
+        public String getEmployeeId() { return employeeId; }
+        public PayPeriod getPeriod() { return period; }
+        public Field getField() { return field; }
+        public double getBaseline() { return baseline; }
+        public double getCandidate() { return candidate; }
+
+        @Override
+        public String toString() {
+            return switch (kind) {
+                case ADDED -> String.format("+ %s %s (net %.2f)", employeeId, period, candidate);
+                case REMOVED -> String.format("- %s %s (net %.2f)", employeeId, period, baseline);
+                case CHANGED -> String.format("~ %s %s %s: %.2f -> %.2f (%+.2f)",
+                    employeeId, period, field.getLabel(), baseline, candidate, getDelta());
+            };
+        }
+    }
+
+    /**
+     * Counts of a reconciliation; the differences themselves go to the sink.
+     */
+    public static final class Summary {
+        private long baselineCount;
+        private long candidateCount;
+        private long added;
+        private long removed;
+        private long changed;
+        private long fieldDifferences;
+
+        public long getMatched() { return candidateCount - added; }
+        public long getUnchanged() { return getMatched() - changed; }
+        public boolean isClean() { return added == 0 && removed == 0 && changed == 0; }
+
+        // Getters
+        public long getBaselineCount() { return baselineCount; }
+        public long getCandidateCount() { return candidateCount; }
+        public long getAdded() { return added; }
+        public long getRemoved() { return removed; }
+        public long getChanged() { return changed; }
+        public long getFieldDifferences() { return fieldDifferences; }
+    }
+
+    private final double tolerance;
+    private final int partitions;
+
+    /**
+     * @param tolerance Largest absolute change of an amount that is not reported
+     */
+    public PayrollReconciler(double tolerance) {
+        this(tolerance, DEFAULT_PARTITIONS);
+    }
+
+    /**
+     * @param tolerance Largest absolute change of an amount that is not reported
+     * @param partitions Number of spill partitions; more partitions lower peak memory
+     */
+    public PayrollReconciler(double tolerance, int partitions) {
+        if (tolerance < 0 || Double.isNaN(tolerance)) {
+            throw new IllegalArgumentException("Tolerance cannot be negative");
+        }
+        if (partitions < 1) {
+            throw new IllegalArgumentException("At least one partition is required");
+        }
+        this.tolerance = tolerance;
+        this.partitions = partitions;
+    }
+
+    /**
+     * Reconciles two runs. Differences are reported partition by partition,
+     * sorted by employee ID and period within each partition.
+     * @param baseline The reference run
+     * @param candidate The run being checked
+     * @param differences Receives every difference found
+     * @return Counts of the comparison
+     * @throws IOException If a source or the spill files cannot be read or written
+     */
+    public Summary reconcile(ResultSource baseline, ResultSource candidate, Consumer<Difference> differences)
+            throws IOException {
+        Summary summary = new Summary();
+        Path spillDirectory = Files.createTempDirectory("payroll-reconcile");
+        try {
+            Path[] baselineParts = spill(baseline, spillDirectory, "baseline");
+            Path[] candidateParts = spill(candidate, spillDirectory, "candidate");
+            for (int p = 0; p < partitions; p++) {
+                reconcilePartition(baselineParts[p], candidateParts[p], summary, differences);
+                Files.delete(baselineParts[p]);
+                Files.delete(candidateParts[p]);
+            }
+        } finally {
+            deleteQuietly(spillDirectory);
+        }
+        return summary;
+    }
+
+    /**
+     * Reconciles two runs, collecting the differences in memory.
+     */
+    public List<Difference> reconcile(ResultSource baseline, ResultSource candidate) throws IOException {
+        List<Difference> differences = new ArrayList<>();
+        reconcile(baseline, candidate, differences::add);
+        return differences;
+    }
+
+    private void reconcilePartition(Path baselinePart, Path candidatePart, Summary summary,
+                                    Consumer<Difference> differences) throws IOException {
+        Map<String, PeriodResult> baseline = new HashMap<>();
+        readPartition(baselinePart, result -> baseline.put(key(result), result));
+        summary.baselineCount += baseline.size();
+
+        List<Difference> found = new ArrayList<>();
+        readPartition(candidatePart, result -> {
+            summary.candidateCount++;
+            PeriodResult before = baseline.remove(key(result));
+            if (before == null) {
+                summary.added++;
+                found.add(new Difference(Kind.ADDED, result.getEmployeeId(), result.getPeriod(), null, 0, result.getNet()));
+                return;
+            }
+            boolean changed = false;
+            for (Field field : Field.values()) {
+                double was = field.of(before);
+                double now = field.of(result);
+                if (Math.abs(now - was) > tolerance) {
+                    found.add(new Difference(Kind.CHANGED, result.getEmployeeId(), result.getPeriod(), field, was, now));
+                    summary.fieldDifferences++;
+                    changed = true;
+                }
+            }
+            if (changed) {
+                summary.changed++;
+            }
+        });
+        for (PeriodResult result : baseline.values()) {
+            summary.removed++;
+            found.add(new Difference(Kind.REMOVED, result.getEmployeeId(), result.getPeriod(), null, result.getNet(), 0));
+        }
+
+        found.sort(Comparator.comparing(Difference::getEmployeeId)
+            .thenComparing(Difference::getPeriod)
+            .thenComparing(Difference::getKind));
+        found.forEach(differences);
+    }
+
+    /**
+     * Streams a run into partition files of length-prefixed ledger payloads.
+     */
+    private Path[] spill(ResultSource source, Path directory, String prefix) throws IOException {
+        Path[] parts = new Path[partitions];
+        DataOutputStream[] outs = new DataOutputStream[partitions];
+        try {
+            for (int p = 0; p < partitions; p++) {
+                parts[p] = directory.resolve(prefix + "-" + p + ".part");
+                outs[p] = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(parts[p]), 8192));
+            }
+            source.forEach(result -> {
+                try {
+                    byte[] payload = PayrollLedger.encode(result);
+                    DataOutputStream out = outs[Math.floorMod(key(result).hashCode(), partitions)];
+                    out.writeInt(payload.length);
+                    out.write(payload);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            for (DataOutputStream out : outs) {
+                if (out != null) {
+                    out.close();
+                }
+            }
+        }
+        return parts;
+    }
+
+    private static void readPartition(Path part, Consumer<PeriodResult> consumer) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(part), 8192))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                consumer.accept(PayrollLedger.decode(payload));
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path directory) {
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            System.err.println("Could not remove " + directory + ": " + e.getMessage());
+        }
+    }
+
+    private static String key(PeriodResult result) {
+        return result.getEmployeeId() + "#" + result.getPeriod().key();
+    }
+
+    /**
+     * Prints a summary followed by the given differences, typically the first
+     * few reported.
+     */
+    public static void printReport(Summary summary, List<Difference> shown) {
+        System.out.println("\nReconciliation:");
+        System.out.println("------------------------------------------");
+        System.out.printf("%-20s: %d%n", "Baseline Results", summary.getBaselineCount());
+        System.out.printf("%-20s: %d%n", "Candidate Results", summary.getCandidateCount());
+        System.out.printf("%-20s: %d%n", "Unchanged", summary.getUnchanged());
+        System.out.printf("%-20s: %d%n", "Changed", summary.getChanged());
+        System.out.printf("%-20s: %d%n", "Added", summary.getAdded());
+        System.out.printf("%-20s: %d%n", "Removed", summary.getRemoved());
+        System.out.println("------------------------------------------");
+        for (Difference difference : shown) {
+            System.out.println(difference);
+        }
+        long total = summary.getAdded() + summary.getRemoved() + summary.getFieldDifferences();
+        if (total > shown.size()) {
+            System.out.println("... " + (total - shown.size()) + " more");
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.mycompany.motorph;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.Charset;
+import java.util.Map;
+
+/**
+ * Renders payslips and summaries in the dashboard's layout into one reusable
+ * buffer, then encodes the buffer through a reusable encoder to a channel.
+ * Labels are padded once when the class loads and amounts are written with
+ * {@link AmountText}, so rendering a company's payslips does not go through
+ * {@code printf} or a shared {@code DecimalFormat}. Lines keep the labels
+ * and widths of the dashboard's former {@code "%-20s: "} and
+ * {@code "%-25s: "} format strings.
+ *
+ * A renderer holds its buffers and is used by one thread at a time; give
+ * each thread its own.
+ */
+public class PayslipRenderer {
+    private static final String NEWLINE = System.lineSeparator();
+    private static final String RULE = "------------------------------------------";
+    private static final int LABEL_WIDTH = 20;
+    private static final int GROSS_LABEL_WIDTH = 25;
+    private static final int FLUSH_THRESHOLD = 64 * 1024;
+    private static final int BYTE_BUFFER_SIZE = 16 * 1024;
+
+    // Labels padded as "%-20s: " and "%-25s: "
+    private static final String EMPLOYEE_ID = label("Employee ID", LABEL_WIDTH);
+    private static final String EMPLOYEE_NAME = label("Employee Name", LABEL_WIDTH);
+    private static final String REGULAR_HOURS = label("Regular Hours", LABEL_WIDTH);
+    private static final String OVERTIME_HOURS = label("Overtime Hours", LABEL_WIDTH);
+    private static final String REGULAR_PAY = label("Regular Pay", LABEL_WIDTH);
+    private static final String OVERTIME_PAY = label("Overtime Pay", LABEL_WIDTH);
+    private static final String HOLIDAY_PAY = label("Holiday Premium Pay", LABEL_WIDTH);
+    private static final String GROSS_WAGE = label("Gross Wage", LABEL_WIDTH);
+    private static final String SSS = label("SSS", LABEL_WIDTH);
+    private static final String PHILHEALTH = label("PhilHealth", LABEL_WIDTH);
+    private static final String PAGIBIG = label("Pag-IBIG", LABEL_WIDTH);
+    private static final String LATE = label("Late Penalties", LABEL_WIDTH);
+    private static final String TOTAL_DEDUCTIONS = label("Total Deductions", LABEL_WIDTH);
+    private static final String TAXABLE_INCOME = label("Taxable Income", LABEL_WIDTH);
+    private static final String WITHHOLDING_TAX = label("Withholding Tax", LABEL_WIDTH);
+    private static final String NET_WAGE = label("NET WAGE", LABEL_WIDTH);
+    private static final String PERIODS_CLOSED = label("Periods Closed", LABEL_WIDTH);
+    private static final String TAX_WITHHELD = label("Tax Withheld", LABEL_WIDTH);
+    private static final String YTD_NET_WAGE = label("Net Wage", LABEL_WIDTH);
+    private static final String PROJECTED_TAX = label("Projected Annual Tax", LABEL_WIDTH);
+    private static final String TAX_TRUE_UP = label("Tax True-up", LABEL_WIDTH);
+    private static final String GROSS_REGULAR_HOURS = label("Regular Hours", GROSS_LABEL_WIDTH);
+    private static final String GROSS_OVERTIME_HOURS = label("Overtime Hours", GROSS_LABEL_WIDTH);
+    private static final String GROSS_REGULAR_PAY = label("Regular Pay", GROSS_LABEL_WIDTH);
+    private static final String GROSS_OVERTIME_PAY = label("Overtime Pay", GROSS_LABEL_WIDTH);
+    private static final String GROSS_HOLIDAY_PAY = label("Holiday Premium Pay", GROSS_LABEL_WIDTH);
+    private static final String GROSS_TOTAL = label("Total Gross Wage", GROSS_LABEL_WIDTH);
+
+    private final StringBuilder buffer = new StringBuilder(4096);
+    private final CharsetEncoder encoder;
+    private final ByteBuffer bytes = ByteBuffer.allocate(BYTE_BUFFER_SIZE);
+    private char[] chars = new char[0];
+    private CharBuffer charView = CharBuffer.wrap(chars);
+
+    /**
+     * @param charset Encoding of the rendered text, e.g. {@code System.out.charset()}
+     */
+    public PayslipRenderer(Charset charset) {
+        if (charset == null) {
+            throw new IllegalArgumentException("Charset cannot be null");
+        }
+        this.encoder = charset.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    private static String label(String name, int width) {
+        StringBuilder label = new StringBuilder(width + 2);
+        AmountText.appendPadded(label, name, width);
+        return label.append(": ").toString();
+    }
+
+    /**
+     * Appends a computed payslip: hours, pay, each deduction and net wage.
+     */
+    public PayslipRenderer payslip(String period, int month, int year, String empId, String employeeName,
+                                   Grosswage grosswage, Netwage netwage) {
+        double gross = netwage.getGross();
+        double totalDeductions = netwage.getTotalDeductions();
+        double withholdingTax = netwage.getWithholdingTax();
+
+        buffer.append('\n').append(period).append(" Payroll Details ").append(month).append('/').append(year)
+            .append(':').append(NEWLINE);
+        rule();
+        text(EMPLOYEE_ID, empId);
+        text(EMPLOYEE_NAME, employeeName);
+        rule();
+        hours(REGULAR_HOURS, grosswage.getRegularHours());
+        hours(OVERTIME_HOURS, grosswage.getOvertimeHours());
+        pesos(REGULAR_PAY, grosswage.getRegularPay());
+        pesos(OVERTIME_PAY, grosswage.getOvertimePay());
+        pesos(HOLIDAY_PAY, grosswage.getHolidayPay());
+        pesos(GROSS_WAGE, gross);
+
+        buffer.append("\nDeductions:").append(NEWLINE);
+        pesos(SSS, netwage.getSSSDeduction());
+        pesos(PHILHEALTH, netwage.getPhilhealthDeduction());
+        pesos(PAGIBIG, netwage.getPagIbigDeduction());
+        pesos(LATE, netwage.getLateDeduction());
+        for (Map.Entry<String, Double> rule : netwage.getDeductionsByRule().entrySet()) {
+            String name = rule.getKey();
+            if (!name.equals(SssDeductionRule.NAME) && !name.equals(PhilhealthDeductionRule.NAME)
+                    && !name.equals(PagibigDeductionRule.NAME) && !name.equals(LateDeductionRule.NAME)) {
+                AmountText.appendPadded(buffer, name, LABEL_WIDTH);
+                buffer.append(": PHP ");
+                AmountText.appendAmount(buffer, rule.getValue());
+                buffer.append(NEWLINE);
+            }
+        }
+        pesos(TOTAL_DEDUCTIONS, totalDeductions);
+        pesos(TAXABLE_INCOME, netwage.getTaxableIncome());
+        pesos(WITHHOLDING_TAX, withholdingTax);
+        rule();
+        pesos(NET_WAGE, gross - totalDeductions - withholdingTax);
+        rule();
+        return this;
+    }
+
+    /**
+     * Appends the gross pay breakdown of a calculated {@link Grosswage}.
+     */
+    public PayslipRenderer grossDetails(String period, int month, int year, Grosswage grosswage, double gross) {
+        buffer.append('\n').append(period).append(" of Month ").append(month).append('/').append(year)
+            .append(':').append(NEWLINE);
+        rule();
+        hours(GROSS_REGULAR_HOURS, grosswage.getRegularHours());
+        hours(GROSS_OVERTIME_HOURS, grosswage.getOvertimeHours());
+        pesos(GROSS_REGULAR_PAY, grosswage.getRegularPay());
+        pesos(GROSS_OVERTIME_PAY, grosswage.getOvertimePay());
+        pesos(GROSS_HOLIDAY_PAY, grosswage.getHolidayPay());
+        pesos(GROSS_TOTAL, gross);
+        rule();
+        return this;
+    }
+
+    /**
+     * Appends a payslip read back from the ledger.
+     */
+    public PayslipRenderer storedPayslip(PeriodResult result) {
+        PayPeriod period = result.getPeriod();
+        buffer.append('\n').append(period.isFirstHalf() ? "First Half" : "Second Half").append(" Stored Payslip ")
+            .append(period.getMonth()).append('/').append(period.getYear()).append(':').append(NEWLINE);
+        rule();
+        text(EMPLOYEE_ID, result.getEmployeeId());
+        text(EMPLOYEE_NAME, result.getEmployeeName());
+        rule();
+        hours(REGULAR_HOURS, result.getRegularHours());
+        hours(OVERTIME_HOURS, result.getOvertimeHours());
+        pesos(GROSS_WAGE, result.getGross());
+        pesos(TOTAL_DEDUCTIONS, result.getTotalDeductions());
+        pesos(WITHHOLDING_TAX, result.getWithholdingTax());
+        rule();
+        pesos(NET_WAGE, result.getNet());
+        rule();
+        return this;
+    }
+
+    /**
+     * Appends an employee's year-to-date summary.
+     */
+    public PayslipRenderer yearToDate(YearToDateTotals ytd) {
+        buffer.append("\nYear-to-Date Summary ").append(ytd.getYear()).append(':').append(NEWLINE);
+        rule();
+        text(EMPLOYEE_ID, ytd.getEmployeeId());
+        buffer.append(PERIODS_CLOSED).append(ytd.getPeriodsClosed()).append(" of ")
+            .append(PayPeriod.PERIODS_PER_YEAR).append(NEWLINE);
+        pesos(GROSS_WAGE, ytd.getGross());
+        pesos(SSS, ytd.getSss());
+        pesos(PHILHEALTH, ytd.getPhilhealth());
+        pesos(PAGIBIG, ytd.getPagibig());
+        pesos(LATE, ytd.getLate());
+        pesos(TAXABLE_INCOME, ytd.getTaxableIncome());
+        pesos(TAX_WITHHELD, ytd.getWithholdingTax());
+        pesos(YTD_NET_WAGE, ytd.getNet());
+        rule();
+        pesos(PROJECTED_TAX, ytd.getProjectedAnnualTax());
+        pesos(TAX_TRUE_UP, ytd.getTaxTrueUp());
+        rule();
+        return this;
+    }
+
+    private void rule() {
+        buffer.append(RULE).append(NEWLINE);
+    }
+
+    private void text(String label, String value) {
+        buffer.append(label).append(value).append(NEWLINE);
+    }
+
+    private void hours(String label, double value) {
+        buffer.append(label);
+        AmountText.appendAmount(buffer, value);
+        buffer.append(" hrs").append(NEWLINE);
+    }
+
+    private void pesos(String label, double value) {
+        buffer.append(label).append("PHP ");
+        AmountText.appendAmount(buffer, value);
+        buffer.append(NEWLINE);
+    }
+
+    /**
+     * Encodes and writes everything rendered since the last flush, then clears the buffer.
+     * @throws IOException If the channel cannot be written
+     */
+    public void flushTo(WritableByteChannel channel) throws IOException {
+        int length = buffer.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+            charView = CharBuffer.wrap(chars);
+        }
+        buffer.getChars(0, length, chars, 0);
+        charView.clear().limit(length);
+        buffer.setLength(0);
+
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(charView, bytes, true);
+            if (result.isOverflow()) {
+                drain(channel);
+            } else if (result.isUnderflow()) {
+                break;
+            } else {
+                result.throwException();
+            }
+        }
+        while (encoder.flush(bytes).isOverflow()) {
+            drain(channel);
+        }
+        drain(channel);
+    }
+
+    /**
+     * Writes everything rendered so far to a print stream, such as {@code System.out}.
+     */
+    public void flushTo(PrintStream out) {
+        try {
+            flushTo(Channels.newChannel(out));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        out.flush();
+    }
+
+    private void drain(WritableByteChannel channel) throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+
+    /**
+     * Renders the stored payslip of every result to a channel, flushing in
+     * large blocks.
+     * @return The number of payslips written
+     * @throws IOException If the source cannot be read or the channel written
+     */
+    public int writeAll(PayrollReconciler.ResultSource results, WritableByteChannel channel) throws IOException {
+        int[] written = {0};
+        try {
+            results.forEach(result -> {
+                storedPayslip(result);
+                written[0]++;
+                if (buffer.length() >= FLUSH_THRESHOLD) {
+                    try {
+                        flushTo(channel);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        flushTo(channel);
+        return written[0];
+    }
+
+    /**
+     * @return The text rendered since the last flush
+     */
+    @Override
+    public String toString() {
+        return buffer.toString();
+    }
+}
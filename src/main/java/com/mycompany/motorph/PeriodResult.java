@@ -0,0 +1,135 @@
+package com.mycompany.motorph;
+
+/**
+ * Immutable snapshot of one employee's finalised payroll figures for a
+ * single pay period. Amounts are the bi-monthly values shown on the payslip.
+ */
+public final class PeriodResult {
+    private final String employeeId;
+    private final String employeeName;
+    private final PayPeriod period;
+    private final double hoursWorked;
+    private final double regularHours;
+    private final double overtimeHours;
+    private final double regularPay;
+    private final double overtimePay;
+    private final double holidayPay;
+    private final double gross;
+    private final double sss;
+    private final double philhealth;
+    private final double pagibig;
+    private final double late;
+    private final double otherDeductions;
+    private final double taxableIncome;
+    private final double withholdingTax;
+    private final double net;
+
+    public PeriodResult(String employeeId, String employeeName, PayPeriod period,
+                        double hoursWorked, double regularHours, double overtimeHours,
+                        double regularPay, double overtimePay, double holidayPay, double gross,
+                        double sss, double philhealth, double pagibig, double late,
+                        double taxableIncome, double withholdingTax, double net) {
+        this(employeeId, employeeName, period, hoursWorked, regularHours, overtimeHours, regularPay, overtimePay,
+             holidayPay, gross, sss, philhealth, pagibig, late, 0, taxableIncome, withholdingTax, net);
+    }
+
+    /**
+     * @param otherDeductions Total of the non-statutory deduction rules, such as loans
+     */
+    public PeriodResult(String employeeId, String employeeName, PayPeriod period,
+                        double hoursWorked, double regularHours, double overtimeHours,
+                        double regularPay, double overtimePay, double holidayPay, double gross,
+                        double sss, double philhealth, double pagibig, double late, double otherDeductions,
+                        double taxableIncome, double withholdingTax, double net) {
+        if (employeeId == null || employeeId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Employee ID cannot be null or empty");
+        }
+        if (period == null) {
+            throw new IllegalArgumentException("Pay period cannot be null");
+        }
+        this.employeeId = employeeId;
+        this.employeeName = employeeName == null ? "" : employeeName;
+        this.period = period;
+        this.hoursWorked = hoursWorked;
+        this.regularHours = regularHours;
+        this.overtimeHours = overtimeHours;
+        this.regularPay = regularPay;
+        this.overtimePay = overtimePay;
+        this.holidayPay = holidayPay;
+        this.gross = gross;
+        this.sss = sss;
+        this.philhealth = philhealth;
+        this.pagibig = pagibig;
+        this.late = late;
+        this.otherDeductions = otherDeductions;
+        this.taxableIncome = taxableIncome;
+        this.withholdingTax = withholdingTax;
+        this.net = net;
+    }
+
+    /**
+     * Captures the figures of a computed net wage. The gross wage must already
+     * have been calculated, which is the case for any constructed {@link Netwage}.
+     * @param netwage The computed net wage
+     * @return The snapshot
+     */
+    public static PeriodResult from(Netwage netwage) {
+        Grosswage grosswage = netwage.getGrosswage();
+        double totalDeductions = netwage.getTotalDeductions();
+        double tax = netwage.getWithholdingTax();
+        return new PeriodResult(
+            netwage.getEmployeeID(),
+            netwage.getEmployeeName(),
+            PayPeriod.of(netwage.getTargetYear(), netwage.getTargetMonth(), netwage.isFirstHalf()),
+            netwage.getHours(),
+            grosswage.getRegularHours(),
+            grosswage.getOvertimeHours(),
+            grosswage.getRegularPay(),
+            grosswage.getOvertimePay(),
+            grosswage.getHolidayPay(),
+            netwage.getGross(),
+            netwage.getSSSDeduction(),
+            netwage.getPhilhealthDeduction(),
+            netwage.getPagIbigDeduction(),
+            netwage.getLateDeduction(),
+            netwage.getOtherDeductions(),
+            netwage.getTaxableIncome(),
+            tax,
+            netwage.getGross() - totalDeductions - tax
+        );
+    }
+
+    public double getTotalDeductions() {
+        return sss + philhealth + pagibig + late + otherDeductions;
+    }
+
+    // Getters
+    public String getEmployeeId() { return employeeId; }
+    public String getEmployeeName() { return employeeName; }
+    public PayPeriod getPeriod() { return period; }
+    public double getHoursWorked() { return hoursWorked; }
+    public double getRegularHours() { return regularHours; }
+    public double getOvertimeHours() { return overtimeHours; }
+    public double getRegularPay() { return regularPay; }
+    public double getOvertimePay() { return overtimePay; }
+    public double getHolidayPay() { return holidayPay; }
+    public double getGross() { return gross; }
+    public double getSss() { return sss; }
+    public double getPhilhealth() { return philhealth; }
+    public double getPagibig() { return pagibig; }
+    public double getLate() { return late; }
+    public double getOtherDeductions() { return otherDeductions; }
+    public double getTaxableIncome() { return taxableIncome; }
+    public double getWithholdingTax() { return withholdingTax; }
+    public double getNet() { return net; }
+
+    @Override
+    public String toString() {
+        return "PeriodResult{" +
+                "employeeId='" + employeeId + '\'' +
+                ", period=" + period +
+                ", gross=" + gross +
+                ", net=" + net +
+                '}';
+    }
+}
@@ -0,0 +1,170 @@
+package com.mycompany.motorph;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Exports and imports {@link PeriodResult}s as CSV, one row per employee
+ * and period. Amounts are written at full precision so an imported run
+ * compares exactly with the one it was exported from. Both directions
+ * stream, holding one row at a time.
+ */
+public class PeriodResultCsv implements Closeable {
+    static final String HEADER = "employee_id,employee_name,year,month,half,hours_worked,regular_hours,"
+        + "overtime_hours,regular_pay,overtime_pay,holiday_pay,gross,sss,philhealth,pagibig,late,"
+        + "other_deductions,taxable_income,withholding_tax,net";
+    private static final int COLUMNS = 20;
+
+    private final BufferedWriter out;
+    private int written;
+
+    private PeriodResultCsv(BufferedWriter out) {
+        this.out = out;
+    }
+
+    /**
+     * Creates or replaces a CSV file and writes its header.
+     */
+    public static PeriodResultCsv create(Path file) throws IOException {
+        BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        out.write(HEADER);
+        out.newLine();
+        return new PeriodResultCsv(out);
+    }
+
+    /**
+     * Appends one row.
+     */
+    public void write(PeriodResult result) throws IOException {
+        PayPeriod period = result.getPeriod();
+        StringBuilder line = new StringBuilder(256)
+            .append(Csv.quote(result.getEmployeeId())).append(',')
+            .append(Csv.quote(result.getEmployeeName())).append(',')
+            .append(period.getYear()).append(',')
+            .append(period.getMonth()).append(',')
+            .append(period.isFirstHalf() ? 1 : 2);
+        for (double value : new double[]{
+                result.getHoursWorked(), result.getRegularHours(), result.getOvertimeHours(),
+                result.getRegularPay(), result.getOvertimePay(), result.getHolidayPay(), result.getGross(),
+                result.getSss(), result.getPhilhealth(), result.getPagibig(), result.getLate(),
+                result.getOtherDeductions(), result.getTaxableIncome(), result.getWithholdingTax(), result.getNet()}) {
+            line.append(',').append(value);
+        }
+        out.write(line.toString());
+        out.newLine();
+        written++;
+    }
+
+    /**
+     * Writes a whole run to a file.
+     * @return The number of rows written
+     */
+    public static int export(Path file, Iterable<PeriodResult> results) throws IOException {
+        try (PeriodResultCsv csv = create(file)) {
+            for (PeriodResult result : results) {
+                csv.write(result);
+            }
+            return csv.getWritten();
+        }
+    }
+
+    /**
+     * Streams the rows of a file written by {@link #export}.
+     * @throws IOException If the file cannot be read or a row is malformed
+     */
+    public static void forEach(Path file, Consumer<PeriodResult> consumer) throws IOException {
+        try (Reader reader = open(file)) {
+            PeriodResult result;
+            while ((result = reader.next()) != null) {
+                consumer.accept(result);
+            }
+        }
+    }
+
+    /**
+     * Opens a file written by {@link #export} for reading row by row.
+     * @throws IOException If the file cannot be read or has no export header
+     */
+    public static Reader open(Path file) throws IOException {
+        BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        String header = in.readLine();
+        if (header == null || !header.trim().equals(HEADER)) {
+            in.close();
+            throw new IOException(file + " is not a payroll result export");
+        }
+        return new Reader(file, in);
+    }
+
+    /**
+     * Pull-style reader over an export, for merging several files.
+     */
+    public static final class Reader implements Closeable {
+        private final Path file;
+        private final BufferedReader in;
+        private int lineNumber = 1;
+
+        private Reader(Path file, BufferedReader in) {
+            this.file = file;
+            this.in = in;
+        }
+
+        /**
+         * @return The next row, or null at the end of the file
+         * @throws IOException If the file cannot be read or the row is malformed
+         */
+        public PeriodResult next() throws IOException {
+            String line;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    return parse(line);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(file + " line " + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    private static PeriodResult parse(String line) {
+        List<String> fields = Csv.split(line);
+        if (fields.size() != COLUMNS) {
+            throw new IllegalArgumentException("Expected " + COLUMNS + " columns but found " + fields.size());
+        }
+        int half = Integer.parseInt(fields.get(4));
+        if (half != 1 && half != 2) {
+            throw new IllegalArgumentException("Half must be 1 or 2");
+        }
+        PayPeriod period = PayPeriod.of(Integer.parseInt(fields.get(2)), Integer.parseInt(fields.get(3)), half == 1);
+        double[] v = new double[COLUMNS - 5];
+        for (int i = 0; i < v.length; i++) {
+            v[i] = Double.parseDouble(fields.get(i + 5));
+        }
+        return new PeriodResult(fields.get(0), fields.get(1), period,
+            v[0], v[1], v[2], v[3], v[4], v[5], v[6], v[7], v[8], v[9], v[10], v[11], v[12], v[13], v[14]);
+    }
+
+    public int getWritten() {
+        return written;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
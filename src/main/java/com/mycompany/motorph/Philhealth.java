@@ -4,6 +4,9 @@
 package com.mycompany.motorph;
 
 public class Philhealth extends Calculation {
+    static final double PREMIUM_RATE = 0.03;
+    private static final double INCOME_CEILING = 60000;
+
     private double philhealthDeduction; // PhilHealth deduction amount
     private final Grosswage grosswage; // Gross wage object for calculation
 
@@ -21,17 +24,21 @@ public class Philhealth extends Calculation {
      */
     @Override
     public double calculate() {
-        double gross = grosswage.calculate();
+        philhealthDeduction = premiumFor(grosswage.calculate(), PREMIUM_RATE);
+        return philhealthDeduction;
+    }
 
-        double philDed;
-        if (gross > 60000) {
-            philDed = 1800;
-        } else {
-            philDed = (gross * 0.03) / 2;
+    /**
+     * Computes the PhilHealth deduction for a gross wage at a given premium rate.
+     * @param gross The gross wage
+     * @param premiumRate The premium rate, 0.03 under current rules
+     * @return The PhilHealth deduction amount
+     */
+    public static double premiumFor(double gross, double premiumRate) {
+        if (gross > INCOME_CEILING) {
+            return INCOME_CEILING * premiumRate;
         }
-
-        philhealthDeduction = philDed;
-        return philhealthDeduction;
+        return (gross * premiumRate) / 2;
     }
 
     /**
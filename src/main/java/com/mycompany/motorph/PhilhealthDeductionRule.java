@@ -0,0 +1,36 @@
+package com.mycompany.motorph;
+
+/**
+ * Built-in rule: half the monthly PhilHealth premium at the current premium rate.
+ */
+public class PhilhealthDeductionRule implements DeductionRule {
+    public static final String NAME = "PhilHealth";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public int order() {
+        return 200;
+    }
+
+    @Override
+    public boolean isPreTax() {
+        return true;
+    }
+
+    @Override
+    public boolean isStatutory() {
+        return true;
+    }
+
+    @Override
+    public void apply(DeductionBatch batch, double[] amounts) {
+        double[] gross = batch.getGross();
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] = Philhealth.premiumFor(gross[i], Philhealth.PREMIUM_RATE) / 2; // Bi-monthly calculation
+        }
+    }
+}
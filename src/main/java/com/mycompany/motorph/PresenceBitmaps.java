@@ -0,0 +1,233 @@
+package com.mycompany.motorph;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One bit per calendar day for each employee and year, set when the
+ * employee has attendance that day. Working days are weekdays that are not
+ * holidays in the {@link HolidayCalendar}; weekends are rest days.
+ *
+ * Absence counts and attendance rates are popcounts over six 64-bit words
+ * per employee-year, masked to the queried date range, so a company-wide
+ * report does not look at individual attendance records. Employment start
+ * and end dates are not in the employee data, so every working day in the
+ * range counts for every employee.
+ *
+ * When the context's older months are archived, the bits cover the dates
+ * from the first month kept in memory and earlier dates are rejected;
+ * {@link PayrollContext#getPresence(LocalDate, LocalDate)} covers a range
+ * that reaches into the archive.
+ */
+public final class PresenceBitmaps {
+    private static final int WORDS_PER_YEAR = 6; // 366 days
+
+    private final HolidayCalendar holidays;
+    private final List<String> employeeIds;
+    private final LocalDate coveredFrom; // Earliest date answered for
+    private final Map<String, long[]> presence = new HashMap<>(); // "id@year" -> day bits
+    private final Map<Integer, long[]> workingDays = new HashMap<>();
+
+    /**
+     * Absences and attendance rate of one employee over a date range.
+     */
+    public static final class Attendance {
+        private final String employeeId;
+        private final int workingDays;
+        private final int daysPresent;
+        private final int absences;
+
+        Attendance(String employeeId, int workingDays, int daysPresent, int absences) {
+            this.employeeId = employeeId;
+            this.workingDays = workingDays;
+            this.daysPresent = daysPresent;
+            this.absences = absences;
+        }
+
+        /**
+         * @return Share of working days attended, 1.0 when the range has no working days
+         */
+        public double getRate() {
+            return workingDays == 0 ? 1.0 : (double) (workingDays - absences) / workingDays;
+        }
+
+        // Getters
+        public String getEmployeeId() { return employeeId; }
+        public int getWorkingDays() { return workingDays; }
+        public int getDaysPresent() { return daysPresent; }
+        public int getAbsences() { return absences; }
+    }
+
+    /**
+     * @param employeeIds Employees reported on, including those with no attendance
+     * @param holidays Calendar deciding which weekdays are not working days
+     */
+    PresenceBitmaps(List<String> employeeIds, HolidayCalendar holidays) {
+        this(employeeIds, holidays, LocalDate.MIN);
+    }
+
+    /**
+     * @param coveredFrom Earliest date the marked attendance is complete for
+     */
+    PresenceBitmaps(List<String> employeeIds, HolidayCalendar holidays, LocalDate coveredFrom) {
+        this.employeeIds = Collections.unmodifiableList(new ArrayList<>(employeeIds));
+        this.holidays = holidays;
+        this.coveredFrom = coveredFrom;
+    }
+
+    /**
+     * Marks the employee present on a date. Called once per record while a
+     * {@link PayrollContext} is built.
+     */
+    void mark(String employeeId, LocalDate date) {
+        long[] bits = presence.computeIfAbsent(key(employeeId, date.getYear()), k -> new long[WORDS_PER_YEAR]);
+        int day = date.getDayOfYear() - 1;
+        bits[day >>> 6] |= 1L << day;
+    }
+
+    /**
+     * @return Whether the employee has attendance on the date
+     */
+    public boolean isPresent(String employeeId, LocalDate date) {
+        checkCovered(date, date);
+        long[] bits = presence.get(key(employeeId, date.getYear()));
+        int day = date.getDayOfYear() - 1;
+        return bits != null && (bits[day >>> 6] & (1L << day)) != 0;
+    }
+
+    /**
+     * @return The employee's working days, days present and absences from {@code from} to {@code to}, inclusive
+     */
+    public Attendance attendance(String employeeId, LocalDate from, LocalDate to) {
+        checkCovered(from, to);
+        int working = 0;
+        int present = 0;
+        int absent = 0;
+        for (int year = from.getYear(); year <= to.getYear(); year++) {
+            long[] range = rangeMask(year, from, to);
+            long[] workingMask = workingDays(year);
+            long[] bits = presence.get(key(employeeId, year));
+            for (int w = 0; w < WORDS_PER_YEAR; w++) {
+                long presentDays = bits == null ? 0 : bits[w] & range[w];
+                long workingInRange = workingMask[w] & range[w];
+                working += Long.bitCount(workingInRange);
+                present += Long.bitCount(presentDays);
+                absent += Long.bitCount(workingInRange & ~presentDays);
+            }
+        }
+        return new Attendance(employeeId, working, present, absent);
+    }
+
+    /**
+     * @return Every employee's attendance over the range, most absences first
+     */
+    public List<Attendance> absenceReport(LocalDate from, LocalDate to) {
+        List<Attendance> report = new ArrayList<>(employeeIds.size());
+        for (String employeeId : employeeIds) {
+            report.add(attendance(employeeId, from, to));
+        }
+        report.sort((a, b) -> a.getAbsences() != b.getAbsences()
+            ? Integer.compare(b.getAbsences(), a.getAbsences())
+            : a.getEmployeeId().compareTo(b.getEmployeeId()));
+        return report;
+    }
+
+    /**
+     * @return IDs of employees present on every working day of the range, in employee order
+     */
+    public List<String> perfectAttendance(LocalDate from, LocalDate to) {
+        List<String> perfect = new ArrayList<>();
+        for (String employeeId : employeeIds) {
+            if (attendance(employeeId, from, to).getAbsences() == 0) {
+                perfect.add(employeeId);
+            }
+        }
+        return perfect;
+    }
+
+    /**
+     * @return Number of working days in the range
+     */
+    public int workingDayCount(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        int count = 0;
+        for (int year = from.getYear(); year <= to.getYear(); year++) {
+            long[] range = rangeMask(year, from, to);
+            long[] workingMask = workingDays(year);
+            for (int w = 0; w < WORDS_PER_YEAR; w++) {
+                count += Long.bitCount(workingMask[w] & range[w]);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Weekdays of the year that are not holidays, computed once per year.
+     */
+    private synchronized long[] workingDays(int year) {
+        return workingDays.computeIfAbsent(year, y -> {
+            long[] bits = new long[WORDS_PER_YEAR];
+            for (LocalDate date = LocalDate.of(y, 1, 1); date.getYear() == y; date = date.plusDays(1)) {
+                DayOfWeek dayOfWeek = date.getDayOfWeek();
+                if (dayOfWeek != DayOfWeek.SATURDAY && dayOfWeek != DayOfWeek.SUNDAY && !holidays.isHoliday(date)) {
+                    int day = date.getDayOfYear() - 1;
+                    bits[day >>> 6] |= 1L << day;
+                }
+            }
+            return bits;
+        });
+    }
+
+    /**
+     * @return Bits of the days of {@code year} within from..to
+     */
+    private static long[] rangeMask(int year, LocalDate from, LocalDate to) {
+        long[] mask = new long[WORDS_PER_YEAR];
+        int first = from.getYear() < year ? 0 : from.getDayOfYear() - 1;
+        int last = to.getYear() > year ? LocalDate.of(year, 12, 31).getDayOfYear() - 1 : to.getDayOfYear() - 1;
+        for (int w = first >>> 6; w <= last >>> 6; w++) {
+            long word = -1L;
+            if (w == first >>> 6) {
+                word &= -1L << first;       // Shift uses the low six bits
+            }
+            if (w == last >>> 6) {
+                word &= -1L >>> (63 - (last & 63));
+            }
+            mask[w] = word;
+        }
+        return mask;
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Dates cannot be null");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("From date cannot be after to date");
+        }
+    }
+
+    private void checkCovered(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        if (from.isBefore(coveredFrom)) {
+            throw new IllegalArgumentException("Attendance before " + coveredFrom + " is archived and not in these bits");
+        }
+    }
+
+    private static String key(String employeeId, int year) {
+        return employeeId + '@' + year;
+    }
+
+    public List<String> getEmployeeIds() {
+        return employeeIds;
+    }
+
+    public LocalDate getCoveredFrom() {
+        return coveredFrom;
+    }
+}
@@ -0,0 +1,63 @@
+package com.mycompany.motorph;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * One timeclock punch: an employee clocking in or out at a date and time.
+ * The line format is {@code employeeId,yyyy-MM-dd,HH:mm[:ss],IN|OUT}.
+ */
+public final class PunchEvent {
+    public enum Type {
+        IN, OUT
+    }
+
+    private final String employeeId;
+    private final LocalDate date;
+    private final LocalTime time;
+    private final Type type;
+
+    public PunchEvent(String employeeId, LocalDate date, LocalTime time, Type type) {
+        if (employeeId == null || employeeId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Employee ID cannot be null or empty");
+        }
+        if (date == null || time == null || type == null) {
+            throw new IllegalArgumentException("Date, time and punch type cannot be null");
+        }
+        this.employeeId = employeeId.trim();
+        this.date = date;
+        this.time = time;
+        this.type = type;
+    }
+
+    /**
+     * @throws IllegalArgumentException If the line is not a valid punch
+     */
+    public static PunchEvent parse(String line) {
+        if (line == null) {
+            throw new IllegalArgumentException("Punch cannot be null");
+        }
+        String[] fields = line.split(",");
+        if (fields.length != 4) {
+            throw new IllegalArgumentException("Expected employeeId,date,time,IN|OUT");
+        }
+        try {
+            return new PunchEvent(fields[0], LocalDate.parse(fields[1].trim()), LocalTime.parse(fields[2].trim()),
+                Type.valueOf(fields[3].trim().toUpperCase()));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date or time: " + e.getParsedString(), e);
+        }
+    }
+
+    // Getters
+    public String getEmployeeId() { return employeeId; }
+    public LocalDate getDate() { return date; }
+    public LocalTime getTime() { return time; }
+    public Type getType() { return type; }
+
+    @Override
+    public String toString() {
+        return employeeId + "," + date + "," + time + "," + type;
+    }
+}
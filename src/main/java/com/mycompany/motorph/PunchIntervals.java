@@ -0,0 +1,99 @@
+package com.mycompany.motorph;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+
+/**
+ * Merges the punch intervals of one employee-day, so split shifts and
+ * lunch-out punches count as one day of work before the daily
+ * regular/overtime split, and overlapping or repeated rows count once.
+ *
+ * An interval is packed into a long as {@code start << 32 | end}, both in
+ * seconds from the day's midnight; a time-out before the time-in ends on
+ * the next day. Packed intervals sort by start, so merging is a sort and
+ * one sweep over a primitive array. A day has only a few punches, so the
+ * sort is an insertion sort in practice and a pass over a period stays
+ * linear in the number of punches.
+ */
+public final class PunchIntervals {
+    static final int SECONDS_PER_DAY = 24 * 60 * 60;
+    private static final int INSERTION_SORT_LIMIT = 32;
+
+    private PunchIntervals() {
+    }
+
+    /**
+     * @return The packed interval; a time-out before the time-in counts as past midnight
+     */
+    public static long pack(int timeIn, int timeOut) {
+        if (timeIn < 0 || timeIn >= SECONDS_PER_DAY || timeOut < 0 || timeOut >= SECONDS_PER_DAY) {
+            throw new IllegalArgumentException("Punch times must be seconds of a day");
+        }
+        int end = timeOut < timeIn ? timeOut + SECONDS_PER_DAY : timeOut;
+        return (long) timeIn << 32 | end;
+    }
+
+    public static long pack(LocalTime timeIn, LocalTime timeOut) {
+        return pack(timeIn.toSecondOfDay(), timeOut.toSecondOfDay());
+    }
+
+    static int start(long interval) {
+        return (int) (interval >>> 32);
+    }
+
+    static int end(long interval) {
+        return (int) interval;
+    }
+
+    /**
+     * Sorts the first {@code length} intervals in place and sums the time
+     * they cover, counting overlaps once.
+     * @return Covered seconds
+     */
+    public static int mergedSeconds(long[] intervals, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        sort(intervals, length);
+        int covered = 0;
+        int start = start(intervals[0]);
+        int end = end(intervals[0]);
+        for (int i = 1; i < length; i++) {
+            int nextStart = start(intervals[i]);
+            int nextEnd = end(intervals[i]);
+            if (nextStart <= end) {
+                end = Math.max(end, nextEnd); // Overlapping or touching
+            } else {
+                covered += end - start;
+                start = nextStart;
+                end = nextEnd;
+            }
+        }
+        return covered + end - start;
+    }
+
+    private static void sort(long[] intervals, int length) {
+        if (length > INSERTION_SORT_LIMIT) {
+            Arrays.sort(intervals, 0, length);
+            return;
+        }
+        for (int i = 1; i < length; i++) {
+            long interval = intervals[i];
+            int j = i - 1;
+            while (j >= 0 && intervals[j] > interval) {
+                intervals[j + 1] = intervals[j];
+                j--;
+            }
+            intervals[j + 1] = interval;
+        }
+    }
+
+    /**
+     * Converts worked seconds to hours the way
+     * {@link AttendanceRecord#calculateHoursWorked()} does, counting whole minutes only.
+     */
+    public static double hours(int seconds) {
+        int minutes = seconds / 60;
+        return (minutes / 60) + (minutes % 60) / 60.0;
+    }
+}
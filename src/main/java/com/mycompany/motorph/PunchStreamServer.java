@@ -0,0 +1,171 @@
+package com.mycompany.motorph;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accepts timeclock punches on a local socket, one {@link PunchEvent} line
+ * per punch, and applies them to {@link LivePeriodTotals}.
+ *
+ * Connections enqueue parsed punches on a bounded queue drained by a single
+ * thread. When the queue is full a connection stops reading until there is
+ * room, so a fast timeclock is slowed by TCP flow control instead of growing
+ * the heap. Malformed lines are answered with {@code ERR <reason>}; punches
+ * the totals reject (unknown employee, unpaired punch) are counted and
+ * logged.
+ */
+public class PunchStreamServer implements Closeable {
+    private final LivePeriodTotals totals;
+    private final BlockingQueue<PunchEvent> queue;
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private ServerSocket serverSocket;
+    private Thread acceptor;
+    private Thread consumer;
+
+    /**
+     * @param totals Totals the punches are applied to
+     * @param queueCapacity Punches buffered before connections are throttled
+     */
+    public PunchStreamServer(LivePeriodTotals totals, int queueCapacity) {
+        if (totals == null) {
+            throw new IllegalArgumentException("Totals cannot be null");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+        this.totals = totals;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Listens on the loopback address.
+     * @param port Port to listen on, or 0 for any free port
+     * @throws IOException If the port cannot be bound
+     */
+    public synchronized void start(int port) throws IOException {
+        if (serverSocket != null) {
+            throw new IllegalStateException("Server already started");
+        }
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        consumer = daemon("punch-apply", this::drain);
+        acceptor = daemon("punch-accept", this::acceptLoop);
+        consumer.start();
+        acceptor.start();
+    }
+
+    /**
+     * Enqueues a punch from within the process, waiting while the queue is full.
+     */
+    public void submit(PunchEvent punch) throws InterruptedException {
+        queue.put(punch);
+        received.incrementAndGet();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                daemon("punch-connection-" + socket.getPort(), () -> handle(socket)).start();
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("Error accepting punch connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(
+                 new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                PunchEvent punch;
+                try {
+                    punch = PunchEvent.parse(line);
+                } catch (IllegalArgumentException e) {
+                    out.println("ERR " + e.getMessage());
+                    continue;
+                }
+                submit(punch); // Blocks while the queue is full
+            }
+        } catch (IOException e) {
+            System.err.println("Punch connection closed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            connections.decrementAndGet();
+        }
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                PunchEvent punch = queue.take();
+                try {
+                    totals.apply(punch);
+                    applied.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    rejected.incrementAndGet();
+                    System.err.println("Punch rejected (" + punch + "): " + e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops accepting connections and applying punches; queued punches are discarded.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (serverSocket == null) {
+            return;
+        }
+        serverSocket.close();
+        consumer.interrupt();
+    }
+
+    private static Thread daemon(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * @return The bound port, e.g. after starting on port 0
+     */
+    public synchronized int getPort() {
+        return serverSocket == null ? -1 : serverSocket.getLocalPort();
+    }
+
+    // Getters
+    public LivePeriodTotals getTotals() { return totals; }
+    public long getReceived() { return received.get(); }
+    public long getApplied() { return applied.get(); }
+    public long getRejected() { return rejected.get(); }
+    public int getQueued() { return queue.size(); }
+    public int getConnections() { return connections.get(); }
+}
@@ -0,0 +1,94 @@
+package com.mycompany.motorph;
+
+/**
+ * One set of pay rules for {@link ScenarioEngine}: overtime and holiday
+ * multipliers, PhilHealth premium rate and withholding tax brackets.
+ * {@link #baseline()} reproduces the rules used by {@link Grosswage} and
+ * {@link Netwage}; the {@code with...} methods return modified copies.
+ */
+public final class RateScenario {
+    private final String name;
+    private final double overtimeMultiplier;
+    private final double nightShiftOvertimeMultiplier;
+    private final double regularHolidayMultiplier;
+    private final double specialHolidayMultiplier;
+    private final double philhealthRate;
+    private final WithholdingTax.Brackets taxBrackets;
+
+    public RateScenario(String name, double overtimeMultiplier, double nightShiftOvertimeMultiplier,
+                        double regularHolidayMultiplier, double specialHolidayMultiplier,
+                        double philhealthRate, WithholdingTax.Brackets taxBrackets) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Scenario name cannot be null or empty");
+        }
+        if (overtimeMultiplier < 1 || nightShiftOvertimeMultiplier < 1
+                || regularHolidayMultiplier < 1 || specialHolidayMultiplier < 1) {
+            throw new IllegalArgumentException("Pay multipliers must be at least 1.0");
+        }
+        if (philhealthRate < 0) {
+            throw new IllegalArgumentException("PhilHealth rate cannot be negative");
+        }
+        if (taxBrackets == null) {
+            throw new IllegalArgumentException("Tax brackets cannot be null");
+        }
+        this.name = name;
+        this.overtimeMultiplier = overtimeMultiplier;
+        this.nightShiftOvertimeMultiplier = nightShiftOvertimeMultiplier;
+        this.regularHolidayMultiplier = regularHolidayMultiplier;
+        this.specialHolidayMultiplier = specialHolidayMultiplier;
+        this.philhealthRate = philhealthRate;
+        this.taxBrackets = taxBrackets;
+    }
+
+    /**
+     * @return The rules currently applied by the payroll calculations
+     */
+    public static RateScenario baseline() {
+        return new RateScenario("Baseline",
+            Grosswage.OVERTIME_MULTIPLIER,
+            Grosswage.NIGHT_SHIFT_OVERTIME_MULTIPLIER,
+            HolidayChecker.REGULAR_HOLIDAY_MULTIPLIER,
+            HolidayChecker.SPECIAL_DAY_MULTIPLIER,
+            Philhealth.PREMIUM_RATE,
+            WithholdingTax.Brackets.STANDARD);
+    }
+
+    public RateScenario named(String newName) {
+        return new RateScenario(newName, overtimeMultiplier, nightShiftOvertimeMultiplier,
+            regularHolidayMultiplier, specialHolidayMultiplier, philhealthRate, taxBrackets);
+    }
+
+    public RateScenario withOvertimeMultipliers(double day, double nightShift) {
+        return new RateScenario(name, day, nightShift,
+            regularHolidayMultiplier, specialHolidayMultiplier, philhealthRate, taxBrackets);
+    }
+
+    public RateScenario withHolidayMultipliers(double regularHoliday, double specialHoliday) {
+        return new RateScenario(name, overtimeMultiplier, nightShiftOvertimeMultiplier,
+            regularHoliday, specialHoliday, philhealthRate, taxBrackets);
+    }
+
+    public RateScenario withPhilhealthRate(double rate) {
+        return new RateScenario(name, overtimeMultiplier, nightShiftOvertimeMultiplier,
+            regularHolidayMultiplier, specialHolidayMultiplier, rate, taxBrackets);
+    }
+
+    public RateScenario withTaxBrackets(WithholdingTax.Brackets brackets) {
+        return new RateScenario(name, overtimeMultiplier, nightShiftOvertimeMultiplier,
+            regularHolidayMultiplier, specialHolidayMultiplier, philhealthRate, brackets);
+    }
+
+    // Getters
+    public String getName() { return name; }
+    public double getOvertimeMultiplier() { return overtimeMultiplier; }
+    public double getNightShiftOvertimeMultiplier() { return nightShiftOvertimeMultiplier; }
+    public double getRegularHolidayMultiplier() { return regularHolidayMultiplier; }
+    public double getSpecialHolidayMultiplier() { return specialHolidayMultiplier; }
+    public double getPhilhealthRate() { return philhealthRate; }
+    public WithholdingTax.Brackets getTaxBrackets() { return taxBrackets; }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
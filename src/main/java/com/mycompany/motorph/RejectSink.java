@@ -0,0 +1,182 @@
+package com.mycompany.motorph;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects validation failures found while loading spreadsheets.
+ *
+ * Valid rows never touch the sink, so the fast path does no I/O. Each
+ * rejected value is kept in memory with its source row, column, raw value
+ * and reason; the first few of each reason are logged, the rest are only
+ * counted, and {@link #logSummary()} reports per-reason totals once loading
+ * is done. {@link #writeTo(Path)} writes the full reject file as CSV.
+ */
+public class RejectSink {
+    private static final Logger logger = LogManager.getLogger(RejectSink.class);
+    private static final int LOGGED_PER_REASON = 5;
+
+    public enum Reason {
+        MISSING_VALUE("Value is missing"),
+        UNSUPPORTED_CELL_TYPE("Unsupported cell type"),
+        INVALID_DATE("Invalid date"),
+        INVALID_TIME("Invalid time"),
+        INVALID_NUMBER("Invalid number"),
+        INVALID_EMPLOYEE_NUMBER("Invalid employee number"),
+        INVALID_SHIFT_TIME("Invalid shift start time");
+
+        private final String description;
+
+        Reason(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    /**
+     * One rejected value.
+     */
+    public static final class Reject {
+        private final String source;
+        private final int row;
+        private final String column;
+        private final String rawValue;
+        private final Reason reason;
+        private final String detail;
+
+        Reject(String source, int row, String column, String rawValue, Reason reason, String detail) {
+            this.source = source;
+            this.row = row;
+            this.column = column;
+            this.rawValue = rawValue;
+            this.reason = reason;
+            this.detail = detail;
+        }
+
+        public String getSource() { return source; }
+        public int getRow() { return row; }
+        public String getColumn() { return column; }
+        public String getRawValue() { return rawValue; }
+        public Reason getReason() { return reason; }
+        public String getDetail() { return detail; }
+    }
+
+    private final String name;
+    private final List<Reject> rejects = new ArrayList<>();
+    private final Map<Reason, Integer> counts = new EnumMap<>(Reason.class);
+
+    /**
+     * @param name Label used in log messages, e.g. the data set being loaded
+     */
+    public RejectSink(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records a rejected value.
+     * @param source File or sheet the value came from
+     * @param row 1-based spreadsheet row number
+     * @param column Column header of the value
+     * @param rawValue The value as read, or null if the cell was missing
+     * @param reason Why the value was rejected
+     * @param detail Optional parser message; may be null
+     */
+    public synchronized void reject(String source, int row, String column, String rawValue,
+                                    Reason reason, String detail) {
+        rejects.add(new Reject(source, row, column, rawValue, reason, detail));
+        int count = counts.merge(reason, 1, Integer::sum);
+
+        // Rate-limit per reason: log the first few, then say once that the rest are suppressed
+        if (count <= LOGGED_PER_REASON) {
+            logger.warn("{}: {} at {} row {} column '{}' (value '{}'){}", name, reason.getDescription(), source, row,
+                column, rawValue == null ? "" : rawValue, detail == null ? "" : ": " + detail);
+        } else if (count == LOGGED_PER_REASON + 1) {
+            logger.warn("{}: further '{}' rejects suppressed; see summary", name, reason.getDescription());
+        }
+    }
+
+    /**
+     * Adds another sink's rejects without logging them again.
+     */
+    public synchronized void addAll(RejectSink other) {
+        List<Reject> otherRejects;
+        Map<Reason, Integer> otherCounts;
+        synchronized (other) {
+            otherRejects = new ArrayList<>(other.rejects);
+            otherCounts = new EnumMap<>(other.counts);
+        }
+        rejects.addAll(otherRejects);
+        otherCounts.forEach((reason, count) -> counts.merge(reason, count, Integer::sum));
+    }
+
+    /**
+     * Logs the total number of rejects and the count for each reason.
+     */
+    public synchronized void logSummary() {
+        if (rejects.isEmpty()) {
+            logger.info("{}: no rejected values", name);
+            return;
+        }
+        StringBuilder summary = new StringBuilder();
+        counts.forEach((reason, count) -> summary.append(summary.length() == 0 ? "" : ", ")
+            .append(reason.name()).append('=').append(count));
+        logger.warn("{}: {} rejected values ({})", name, rejects.size(), summary);
+    }
+
+    /**
+     * Writes every reject as CSV: source,row,column,raw_value,reason,detail.
+     * @param file The reject file to create or replace
+     * @throws IOException If the file cannot be written
+     */
+    public synchronized void writeTo(Path file) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("source,row,column,raw_value,reason,detail");
+            out.newLine();
+            for (Reject reject : rejects) {
+                out.write(Csv.quote(reject.getSource()));
+                out.write(',');
+                out.write(String.valueOf(reject.getRow()));
+                out.write(',');
+                out.write(Csv.quote(reject.getColumn()));
+                out.write(',');
+                out.write(Csv.quote(reject.getRawValue()));
+                out.write(',');
+                out.write(reject.getReason().name());
+                out.write(',');
+                out.write(Csv.quote(reject.getDetail()));
+                out.newLine();
+            }
+        }
+        logger.info("{}: wrote {} rejects to {}", name, rejects.size(), file);
+    }
+
+    public synchronized boolean isEmpty() {
+        return rejects.isEmpty();
+    }
+
+    public synchronized int size() {
+        return rejects.size();
+    }
+
+    public synchronized int getCount(Reason reason) {
+        return counts.getOrDefault(reason, 0);
+    }
+
+    public synchronized List<Reject> getRejects() {
+        return Collections.unmodifiableList(new ArrayList<>(rejects));
+    }
+}
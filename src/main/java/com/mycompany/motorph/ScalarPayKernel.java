@@ -0,0 +1,44 @@
+package com.mycompany.motorph;
+
+/**
+ * Plain-loop {@link PayKernel}; produces the same per-record values as
+ * {@link Grosswage} and is used when the Vector API is unavailable.
+ */
+public class ScalarPayKernel implements PayKernel {
+    private static final int SECONDS_PER_DAY = 24 * 60 * 60;
+
+    @Override
+    public void workedSeconds(int[] timeIn, int[] timeOut, int[] seconds, int length) {
+        for (int i = 0; i < length; i++) {
+            int worked = timeOut[i] - timeIn[i];
+            seconds[i] = worked < 0 ? worked + SECONDS_PER_DAY : worked;
+        }
+    }
+
+    @Override
+    public void splitHours(int[] seconds, double[] regularHours, double[] overtimeHours, int length) {
+        for (int i = 0; i < length; i++) {
+            int minutes = seconds[i] / 60;
+            double hours = (minutes / 60) + (minutes % 60) / 60.0;
+            regularHours[i] = Math.min(hours, Grosswage.REGULAR_HOURS_PER_DAY);
+            overtimeHours[i] = Math.max(0, hours - Grosswage.REGULAR_HOURS_PER_DAY);
+        }
+    }
+
+    @Override
+    public void applyRates(double[] regularHours, double[] overtimeHours, double[] rate, double[] overtimeRate,
+                           double[] holidayMultiplier, double[] regularPay, double[] overtimePay,
+                           double[] holidayPay, int length) {
+        for (int i = 0; i < length; i++) {
+            double premium = holidayMultiplier[i] - 1.0;
+            regularPay[i] = regularHours[i] * rate[i] * holidayMultiplier[i];
+            overtimePay[i] = overtimeHours[i] * rate[i] * overtimeRate[i];
+            holidayPay[i] = regularHours[i] * rate[i] * premium + overtimeHours[i] * rate[i] * premium;
+        }
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
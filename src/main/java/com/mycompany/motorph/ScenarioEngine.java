@@ -0,0 +1,198 @@
+package com.mycompany.motorph;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Evaluates several {@link RateScenario}s against one shared, read-only copy
+ * of a pay period's attendance and employees.
+ *
+ * Everything that does not depend on the rates (columnar attendance, daily
+ * regular/overtime hours, holiday kind per day, late deductions) is computed
+ * once in the constructor. Each scenario is then a single pass over those
+ * arrays, and scenarios run in parallel, so N scenarios cost far less than N
+ * full payroll runs.
+ */
+public class ScenarioEngine {
+    private static final byte WORKING_DAY = 0;
+    private static final byte REGULAR_HOLIDAY = 1;
+    private static final byte SPECIAL_DAY = 2;
+
+    private final PayrollContext context;
+    private final PayPeriod period;
+    private final List<Employee> employees;
+    private final DeductionPipeline otherRules;
+    private final AttendanceColumns columns;
+    private final boolean[] nightShift;
+    private final double[] regularHours;
+    private final double[] overtimeHours;
+    private final byte[] holidayKind;
+    private final double[] lateDeduction;
+
+    /**
+     * @param employees Employees to evaluate
+     * @param records Loaded attendance
+     * @param period The pay period
+     */
+    public ScenarioEngine(List<Employee> employees, List<AttendanceRecord> records, PayPeriod period) {
+        this(new PayrollContext("default", employees, records, SssTable.standard(), HolidayChecker.calendar()),
+             employees, records, period);
+    }
+
+    /**
+     * Evaluates a tenant's employees and attendance with its own statutory tables.
+     */
+    public ScenarioEngine(PayrollContext context, PayPeriod period) {
+        this(context, context.getEmployees(), context.attendanceIn(period.getYear(), period.getMonth()), period);
+    }
+
+    private ScenarioEngine(PayrollContext context, List<Employee> employees, List<AttendanceRecord> records,
+                           PayPeriod period) {
+        this.context = context;
+        this.period = period;
+        this.employees = employees;
+        this.otherRules = DeductionPipeline.standard().filter(rule -> !rule.isStatutory());
+        HolidayCalendar holidays = context.getHolidays();
+        this.columns = AttendanceColumns.build(employees, records, period, holidays);
+        int n = columns.size();
+
+        // Rate-independent daily hours, using the bulk kernels
+        PayKernel kernel = PayKernel.select();
+        int[] seconds = new int[n];
+        this.regularHours = new double[n];
+        this.overtimeHours = new double[n];
+        kernel.workedSeconds(columns.getTimeIn(), columns.getTimeOut(), seconds, n);
+        columns.mergeDays(seconds);
+        kernel.splitHours(seconds, regularHours, overtimeHours, n);
+
+        this.holidayKind = new byte[n];
+        int[] epochDay = columns.getEpochDay();
+        for (int i = 0; i < n; i++) {
+            LocalDate date = LocalDate.ofEpochDay(epochDay[i]);
+            holidayKind[i] = holidays.isRegularHoliday(date) ? REGULAR_HOLIDAY
+                : holidays.isSpecialNonWorkingDay(date) ? SPECIAL_DAY : WORKING_DAY;
+        }
+
+        // Late deductions depend on the hourly rate and shift only, as in LatePenalty:
+        // each day is late by its earliest time-in
+        int[] start = columns.getStart();
+        int[] timeIn = columns.getTimeIn();
+        int firstDay = (int) period.getStartDate().toEpochDay();
+        int[] firstIn = new int[16]; // Earliest time-in by days since the period start
+        int[] dayOwner = new int[16]; // Employee + 1 that firstIn belongs to
+        this.nightShift = new boolean[employees.size()];
+        this.lateDeduction = new double[employees.size()];
+        for (int e = 0; e < employees.size(); e++) {
+            Employee employee = employees.get(e);
+            nightShift[e] = employee.isNightShift();
+            int lateThreshold = employee.getShiftStartTime().toSecondOfDay() + LatePenalty.GRACE_PERIOD_MINUTES * 60;
+            double hourlyRate = columns.getHourlyRate()[e];
+            for (int i = start[e]; i < start[e + 1]; i++) {
+                int day = epochDay[i] - firstDay;
+                if (dayOwner[day] != e + 1 || timeIn[i] < firstIn[day]) {
+                    dayOwner[day] = e + 1;
+                    firstIn[day] = timeIn[i];
+                }
+            }
+            for (int day = 0; day < firstIn.length; day++) {
+                if (dayOwner[day] == e + 1 && firstIn[day] > lateThreshold) {
+                    long minutesLate = (firstIn[day] - lateThreshold) / 60;
+                    lateDeduction[e] += Math.max(0, (hourlyRate / 60.0) * minutesLate);
+                }
+            }
+        }
+    }
+
+    /**
+     * Evaluates the scenarios in parallel.
+     * @param scenarios Scenarios to evaluate; the first is usually {@link RateScenario#baseline()}
+     * @return One result per scenario, in the same order
+     */
+    public List<ScenarioResult> evaluate(List<RateScenario> scenarios) {
+        return IntStream.range(0, scenarios.size())
+            .parallel()
+            .mapToObj(s -> evaluate(scenarios.get(s)))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Evaluates one scenario: gross per employee, then the same deductions
+     * and tax as {@link Netwage}, with the scenario's rates.
+     */
+    public ScenarioResult evaluate(RateScenario scenario) {
+        int employees = columns.employeeCount();
+        int[] start = columns.getStart();
+        double[] rates = columns.getHourlyRate();
+        double[] gross = new double[employees];
+        double[] deductions = new double[employees];
+        double[] tax = new double[employees];
+        double[] net = new double[employees];
+
+        for (int e = 0; e < employees; e++) {
+            double rate = rates[e];
+            double overtimeRate = nightShift[e]
+                ? scenario.getNightShiftOvertimeMultiplier()
+                : scenario.getOvertimeMultiplier();
+            double regularPay = 0;
+            double overtimePay = 0;
+            for (int i = start[e]; i < start[e + 1]; i++) {
+                double multiplier = holidayKind[i] == REGULAR_HOLIDAY ? scenario.getRegularHolidayMultiplier()
+                    : holidayKind[i] == SPECIAL_DAY ? scenario.getSpecialHolidayMultiplier() : 1.0;
+                regularPay += regularHours[i] * rate * multiplier;
+                overtimePay += overtimeHours[i] * rate * overtimeRate;
+            }
+            gross[e] = regularPay + overtimePay;
+        }
+
+        // Bi-monthly halves of the monthly contributions, as in Netwage
+        SssTable sssTable = context.getSssTable();
+        double[] statutory = new double[employees];
+        for (int e = 0; e < employees; e++) {
+            statutory[e] = sssTable.contributionFor(gross[e]) / 2
+                + Philhealth.premiumFor(gross[e], scenario.getPhilhealthRate()) / 2
+                + Pagibig.contributionFor(gross[e]) / 2
+                + lateDeduction[e];
+        }
+
+        // Registered non-statutory rules, evaluated once over the whole batch
+        DeductionBatch batch = DeductionBatch.of(context, period, this.employees, gross);
+        batch.record("Statutory", true, true, statutory);
+        otherRules.apply(batch);
+
+        double[] preTax = batch.getPreTaxDeductions();
+        double[] total = batch.getTotalDeductions();
+        for (int e = 0; e < employees; e++) {
+            deductions[e] = total[e];
+            tax[e] = scenario.getTaxBrackets().taxFor(gross[e] - preTax[e]);
+            net[e] = gross[e] - deductions[e] - tax[e];
+        }
+
+        return new ScenarioResult(scenario, columns.getEmployeeIds(), gross, deductions, tax, net);
+    }
+
+    /**
+     * Prints the totals of each scenario and the change against the first one.
+     */
+    public static void printComparison(List<ScenarioResult> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        ScenarioResult baseline = results.get(0);
+        String format = "%-20s %15s %15s %15s %15s %15s%n";
+        System.out.printf(format, "Scenario", "Gross", "Deductions", "Tax", "Net", "Gross Change");
+        for (ScenarioResult result : results) {
+            System.out.printf(format, result.getScenario().getName(),
+                String.format("%,.2f", result.getTotalGross()),
+                String.format("%,.2f", result.getTotalDeductions()),
+                String.format("%,.2f", result.getTotalWithholdingTax()),
+                String.format("%,.2f", result.getTotalNet()),
+                String.format("%+,.2f", result.getTotalGross() - baseline.getTotalGross()));
+        }
+    }
+
+    public AttendanceColumns getColumns() {
+        return columns;
+    }
+}
@@ -0,0 +1,78 @@
+package com.mycompany.motorph;
+
+/**
+ * Per-employee and total payroll figures for one {@link RateScenario},
+ * produced by {@link ScenarioEngine}. Arrays are indexed like
+ * {@link #getEmployeeIds()}.
+ */
+public class ScenarioResult {
+    private final RateScenario scenario;
+    private final String[] employeeIds;
+    private final double[] gross;
+    private final double[] deductions;
+    private final double[] withholdingTax;
+    private final double[] net;
+
+    ScenarioResult(RateScenario scenario, String[] employeeIds, double[] gross, double[] deductions,
+                   double[] withholdingTax, double[] net) {
+        this.scenario = scenario;
+        this.employeeIds = employeeIds;
+        this.gross = gross;
+        this.deductions = deductions;
+        this.withholdingTax = withholdingTax;
+        this.net = net;
+    }
+
+    public double getTotalGross() { return sum(gross); }
+    public double getTotalDeductions() { return sum(deductions); }
+    public double getTotalWithholdingTax() { return sum(withholdingTax); }
+    public double getTotalNet() { return sum(net); }
+
+    /**
+     * Employer cost of the scenario: gross wages paid out.
+     */
+    public double getTotalCost() {
+        return getTotalGross();
+    }
+
+    /**
+     * @return Per-employee gross of this scenario minus that of the other
+     */
+    public double[] grossDelta(ScenarioResult other) {
+        return delta(gross, other.gross);
+    }
+
+    /**
+     * @return Per-employee net of this scenario minus that of the other
+     */
+    public double[] netDelta(ScenarioResult other) {
+        return delta(net, other.net);
+    }
+
+    private double[] delta(double[] mine, double[] theirs) {
+        if (theirs.length != mine.length) {
+            throw new IllegalArgumentException("Scenario results cover different employees");
+        }
+        double[] delta = new double[mine.length];
+        for (int e = 0; e < mine.length; e++) {
+            delta[e] = mine[e] - theirs[e];
+        }
+        return delta;
+    }
+
+    private static double sum(double[] values) {
+        double total = 0;
+        for (double value : values) {
+            total += value;
+        }
+        return total;
+    }
+
+    // Getters; arrays are shared, not copied
+    public RateScenario getScenario() { return scenario; }
+    public String[] getEmployeeIds() { return employeeIds; }
+    public double[] getGross() { return gross; }
+    public double[] getDeductions() { return deductions; }
+    public double[] getWithholdingTax() { return withholdingTax; }
+    public double[] getNet() { return net; }
+}
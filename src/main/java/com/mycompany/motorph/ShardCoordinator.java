@@ -0,0 +1,263 @@
+package com.mycompany.motorph;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Runs a month's payroll as several {@link ShardWorker} processes on this
+ * machine and merges their exports.
+ *
+ * Each worker gets one {@link ShardSpec} and loads only that shard's rows,
+ * so no process holds the whole company. Workers communicate only through
+ * files in the work directory: one export and one log per shard. The
+ * coordinator merges the exports by employee number and period, so the
+ * merged file and totals are the same for any shard count or strategy.
+ * Employees a worker could not compute are collected from the workers'
+ * failures files and reported with the totals.
+ */
+public class ShardCoordinator {
+    private static final Comparator<PeriodResult> RESULT_ORDER = Comparator
+        .comparing(PeriodResult::getEmployeeId)
+        .thenComparing(PeriodResult::getPeriod);
+
+    private final String employeeFile;
+    private final String attendancePath;
+    private final Path workDirectory;
+    private final List<String> workerJvmOptions;
+
+    /**
+     * Totals of a merged run, summed in merge order.
+     */
+    public static final class Result {
+        private final int[] shardResults;
+        private final List<String> failures = new ArrayList<>();
+        private int results;
+        private double gross;
+        private double deductions;
+        private double withholdingTax;
+        private double net;
+        private long elapsedMillis;
+
+        Result(int shards) {
+            this.shardResults = new int[shards];
+        }
+
+        void add(PeriodResult result) {
+            results++;
+            gross += result.getGross();
+            deductions += result.getTotalDeductions();
+            withholdingTax += result.getWithholdingTax();
+            net += result.getNet();
+        }
+
+        // Getters
+        public int getResults() { return results; }
+        public int getShardResults(int shard) { return shardResults[shard]; }
+        public List<String> getFailures() { return failures; }
+        public double getGross() { return gross; }
+        public double getDeductions() { return deductions; }
+        public double getWithholdingTax() { return withholdingTax; }
+        public double getNet() { return net; }
+        public long getElapsedMillis() { return elapsedMillis; }
+    }
+
+    /**
+     * @param employeeFile Employee workbook every worker reads its shard from
+     * @param attendancePath Attendance workbook, directory or glob
+     * @param workDirectory Directory for shard exports and logs
+     * @param workerJvmOptions Extra JVM options for the workers, e.g. {@code -Xmx512m}
+     */
+    public ShardCoordinator(String employeeFile, String attendancePath, Path workDirectory,
+                            List<String> workerJvmOptions) {
+        if (employeeFile == null || attendancePath == null || workDirectory == null) {
+            throw new IllegalArgumentException("Input files and work directory cannot be null");
+        }
+        this.employeeFile = employeeFile;
+        this.attendancePath = attendancePath;
+        this.workDirectory = workDirectory;
+        this.workerJvmOptions = workerJvmOptions == null ? List.of() : List.copyOf(workerJvmOptions);
+    }
+
+    /**
+     * Runs every shard in its own process, waits for all of them and merges
+     * their exports into one. Workers that finished with failed employees
+     * still count as finished; their failures are in the result.
+     * @param shards Shards that together cover every employee exactly once
+     * @param output Merged export
+     * @return Totals of the merged run
+     * @throws IOException If a worker fails or an export cannot be read or written
+     */
+    public Result run(List<ShardSpec> shards, int year, int month, Path output) throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(workDirectory);
+
+        List<Process> processes = new ArrayList<>();
+        List<Path> exports = new ArrayList<>();
+        try {
+            for (int i = 0; i < shards.size(); i++) {
+                Path export = workDirectory.resolve("shard-" + i + ".csv");
+                Files.deleteIfExists(export);
+                Files.deleteIfExists(ShardWorker.failuresFile(export));
+                exports.add(export);
+                processes.add(launch(shards.get(i), year, month, export, workDirectory.resolve("shard-" + i + ".log")));
+            }
+
+            List<String> failed = new ArrayList<>();
+            for (int i = 0; i < processes.size(); i++) {
+                int exit = processes.get(i).waitFor();
+                if ((exit != ShardWorker.EXIT_OK && exit != ShardWorker.EXIT_PARTIAL) || !Files.exists(exports.get(i))) {
+                    failed.add(shards.get(i) + " (exit " + exit + ", see shard-" + i + ".log)");
+                }
+            }
+            if (!failed.isEmpty()) {
+                throw new IOException("Shard workers failed: " + String.join(", ", failed));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for shard workers", e);
+        } finally {
+            for (Process process : processes) {
+                process.destroy(); // No-op for workers that already exited
+            }
+        }
+
+        Result result = merge(exports, output);
+        for (int i = 0; i < exports.size(); i++) {
+            Path failures = ShardWorker.failuresFile(exports.get(i));
+            if (Files.exists(failures)) {
+                for (String failure : Files.readAllLines(failures, StandardCharsets.UTF_8)) {
+                    result.failures.add(shards.get(i) + " " + failure);
+                }
+            }
+        }
+        result.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return result;
+    }
+
+    private Process launch(ShardSpec shard, int year, int month, Path export, Path log) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(workerJvmOptions);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(ShardWorker.class.getName());
+        command.add(shard.toString());
+        command.add(employeeFile);
+        command.add(attendancePath);
+        command.add(String.valueOf(year));
+        command.add(String.valueOf(month));
+        command.add(export.toString());
+
+        File logFile = log.toFile();
+        return new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.to(logFile))
+            .start();
+    }
+
+    // Next unmerged result of one shard export
+    private record Head(PeriodResult result, int shard) {
+    }
+
+    /**
+     * K-way merge of the sorted shard exports.
+     */
+    static Result merge(List<Path> exports, Path output) throws IOException {
+        Result result = new Result(exports.size());
+        List<PeriodResultCsv.Reader> readers = new ArrayList<>();
+        try (PeriodResultCsv merged = PeriodResultCsv.create(output)) {
+            PriorityQueue<Head> heap = new PriorityQueue<>(Comparator.comparing(Head::result, RESULT_ORDER));
+            for (int i = 0; i < exports.size(); i++) {
+                PeriodResultCsv.Reader reader = PeriodResultCsv.open(exports.get(i));
+                readers.add(reader);
+                PeriodResult first = reader.next();
+                if (first != null) {
+                    heap.add(new Head(first, i));
+                }
+            }
+
+            PeriodResult previous = null;
+            while (!heap.isEmpty()) {
+                Head head = heap.poll();
+                PeriodResult current = head.result();
+                int shard = head.shard();
+                if (previous != null && RESULT_ORDER.compare(previous, current) == 0) {
+                    throw new IllegalStateException("Employee " + current.getEmployeeId() + " appears in more than one shard");
+                }
+                merged.write(current);
+                result.add(current);
+                result.shardResults[shard]++;
+                previous = current;
+
+                PeriodResult next = readers.get(shard).next();
+                if (next != null) {
+                    heap.add(new Head(next, shard));
+                }
+            }
+        } finally {
+            for (PeriodResultCsv.Reader reader : readers) {
+                reader.close();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Usage: {@code ShardCoordinator <hash|range:first-last> <shards> <employee file> <attendance path> <year> <month> <output file>}
+     */
+    public static void main(String[] args) {
+        if (args.length != 7) {
+            System.err.println("Usage: ShardCoordinator <hash|range:first-last> <shards> <employee file> "
+                + "<attendance path> <year> <month> <output file>");
+            System.exit(ShardWorker.EXIT_USAGE);
+        }
+        try {
+            int count = Integer.parseInt(args[1]);
+            List<ShardSpec> shards;
+            if (args[0].equals("hash")) {
+                shards = ShardSpec.hashes(count);
+            } else {
+                ShardSpec bounds = ShardSpec.parse(args[0]);
+                if (bounds.getStrategy() != ShardSpec.Strategy.RANGE) {
+                    throw new IllegalArgumentException("Expected hash or range:first-last");
+                }
+                shards = ShardSpec.ranges(bounds.getLower(), bounds.getUpper(), count);
+            }
+
+            Path output = Path.of(args[6]);
+            Path workDirectory = output.toAbsolutePath().resolveSibling(output.getFileName() + ".shards");
+            ShardCoordinator coordinator = new ShardCoordinator(args[2], args[3], workDirectory, List.of());
+            Result result = coordinator.run(shards, Integer.parseInt(args[4]), Integer.parseInt(args[5]), output);
+
+            System.out.println("\nSharded Payroll Run:");
+            System.out.println("------------------------------------------");
+            for (int i = 0; i < shards.size(); i++) {
+                System.out.printf("%-20s: %d results%n", shards.get(i), result.getShardResults(i));
+            }
+            System.out.printf("%-20s: %d%n", "Results", result.getResults());
+            System.out.printf("%-20s: PHP %,.2f%n", "Gross", result.getGross());
+            System.out.printf("%-20s: PHP %,.2f%n", "Deductions", result.getDeductions());
+            System.out.printf("%-20s: PHP %,.2f%n", "Withholding Tax", result.getWithholdingTax());
+            System.out.printf("%-20s: PHP %,.2f%n", "Net", result.getNet());
+            System.out.printf("%-20s: %d ms%n", "Elapsed", result.getElapsedMillis());
+            System.out.printf("%-20s: %d%n", "Failed", result.getFailures().size());
+            System.out.println("------------------------------------------");
+            for (String failure : result.getFailures()) {
+                System.err.println(failure);
+            }
+            if (!result.getFailures().isEmpty()) {
+                System.exit(ShardWorker.EXIT_PARTIAL);
+            }
+        } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+            System.err.println("Sharded run failed: " + e.getMessage());
+            System.exit(ShardWorker.EXIT_FAILED);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.mycompany.motorph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Which employees one shard of a sharded payroll run owns, either by hash
+ * of the employee number or by a numeric employee number range. A spec is
+ * passed to worker processes in its {@link #toString()} form, e.g.
+ * {@code hash:2/4} or {@code range:10001-10018}. A range may be open at
+ * either end, written {@code *}; the range open at its lower end also owns
+ * employee numbers that are not numeric, so a split from {@link #ranges}
+ * owns every employee.
+ */
+public final class ShardSpec implements Predicate<String> {
+    public enum Strategy {
+        HASH, RANGE
+    }
+
+    private final Strategy strategy;
+    private final int index;
+    private final int count;
+    private final long lower; // Inclusive, RANGE only; Long.MIN_VALUE when open
+    private final long upper; // Inclusive, RANGE only; Long.MAX_VALUE when open
+
+    private ShardSpec(Strategy strategy, int index, int count, long lower, long upper) {
+        this.strategy = strategy;
+        this.index = index;
+        this.count = count;
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    /**
+     * @return Shard {@code index} of {@code count} hash shards
+     */
+    public static ShardSpec hash(int index, int count) {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid hash shard " + index + "/" + count);
+        }
+        return new ShardSpec(Strategy.HASH, index, count, 0, 0);
+    }
+
+    /**
+     * @return The shard owning employee numbers lower..upper, inclusive
+     */
+    public static ShardSpec range(long lower, long upper) {
+        if (lower > upper) {
+            throw new IllegalArgumentException("Invalid employee number range " + lower + "-" + upper);
+        }
+        return new ShardSpec(Strategy.RANGE, 0, 1, lower, upper);
+    }
+
+    /**
+     * Splits employee numbers first..last into contiguous ranges of near-equal
+     * size. The first range is open below and the last open above, so
+     * employees outside first..last are still owned by a shard.
+     */
+    public static List<ShardSpec> ranges(long first, long last, int count) {
+        if (count < 1 || first > last || first == Long.MIN_VALUE || last == Long.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid range split");
+        }
+        List<ShardSpec> shards = new ArrayList<>(count);
+        long span = last - first + 1;
+        for (int i = 0; i < count; i++) {
+            long lower = first + span * i / count;
+            long upper = first + span * (i + 1) / count - 1;
+            if (lower <= upper) {
+                shards.add(range(shards.isEmpty() ? Long.MIN_VALUE : lower, upper));
+            }
+        }
+        ShardSpec lastShard = shards.get(shards.size() - 1);
+        shards.set(shards.size() - 1, range(lastShard.lower, Long.MAX_VALUE));
+        return shards;
+    }
+
+    /**
+     * @return All shards of a hash split
+     */
+    public static List<ShardSpec> hashes(int count) {
+        List<ShardSpec> shards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            shards.add(hash(i, count));
+        }
+        return shards;
+    }
+
+    /**
+     * Parses the {@link #toString()} form.
+     */
+    public static ShardSpec parse(String spec) {
+        try {
+            if (spec.startsWith("hash:")) {
+                String[] parts = spec.substring(5).split("/");
+                return hash(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+            }
+            if (spec.startsWith("range:")) {
+                String[] parts = spec.substring(6).split("-");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Invalid shard spec: " + spec);
+                }
+                return range(parts[0].equals("*") ? Long.MIN_VALUE : Long.parseLong(parts[0]),
+                             parts[1].equals("*") ? Long.MAX_VALUE : Long.parseLong(parts[1]));
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Invalid shard spec: " + spec);
+    }
+
+    /**
+     * @return Whether this shard owns the employee number
+     */
+    @Override
+    public boolean test(String employeeId) {
+        if (strategy == Strategy.HASH) {
+            return Math.floorMod(employeeId.hashCode(), count) == index;
+        }
+        try {
+            long number = Long.parseLong(employeeId);
+            return number >= lower && number <= upper;
+        } catch (NumberFormatException e) {
+            return lower == Long.MIN_VALUE; // Non-numeric numbers belong to the range open below
+        }
+    }
+
+    // Getters
+    public Strategy getStrategy() { return strategy; }
+    public long getLower() { return lower; }
+    public long getUpper() { return upper; }
+
+    @Override
+    public String toString() {
+        if (strategy == Strategy.HASH) {
+            return "hash:" + index + "/" + count;
+        }
+        return "range:" + (lower == Long.MIN_VALUE ? "*" : String.valueOf(lower)) + "-"
+            + (upper == Long.MAX_VALUE ? "*" : String.valueOf(upper));
+    }
+}
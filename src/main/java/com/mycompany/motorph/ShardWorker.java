@@ -0,0 +1,109 @@
+package com.mycompany.motorph;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Worker process of a sharded payroll run. Loads only the employees and
+ * attendance rows of its shard, computes both halves of a month and writes
+ * the results, sorted by employee number and period, as a
+ * {@link PeriodResultCsv} export. Employees that cannot be computed are
+ * listed, one "period ID: reason" line each, in a failures file next to the
+ * export, and the worker then exits with {@link #EXIT_PARTIAL}. Both files
+ * are written to temporary files and moved into place, so the coordinator
+ * never reads a partial file.
+ *
+ * The shard bounds the records a worker keeps, not the parser's peak
+ * memory: the workbooks are opened with POI's XSSFWorkbook, which reads a
+ * whole sheet into memory before the shard filter skips its rows. Workers
+ * therefore each need enough heap for the largest sheet.
+ *
+ * Usage: {@code ShardWorker <shard> <employee file> <attendance path> <year> <month> <output file>}
+ */
+public class ShardWorker {
+    static final int EXIT_OK = 0;
+    static final int EXIT_USAGE = 2;
+    static final int EXIT_FAILED = 1;
+    static final int EXIT_PARTIAL = 3; // Export written, some employees failed
+    static final String FAILURES_SUFFIX = ".failures";
+
+    public static void main(String[] args) {
+        if (args.length != 6) {
+            System.err.println("Usage: ShardWorker <shard> <employee file> <attendance path> <year> <month> <output file>");
+            System.exit(EXIT_USAGE);
+        }
+        try {
+            ShardSpec shard = ShardSpec.parse(args[0]);
+            List<String> failures = new ArrayList<>();
+            int written = run(shard, args[1], args[2], Integer.parseInt(args[3]), Integer.parseInt(args[4]),
+                Path.of(args[5]), failures);
+            System.out.println("Shard " + shard + ": " + written + " results, " + failures.size() + " failures");
+            for (String failure : failures) {
+                System.err.println(failure);
+            }
+            System.exit(failures.isEmpty() ? EXIT_OK : EXIT_PARTIAL);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Shard " + args[0] + " failed: " + e.getMessage());
+            System.exit(EXIT_FAILED);
+        }
+    }
+
+    /**
+     * Computes one shard, writing the export and its failures file.
+     * @param failures Receives "period ID: reason" for each employee-period that cannot be computed
+     * @return The number of results written
+     */
+    static int run(ShardSpec shard, String employeeFile, String attendancePath, int year, int month, Path output,
+                   List<String> failures) throws IOException {
+        PayrollContext context = PayrollContext.load(shard.toString(), employeeFile, attendancePath, null, shard);
+        List<Employee> employees = new ArrayList<>(context.getEmployees());
+        employees.sort(Comparator.comparing(Employee::getEmployeeNumber));
+
+        PayPeriod firstHalf = PayPeriod.of(year, month, true);
+        PayPeriod secondHalf = PayPeriod.of(year, month, false);
+        Map<PayPeriod, Map<String, PeriodResult>> results = new HashMap<>();
+        for (PayPeriod period : new PayPeriod[]{firstHalf, secondHalf}) {
+            List<String> periodFailures = new ArrayList<>();
+            results.put(period, PayrollBatch.computeAll(context, employees, period, periodFailures));
+            for (String failure : periodFailures) {
+                failures.add(period + " " + failure);
+            }
+        }
+
+        Path partial = output.resolveSibling(output.getFileName() + ".tmp");
+        int written;
+        try (PeriodResultCsv csv = PeriodResultCsv.create(partial)) {
+            for (Employee employee : employees) {
+                for (PayPeriod period : new PayPeriod[]{firstHalf, secondHalf}) {
+                    PeriodResult result = results.get(period).get(employee.getEmployeeNumber());
+                    if (result != null) {
+                        csv.write(result);
+                    }
+                }
+            }
+            written = csv.getWritten();
+        }
+
+        Path failuresFile = failuresFile(output);
+        Path partialFailures = failuresFile.resolveSibling(failuresFile.getFileName() + ".tmp");
+        Files.write(partialFailures, failures, StandardCharsets.UTF_8);
+        Files.move(partialFailures, failuresFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(partial, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return written;
+    }
+
+    /**
+     * @return The file listing the failed employees of an export
+     */
+    static Path failuresFile(Path export) {
+        return export.resolveSibling(export.getFileName() + FAILURES_SUFFIX);
+    }
+}
@@ -0,0 +1,41 @@
+package com.mycompany.motorph;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interning pool for the immutable statutory tables. Tenants that load an
+ * SSS table or holiday calendar with the same content get the same instance,
+ * so one JVM serving several companies keeps a single copy of each.
+ */
+public final class SharedTables {
+    private static final Map<SssTable, SssTable> SSS_TABLES = new ConcurrentHashMap<>();
+    private static final Map<HolidayCalendar, HolidayCalendar> HOLIDAY_CALENDARS = new ConcurrentHashMap<>();
+
+    private SharedTables() {
+    }
+
+    /**
+     * @return The pooled table equal to the given one
+     */
+    public static SssTable intern(SssTable table) {
+        SssTable existing = SSS_TABLES.putIfAbsent(table, table);
+        return existing == null ? table : existing;
+    }
+
+    /**
+     * @return The pooled calendar equal to the given one
+     */
+    public static HolidayCalendar intern(HolidayCalendar calendar) {
+        HolidayCalendar existing = HOLIDAY_CALENDARS.putIfAbsent(calendar, calendar);
+        return existing == null ? calendar : existing;
+    }
+
+    public static int sssTableCount() {
+        return SSS_TABLES.size();
+    }
+
+    public static int holidayCalendarCount() {
+        return HOLIDAY_CALENDARS.size();
+    }
+}
@@ -0,0 +1,38 @@
+package com.mycompany.motorph;
+
+/**
+ * Built-in rule: half the monthly SSS contribution, from the contribution
+ * table of the batch's payroll context.
+ */
+public class SssDeductionRule implements DeductionRule {
+    public static final String NAME = "SSS";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public int order() {
+        return 100;
+    }
+
+    @Override
+    public boolean isPreTax() {
+        return true;
+    }
+
+    @Override
+    public boolean isStatutory() {
+        return true;
+    }
+
+    @Override
+    public void apply(DeductionBatch batch, double[] amounts) {
+        double[] gross = batch.getGross();
+        SssTable sssTable = batch.getContext().getSssTable();
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] = sssTable.contributionFor(gross[i], batch.traceFor(i)) / 2; // Bi-monthly calculation
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.mycompany.motorph;
+
+/**
+ * Parses the compensation range column of the SSS contribution workbook.
+ * Shared by {@link SssTable#load} and the build-time StatutoryTableGenerator,
+ * so the compiled-in table and a loaded workbook read ranges the same way.
+ * Uses only the JDK, so the build can compile it before the tables exist.
+ */
+public final class SssRangeParser {
+
+    private SssRangeParser() {
+    }
+
+    /**
+     * Parses an SSS compensation range string into a numeric range.
+     * @param compensationRange The compensation range string (e.g., "Below 3,250").
+     * @return An array containing the start and end values of the range.
+     * @throws IllegalArgumentException If the range has no recognisable format
+     */
+    public static double[] parse(String compensationRange) {
+        compensationRange = compensationRange.trim(); // Remove extra spaces
+
+        try {
+            // Handle the "Below X" format
+            if (compensationRange.startsWith("Below")) {
+                return new double[]{0, parseNumber(compensationRange.replace("Below", ""))};
+            }
+
+            // Handle the "Over" format
+            if (compensationRange.contains("Over")) {
+                return new double[]{parseNumber(compensationRange.replace("Over", "")), Double.MAX_VALUE};
+            }
+
+            // Handle the "X - Y" format
+            if (compensationRange.contains("-")) {
+                String[] rangeParts = compensationRange.split("-");
+                if (rangeParts.length == 2) {
+                    return new double[]{parseNumber(rangeParts[0]), parseNumber(rangeParts[1])};
+                }
+            }
+
+            // Handle single numeric values (e.g., "3250.0")
+            double value = parseNumber(compensationRange);
+            return new double[]{value, value}; // Treat single value as a range with the same start and end
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid compensation range format: " + compensationRange, e);
+        }
+    }
+
+    /**
+     * Parses a number from a string, removing commas.
+     */
+    private static double parseNumber(String numberString) {
+        return Double.parseDouble(numberString.replace(",", "").trim());
+    }
+}
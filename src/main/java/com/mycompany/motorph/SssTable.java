@@ -0,0 +1,201 @@
+package com.mycompany.motorph;
+
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable SSS contribution table: compensation ranges with the
+ * contribution due for each. Tables are compared by content, so identical
+ * tables loaded for different tenants can be shared via {@link SharedTables}.
+ */
+public final class SssTable {
+    private final double[] rangeStart;
+    private final double[] rangeEnd;
+    private final double[] contribution;
+    private final double maxContribution; // Applied when no range matches
+
+    private SssTable(List<SSSRecord> records) {
+        rangeStart = new double[records.size()];
+        rangeEnd = new double[records.size()];
+        contribution = new double[records.size()];
+        for (int i = 0; i < records.size(); i++) {
+            double[] range = SssRangeParser.parse(records.get(i).getCompensationRange());
+            rangeStart[i] = range[0];
+            rangeEnd[i] = range[1];
+            contribution[i] = records.get(i).getContribution();
+        }
+        maxContribution = Arrays.stream(contribution).max().orElse(0.0);
+    }
+
+    private SssTable(double[] rangeStart, double[] rangeEnd, double[] contribution) {
+        if (rangeStart.length != contribution.length || rangeEnd.length != contribution.length) {
+            throw new IllegalArgumentException("Expected one range per contribution");
+        }
+        this.rangeStart = rangeStart.clone();
+        this.rangeEnd = rangeEnd.clone();
+        this.contribution = contribution.clone();
+        this.maxContribution = Arrays.stream(contribution).max().orElse(0.0);
+    }
+
+    /**
+     * @param records The table rows in spreadsheet order
+     * @return The parsed table
+     */
+    public static SssTable of(List<SSSRecord> records) {
+        return new SssTable(records);
+    }
+
+    /**
+     * Loads an SSS contribution table from an Excel file.
+     * @param filePath Path to the workbook
+     * @return The parsed table
+     * @throws IOException If the file cannot be read
+     */
+    public static SssTable load(String filePath) throws IOException {
+        List<SSSRecord> deductionRecords = new ArrayList<>();
+        PayrollEvents.WorkbookLoad event = new PayrollEvents.WorkbookLoad();
+        event.begin();
+
+        try (FileInputStream fis = new FileInputStream(filePath);
+             Workbook workbook = new XSSFWorkbook(fis)) {
+
+            Sheet sheet = workbook.getSheetAt(0); // Assuming data is in the first sheet
+
+            // Skip the header row
+            for (int rowIndex = 1; rowIndex <= sheet.getLastRowNum(); rowIndex++) {
+                Row row = sheet.getRow(rowIndex);
+                if (row != null) {
+                    String compensationRange = getCellValueAsString(row.getCell(0)); // Compensation range
+                    double contribution = parseCellValueAsDouble(row.getCell(3)); // Contribution amount (Column D)
+
+                    // Create a new SSSRecord object and add it to the list
+                    deductionRecords.add(new SSSRecord(compensationRange, contribution));
+                }
+            }
+        }
+
+        event.finish(Path.of(filePath), "SSS", 1, deductionRecords.size(), 0);
+        return new SssTable(deductionRecords);
+    }
+
+    /**
+     * @return The table generated at build time from the bundled SSSCont.xlsx;
+     *         reads no file and needs no POI
+     */
+    public static SssTable standard() {
+        return StandardHolder.TABLE;
+    }
+
+    private static final class StandardHolder {
+        private static final SssTable TABLE = SharedTables.intern(new SssTable(
+            StatutoryTables.SSS_RANGE_START, StatutoryTables.SSS_RANGE_END, StatutoryTables.SSS_CONTRIBUTION));
+    }
+
+    /**
+     * Looks up the monthly SSS contribution for a gross wage.
+     * @param gross The gross wage
+     * @return The contribution of the first matching range, or the maximum if none matches
+     */
+    public double contributionFor(double gross) {
+        return contributionFor(gross, AuditTrace.DISABLED);
+    }
+
+    /**
+     * As {@link #contributionFor(double)}, recording the matched row in the trace.
+     */
+    double contributionFor(double gross, AuditTrace trace) {
+        for (int i = 0; i < contribution.length; i++) {
+            // Check if the gross wage falls within the range
+            if (gross >= rangeStart[i] && gross <= rangeEnd[i]) {
+                if (contribution[i] != 0.0) {
+                    if (trace.isEnabled()) {
+                        trace.sssBracket(gross, i + 1, rangeStart[i], rangeEnd[i], contribution[i]);
+                    }
+                    return contribution[i];
+                }
+                break;
+            }
+        }
+
+        // If no range matches, apply the maximum contribution
+        if (trace.isEnabled()) {
+            trace.sssBracket(gross, 0, 0, 0, maxContribution);
+        }
+        return maxContribution;
+    }
+
+    public int size() {
+        return contribution.length;
+    }
+
+    /**
+     * Helper method to parse a cell's value as a double, even if it's stored as a string.
+     */
+    private static double parseCellValueAsDouble(Cell cell) {
+        if (cell == null) {
+            return 0.0; // Return 0 if the cell is null
+        }
+        switch (cell.getCellType()) {
+            case NUMERIC:
+                return cell.getNumericCellValue();
+            case STRING:
+                String value = cell.getStringCellValue().trim();
+                if (value.isEmpty() || value.equals("-")) {
+                    return 0.0; // Return 0 for empty cells or hyphens
+                }
+                try {
+                    return Double.parseDouble(value);
+                } catch (NumberFormatException e) {
+                    System.err.println("Invalid numeric format in cell: " + value);
+                    return 0.0; // Return 0 if the string cannot be parsed as a number
+                }
+            default:
+                return 0.0; // Return 0 for other cell types
+        }
+    }
+
+    /**
+     * Helper method to get the value of a cell as a String.
+     * @param cell The cell to retrieve the value from.
+     * @return The cell value as a String.
+     */
+    private static String getCellValueAsString(Cell cell) {
+        if (cell == null) {
+            return "";
+        }
+        switch (cell.getCellType()) {
+            case STRING:
+                return cell.getStringCellValue().trim();
+            case NUMERIC:
+                return String.valueOf(cell.getNumericCellValue());
+            case BOOLEAN:
+                return String.valueOf(cell.getBooleanCellValue());
+            case FORMULA:
+                return cell.getCellFormula();
+            default:
+                return "";
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SssTable)) return false;
+        SssTable other = (SssTable) o;
+        return Arrays.equals(rangeStart, other.rangeStart)
+            && Arrays.equals(rangeEnd, other.rangeEnd)
+            && Arrays.equals(contribution, other.contribution);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Arrays.hashCode(rangeStart) + Arrays.hashCode(rangeEnd)) + Arrays.hashCode(contribution);
+    }
+}
@@ -0,0 +1,200 @@
+package com.mycompany.motorph;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Reads attendance workbooks with POI's streaming reader instead of loading
+ * them as an {@code XSSFWorkbook}. Each sheet's XML is parsed with SAX and
+ * every row goes to {@link AttendanceRecord#parseRow} as soon as it ends, so
+ * memory holds the shared strings and one row, not the sheet.
+ *
+ * Streamed cells have no type: a value that is a number is read as a
+ * numeric cell and anything else as text. Numeric dates use the 1900 date
+ * system.
+ */
+public final class StreamingAttendanceReader {
+    private static final int COLUMNS = 6; // ID, first name, last name, date, log in, log out
+
+    private StreamingAttendanceReader() {
+    }
+
+    /**
+     * Parses every sheet of a workbook, handing each complete record to the
+     * consumer; the header row of each sheet is skipped.
+     * @return The number of sheets read
+     * @throws IOException If the file cannot be read or is not a workbook
+     */
+    public static int read(Path file, Consumer<AttendanceRecord> records, RejectSink rejects,
+                           Predicate<String> employeeFilter, Predicate<LocalDate> dateFilter,
+                           AttendanceAnomalies anomalies) throws IOException {
+        int sheets = 0;
+        try (OPCPackage workbook = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(workbook);
+            SharedStrings strings = new ReadOnlySharedStringsTable(workbook);
+            StylesTable styles = reader.getStylesTable();
+            DataFormatter rawNumbers = new RawNumberFormatter();
+            XSSFReader.SheetIterator sheetData = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheetData.hasNext()) {
+                try (InputStream sheet = sheetData.next()) {
+                    RowHandler rows = new RowHandler(file.getFileName() + "!" + sheetData.getSheetName(), records,
+                        rejects, employeeFilter, dateFilter, anomalies);
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(styles, strings, rows, rawNumbers, false));
+                    parser.parse(new InputSource(sheet));
+                }
+                sheets++;
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException(file + ": " + e.getMessage(), e);
+        }
+        return sheets;
+    }
+
+    // Leaves numbers as Java writes them instead of applying the cell's display format
+    private static final class RawNumberFormatter extends DataFormatter {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            return String.valueOf(value);
+        }
+    }
+
+    private static final class RowHandler implements XSSFSheetXMLHandler.SheetContentsHandler,
+            AttendanceRecord.RowCells {
+        private final String source;
+        private final Consumer<AttendanceRecord> records;
+        private final RejectSink rejects;
+        private final Predicate<String> employeeFilter;
+        private final Predicate<LocalDate> dateFilter;
+        private final AttendanceAnomalies anomalies;
+        private final String[] values = new String[COLUMNS]; // null where the row has no cell
+        private int nextColumn;
+
+        RowHandler(String source, Consumer<AttendanceRecord> records, RejectSink rejects,
+                   Predicate<String> employeeFilter, Predicate<LocalDate> dateFilter, AttendanceAnomalies anomalies) {
+            this.source = source;
+            this.records = records;
+            this.rejects = rejects;
+            this.employeeFilter = employeeFilter;
+            this.dateFilter = dateFilter;
+            this.anomalies = anomalies;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            Arrays.fill(values, null);
+            nextColumn = 0;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference == null ? nextColumn : column(cellReference);
+            nextColumn = column + 1;
+            if (column < COLUMNS) {
+                values[column] = formattedValue;
+            }
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (rowNum > 0) { // Skip the header row
+                AttendanceRecord.parseRow(this, source, rowNum + 1, records, rejects, employeeFilter, dateFilter,
+                    anomalies);
+            }
+        }
+
+        @Override
+        public CellType type(int column) {
+            String value = values[column];
+            if (value == null) {
+                return null;
+            }
+            return isNumber(value) ? CellType.NUMERIC : CellType.STRING;
+        }
+
+        @Override
+        public String text(int column) {
+            return values[column] == null ? "" : values[column];
+        }
+
+        @Override
+        public double number(int column) {
+            return Double.parseDouble(values[column]);
+        }
+
+        @Override
+        public LocalDateTime dateTime(int column) {
+            return DateUtil.getLocalDateTime(number(column));
+        }
+
+        // Zero-based column of a reference such as "D12"
+        private static int column(String cellReference) {
+            int column = 0;
+            for (int i = 0; i < cellReference.length(); i++) {
+                char c = cellReference.charAt(i);
+                if (c < 'A' || c > 'Z') {
+                    break;
+                }
+                column = column * 26 + (c - 'A' + 1);
+            }
+            return column - 1;
+        }
+
+        // A plain decimal as written by Excel or Double.toString, checked without throwing
+        private static boolean isNumber(String value) {
+            int i = value.startsWith("-") ? 1 : 0;
+            int digits = 0;
+            boolean point = false;
+            for (; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    digits++;
+                } else if (c == '.' && !point) {
+                    point = true;
+                } else if ((c == 'E' || c == 'e') && digits > 0) {
+                    return isExponent(value, i + 1);
+                } else {
+                    return false;
+                }
+            }
+            return digits > 0;
+        }
+
+        private static boolean isExponent(String value, int from) {
+            int i = from < value.length() && (value.charAt(from) == '-' || value.charAt(from) == '+') ? from + 1 : from;
+            if (i == value.length()) {
+                return false;
+            }
+            for (; i < value.length(); i++) {
+                if (value.charAt(i) < '0' || value.charAt(i) > '9') {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.mycompany.motorph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The reporting tree behind {@link Employee#getImmediateSupervisor()}.
+ *
+ * Supervisors are free-text "Last, First" names. Each is resolved to the
+ * employee with the same normalised last and first name words, or failing
+ * that to the only employee with the same words in any order. Employees
+ * without a supervisor ("N/A" or blank) are roots. Names that match no
+ * employee, or several, make the employee an orphan, and each reporting
+ * cycle is broken at one member; orphans and cycle members become roots
+ * too, so every employee is in exactly one tree.
+ *
+ * The employees are kept in post-order, children before their supervisor,
+ * so {@link #rollup} totals every subtree in one pass.
+ */
+public final class SupervisorHierarchy {
+    private static final String NO_SUPERVISOR = "N/A";
+
+    private final Employee[] employees;
+    private final Map<String, Integer> indexById;
+    private final int[] parent; // -1 for roots
+    private final int[] childStart; // Children of i are childIndex[childStart[i] .. childStart[i + 1])
+    private final int[] childIndex;
+    private final int[] postOrder;
+    private final Map<String, String> orphans = new LinkedHashMap<>();
+    private final List<List<String>> cycles = new ArrayList<>();
+
+    public SupervisorHierarchy(List<Employee> employees) {
+        if (employees == null) {
+            throw new IllegalArgumentException("Employees cannot be null");
+        }
+        this.employees = employees.toArray(new Employee[0]);
+        int n = this.employees.length;
+
+        // Name keys: words in "last first" order, and the same words sorted
+        this.indexById = new HashMap<>(n * 2);
+        Map<String, Integer> byName = new HashMap<>(n * 2);
+        Map<String, Integer> byWords = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            Employee employee = this.employees[i];
+            indexById.putIfAbsent(employee.getEmployeeNumber(), i);
+            List<String> words = nameWords(employee.getLastName(), employee.getFirstName());
+            byName.merge(String.join(" ", words), i, (a, b) -> -2);
+            byWords.merge(sortedKey(words), i, (a, b) -> -2);
+        }
+
+        this.parent = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = resolve(this.employees[i], byName, byWords);
+        }
+        breakCycles();
+
+        // Children as compressed rows, in employee order
+        this.childStart = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            if (parent[i] >= 0) {
+                childStart[parent[i] + 1]++;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            childStart[i + 1] += childStart[i];
+        }
+        this.childIndex = new int[childStart[n]];
+        int[] next = Arrays.copyOf(childStart, n);
+        for (int i = 0; i < n; i++) {
+            if (parent[i] >= 0) {
+                childIndex[next[parent[i]]++] = i;
+            }
+        }
+        this.postOrder = postOrder();
+    }
+
+    /**
+     * @return The supervisor's index, or -1 for roots and orphans
+     */
+    private int resolve(Employee employee, Map<String, Integer> byName, Map<String, Integer> byWords) {
+        String supervisor = employee.getImmediateSupervisor();
+        if (supervisor == null || supervisor.isBlank() || supervisor.trim().equalsIgnoreCase(NO_SUPERVISOR)) {
+            return -1;
+        }
+        int comma = supervisor.indexOf(',');
+        List<String> words = comma < 0
+            ? EmployeeNameIndex.words(supervisor)
+            : nameWords(supervisor.substring(0, comma), supervisor.substring(comma + 1));
+        Integer match = byName.get(String.join(" ", words));
+        if (match == null) {
+            match = byWords.get(sortedKey(words));
+        }
+        if (match == null || match < 0) {
+            orphans.put(employee.getEmployeeNumber(),
+                supervisor + (match == null ? " (no such employee)" : " (ambiguous name)"));
+            return -1;
+        }
+        return match;
+    }
+
+    private static List<String> nameWords(String last, String first) {
+        List<String> words = new ArrayList<>(EmployeeNameIndex.words(last));
+        words.addAll(EmployeeNameIndex.words(first));
+        return words;
+    }
+
+    private static String sortedKey(List<String> words) {
+        List<String> sorted = new ArrayList<>(words);
+        Collections.sort(sorted);
+        return String.join(" ", sorted);
+    }
+
+    /**
+     * Walks up from every employee. Reaching an employee already on the
+     * current walk closes a cycle, which is recorded and broken by making
+     * that employee a root. Each employee is walked over once.
+     */
+    private void breakCycles() {
+        int n = employees.length;
+        int[] walk = new int[n]; // 0 unvisited, otherwise the number of the walk that visited it
+        for (int start = 0; start < n; start++) {
+            int walkNumber = start + 1;
+            int i = start;
+            while (i >= 0 && walk[i] == 0) {
+                walk[i] = walkNumber;
+                i = parent[i];
+            }
+            if (i >= 0 && walk[i] == walkNumber) {
+                List<String> cycle = new ArrayList<>();
+                int member = i;
+                do {
+                    cycle.add(employees[member].getEmployeeNumber());
+                    member = parent[member];
+                } while (member != i);
+                cycles.add(cycle);
+                parent[i] = -1;
+            }
+        }
+    }
+
+    private int[] postOrder() {
+        int n = employees.length;
+        int[] order = new int[n];
+        int size = 0;
+        int[] stack = new int[n];
+        int[] nextChild = new int[n];
+        for (int root = 0; root < n; root++) {
+            if (parent[root] >= 0) {
+                continue;
+            }
+            int depth = 0;
+            stack[0] = root;
+            nextChild[root] = childStart[root];
+            while (depth >= 0) {
+                int node = stack[depth];
+                if (nextChild[node] < childStart[node + 1]) {
+                    int child = childIndex[nextChild[node]++];
+                    nextChild[child] = childStart[child];
+                    stack[++depth] = child;
+                } else {
+                    order[size++] = node;
+                    depth--;
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Totals computed results over every subtree in one post-order pass.
+     * An employee's several results, e.g. both halves of a month, are summed.
+     * @param results Results of any periods; those of unknown employees are counted and skipped
+     */
+    public Rollup rollup(Collection<PeriodResult> results) {
+        if (results == null) {
+            throw new IllegalArgumentException("Results cannot be null");
+        }
+        int n = employees.length;
+        Rollup rollup = new Rollup(n);
+        for (PeriodResult result : results) {
+            Integer i = indexById.get(result.getEmployeeId());
+            if (i == null) {
+                rollup.unknownResults++;
+                continue;
+            }
+            if (rollup.ownResults[i]++ == 0) {
+                rollup.headcount[i] = 1;
+            }
+            rollup.gross[i] += result.getGross();
+            rollup.deductions[i] += result.getTotalDeductions();
+            rollup.tax[i] += result.getWithholdingTax();
+            rollup.net[i] += result.getNet();
+        }
+        for (int i : postOrder) {
+            int up = parent[i];
+            if (up >= 0) {
+                rollup.headcount[up] += rollup.headcount[i];
+                rollup.gross[up] += rollup.gross[i];
+                rollup.deductions[up] += rollup.deductions[i];
+                rollup.tax[up] += rollup.tax[i];
+                rollup.net[up] += rollup.net[i];
+            }
+        }
+        return rollup;
+    }
+
+    /**
+     * @return The resolved supervisor, or null for roots, orphans and unknown IDs
+     */
+    public Employee supervisorOf(String employeeId) {
+        Integer i = indexById.get(employeeId);
+        return i == null || parent[i] < 0 ? null : employees[parent[i]];
+    }
+
+    /**
+     * @return The employees reporting directly to one employee
+     */
+    public List<Employee> directReports(String employeeId) {
+        Integer i = indexById.get(employeeId);
+        if (i == null) {
+            return List.of();
+        }
+        List<Employee> reports = new ArrayList<>(childStart[i + 1] - childStart[i]);
+        for (int c = childStart[i]; c < childStart[i + 1]; c++) {
+            reports.add(employees[childIndex[c]]);
+        }
+        return reports;
+    }
+
+    /**
+     * @return Employees without a resolved supervisor, including orphans and broken cycles
+     */
+    public List<Employee> roots() {
+        List<Employee> roots = new ArrayList<>();
+        for (int i = 0; i < employees.length; i++) {
+            if (parent[i] < 0) {
+                roots.add(employees[i]);
+            }
+        }
+        return roots;
+    }
+
+    public int size() {
+        return employees.length;
+    }
+
+    // Getters
+    public Map<String, String> getOrphans() { return Collections.unmodifiableMap(orphans); }
+    public List<List<String>> getCycles() { return Collections.unmodifiableList(cycles); }
+
+    /**
+     * One employee's subtree totals.
+     */
+    public static final class TeamCost {
+        private final Employee manager;
+        private final int directReports;
+        private final int headcount;
+        private final double gross;
+        private final double deductions;
+        private final double tax;
+        private final double net;
+
+        TeamCost(Employee manager, int directReports, int headcount, double gross, double deductions,
+                 double tax, double net) {
+            this.manager = manager;
+            this.directReports = directReports;
+            this.headcount = headcount;
+            this.gross = gross;
+            this.deductions = deductions;
+            this.tax = tax;
+            this.net = net;
+        }
+
+        // Getters
+        public Employee getManager() { return manager; }
+        public int getDirectReports() { return directReports; }
+        public int getHeadcount() { return headcount; }
+        public double getGross() { return gross; }
+        public double getDeductions() { return deductions; }
+        public double getTax() { return tax; }
+        public double getNet() { return net; }
+    }
+
+    /**
+     * Subtree totals of every employee, each including the employee's own results.
+     */
+    public final class Rollup {
+        private final int[] ownResults;
+        private final int[] headcount; // Employees in the subtree with at least one result
+        private final double[] gross;
+        private final double[] deductions;
+        private final double[] tax;
+        private final double[] net;
+        private int unknownResults;
+
+        private Rollup(int size) {
+            ownResults = new int[size];
+            headcount = new int[size];
+            gross = new double[size];
+            deductions = new double[size];
+            tax = new double[size];
+            net = new double[size];
+        }
+
+        /**
+         * @return The totals of an employee's subtree, or null for an unknown ID
+         */
+        public TeamCost teamOf(String employeeId) {
+            Integer i = indexById.get(employeeId);
+            return i == null ? null : teamCost(i);
+        }
+
+        /**
+         * @return The totals of every employee with direct reports, highest gross first
+         */
+        public List<TeamCost> managers() {
+            List<TeamCost> managers = new ArrayList<>();
+            for (int i = 0; i < employees.length; i++) {
+                if (childStart[i + 1] > childStart[i]) {
+                    managers.add(teamCost(i));
+                }
+            }
+            managers.sort((a, b) -> Double.compare(b.getGross(), a.getGross()));
+            return managers;
+        }
+
+        private TeamCost teamCost(int i) {
+            return new TeamCost(employees[i], childStart[i + 1] - childStart[i], headcount[i],
+                gross[i], deductions[i], tax[i], net[i]);
+        }
+
+        public int getUnknownResults() { return unknownResults; }
+    }
+}
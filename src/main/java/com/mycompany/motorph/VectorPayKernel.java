@@ -0,0 +1,105 @@
+package com.mycompany.motorph;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link PayKernel} using the incubating Vector API. Only loaded by
+ * {@link PayKernel#select()} after checking the module is present, so the
+ * application still runs without {@code --add-modules jdk.incubator.vector}.
+ *
+ * Integer columns are loaded at half the double vector width so one int
+ * vector widens into exactly one double vector. Tails are finished with the
+ * same arithmetic as {@link ScalarPayKernel}, so both kernels give identical values.
+ */
+public class VectorPayKernel implements PayKernel {
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS_WIDE = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS_HALF =
+        VectorSpecies.of(int.class, VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+    private static final int SECONDS_PER_DAY = 24 * 60 * 60;
+    private static final double ROUNDING_BIAS = 0x1.8p52; // Adding and removing it rounds to an integer
+
+    @Override
+    public void workedSeconds(int[] timeIn, int[] timeOut, int[] seconds, int length) {
+        int bound = INTS_WIDE.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += INTS_WIDE.length()) {
+            IntVector worked = IntVector.fromArray(INTS_WIDE, timeOut, i)
+                .sub(IntVector.fromArray(INTS_WIDE, timeIn, i));
+            VectorMask<Integer> overnight = worked.compare(VectorOperators.LT, 0);
+            worked.add(SECONDS_PER_DAY, overnight).intoArray(seconds, i);
+        }
+        for (; i < length; i++) {
+            int worked = timeOut[i] - timeIn[i];
+            seconds[i] = worked < 0 ? worked + SECONDS_PER_DAY : worked;
+        }
+    }
+
+    @Override
+    public void splitHours(int[] seconds, double[] regularHours, double[] overtimeHours, int length) {
+        int bound = DOUBLES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += DOUBLES.length()) {
+            DoubleVector worked = (DoubleVector) IntVector.fromArray(INTS_HALF, seconds, i).castShape(DOUBLES, 0);
+            DoubleVector minutes = floorOfSixtieths(worked);
+            DoubleVector wholeHours = floorOfSixtieths(minutes);
+            // Same operations as the scalar kernel from here, so the hours are bit-identical
+            DoubleVector hours = wholeHours.add(minutes.sub(wholeHours.mul(60.0)).div(60.0));
+            hours.min(Grosswage.REGULAR_HOURS_PER_DAY).intoArray(regularHours, i);
+            hours.sub(Grosswage.REGULAR_HOURS_PER_DAY).max(0.0).intoArray(overtimeHours, i);
+        }
+        for (; i < length; i++) {
+            int minutes = seconds[i] / 60;
+            double hours = (minutes / 60) + (minutes % 60) / 60.0;
+            regularHours[i] = Math.min(hours, Grosswage.REGULAR_HOURS_PER_DAY);
+            overtimeHours[i] = Math.max(0, hours - Grosswage.REGULAR_HOURS_PER_DAY);
+        }
+    }
+
+    /**
+     * floor(x / 60) for whole, non-negative x. Vector integer division is not
+     * intrinsified, so this rounds x / 60 - 0.49 to the nearest integer with the
+     * 1.5 * 2^52 trick instead: the fraction of x / 60 is a multiple of 1/60, so
+     * shifting by 0.49 always lands within 0.5 of the floor.
+     */
+    private static DoubleVector floorOfSixtieths(DoubleVector x) {
+        return x.mul(1.0 / 60.0).sub(0.49).add(ROUNDING_BIAS).sub(ROUNDING_BIAS);
+    }
+
+    @Override
+    public void applyRates(double[] regularHours, double[] overtimeHours, double[] rate, double[] overtimeRate,
+                           double[] holidayMultiplier, double[] regularPay, double[] overtimePay,
+                           double[] holidayPay, int length) {
+        int bound = DOUBLES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += DOUBLES.length()) {
+            DoubleVector regular = DoubleVector.fromArray(DOUBLES, regularHours, i);
+            DoubleVector overtime = DoubleVector.fromArray(DOUBLES, overtimeHours, i);
+            DoubleVector hourly = DoubleVector.fromArray(DOUBLES, rate, i);
+            DoubleVector multiplier = DoubleVector.fromArray(DOUBLES, holidayMultiplier, i);
+            DoubleVector premium = multiplier.sub(1.0);
+            DoubleVector regularBase = regular.mul(hourly);
+            DoubleVector overtimeBase = overtime.mul(hourly);
+
+            regularBase.mul(multiplier).intoArray(regularPay, i);
+            overtimeBase.mul(DoubleVector.fromArray(DOUBLES, overtimeRate, i)).intoArray(overtimePay, i);
+            regularBase.mul(premium).add(overtimeBase.mul(premium)).intoArray(holidayPay, i);
+        }
+        for (; i < length; i++) {
+            double premium = holidayMultiplier[i] - 1.0;
+            regularPay[i] = regularHours[i] * rate[i] * holidayMultiplier[i];
+            overtimePay[i] = overtimeHours[i] * rate[i] * overtimeRate[i];
+            holidayPay[i] = regularHours[i] * rate[i] * premium + overtimeHours[i] * rate[i] * premium;
+        }
+    }
+
+    @Override
+    public String name() {
+        return "vector (" + DOUBLES.length() + " double lanes)";
+    }
+}
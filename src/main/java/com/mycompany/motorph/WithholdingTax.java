@@ -15,21 +15,92 @@ public class WithholdingTax extends Calculation {
 
     @Override
     public double calculate() {
+        tax = Brackets.STANDARD.taxFor(taxableIncome, grosswage.getTrace());
+        return tax;
+    }
+
+    /**
+     * Applies the standard tax brackets to a taxable income.
+     * @param taxableIncome The taxable income
+     * @return The tax due
+     */
+    public static double computeTax(double taxableIncome) {
+        return Brackets.STANDARD.taxFor(taxableIncome);
+    }
+
+    /**
+     * Annualises the monthly brackets used by {@link #computeTax(double)}.
+     * @param annualTaxableIncome Taxable income for the whole year
+     * @return The tax due for the year
+     */
+    public static double computeAnnualTax(double annualTaxableIncome) {
+        return computeTax(annualTaxableIncome / 12) * 12;
+    }
+
+    /**
+     * A progressive bracket table: income up to the first threshold is untaxed;
+     * income above threshold {@code i - 1} and up to threshold {@code i} pays
+     * {@code base[i] + (income - threshold[i - 1]) * rate[i]}.
+     */
+    public static final class Brackets {
         // Updated Philippine tax brackets (2024)
-        if (taxableIncome <= 20832) {
-            tax = 0;
-        } else if (taxableIncome <= 33333) {
-            tax = (taxableIncome - 20832) * 0.20;
-        } else if (taxableIncome <= 66667) {
-            tax = 2500 + (taxableIncome - 33333) * 0.25;
-        } else if (taxableIncome <= 166667) {
-            tax = 10833 + (taxableIncome - 66667) * 0.30;
-        } else if (taxableIncome <= 666667) {
-            tax = 40833.33 + (taxableIncome - 166667) * 0.32;
-        } else {
-            tax = 200833.33 + (taxableIncome - 666667) * 0.35;
+        public static final Brackets STANDARD = new Brackets(
+            new double[]{20832, 33333, 66667, 166667, 666667},
+            new double[]{0, 0, 2500, 10833, 40833.33, 200833.33},
+            new double[]{0, 0.20, 0.25, 0.30, 0.32, 0.35});
+
+        private final double[] thresholds;
+        private final double[] base;
+        private final double[] rate;
+
+        public Brackets(double[] thresholds, double[] base, double[] rate) {
+            if (thresholds.length + 1 != base.length || base.length != rate.length) {
+                throw new IllegalArgumentException("Expected one more base and rate than thresholds");
+            }
+            this.thresholds = thresholds.clone();
+            this.base = base.clone();
+            this.rate = rate.clone();
+        }
+
+        public double taxFor(double taxableIncome) {
+            return taxFor(taxableIncome, AuditTrace.DISABLED);
+        }
+
+        /**
+         * As {@link #taxFor(double)}, recording the bracket in the trace.
+         */
+        double taxFor(double taxableIncome, AuditTrace trace) {
+            if (taxableIncome <= thresholds[0]) {
+                if (trace.isEnabled()) {
+                    trace.taxBracket(taxableIncome, 0, thresholds[0], 0, 0, 0);
+                }
+                return 0;
+            }
+            int bracket = 1;
+            while (bracket < thresholds.length && taxableIncome > thresholds[bracket]) {
+                bracket++;
+            }
+            double tax = base[bracket] + (taxableIncome - thresholds[bracket - 1]) * rate[bracket];
+            if (trace.isEnabled()) {
+                trace.taxBracket(taxableIncome, bracket, thresholds[bracket - 1], base[bracket], rate[bracket], tax);
+            }
+            return tax;
+        }
+
+        /**
+         * @return These brackets with every threshold and base amount scaled, e.g. for indexation
+         */
+        public Brackets scaled(double factor) {
+            double[] scaledThresholds = thresholds.clone();
+            double[] scaledBase = base.clone();
+            for (int i = 0; i < scaledThresholds.length; i++) {
+                scaledThresholds[i] *= factor;
+            }
+            for (int i = 0; i < scaledBase.length; i++) {
+                scaledBase[i] *= factor;
+            }
+            return new Brackets(scaledThresholds, scaledBase, rate);
         }
-        return tax;
     }
 
     // Getters
@@ -44,4 +115,4 @@ public class WithholdingTax extends Calculation {
     public Grosswage getGrosswage() {
         return grosswage;
     }
-}
\ No newline at end of file
+}
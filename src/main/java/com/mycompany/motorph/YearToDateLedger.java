@@ -0,0 +1,44 @@
+package com.mycompany.motorph;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Year-to-date rollup of closed pay periods per employee. Each closed period
+ * is folded into the running totals once, so year-end annualisation and tax
+ * true-up read the rollup directly instead of recomputing earlier periods.
+ */
+public class YearToDateLedger {
+    private final Map<String, YearToDateTotals> totals = new HashMap<>();
+
+    /**
+     * Closes a period for an employee, adding it to their running totals.
+     * @param result The finalised figures for the period
+     * @return false if this employee's period was already closed
+     */
+    public synchronized boolean closePeriod(PeriodResult result) {
+        if (result == null) {
+            throw new IllegalArgumentException("Period result cannot be null");
+        }
+        int year = result.getPeriod().getYear();
+        return totals.computeIfAbsent(key(result.getEmployeeId(), year),
+                k -> new YearToDateTotals(result.getEmployeeId(), year))
+            .add(result);
+    }
+
+    /**
+     * @return The totals for the employee and year, or null if nothing was closed
+     */
+    public synchronized YearToDateTotals getTotals(String employeeId, int year) {
+        return totals.get(key(employeeId, year));
+    }
+
+    public synchronized boolean isClosed(String employeeId, PayPeriod period) {
+        YearToDateTotals ytd = totals.get(key(employeeId, period.getYear()));
+        return ytd != null && ytd.isClosed(period);
+    }
+
+    private static String key(String employeeId, int year) {
+        return employeeId + '@' + year;
+    }
+}
@@ -0,0 +1,96 @@
+package com.mycompany.motorph;
+
+/**
+ * Running year-to-date totals for one employee, maintained by
+ * {@link YearToDateLedger} as each pay period is closed.
+ */
+public class YearToDateTotals {
+    private final String employeeId;
+    private final int year;
+
+    private int closedPeriods; // Bit i set when period index i of the year has been closed
+    private double hoursWorked;
+    private double gross;
+    private double sss;
+    private double philhealth;
+    private double pagibig;
+    private double late;
+    private double otherDeductions;
+    private double taxableIncome;
+    private double withholdingTax;
+    private double net;
+
+    YearToDateTotals(String employeeId, int year) {
+        this.employeeId = employeeId;
+        this.year = year;
+    }
+
+    /**
+     * Folds one period into the totals.
+     * @return false if the period had already been closed
+     */
+    boolean add(PeriodResult result) {
+        int bit = 1 << result.getPeriod().indexInYear();
+        if ((closedPeriods & bit) != 0) {
+            return false;
+        }
+        closedPeriods |= bit;
+        hoursWorked += result.getHoursWorked();
+        gross += result.getGross();
+        sss += result.getSss();
+        philhealth += result.getPhilhealth();
+        pagibig += result.getPagibig();
+        late += result.getLate();
+        otherDeductions += result.getOtherDeductions();
+        taxableIncome += result.getTaxableIncome();
+        withholdingTax += result.getWithholdingTax();
+        net += result.getNet();
+        return true;
+    }
+
+    public boolean isClosed(PayPeriod period) {
+        return period.getYear() == year && (closedPeriods & (1 << period.indexInYear())) != 0;
+    }
+
+    public int getPeriodsClosed() {
+        return Integer.bitCount(closedPeriods);
+    }
+
+    /**
+     * Projects the taxable income closed so far onto a full year of 24 periods.
+     */
+    public double getProjectedAnnualTaxableIncome() {
+        int periods = getPeriodsClosed();
+        return periods == 0 ? 0 : taxableIncome / periods * PayPeriod.PERIODS_PER_YEAR;
+    }
+
+    /**
+     * @return Annual tax due on the projected annual taxable income
+     */
+    public double getProjectedAnnualTax() {
+        return WithholdingTax.computeAnnualTax(getProjectedAnnualTaxableIncome());
+    }
+
+    /**
+     * Year-end true-up: annual tax due on the actual year-to-date taxable
+     * income less what was withheld. Positive means under-withheld.
+     */
+    public double getTaxTrueUp() {
+        return WithholdingTax.computeAnnualTax(taxableIncome) - withholdingTax;
+    }
+
+    // Getters
+    public String getEmployeeId() { return employeeId; }
+    public int getYear() { return year; }
+    public double getHoursWorked() { return hoursWorked; }
+    public double getGross() { return gross; }
+    public double getSss() { return sss; }
+    public double getPhilhealth() { return philhealth; }
+    public double getPagibig() { return pagibig; }
+    public double getLate() { return late; }
+    public double getOtherDeductions() { return otherDeductions; }
+    public double getTotalDeductions() { return sss + philhealth + pagibig + late + otherDeductions; }
+    public double getTaxableIncome() { return taxableIncome; }
+    public double getWithholdingTax() { return withholdingTax; }
+    public double getNet() { return net; }
+}